@@ -26,7 +26,6 @@ package com.formkiq.module.actions;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -163,18 +162,17 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
       attrs.put(GSI2_SK, fromS(skGsi2));
     }
 
-    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
     if (this.insertedDate != null) {
-      attrs.put("inserteddate", AttributeValue.fromS(df.format(this.insertedDate)));
+      attrs.put("inserteddate", AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
     }
 
     if (this.completedDate != null) {
-      attrs.put("completedDate", AttributeValue.fromS(df.format(this.completedDate)));
+      attrs.put("completedDate",
+          AttributeValue.fromS(DateUtil.formatIsoDate(this.completedDate)));
     }
 
     if (this.startDate != null) {
-      attrs.put("startDate", AttributeValue.fromS(df.format(this.startDate)));
+      attrs.put("startDate", AttributeValue.fromS(DateUtil.formatIsoDate(this.startDate)));
     }
 
     addS(attrs, "message", this.message);
@@ -191,14 +189,13 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
     return null;
   }
 
-  private Date getDate(final SimpleDateFormat df, final Map<String, AttributeValue> attrs,
-      final String key) {
+  private Date getDate(final Map<String, AttributeValue> attrs, final String key) {
 
     Date date = null;
 
     if (attrs.containsKey(key)) {
       try {
-        date = df.parse(ss(attrs, key));
+        date = DateUtil.parseIsoDate(ss(attrs, key));
       } catch (ParseException e) {
         // ignore
       }
@@ -237,11 +234,9 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
       record.index(attrs.get(SK).s().split(TAG_DELIMINATOR)[1]);
     }
 
-    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
-    record = record.insertedDate(getDate(df, attrs, "inserteddate"));
-    record = record.completedDate(getDate(df, attrs, "completedDate"));
-    record = record.startDate(getDate(df, attrs, "startDate"));
+    record = record.insertedDate(getDate(attrs, "inserteddate"));
+    record = record.completedDate(getDate(attrs, "completedDate"));
+    record = record.startDate(getDate(attrs, "startDate"));
 
     return record;
   }
@@ -412,8 +407,7 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
 
     String sk = null;
     if (this.status.equals(ActionStatus.IN_QUEUE)) {
-      SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-      sk = "action#" + this.documentId + "#" + df.format(new Date());
+      sk = "action#" + this.documentId + "#" + DateUtil.formatIsoDate(new Date());
     }
 
     return sk;
@@ -24,7 +24,6 @@
 package com.formkiq.module.actions;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -169,8 +168,7 @@ public class DocumentWorkflowRecord implements DynamodbRecord<DocumentWorkflowRe
     map.put("currentStepId", AttributeValue.fromS(this.currentStepId));
 
     if (this.insertedDate != null) {
-      SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-      map.put("inserteddate", AttributeValue.fromS(df.format(this.insertedDate)));
+      map.put("inserteddate", AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
     }
 
     map.put(DbKeys.GSI1_PK, AttributeValue.fromS(pkGsi1(siteIdParam)));
@@ -197,8 +195,7 @@ public class DocumentWorkflowRecord implements DynamodbRecord<DocumentWorkflowRe
         .actionSk(ss(attrs, "actionSk")).currentStepId(ss(attrs, "currentStepId"));
 
     try {
-      SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-      record = record.insertedDate(df.parse(ss(attrs, "inserteddate")));
+      record = record.insertedDate(DateUtil.parseIsoDate(ss(attrs, "inserteddate")));
     } catch (ParseException e) {
       throw new IllegalArgumentException("invalid 'inserteddate'");
     }
@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.DynamodbRecordCodec;
 import com.formkiq.aws.dynamodb.AttributeValuesToWriteRequests;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
@@ -154,8 +155,8 @@ public final class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     List<Map<String, AttributeValue>> keys = response.items().stream()
         .map(i -> Map.of(PK, i.get(PK), SK, i.get(SK))).collect(Collectors.toList());
 
-    List<Action> list = this.db.getBatch(batchConfig, keys).stream()
-        .map(a -> new Action().getFromAttributes(siteId, a)).collect(Collectors.toList());
+    List<Action> list = DynamodbRecordCodec.of(Action.class, Action::new).decodeAll(siteId,
+        this.db.getBatch(batchConfig, keys));
 
     PaginationMapToken pagination = new QueryResponseToPagination().apply(response);
     return new PaginationResults<>(list, pagination);
@@ -262,8 +263,8 @@ public final class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     QueryResponse response = this.dbClient.query(q.build());
 
     List<Action> actions =
-        response.items().stream().map(a -> new Action().getFromAttributes(siteId, a))
-            .sorted(new ActionIndexComparator()).collect(Collectors.toList());
+        DynamodbRecordCodec.of(Action.class, Action::new).decodeAll(siteId, response.items());
+    actions.sort(new ActionIndexComparator());
 
     PaginationMapToken pagination = new QueryResponseToPagination().apply(response);
     return new PaginationResults<>(actions, pagination);
@@ -0,0 +1,108 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared DynamoDb attribute names. Every item returned by the SDK carries its own copy of each
+ * attribute name, interning them lets decoded maps, and the search results cached from them, share
+ * one {@link String} per name. The number of cached names is bounded, names past the limit (ie:
+ * user defined metadata keys) are returned as is.
+ */
+public final class AttributeNames {
+
+  /** Maximum number of cached names. */
+  private static final int MAX_NAMES = 4096;
+  /** Attribute name prefix of document metadata. */
+  private static final String METADATA_PREFIX = "fk#";
+  /** Interned names. */
+  private static final Map<String, String> NAMES = new ConcurrentHashMap<>();
+  /** Response key by attribute name. */
+  private static final Map<String, String> RESPONSE_KEYS = new ConcurrentHashMap<>();
+
+  /** private constructor. */
+  private AttributeNames() {}
+
+  /**
+   * Get cached value or compute it when the cache is not full.
+   * 
+   * @param cache {@link Map}
+   * @param name {@link String}
+   * @param value {@link String}
+   * @return {@link String}
+   */
+  private static String cache(final Map<String, String> cache, final String name,
+      final String value) {
+
+    String result = value;
+
+    if (cache.size() < MAX_NAMES) {
+      String previous = cache.putIfAbsent(name, value);
+      if (previous != null) {
+        result = previous;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Get the shared instance of an attribute name.
+   * 
+   * @param name {@link String}
+   * @return {@link String}
+   */
+  public static String intern(final String name) {
+    String value = NAMES.get(name);
+    return value != null ? value : cache(NAMES, name, name);
+  }
+
+  /**
+   * Get the API response key of an attribute name, "inserteddate" is returned as "insertedDate" and
+   * the "fk#" document metadata prefix is removed.
+   * 
+   * @param name {@link String}
+   * @return {@link String}
+   */
+  public static String toResponseKey(final String name) {
+
+    String value = RESPONSE_KEYS.get(name);
+
+    if (value == null) {
+
+      String key = name;
+      if ("inserteddate".equals(name)) {
+        key = "insertedDate";
+      } else if (name.startsWith(METADATA_PREFIX)) {
+        key = name.substring(METADATA_PREFIX.length());
+      }
+
+      value = cache(RESPONSE_KEYS, name, intern(key));
+    }
+
+    return value;
+  }
+}
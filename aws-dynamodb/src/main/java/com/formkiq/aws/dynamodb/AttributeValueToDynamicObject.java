@@ -23,7 +23,6 @@
  */
 package com.formkiq.aws.dynamodb;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -40,22 +39,24 @@ public class AttributeValueToDynamicObject
   @Override
   public DynamicObject apply(final Map<String, AttributeValue> map) {
 
-    DynamicObject o = new DynamicObject(new HashMap<>());
+    DynamicObject o = new DynamicObject(map.size());
 
     for (Map.Entry<String, AttributeValue> e : map.entrySet()) {
 
+      String key = AttributeNames.intern(e.getKey());
+
       if (e.getValue().hasL()) {
 
         List<String> values =
             e.getValue().l().stream().map(s -> s.s()).collect(Collectors.toList());
-        o.put(e.getKey(), values);
+        o.put(key, values);
 
       } else {
 
         String s = e.getValue().s();
         String n = e.getValue().n();
         String v = s == null && n != null ? n : s;
-        o.put(e.getKey(), v);
+        o.put(key, v);
       }
     }
 
@@ -23,11 +23,11 @@
  */
 package com.formkiq.aws.dynamodb;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import static com.formkiq.aws.dynamodb.objects.Objects.newHashMap;
 import static com.formkiq.aws.dynamodb.objects.Objects.notNull;
 
 /**
@@ -40,12 +40,12 @@ public class AttributeValueToMap
   @Override
   public Map<String, Object> apply(final Map<String, AttributeValue> map) {
 
-    Map<String, Object> result = new HashMap<>();
+    Map<String, Object> result = newHashMap(map != null ? map.size() : 0);
 
     if (map != null) {
       for (Map.Entry<String, AttributeValue> e : notNull(map.entrySet())) {
 
-        String key = getKey(e.getKey());
+        String key = AttributeNames.toResponseKey(e.getKey());
 
         Object obj = convert(e.getValue());
         result.put(key, obj);
@@ -69,17 +69,4 @@ public class AttributeValueToMap
 
     return obj;
   }
-
-  private String getKey(final String key) {
-
-    String k = key;
-    if ("inserteddate".equals(key)) {
-      k = "insertedDate";
-    } else if (k.startsWith("fk#")) {
-      final int pos = 3;
-      k = k.substring(pos);
-    }
-
-    return k;
-  }
 }
@@ -39,6 +39,17 @@ public class DynamicObject extends HashMap<String, Object> {
 
   /** serialVersionUID. */
   private static final long serialVersionUID = 7039782531693529636L;
+  /** {@link HashMap} default load factor. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /**
+   * constructor, sized to hold the expected number of entries without resizing.
+   * 
+   * @param expectedSize int
+   */
+  public DynamicObject(final int expectedSize) {
+    super((int) Math.ceil(expectedSize / LOAD_FACTOR));
+  }
 
   /**
    * constructor.
@@ -23,6 +23,7 @@
  */
 package com.formkiq.aws.dynamodb;
 
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetricsInterceptor;
 import java.net.URI;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
@@ -52,7 +53,8 @@ public class DynamoDbConnectionBuilder {
   public DynamoDbConnectionBuilder(final boolean enableAwsXray) {
     System.setProperty("software.amazon.awssdk.http.service.impl",
         "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
-    Builder clientConfig = ClientOverrideConfiguration.builder();
+    Builder clientConfig = ClientOverrideConfiguration.builder()
+        .addExecutionInterceptor(new AwsCallMetricsInterceptor(true));
 
     // if (enableAwsXray) {
     // clientConfig.addExecutionInterceptor(new TracingInterceptor());
@@ -0,0 +1,101 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Cached per {@link DynamodbRecord} type decoder. Query pages are decoded through a single shared
+ * record of each type, instead of creating a throw away record for every item, into a list sized
+ * to the page.
+ *
+ * @param <T> Type of {@link DynamodbRecord}
+ */
+public final class DynamodbRecordCodec<T extends DynamodbRecord<T>> {
+
+  /** {@link DynamodbRecordCodec} by {@link DynamodbRecord} {@link Class}. */
+  private static final Map<Class<?>, DynamodbRecordCodec<?>> CODECS = new ConcurrentHashMap<>();
+
+  /** Record used to call {@link DynamodbRecord#getFromAttributes(String, Map)}, never modified. */
+  private final T prototype;
+
+  /**
+   * constructor.
+   * 
+   * @param record {@link DynamodbRecord}
+   */
+  private DynamodbRecordCodec(final T record) {
+    this.prototype = record;
+  }
+
+  /**
+   * Get the cached {@link DynamodbRecordCodec} for a {@link DynamodbRecord} type.
+   * 
+   * @param <T> Type of {@link DynamodbRecord}
+   * @param type {@link Class}
+   * @param factory {@link Supplier} creating an empty record, called once per type
+   * @return {@link DynamodbRecordCodec}
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends DynamodbRecord<T>> DynamodbRecordCodec<T> of(final Class<T> type,
+      final Supplier<T> factory) {
+    return (DynamodbRecordCodec<T>) CODECS.computeIfAbsent(type,
+        t -> new DynamodbRecordCodec<>(factory.get()));
+  }
+
+  /**
+   * Decode {@link Map} {@link AttributeValue} to {@link DynamodbRecord}.
+   * 
+   * @param siteId {@link String}
+   * @param attrs {@link Map} {@link AttributeValue}
+   * @return T
+   */
+  public T decode(final String siteId, final Map<String, AttributeValue> attrs) {
+    return this.prototype.getFromAttributes(siteId, attrs);
+  }
+
+  /**
+   * Decode {@link Collection} of {@link Map} {@link AttributeValue} to {@link DynamodbRecord}.
+   * 
+   * @param siteId {@link String}
+   * @param items {@link Collection} {@link Map} {@link AttributeValue}
+   * @return {@link List}
+   */
+  public List<T> decodeAll(final String siteId,
+      final Collection<Map<String, AttributeValue>> items) {
+
+    List<T> list = new ArrayList<>(items.size());
+    for (Map<String, AttributeValue> item : items) {
+      list.add(decode(siteId, item));
+    }
+
+    return list;
+  }
+}
@@ -23,11 +23,12 @@
  */
 package com.formkiq.aws.dynamodb;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import static com.formkiq.aws.dynamodb.objects.Objects.newHashMap;
+
 /**
  * Convert {@link DynamodbRecord} to {@link Map}.
  */
@@ -38,7 +39,7 @@ public class DynamodbRecordToMap implements Function<DynamodbRecord<?>, Map<Stri
 
     Map<String, AttributeValue> data = r.getDataAttributes();
 
-    Map<String, Object> m = new HashMap<>(data.size());
+    Map<String, Object> m = newHashMap(data.size());
 
     for (Map.Entry<String, AttributeValue> e : data.entrySet()) {
 
@@ -41,6 +41,15 @@ public class DynamicDocumentItem extends DynamicObject implements DocumentItem {
   /** serialVersionUID. */
   private static final long serialVersionUID = -2266479553745251309L;
 
+  /**
+   * constructor, sized to hold the expected number of entries without resizing.
+   * 
+   * @param expectedSize int
+   */
+  public DynamicDocumentItem(final int expectedSize) {
+    super(expectedSize);
+  }
+
   /**
    * constructor.
    * 
@@ -23,15 +23,18 @@
  */
 package com.formkiq.aws.dynamodb.objects;
 
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoField;
 import java.time.zone.ZoneRulesException;
 import java.util.Date;
@@ -44,6 +47,11 @@ public final class DateUtil {
   public static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ssZ";
   /** Date Form yyyy-mm-dd. */
   public static final String DATE_FORMAT_YYYY_MM_DD = "yyyy-MM-dd";
+  /** ISO Standard format {@link DateTimeFormatter}, formats in UTC. */
+  private static final DateTimeFormatter ISO_DATE_FORMATTER =
+      DateTimeFormatter.ofPattern(DATE_FORMAT).withZone(ZoneOffset.UTC);
+  /** ISO Standard format {@link DateTimeFormatter}, parses using the offset in the text. */
+  private static final DateTimeFormatter ISO_DATE_PARSER = DateTimeFormatter.ofPattern(DATE_FORMAT);
 
   /**
    * Formats TZ String to start with '+' or '-'.
@@ -84,6 +92,40 @@ public final class DateUtil {
     return df;
   }
 
+  /**
+   * Format {@link Date} in the ISO Standard format, the same as {@link #getIsoDateFormatter()}.
+   * Uses a shared thread safe {@link DateTimeFormatter} instead of creating a
+   * {@link SimpleDateFormat} for every DynamoDb record encoded.
+   * 
+   * @param date {@link Date}
+   * @return {@link String}
+   */
+  public static String formatIsoDate(final Date date) {
+    return ISO_DATE_FORMATTER.format(date.toInstant());
+  }
+
+  /**
+   * Parse ISO Standard format {@link String} to {@link Date}. Text the strict
+   * {@link DateTimeFormatter} does not accept falls back to the lenient
+   * {@link #getIsoDateFormatter()}, so previously stored values still parse.
+   * 
+   * @param date {@link String}
+   * @return {@link Date}
+   * @throws ParseException ParseException
+   */
+  public static Date parseIsoDate(final String date) throws ParseException {
+
+    Date result;
+
+    try {
+      result = Date.from(OffsetDateTime.parse(date, ISO_DATE_PARSER).toInstant());
+    } catch (DateTimeParseException e) {
+      result = getIsoDateFormatter().parse(date);
+    }
+
+    return result;
+  }
+
   /**
    * String to ISO Standard format.
    * 
@@ -26,6 +26,7 @@ package com.formkiq.aws.dynamodb.objects;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -85,6 +86,19 @@ public class Objects {
     return String.format(format, Integer.valueOf(val));
   }
 
+  /**
+   * Create a {@link HashMap} sized to hold the expected number of entries without resizing.
+   * 
+   * @param <K> Type of key
+   * @param <V> Type of value
+   * @param expectedSize int
+   * @return {@link Map}
+   */
+  public static <K, V> Map<K, V> newHashMap(final int expectedSize) {
+    final float loadFactor = 0.75f;
+    return new HashMap<>((int) Math.ceil(expectedSize / loadFactor));
+  }
+
   /**
    * Is {@link Collection} empty.
    * 
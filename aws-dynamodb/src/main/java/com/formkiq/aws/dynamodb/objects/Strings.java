@@ -31,12 +31,9 @@ import java.security.SecureRandom;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * 
@@ -46,6 +43,8 @@ import java.util.stream.Collectors;
 public class Strings {
   /** Scheme Authority. */
   private static final String SCHEME_AUTHORITY = "://";
+  /** Last {@link UrlRoutes} used by findUrlMatch. */
+  private static volatile UrlRoutes urlRoutes;
 
   /**
    * Return text or elseText if the text is empty.
@@ -58,47 +57,28 @@ public class Strings {
     return !isEmpty(text) ? text : elseText;
   }
 
-  private static String findMatch(final Collection<String> resourceUrls,
-      final List<String[]> resourceSplits, final String path) {
-
-    Optional<String> o = resourceUrls.stream().filter(r -> r != null && r.equals(path)).findAny();
-
-    if (o.isEmpty()) {
-
-      String[] s = path.split("/");
-      List<String[]> matches =
-          resourceSplits.stream().filter(r -> r.length == s.length).filter(r -> {
-
-            boolean match = false;
-
-            for (int i = 0; i < r.length; i++) {
-              match = r[i].equals(s[i]) || (r[i].startsWith("{") && r[i].endsWith("}"));
-              if (!match) {
-                break;
-              }
-            }
-
-            return match;
-          }).toList();
-
-      o = matches.size() == 1 ? Optional.of(String.join("/", matches.get(0))) : Optional.empty();
-    }
-
-    return o.orElse(null);
-  }
-
   /**
-   * Find Best Match of {@link String}.
+   * Find Best Match of {@link String}. The {@link UrlRouteTrie} built from the urls is reused while
+   * the same, unchanged, {@link Collection} is passed.
    * 
    * @param strs {@link Collection} {@link String}
    * @param s {@link String}
    * @return {@link String}
    */
   public static String findUrlMatch(final Collection<String> strs, final String s) {
-    List<String[]> resourceSplits =
-        strs.stream().filter(Objects::nonNull).map(r -> r.split("/")).collect(Collectors.toList());
 
-    return findMatch(strs, resourceSplits, s);
+    UrlRoutes cached = urlRoutes;
+    int hash = strs.hashCode();
+
+    if (cached == null || cached.urls() != strs || cached.hash() != hash) {
+      UrlRouteTrie<String> routes = new UrlRouteTrie<>();
+      strs.forEach(r -> routes.add(r, r));
+      cached = new UrlRoutes(strs, hash, routes);
+      urlRoutes = cached;
+    }
+
+    UrlRouteMatch<String> match = cached.routes().match(s);
+    return match != null ? match.getRoute() : null;
   }
 
   /**
@@ -278,4 +258,14 @@ public class Strings {
 
     return input.length() <= maxLength ? input : input.substring(0, maxLength);
   }
+
+  /**
+   * {@link UrlRouteTrie} built from a {@link Collection} of urls.
+   * 
+   * @param urls {@link Collection} {@link String}
+   * @param hash int, hash code of the urls when the trie was built
+   * @param routes {@link UrlRouteTrie}
+   */
+  private record UrlRoutes(Collection<String> urls, int hash, UrlRouteTrie<String> routes) {
+  }
 }
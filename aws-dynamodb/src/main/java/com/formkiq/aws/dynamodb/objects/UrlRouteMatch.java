@@ -0,0 +1,83 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb.objects;
+
+import java.util.Map;
+
+/**
+ * 
+ * Result of matching a path against a {@link UrlRouteTrie}.
+ *
+ * @param <T> Type of route value
+ */
+public class UrlRouteMatch<T> {
+
+  /** Path Parameters. */
+  private final Map<String, String> pathParameters;
+  /** Route template. */
+  private final String route;
+  /** Route value. */
+  private final T value;
+
+  /**
+   * constructor.
+   * 
+   * @param matchRoute {@link String}
+   * @param matchValue T
+   * @param parameters {@link Map}
+   */
+  public UrlRouteMatch(final String matchRoute, final T matchValue,
+      final Map<String, String> parameters) {
+    this.route = matchRoute;
+    this.value = matchValue;
+    this.pathParameters = parameters;
+  }
+
+  /**
+   * Get Path Parameters extracted from the path.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, String> getPathParameters() {
+    return this.pathParameters;
+  }
+
+  /**
+   * Get matched route template, ie: /documents/{documentId}.
+   * 
+   * @return {@link String}
+   */
+  public String getRoute() {
+    return this.route;
+  }
+
+  /**
+   * Get matched route value.
+   * 
+   * @return T
+   */
+  public T getValue() {
+    return this.value;
+  }
+}
@@ -0,0 +1,192 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb.objects;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * Route table of url templates, ie: /documents/{documentId}/content, compiled into a trie of path
+ * segments. Matching walks the path once, comparing segments in place, and only allocates the
+ * path parameter {@link Map} and the parameter values. Literal segments take precedence over
+ * parameter segments.
+ *
+ * @param <T> Type of route value
+ */
+public class UrlRouteTrie<T> {
+
+  /**
+   * Trie Node.
+   *
+   * @param <T> Type of route value
+   */
+  private static final class Node<T> {
+    /** Literal segment edges. */
+    private final List<String> literals = new ArrayList<>();
+    /** Literal segment nodes. */
+    private final List<Node<T>> literalNodes = new ArrayList<>();
+    /** Parameter segment names. */
+    private final List<String> params = new ArrayList<>();
+    /** Parameter segment nodes. */
+    private final List<Node<T>> paramNodes = new ArrayList<>();
+    /** Route template ending at this node. */
+    private String route;
+    /** Route value. */
+    private T value;
+
+    private Node<T> child(final List<String> keys, final List<Node<T>> nodes, final String key) {
+      int pos = keys.indexOf(key);
+      if (pos < 0) {
+        keys.add(key);
+        nodes.add(new Node<>());
+        pos = keys.size() - 1;
+      }
+      return nodes.get(pos);
+    }
+  }
+
+  /** Root {@link Node}. */
+  private final Node<T> root = new Node<>();
+
+  /**
+   * constructor.
+   */
+  public UrlRouteTrie() {}
+
+  /**
+   * Add Route.
+   * 
+   * @param route {@link String}
+   * @param value T
+   * @return {@link UrlRouteTrie}
+   */
+  public UrlRouteTrie<T> add(final String route, final T value) {
+
+    if (route != null) {
+
+      int end = end(route);
+      int start = start(route, end);
+      String[] segments = route.substring(start, end).split("/", -1);
+
+      Node<T> node = this.root;
+
+      for (String segment : segments) {
+
+        if (segment.startsWith("{") && segment.endsWith("}")) {
+          String name = segment.substring(1, segment.length() - 1);
+          node = node.child(node.params, node.paramNodes, name);
+        } else {
+          node = node.child(node.literals, node.literalNodes, segment);
+        }
+      }
+
+      node.route = route;
+      node.value = value;
+    }
+
+    return this;
+  }
+
+  private int end(final String path) {
+    int end = path.length();
+    return end > 1 && path.charAt(end - 1) == '/' ? end - 1 : end;
+  }
+
+  private Node<T> find(final Node<T> node, final String path, final int pos, final int end,
+      final Map<String, String> parameters) {
+
+    Node<T> found = null;
+
+    if (pos > end) {
+      found = node.route != null ? node : null;
+    } else {
+
+      int slash = path.indexOf('/', pos);
+      if (slash < 0 || slash > end) {
+        slash = end;
+      }
+
+      found = findLiteral(node, path, pos, slash, end, parameters);
+
+      for (int i = 0; found == null && i < node.params.size(); i++) {
+        String name = node.params.get(i);
+        parameters.put(name, path.substring(pos, slash));
+
+        found = find(node.paramNodes.get(i), path, slash + 1, end, parameters);
+        if (found == null) {
+          parameters.remove(name);
+        }
+      }
+    }
+
+    return found;
+  }
+
+  private Node<T> findLiteral(final Node<T> node, final String path, final int pos,
+      final int slash, final int end, final Map<String, String> parameters) {
+
+    Node<T> found = null;
+    int len = slash - pos;
+
+    for (int i = 0; found == null && i < node.literals.size(); i++) {
+      String literal = node.literals.get(i);
+
+      if (literal.length() == len && path.regionMatches(pos, literal, 0, len)) {
+        found = find(node.literalNodes.get(i), path, slash + 1, end, parameters);
+      }
+    }
+
+    return found;
+  }
+
+  /**
+   * Match path to a route.
+   * 
+   * @param path {@link String}
+   * @return {@link UrlRouteMatch}, null if no route matches
+   */
+  public UrlRouteMatch<T> match(final String path) {
+
+    UrlRouteMatch<T> match = null;
+
+    if (path != null) {
+      int end = end(path);
+      Map<String, String> parameters = new HashMap<>();
+      Node<T> node = find(this.root, path, start(path, end), end, parameters);
+
+      if (node != null) {
+        match = new UrlRouteMatch<>(node.route, node.value, parameters);
+      }
+    }
+
+    return match;
+  }
+
+  private int start(final String path, final int end) {
+    return end > 0 && path.charAt(0) == '/' ? 1 : 0;
+  }
+}
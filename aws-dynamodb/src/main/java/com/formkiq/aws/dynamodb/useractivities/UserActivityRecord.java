@@ -30,7 +30,6 @@ import com.formkiq.graalvm.annotations.Reflectable;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
@@ -47,8 +46,6 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 @Reflectable
 public class UserActivityRecord implements DynamodbRecord<UserActivityRecord> {
 
-  /** {@link SimpleDateFormat}. */
-  private final SimpleDateFormat df = DateUtil.getIsoDateFormatter();
   /** Document Id. */
   private String documentId;
   /** Record inserted date. */
@@ -152,7 +149,8 @@ public class UserActivityRecord implements DynamodbRecord<UserActivityRecord> {
     map.put("documentId", fromS(this.documentId));
     map.put("type", fromS(this.type.name()));
     map.put("userId", fromS(this.userId));
-    map.put("inserteddate", AttributeValue.fromS(this.df.format(this.insertedDate)));
+    map.put("inserteddate",
+        AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
 
     if (this.versionPk != null) {
       map.put("versionPk", fromS(this.versionPk));
@@ -178,7 +176,7 @@ public class UserActivityRecord implements DynamodbRecord<UserActivityRecord> {
 
       String date = ss(attrs, "inserteddate");
       try {
-        record = record.setInsertedDate(this.df.parse(date));
+        record = record.setInsertedDate(DateUtil.parseIsoDate(date));
       } catch (ParseException e) {
         throw new IllegalArgumentException("invalid inserteddate '" + date + "'");
       }
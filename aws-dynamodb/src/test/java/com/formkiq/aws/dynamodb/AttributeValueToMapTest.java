@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Unit Test for {@link AttributeValueToMap}.
@@ -56,4 +57,26 @@ public class AttributeValueToMapTest {
     assertEquals("38", result.get("contentLength").toString());
     assertEquals("[123, 444]", result.get("ids").toString());
   }
+
+  @Test
+  void testApply02() {
+    // given
+    Map<String, AttributeValue> map = Map.of("inserteddate",
+        AttributeValue.fromS("2020-01-28T17:31:45+0000"), "fk#category",
+        AttributeValue.fromS("invoice"));
+
+    // when
+    Map<String, Object> result0 = av.apply(map);
+    Map<String, Object> result1 = av.apply(map);
+
+    // then
+    assertEquals(2, result0.size());
+    assertEquals("2020-01-28T17:31:45+0000", result0.get("insertedDate"));
+    assertEquals("invoice", result0.get("category"));
+    assertSame(findKey(result0, "category"), findKey(result1, "category"));
+  }
+
+  private String findKey(final Map<String, Object> map, final String key) {
+    return map.keySet().stream().filter(key::equals).findFirst().orElse(null);
+  }
 }
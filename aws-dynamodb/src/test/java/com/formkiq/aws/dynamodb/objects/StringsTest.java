@@ -25,8 +25,10 @@ package com.formkiq.aws.dynamodb.objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -100,6 +102,22 @@ class StringsTest {
     assertEquals("/documents", result2);
   }
 
+  @Test
+  void testFindUrlMatch02() {
+    // given
+    List<String> strs = new ArrayList<>(List.of("/documents", "/documents/{documentId}"));
+    assertNull(Strings.findUrlMatch(strs, "/documents/123/content"));
+
+    // when
+    strs.add("/documents/{documentId}/content");
+    String result = Strings.findUrlMatch(strs, "/documents/123/content");
+
+    // then
+    assertEquals("/documents/{documentId}/content", result);
+    assertEquals("/documents/{documentId}",
+        Strings.findUrlMatch(List.of("/documents/{documentId}"), "/documents/123"));
+  }
+
   @Test
   void testIsEmptyOrHasValues01() {
     assertTrue(Strings.isEmptyOrHasValues("asd", "asd"));
@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test {@link UrlRouteTrie}.
+ *
+ */
+class UrlRouteTrieTest {
+
+  /**
+   * Create {@link UrlRouteTrie}.
+   * 
+   * @return {@link UrlRouteTrie}
+   */
+  private UrlRouteTrie<String> createRoutes() {
+    UrlRouteTrie<String> routes = new UrlRouteTrie<>();
+    for (String url : new String[] {"/", "/documents", "/documents/{documentId}",
+        "/documents/{documentId}/content", "/documents/upload", "/documents/{documentId}/tags",
+        "/documents/{documentId}/tags/{tagKey}", "/search/facets/{key}", "/sites/{siteId}/x",
+        "/sites/{id}/y"}) {
+      routes.add(url, url);
+    }
+    return routes;
+  }
+
+  @Test
+  void testMatch01() {
+    // given
+    UrlRouteTrie<String> routes = createRoutes();
+
+    // when
+    UrlRouteMatch<String> m0 = routes.match("/documents");
+    UrlRouteMatch<String> m1 = routes.match("/documents/123");
+    UrlRouteMatch<String> m2 = routes.match("/documents/123/tags/category");
+    UrlRouteMatch<String> m3 = routes.match("/documents/123/content/");
+    UrlRouteMatch<String> m4 = routes.match("/");
+
+    // then
+    assertEquals("/documents", m0.getRoute());
+    assertTrue(m0.getPathParameters().isEmpty());
+    assertEquals("/documents/{documentId}", m1.getRoute());
+    assertEquals(Map.of("documentId", "123"), m1.getPathParameters());
+    assertEquals("/documents/{documentId}/tags/{tagKey}", m2.getValue());
+    assertEquals(Map.of("documentId", "123", "tagKey", "category"), m2.getPathParameters());
+    assertEquals("/documents/{documentId}/content", m3.getRoute());
+    assertEquals("/", m4.getRoute());
+  }
+
+  @Test
+  void testMatch02() {
+    // given
+    UrlRouteTrie<String> routes = createRoutes();
+
+    // when
+    UrlRouteMatch<String> m0 = routes.match("/documents/upload");
+    UrlRouteMatch<String> m1 = routes.match("/documents/upload/tags");
+    UrlRouteMatch<String> m2 = routes.match("/sites/abc/y");
+
+    // then
+    assertEquals("/documents/upload", m0.getRoute());
+    assertTrue(m0.getPathParameters().isEmpty());
+    assertEquals("/documents/{documentId}/tags", m1.getRoute());
+    assertEquals(Map.of("documentId", "upload"), m1.getPathParameters());
+    assertEquals("/sites/{id}/y", m2.getRoute());
+    assertEquals(Map.of("id", "abc"), m2.getPathParameters());
+  }
+
+  @Test
+  void testMatch03() {
+    // given
+    UrlRouteTrie<String> routes = createRoutes();
+
+    // when / then
+    assertNull(routes.match("/unknown"));
+    assertNull(routes.match("/documents/123/other"));
+    assertNull(routes.match("/search/facets"));
+    assertNull(routes.match(null));
+  }
+}
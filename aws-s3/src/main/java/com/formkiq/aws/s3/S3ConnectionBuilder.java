@@ -23,6 +23,7 @@
  */
 package com.formkiq.aws.s3;
 
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetricsInterceptor;
 import java.net.URI;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
@@ -57,7 +58,8 @@ public class S3ConnectionBuilder {
         "software.amazon.awssdk.http.urlconnection.UrlConnectionSdkHttpService");
     System.setProperty("aws.s3UseUsEast1RegionalEndpoint", "regional");
 
-    ClientOverrideConfiguration.Builder clientConfig = ClientOverrideConfiguration.builder();
+    ClientOverrideConfiguration.Builder clientConfig = ClientOverrideConfiguration.builder()
+        .addExecutionInterceptor(new AwsCallMetricsInterceptor(false));
 
     // if (enableAwsXray) {
     // clientConfig.addExecutionInterceptor(new TracingInterceptor());
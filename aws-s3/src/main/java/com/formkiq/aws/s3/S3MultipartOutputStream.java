@@ -0,0 +1,227 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 
+ * {@link OutputStream} that writes to an S3 Object using {@link S3MultipartUploader}. Data is
+ * buffered until a part is large enough to be uploaded, so memory use is bounded by the part size
+ * regardless of the size of the object.
+ * 
+ * A long running write can be stopped with {@link #suspend()}, which keeps the multipart upload
+ * open, and continued later, possibly in another process, using
+ * {@link #resume(S3MultipartUploader, String, String, String, byte[])}.
+ *
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+  /** Minimum S3 part size of a non-final part. */
+  public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+  /** Part buffer. */
+  private final ByteArrayOutputStream buffer;
+  /** Is closed. */
+  private boolean closed;
+  /** Is the upload completed or aborted. */
+  private boolean finished;
+  /** Part size. */
+  private final int partSize;
+  /** Multipart Upload Id. */
+  private final String uploadId;
+  /** {@link S3MultipartUploader}. */
+  private final S3MultipartUploader uploader;
+
+  /**
+   * constructor.
+   * 
+   * @param multipartUploader {@link S3MultipartUploader}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   */
+  public S3MultipartOutputStream(final S3MultipartUploader multipartUploader, final String bucket,
+      final String key) {
+    this(multipartUploader, bucket, key, MIN_PART_SIZE);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param multipartUploader {@link S3MultipartUploader}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param uploadPartSize int, minimum 5MB
+   */
+  public S3MultipartOutputStream(final S3MultipartUploader multipartUploader, final String bucket,
+      final String key, final int uploadPartSize) {
+    this(multipartUploader, bucket, key, null, uploadPartSize);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param multipartUploader {@link S3MultipartUploader}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param contentType {@link String}
+   * @param uploadPartSize int, minimum 5MB
+   */
+  public S3MultipartOutputStream(final S3MultipartUploader multipartUploader, final String bucket,
+      final String key, final String contentType, final int uploadPartSize) {
+
+    if (uploadPartSize < MIN_PART_SIZE) {
+      throw new IllegalArgumentException("'uploadPartSize' must be at least " + MIN_PART_SIZE);
+    }
+
+    this.uploader = multipartUploader;
+    this.partSize = uploadPartSize;
+    this.buffer = new ByteArrayOutputStream(uploadPartSize);
+    this.uploadId = multipartUploader.initializeUpload(bucket, key, contentType);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param multipartUploader {@link S3MultipartUploader}
+   * @param multipartUploadId {@link String}
+   * @param pending byte[], data written before the upload was suspended
+   */
+  private S3MultipartOutputStream(final S3MultipartUploader multipartUploader,
+      final String multipartUploadId, final byte[] pending) {
+    this.uploader = multipartUploader;
+    this.partSize = MIN_PART_SIZE;
+    this.buffer = new ByteArrayOutputStream(MIN_PART_SIZE);
+    this.uploadId = multipartUploadId;
+    this.buffer.writeBytes(pending);
+  }
+
+  /**
+   * Resume a multipart upload stopped using {@link #suspend()}.
+   * 
+   * @param multipartUploader {@link S3MultipartUploader}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param uploadId {@link String}
+   * @param pending byte[], the data returned by {@link #suspend()}
+   * @return {@link S3MultipartOutputStream}
+   */
+  public static S3MultipartOutputStream resume(final S3MultipartUploader multipartUploader,
+      final String bucket, final String key, final String uploadId, final byte[] pending) {
+    multipartUploader.resumeUpload(bucket, key, uploadId);
+    return new S3MultipartOutputStream(multipartUploader, uploadId, pending);
+  }
+
+  /**
+   * Abort the upload, including a suspended upload, no S3 Object is created.
+   */
+  public void abort() {
+    if (!this.finished) {
+      this.closed = true;
+      this.finished = true;
+      this.uploader.abortMultipartUpload(this.uploadId);
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("stream is closed");
+    }
+  }
+
+  /**
+   * Uploads the remaining data as the final part and completes the upload.
+   */
+  @Override
+  public void close() throws IOException {
+    if (!this.closed) {
+
+      // an upload needs at least one part, but an empty final part is not needed
+      if (this.buffer.size() > 0 || !this.uploader.hasCompletedParts(this.uploadId)) {
+        uploadPart();
+      }
+
+      this.closed = true;
+      this.uploader.completeUpload(this.uploadId);
+      this.finished = true;
+    }
+  }
+
+  /**
+   * Get Multipart Upload Id.
+   * 
+   * @return {@link String}
+   */
+  public String getUploadId() {
+    return this.uploadId;
+  }
+
+  /**
+   * Stop writing without completing or aborting the multipart upload. Data smaller than a part
+   * is not uploaded and is returned, it must be passed to
+   * {@link #resume(S3MultipartUploader, String, String, String, byte[])} to continue the upload.
+   * 
+   * @return byte[]
+   * @throws IOException IOException
+   */
+  public byte[] suspend() throws IOException {
+    checkOpen();
+    this.closed = true;
+    return this.buffer.toByteArray();
+  }
+
+  private void uploadPart() {
+    try {
+      this.uploader.uploadChunk(this.uploadId, this.buffer.toByteArray());
+      this.buffer.reset();
+    } catch (RuntimeException e) {
+      // S3MultipartUploader aborts the upload on failure
+      this.closed = true;
+      this.finished = true;
+      throw e;
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    checkOpen();
+    this.buffer.write(b, off, len);
+
+    if (this.buffer.size() >= this.partSize) {
+      uploadPart();
+    }
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkOpen();
+    this.buffer.write(b);
+
+    if (this.buffer.size() >= this.partSize) {
+      uploadPart();
+    }
+  }
+}
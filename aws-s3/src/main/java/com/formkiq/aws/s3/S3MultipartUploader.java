@@ -33,9 +33,11 @@ import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
 import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.ArrayList;
 
 /**
@@ -49,15 +51,15 @@ public class S3MultipartUploader {
   /**
    * Maps uploadId to its uploaded parts.
    */
-  private final HashMap<String, Collection<CompletedPart>> uploadIdCompletedParts;
+  private final Map<String, Collection<CompletedPart>> uploadIdCompletedParts;
   /**
    * Maps uploadId to its request metadata (bucket, object key etc.).
    */
-  private final HashMap<String, CreateMultipartUploadResponse> uploadIdMetadata;
+  private final Map<String, CreateMultipartUploadResponse> uploadIdMetadata;
   /**
    * Maps uploadId to its recently uploaded part number.
    */
-  private final HashMap<String, Integer> uploadIdPartNumber;
+  private final Map<String, Integer> uploadIdPartNumber;
 
   /**
    * constructor.
@@ -66,9 +68,20 @@ public class S3MultipartUploader {
    */
   public S3MultipartUploader(final S3ConnectionBuilder builder) {
     this.s3 = builder.build();
-    this.uploadIdCompletedParts = new HashMap<>();
-    this.uploadIdMetadata = new HashMap<>();
-    this.uploadIdPartNumber = new HashMap<>();
+    this.uploadIdCompletedParts = new ConcurrentHashMap<>();
+    this.uploadIdMetadata = new ConcurrentHashMap<>();
+    this.uploadIdPartNumber = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Whether any part of a Multipart upload has been uploaded.
+   * 
+   * @param uploadId {@link String}
+   * @return boolean
+   */
+  public boolean hasCompletedParts(final String uploadId) {
+    Collection<CompletedPart> parts = this.uploadIdCompletedParts.get(uploadId);
+    return parts != null && !parts.isEmpty();
   }
 
   /**
@@ -79,8 +92,21 @@ public class S3MultipartUploader {
    * @return {@link String}
    */
   public String initializeUpload(final String bucket, final String key) {
-    CreateMultipartUploadRequest uploadRequest =
-        CreateMultipartUploadRequest.builder().bucket(bucket).key(key).build();
+    return initializeUpload(bucket, key, null);
+  }
+
+  /**
+   * Initialize Multipart upload.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param contentType {@link String}
+   * @return {@link String}
+   */
+  public String initializeUpload(final String bucket, final String key,
+      final String contentType) {
+    CreateMultipartUploadRequest uploadRequest = CreateMultipartUploadRequest.builder()
+        .bucket(bucket).key(key).contentType(contentType).build();
     final CreateMultipartUploadResponse uploadMetadata =
         this.s3.createMultipartUpload(uploadRequest);
     final String uploadId = uploadMetadata.uploadId();
@@ -90,6 +116,32 @@ public class S3MultipartUploader {
     return uploadId;
   }
 
+  /**
+   * Resume a Multipart upload started by another {@link S3MultipartUploader}, loading the parts
+   * already uploaded so new chunks continue from the next part number.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param uploadId {@link String}
+   */
+  public void resumeUpload(final String bucket, final String key, final String uploadId) {
+
+    ListPartsRequest request =
+        ListPartsRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build();
+
+    Collection<CompletedPart> parts = new ArrayList<>();
+    this.s3.listPartsPaginator(request).parts().forEach(p -> parts
+        .add(CompletedPart.builder().partNumber(p.partNumber()).eTag(p.eTag()).build()));
+
+    int partNumber =
+        parts.stream().mapToInt(p -> p.partNumber().intValue()).max().orElse(0) + 1;
+
+    this.uploadIdMetadata.put(uploadId, CreateMultipartUploadResponse.builder().bucket(bucket)
+        .key(key).uploadId(uploadId).build());
+    this.uploadIdCompletedParts.put(uploadId, parts);
+    this.uploadIdPartNumber.put(uploadId, Integer.valueOf(partNumber));
+  }
+
   /**
    * Upload Chunk.
    * 
@@ -136,6 +188,7 @@ public class S3MultipartUploader {
         CompleteMultipartUploadRequest.builder().bucket(bucketName).key(objectKey)
             .uploadId(uploadId).multipartUpload(completedMultipartUpload).build();
     this.s3.completeMultipartUpload(completeMultipartUploadRequest);
+    remove(uploadId);
   }
 
   /**
@@ -151,5 +204,12 @@ public class S3MultipartUploader {
     AbortMultipartUploadRequest abortRequest = AbortMultipartUploadRequest.builder()
         .bucket(bucketName).key(objectKey).uploadId(uploadId).build();
     this.s3.abortMultipartUpload(abortRequest);
+    remove(uploadId);
+  }
+
+  private void remove(final String uploadId) {
+    this.uploadIdCompletedParts.remove(uploadId);
+    this.uploadIdMetadata.remove(uploadId);
+    this.uploadIdPartNumber.remove(uploadId);
   }
 }
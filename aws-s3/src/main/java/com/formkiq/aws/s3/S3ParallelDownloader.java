@@ -0,0 +1,591 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 
+ * Downloads an S3 Object by splitting it into byte ranges that are fetched concurrently. Parts are
+ * either written to a file at their offsets or re-sequenced into an ordered {@link InputStream}.
+ * 
+ * Every range request is pinned to the ETag of the object, each part is retried on transient
+ * failures and the full object SHA-256 checksum is verified when S3 has one.
+ *
+ */
+public class S3ParallelDownloader {
+
+  /** Default number of parts downloaded concurrently. */
+  public static final int DEFAULT_PARALLELISM = 8;
+  /** Default part size, 8MB. */
+  public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+  /** Copy buffer size. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+  /** Hex conversion. */
+  private static final int HEX = 0xff;
+  /** Maximum attempts to download a part. */
+  private static final int MAX_ATTEMPTS = 3;
+  /** Too Many Requests status code. */
+  private static final int STATUS_TOO_MANY_REQUESTS = 429;
+  /** Internal Server Error status code. */
+  private static final int STATUS_SERVER_ERROR = 500;
+  /** Delay in milliseconds before retrying a part, multiplied by the attempt number. */
+  private static final long RETRY_DELAY = 200L;
+
+  /**
+   * Convert exception to {@link IOException}.
+   * 
+   * @param e {@link Throwable}
+   * @return {@link IOException}
+   */
+  private static IOException toIOException(final Throwable e) {
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    if (cause instanceof UncheckedIOException u) {
+      cause = u.getCause();
+    }
+    return cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+  }
+
+  /** {@link ExecutorService}. */
+  private final ExecutorService executor;
+  /** Number of parts downloaded concurrently. */
+  private final int parallelism;
+  /** Part size. */
+  private final int partSize;
+  /** {@link S3Client}. */
+  private final S3Client s3;
+
+  /**
+   * constructor.
+   * 
+   * @param builder {@link S3ConnectionBuilder}
+   */
+  public S3ParallelDownloader(final S3ConnectionBuilder builder) {
+    this(builder, DEFAULT_PART_SIZE, DEFAULT_PARALLELISM);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param builder {@link S3ConnectionBuilder}
+   * @param downloadPartSize int, size of each byte range
+   * @param downloadParallelism int, number of byte ranges downloaded concurrently
+   */
+  public S3ParallelDownloader(final S3ConnectionBuilder builder, final int downloadPartSize,
+      final int downloadParallelism) {
+    this(builder.build(), downloadPartSize, downloadParallelism);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param s3Client {@link S3Client}
+   * @param downloadPartSize int, size of each byte range
+   * @param downloadParallelism int, number of byte ranges downloaded concurrently
+   */
+  S3ParallelDownloader(final S3Client s3Client, final int downloadPartSize,
+      final int downloadParallelism) {
+
+    if (downloadPartSize <= 0 || downloadParallelism <= 0) {
+      throw new IllegalArgumentException(
+          "'downloadPartSize' and 'downloadParallelism' must be greater than 0");
+    }
+
+    this.s3 = s3Client;
+    this.partSize = downloadPartSize;
+    this.parallelism = downloadParallelism;
+    this.executor = Executors.newFixedThreadPool(downloadParallelism, r -> {
+      Thread thread = new Thread(r, "s3-download");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private String bytesToBase64(final MessageDigest digest) {
+    return Base64.getEncoder().encodeToString(digest.digest());
+  }
+
+  /**
+   * Download S3 Object as an ordered {@link InputStream}. At most 'parallelism' parts are fetched
+   * or buffered at a time, so memory use is bounded by 'parallelism' * 'partSize'. The stream must
+   * be closed to cancel any outstanding parts.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param versionId {@link String}
+   * @return {@link InputStream}
+   */
+  public InputStream downloadAsStream(final String bucket, final String key,
+      final String versionId) {
+    return new OrderedPartInputStream(start(bucket, key, versionId));
+  }
+
+  /**
+   * Download S3 Object to a {@link Path}, each part is written at its offset in the file.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param versionId {@link String}
+   * @param file {@link Path}
+   * @return long, number of bytes downloaded
+   * @throws IOException IOException
+   */
+  public long downloadToFile(final String bucket, final String key, final String versionId,
+      final Path file) throws IOException {
+
+    Download download = start(bucket, key, versionId);
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      List<CompletableFuture<Void>> futures = download.parts().stream()
+          .map(part -> CompletableFuture.runAsync(() -> writePart(download, part, channel),
+              this.executor))
+          .toList();
+
+      try {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+      } catch (CompletionException e) {
+        download.cancel();
+        futures.forEach(f -> f.cancel(false));
+        throw toIOException(e);
+      }
+    }
+
+    if (download.isVerifiable()) {
+      verifyChecksum(download, digestFile(file));
+    }
+
+    return download.contentLength();
+  }
+
+  private MessageDigest digestFile(final Path file) throws IOException {
+
+    MessageDigest digest = newSha256();
+    byte[] buffer = new byte[BUFFER_SIZE];
+
+    try (InputStream is = Files.newInputStream(file)) {
+      int len = is.read(buffer);
+      while (len != -1) {
+        digest.update(buffer, 0, len);
+        len = is.read(buffer);
+      }
+    }
+
+    return digest;
+  }
+
+  private boolean isRetryable(final Exception e) {
+    boolean retryable = true;
+
+    if (e instanceof SdkServiceException se) {
+      retryable = se.statusCode() == STATUS_TOO_MANY_REQUESTS
+          || se.statusCode() >= STATUS_SERVER_ERROR || se.isThrottlingException();
+    }
+
+    return retryable;
+  }
+
+  private MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Get Part Size.
+   * 
+   * @return int
+   */
+  public int getPartSize() {
+    return this.partSize;
+  }
+
+  /**
+   * Read a part, retrying transient failures. The {@link PartReader} may be called more than once
+   * and must discard any data from a previous attempt. Once the {@link Download} is cancelled the
+   * part stops reading and is not retried.
+   * 
+   * @param download {@link Download}
+   * @param part {@link Part}
+   * @param reader {@link PartReader}
+   * @throws IOException IOException
+   */
+  private void readPart(final Download download, final Part part, final PartReader reader)
+      throws IOException {
+
+    GetObjectRequest req = GetObjectRequest.builder().bucket(download.bucket())
+        .key(download.key()).versionId(download.versionId()).ifMatch(download.eTag())
+        .range(part.toRange()).build();
+
+    for (int attempt = 1;; attempt++) {
+
+      download.checkCancelled();
+
+      try (ResponseInputStream<GetObjectResponse> is = this.s3.getObject(req)) {
+
+        long read = reader.read(new CancellableInputStream(download, is));
+        if (read != part.length()) {
+          throw new IOException("expected " + part.length() + " bytes for range "
+              + part.toRange() + " but received " + read);
+        }
+
+        break;
+
+      } catch (IOException | SdkException e) {
+
+        if (download.isCancelled() || attempt >= MAX_ATTEMPTS || !isRetryable(e)) {
+          throw toIOException(e);
+        }
+
+        sleep(RETRY_DELAY * attempt);
+      }
+    }
+  }
+
+  private byte[] readPartBytes(final Download download, final Part part) {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) part.length());
+
+    try {
+      readPart(download, part, is -> {
+        bytes.reset();
+        return is.transferTo(bytes);
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  private void sleep(final long millis) throws IOException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
+  private Download start(final String bucket, final String key, final String versionId) {
+
+    HeadObjectRequest req = HeadObjectRequest.builder().bucket(bucket).key(key)
+        .versionId(versionId).checksumMode(ChecksumMode.ENABLED).build();
+    HeadObjectResponse resp = this.s3.headObject(req);
+
+    long contentLength = resp.contentLength().longValue();
+    List<Part> parts = new ArrayList<>();
+    for (long offset = 0; offset < contentLength; offset += this.partSize) {
+      parts.add(new Part(offset, Math.min(this.partSize, contentLength - offset)));
+    }
+
+    String version = resp.versionId() != null ? resp.versionId() : versionId;
+    return new Download(bucket, key, version, resp.eTag(), contentLength, resp.checksumSHA256(),
+        parts, new AtomicBoolean());
+  }
+
+  private void verifyChecksum(final Download download, final MessageDigest digest)
+      throws IOException {
+
+    String checksum = bytesToBase64(digest);
+    if (!checksum.equals(download.checksumSha256())) {
+      throw new IOException("checksum mismatch for s3://" + download.bucket() + "/"
+          + download.key() + " expected " + download.checksumSha256() + " but was " + checksum);
+    }
+  }
+
+  private void writePart(final Download download, final Part part, final FileChannel channel) {
+
+    try {
+      readPart(download, part, is -> {
+
+        long position = part.offset();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int len = is.read(buffer);
+        while (len != -1) {
+          ByteBuffer bb = ByteBuffer.wrap(buffer, 0, len);
+          while (bb.hasRemaining()) {
+            position += channel.write(bb, position);
+          }
+          len = is.read(buffer);
+        }
+
+        return position - part.offset();
+      });
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * S3 Object being downloaded.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param versionId {@link String}
+   * @param eTag {@link String}
+   * @param contentLength long
+   * @param checksumSha256 {@link String}
+   * @param parts {@link List} {@link Part}
+   * @param cancelled {@link AtomicBoolean}, set when the download is abandoned
+   */
+  private record Download(String bucket, String key, String versionId, String eTag,
+      long contentLength, String checksumSha256, List<Part> parts, AtomicBoolean cancelled) {
+
+    /**
+     * Cancel the download, parts being read stop at their next read.
+     */
+    void cancel() {
+      this.cancelled.set(true);
+    }
+
+    /**
+     * Throw {@link IOException} if the download is cancelled.
+     * 
+     * @throws IOException IOException
+     */
+    void checkCancelled() throws IOException {
+      if (isCancelled()) {
+        throw new IOException("download of s3://" + this.bucket + "/" + this.key + " cancelled");
+      }
+    }
+
+    boolean isCancelled() {
+      return this.cancelled.get();
+    }
+
+    /**
+     * Whether S3 has a full object SHA-256 checksum, multipart uploads only have a checksum of the
+     * part checksums which ends with "-{number of parts}".
+     * 
+     * @return boolean
+     */
+    boolean isVerifiable() {
+      return this.checksumSha256 != null && !this.checksumSha256.contains("-");
+    }
+  }
+
+  /**
+   * Byte range of an S3 Object.
+   * 
+   * @param offset long
+   * @param length long
+   */
+  private record Part(long offset, long length) {
+
+    String toRange() {
+      return "bytes=" + this.offset + "-" + (this.offset + this.length - 1);
+    }
+  }
+
+  /**
+   * {@link InputStream} of a part that aborts the S3 connection once the {@link Download} is
+   * cancelled, instead of reading the rest of the part.
+   */
+  private static final class CancellableInputStream extends FilterInputStream {
+
+    /** {@link Download}. */
+    private final Download download;
+    /** {@link ResponseInputStream}. */
+    private final ResponseInputStream<GetObjectResponse> response;
+
+    CancellableInputStream(final Download s3Download,
+        final ResponseInputStream<GetObjectResponse> is) {
+      super(is);
+      this.download = s3Download;
+      this.response = is;
+    }
+
+    private void checkCancelled() throws IOException {
+      if (this.download.isCancelled()) {
+        this.response.abort();
+      }
+      this.download.checkCancelled();
+    }
+
+    @Override
+    public int read() throws IOException {
+      checkCancelled();
+      return super.read();
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      checkCancelled();
+      return super.read(b, off, len);
+    }
+  }
+
+  /**
+   * Reads the content of a part.
+   */
+  @FunctionalInterface
+  private interface PartReader {
+
+    /**
+     * Read part content.
+     * 
+     * @param is {@link InputStream}
+     * @return long, number of bytes read
+     * @throws IOException IOException
+     */
+    long read(InputStream is) throws IOException;
+  }
+
+  /**
+   * {@link InputStream} that returns parts in order while the following parts are downloaded.
+   */
+  private final class OrderedPartInputStream extends InputStream {
+
+    /** Current part content. */
+    private byte[] current;
+    /** {@link MessageDigest} of the content read, null when not verifiable. */
+    private final MessageDigest digest;
+    /** {@link Download}. */
+    private final Download download;
+    /** Parts being downloaded, in order. */
+    private final Deque<CompletableFuture<byte[]>> inflight = new ArrayDeque<>();
+    /** Position in current part. */
+    private int position;
+    /** Parts not yet requested. */
+    private final Iterator<Part> remaining;
+
+    OrderedPartInputStream(final Download s3Download) {
+      this.download = s3Download;
+      this.digest = s3Download.isVerifiable() ? newSha256() : null;
+      this.remaining = s3Download.parts().iterator();
+      fillWindow();
+    }
+
+    @Override
+    public void close() {
+      this.download.cancel();
+      this.inflight.forEach(f -> f.cancel(false));
+      this.inflight.clear();
+      this.current = null;
+    }
+
+    private void fillWindow() {
+      while (this.inflight.size() < S3ParallelDownloader.this.parallelism
+          && this.remaining.hasNext()) {
+        Part part = this.remaining.next();
+        this.inflight.add(CompletableFuture.supplyAsync(() -> readPartBytes(this.download, part),
+            S3ParallelDownloader.this.executor));
+      }
+    }
+
+    private boolean hasCurrent() {
+      return this.current != null && this.position < this.current.length;
+    }
+
+    /**
+     * Advance to the next part when the current part is consumed.
+     * 
+     * @return boolean, false at end of stream
+     * @throws IOException IOException
+     */
+    private boolean nextPart() throws IOException {
+
+      while (!hasCurrent() && !this.inflight.isEmpty()) {
+
+        try {
+          this.current = this.inflight.poll().join();
+        } catch (CompletionException e) {
+          close();
+          throw toIOException(e);
+        }
+
+        this.position = 0;
+        fillWindow();
+
+        if (this.digest != null) {
+          this.digest.update(this.current);
+          if (this.inflight.isEmpty()) {
+            verifyChecksum(this.download, this.digest);
+          }
+        }
+      }
+
+      return hasCurrent();
+    }
+
+    @Override
+    public int read() throws IOException {
+      return nextPart() ? this.current[this.position++] & HEX : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+
+      int count = -1;
+
+      if (len == 0) {
+        count = 0;
+      } else if (nextPart()) {
+        count = Math.min(len, this.current.length - this.position);
+        System.arraycopy(this.current, this.position, b, off, count);
+        this.position += count;
+      }
+
+      return count;
+    }
+  }
+}
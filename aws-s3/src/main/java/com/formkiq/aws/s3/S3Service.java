@@ -24,6 +24,7 @@
 package com.formkiq.aws.s3;
 
 import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.BucketVersioningStatus;
@@ -59,6 +60,7 @@ import software.amazon.awssdk.services.s3.model.Tagging;
 import software.amazon.awssdk.services.s3.model.VersioningConfiguration;
 import software.amazon.awssdk.utils.IoUtils;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLDecoder;
@@ -260,16 +262,36 @@ public class S3Service {
   }
 
   /**
-   * Get File Content as {@link InputStream}.
+   * Get File Content as {@link InputStream}. The content is read from the connection as the stream
+   * is consumed, so the stream must be closed to release the connection.
    * 
    * @param distributionBucket {@link String}
    * @param key {@link String}
+   * @return {@link ResponseInputStream} {@link GetObjectResponse}
+   */
+  public ResponseInputStream<GetObjectResponse> getContentAsInputStream(
+      final String distributionBucket, final String key) {
+    return getObjectAsStream(distributionBucket, key, null);
+  }
+
+  /**
+   * Get File Content as an {@link InputStream} that supports mark / reset. At most
+   * 'markLimit' bytes are buffered, reading further past a mark invalidates it. The stream must
+   * be closed to release the connection.
+   * 
+   * @param distributionBucket {@link String}
+   * @param key {@link String}
+   * @param markLimit int, maximum number of bytes that can be read before a reset
    * @return {@link InputStream}
    */
-  public InputStream getContentAsInputStream(final String distributionBucket, final String key) {
-    GetObjectRequest get = GetObjectRequest.builder().bucket(distributionBucket).key(key).build();
-    ResponseBytes<GetObjectResponse> response = this.s3Client.getObjectAsBytes(get);
-    return response.asInputStream();
+  public InputStream getContentAsInputStream(final String distributionBucket, final String key,
+      final int markLimit) {
+
+    if (markLimit <= 0) {
+      throw new IllegalArgumentException("'markLimit' must be greater than 0");
+    }
+
+    return new BufferedInputStream(getContentAsInputStream(distributionBucket, key), markLimit);
   }
 
   /**
@@ -289,19 +311,34 @@ public class S3Service {
     return response.asUtf8String();
   }
 
+  /**
+   * Get S3 Object as a stream, the content is read from the connection as the stream is consumed
+   * and the stream must be closed.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param versionId {@link String}
+   * @return {@link ResponseInputStream} {@link GetObjectResponse}
+   */
+  public ResponseInputStream<GetObjectResponse> getObjectAsStream(final String bucket,
+      final String key, final String versionId) {
+    GetObjectRequest gr =
+        GetObjectRequest.builder().bucket(bucket).key(key).versionId(versionId).build();
+    return this.s3Client.getObject(gr);
+  }
+
   /**
    * Get Content in Parts.
    * 
    * @param bucket {@link String}
    * @param key {@link String}
    * @param range {@link String}
-   * @return {@link InputStream}
+   * @return {@link ResponseInputStream} {@link GetObjectResponse}, must be closed
    */
-  public InputStream getContentPartAsInputStream(final String bucket, final String key,
-      final String range) {
+  public ResponseInputStream<GetObjectResponse> getContentPartAsInputStream(final String bucket,
+      final String key, final String range) {
     GetObjectRequest get = GetObjectRequest.builder().bucket(bucket).key(key).range(range).build();
-    ResponseBytes<GetObjectResponse> response = this.s3Client.getObjectAsBytes(get);
-    return response.asInputStream();
+    return this.s3Client.getObject(get);
   }
 
   /**
@@ -460,6 +497,33 @@ public class S3Service {
     return putObject(bucket, key, data, contentType);
   }
 
+  /**
+   * Put Object in Bucket, streaming the {@link InputStream} to S3 without buffering it in memory.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param is {@link InputStream}
+   * @param contentLength long
+   * @param contentType {@link String}
+   * @return {@link PutObjectResponse}
+   */
+  public PutObjectResponse putObject(final String bucket, final String key, final InputStream is,
+      final long contentLength, final String contentType) {
+
+    PutObjectRequest.Builder build =
+        PutObjectRequest.builder().bucket(bucket).key(key).contentLength(contentLength);
+
+    if (contentType != null) {
+      build.contentType(contentType);
+    }
+
+    if (this.interceptor != null) {
+      this.interceptor.putObjectEvent(this, bucket, key);
+    }
+
+    return this.s3Client.putObject(build.build(), RequestBody.fromInputStream(is, contentLength));
+  }
+
   /**
    * Set S3 Object Tag.
    * 
@@ -0,0 +1,290 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import static com.formkiq.aws.s3.S3MultipartOutputStream.MIN_PART_SIZE;
+import static com.formkiq.testutils.aws.TestServices.BUCKET_NAME;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.testutils.aws.LocalStackExtension;
+import com.formkiq.testutils.aws.TestServices;
+
+/**
+ * 
+ * Unit Tests for {@link S3MultipartOutputStream}.
+ *
+ */
+@ExtendWith(LocalStackExtension.class)
+class S3MultipartOutputStreamTest {
+
+  /** Write size. */
+  private static final int WRITE_SIZE = 1024 * 1024;
+  /** {@link S3ConnectionBuilder}. */
+  private static S3ConnectionBuilder connection;
+  /** {@link S3Service}. */
+  private static S3Service s3Service;
+
+  @BeforeAll
+  public static void beforeAll() throws URISyntaxException {
+    connection = TestServices.getS3Connection(null);
+    s3Service = new S3Service(connection);
+  }
+
+  private static byte[] createData(final int length) {
+    byte[] data = new byte[length];
+    new Random().nextBytes(data);
+    return data;
+  }
+
+  private static void write(final S3MultipartOutputStream os, final byte[] data)
+      throws IOException {
+    for (int i = 0; i < data.length; i += WRITE_SIZE) {
+      os.write(data, i, Math.min(WRITE_SIZE, data.length - i));
+    }
+  }
+
+  /**
+   * Parts are uploaded at the part size and the remaining data is the final part.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testWrite01() throws Exception {
+    // given
+    final int length = 12 * WRITE_SIZE;
+    String key = UUID.randomUUID().toString();
+    byte[] data = createData(length);
+    CountingS3MultipartUploader uploader = new CountingS3MultipartUploader(connection);
+
+    // when
+    try (S3MultipartOutputStream os = new S3MultipartOutputStream(uploader, BUCKET_NAME, key)) {
+      write(os, data);
+    }
+
+    // then
+    assertEquals(List.of(Integer.valueOf(MIN_PART_SIZE), Integer.valueOf(MIN_PART_SIZE),
+        Integer.valueOf(2 * WRITE_SIZE)), uploader.getPartSizes());
+    assertArrayEquals(data, s3Service.getContentAsBytes(BUCKET_NAME, key));
+  }
+
+  /**
+   * Data that ends on a part boundary does not upload an empty final part.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testWrite02() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    byte[] data = createData(2 * MIN_PART_SIZE);
+    CountingS3MultipartUploader uploader = new CountingS3MultipartUploader(connection);
+
+    // when
+    try (S3MultipartOutputStream os = new S3MultipartOutputStream(uploader, BUCKET_NAME, key)) {
+      write(os, data);
+    }
+
+    // then
+    assertEquals(List.of(Integer.valueOf(MIN_PART_SIZE), Integer.valueOf(MIN_PART_SIZE)),
+        uploader.getPartSizes());
+    assertArrayEquals(data, s3Service.getContentAsBytes(BUCKET_NAME, key));
+  }
+
+  /**
+   * Empty stream creates an empty S3 Object.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testWrite03() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    CountingS3MultipartUploader uploader = new CountingS3MultipartUploader(connection);
+
+    // when
+    new S3MultipartOutputStream(uploader, BUCKET_NAME, key).close();
+
+    // then
+    assertEquals(List.of(Integer.valueOf(0)), uploader.getPartSizes());
+    assertEquals(0, s3Service.getContentAsBytes(BUCKET_NAME, key).length);
+  }
+
+  /**
+   * Abort after a part was uploaded, no S3 Object is created and the stream is closed.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAbort01() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    CountingS3MultipartUploader uploader = new CountingS3MultipartUploader(connection);
+    S3MultipartOutputStream os = new S3MultipartOutputStream(uploader, BUCKET_NAME, key);
+    write(os, createData(MIN_PART_SIZE + WRITE_SIZE));
+
+    // when
+    os.abort();
+    os.close();
+
+    // then
+    assertEquals(1, uploader.getPartSizes().size());
+    assertThrows(IOException.class, () -> os.write(1));
+    assertFalse(s3Service.getObjectMetadata(BUCKET_NAME, key, null).isObjectExists());
+  }
+
+  /**
+   * Suspend an upload and resume it with another {@link S3MultipartUploader}.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSuspend01() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    byte[] data0 = createData(MIN_PART_SIZE + 2 * WRITE_SIZE);
+    byte[] data1 = createData(MIN_PART_SIZE);
+
+    S3MultipartOutputStream os =
+        new S3MultipartOutputStream(new S3MultipartUploader(connection), BUCKET_NAME, key);
+    write(os, data0);
+
+    // when
+    byte[] pending = os.suspend();
+
+    // then
+    assertEquals(2 * WRITE_SIZE, pending.length);
+    assertThrows(IOException.class, () -> os.write(1));
+    assertFalse(s3Service.getObjectMetadata(BUCKET_NAME, key, null).isObjectExists());
+
+    // when
+    CountingS3MultipartUploader uploader = new CountingS3MultipartUploader(connection);
+    try (S3MultipartOutputStream resumed =
+        S3MultipartOutputStream.resume(uploader, BUCKET_NAME, key, os.getUploadId(), pending)) {
+      write(resumed, data1);
+    }
+
+    // then
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.writeBytes(data0);
+    expected.writeBytes(data1);
+    assertEquals(List.of(Integer.valueOf(MIN_PART_SIZE), Integer.valueOf(2 * WRITE_SIZE)),
+        uploader.getPartSizes());
+    assertArrayEquals(expected.toByteArray(), s3Service.getContentAsBytes(BUCKET_NAME, key));
+  }
+
+  /**
+   * Abort a suspended upload.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSuspend02() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    S3MultipartUploader uploader = new S3MultipartUploader(connection);
+    S3MultipartOutputStream os = new S3MultipartOutputStream(uploader, BUCKET_NAME, key);
+    write(os, createData(MIN_PART_SIZE + WRITE_SIZE));
+    os.suspend();
+
+    // when
+    os.abort();
+
+    // then
+    assertThrows(RuntimeException.class, () -> S3MultipartOutputStream.resume(uploader,
+        BUCKET_NAME, key, os.getUploadId(), new byte[0]));
+    assertFalse(s3Service.getObjectMetadata(BUCKET_NAME, key, null).isObjectExists());
+  }
+
+  /**
+   * Failed part upload aborts the upload and closes the stream.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testUploadFailure01() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    CountingS3MultipartUploader uploader = new CountingS3MultipartUploader(connection);
+    uploader.failOnPart(2);
+    S3MultipartOutputStream os = new S3MultipartOutputStream(uploader, BUCKET_NAME, key);
+
+    // when
+    RuntimeException e = assertThrows(RuntimeException.class,
+        () -> write(os, createData(2 * MIN_PART_SIZE)));
+
+    // then
+    assertEquals("upload part 2 failed", e.getMessage());
+    assertEquals(1, uploader.getPartSizes().size());
+    assertThrows(IOException.class, () -> os.write(1));
+    os.abort();
+    os.close();
+    assertFalse(s3Service.getObjectMetadata(BUCKET_NAME, key, null).isObjectExists());
+  }
+
+  /**
+   * {@link S3MultipartUploader} that records the part sizes and can fail a part upload.
+   */
+  private static final class CountingS3MultipartUploader extends S3MultipartUploader {
+
+    /** Part number to fail, 0 for none. */
+    private int failPart;
+    /** Uploaded part sizes. */
+    private final List<Integer> partSizes = new ArrayList<>();
+
+    CountingS3MultipartUploader(final S3ConnectionBuilder builder) {
+      super(builder);
+    }
+
+    void failOnPart(final int partNumber) {
+      this.failPart = partNumber;
+    }
+
+    List<Integer> getPartSizes() {
+      return this.partSizes;
+    }
+
+    @Override
+    public void uploadChunk(final String uploadId, final byte[] chunk) {
+      if (this.partSizes.size() + 1 == this.failPart) {
+        abortMultipartUpload(uploadId);
+        throw new IllegalStateException("upload part " + this.failPart + " failed");
+      }
+
+      super.uploadChunk(uploadId, chunk);
+      this.partSizes.add(Integer.valueOf(chunk.length));
+    }
+  }
+}
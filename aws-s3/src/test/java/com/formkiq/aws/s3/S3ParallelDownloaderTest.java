@@ -0,0 +1,301 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import static com.formkiq.testutils.aws.TestServices.BUCKET_NAME;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.testutils.aws.LocalStackExtension;
+import com.formkiq.testutils.aws.TestServices;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * 
+ * Unit Tests for {@link S3ParallelDownloader}.
+ *
+ */
+@ExtendWith(LocalStackExtension.class)
+class S3ParallelDownloaderTest {
+
+  /** Part Size. */
+  private static final int PART_SIZE = 1000;
+  /** Precondition Failed status code. */
+  private static final int STATUS_PRECONDITION_FAILED = 412;
+  /** {@link S3Client}. */
+  private static S3Client s3;
+  /** {@link S3Service}. */
+  private static S3Service s3Service;
+
+  @BeforeAll
+  public static void beforeAll() throws URISyntaxException {
+    S3ConnectionBuilder connection = TestServices.getS3Connection(null);
+    s3 = connection.build();
+    s3Service = new S3Service(connection);
+  }
+
+  /** {@link CountingS3Client}. */
+  private CountingS3Client client;
+  /** Temporary file. */
+  private Path file;
+
+  @BeforeEach
+  public void beforeEach() throws IOException {
+    this.client = new CountingS3Client(s3);
+    this.file = Files.createTempFile("download", ".bin");
+  }
+
+  @AfterEach
+  public void afterEach() throws IOException {
+    Files.deleteIfExists(this.file);
+  }
+
+  private byte[] createObject(final String key, final int length) {
+    byte[] data = new byte[length];
+    new Random().nextBytes(data);
+    s3Service.putObject(BUCKET_NAME, key, data, "application/octet-stream");
+    return data;
+  }
+
+  /**
+   * Download multiple parts to a file, the last part is shorter than the part size.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDownloadToFile01() throws Exception {
+    // given
+    final int length = PART_SIZE * 3 + 123;
+    final int expectedParts = 4;
+    String key = UUID.randomUUID().toString();
+    byte[] data = createObject(key, length);
+    S3ParallelDownloader downloader = new S3ParallelDownloader(this.client, PART_SIZE, 2);
+
+    // when
+    long size = downloader.downloadToFile(BUCKET_NAME, key, null, this.file);
+
+    // then
+    assertEquals(length, size);
+    assertArrayEquals(data, Files.readAllBytes(this.file));
+    assertEquals(expectedParts, this.client.getObjectCount());
+  }
+
+  /**
+   * Download a zero byte object.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDownloadToFile02() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    createObject(key, 0);
+    S3ParallelDownloader downloader = new S3ParallelDownloader(this.client, PART_SIZE, 2);
+
+    // when
+    long size = downloader.downloadToFile(BUCKET_NAME, key, null, this.file);
+
+    // then
+    assertEquals(0, size);
+    assertEquals(0, Files.size(this.file));
+
+    try (InputStream is = downloader.downloadAsStream(BUCKET_NAME, key, null)) {
+      assertEquals(-1, is.read());
+    }
+  }
+
+  /**
+   * Object is overwritten after the download starts, ranged GETs fail with 412 and are not
+   * retried.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDownloadToFile03() throws Exception {
+    // given
+    final int length = PART_SIZE * 3;
+    String key = UUID.randomUUID().toString();
+    createObject(key, length);
+
+    this.client.onHead = resp -> {
+      createObject(key, length);
+      return resp;
+    };
+
+    S3ParallelDownloader downloader = new S3ParallelDownloader(this.client, PART_SIZE, 2);
+
+    // when
+    IOException e = assertThrows(IOException.class,
+        () -> downloader.downloadToFile(BUCKET_NAME, key, null, this.file));
+
+    // then
+    assertTrue(e.getCause() instanceof S3Exception);
+    assertEquals(STATUS_PRECONDITION_FAILED, ((S3Exception) e.getCause()).statusCode());
+    assertTrue(this.client.getObjectCount() <= length / PART_SIZE);
+  }
+
+  /**
+   * Downloaded content does not match the object checksum.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDownloadToFile04() throws Exception {
+    // given
+    String key = UUID.randomUUID().toString();
+    createObject(key, PART_SIZE * 2);
+
+    String checksum = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256")
+        .digest("other content".getBytes(StandardCharsets.UTF_8)));
+    this.client.onHead = resp -> resp.toBuilder().checksumSHA256(checksum).build();
+
+    S3ParallelDownloader downloader = new S3ParallelDownloader(this.client, PART_SIZE, 2);
+
+    // when
+    IOException e = assertThrows(IOException.class,
+        () -> downloader.downloadToFile(BUCKET_NAME, key, null, this.file));
+    IOException es = assertThrows(IOException.class, () -> {
+      try (InputStream is = downloader.downloadAsStream(BUCKET_NAME, key, null)) {
+        is.readAllBytes();
+      }
+    });
+
+    // then
+    assertTrue(e.getMessage().startsWith("checksum mismatch"));
+    assertTrue(es.getMessage().startsWith("checksum mismatch"));
+  }
+
+  /**
+   * Download multiple parts as an ordered stream.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDownloadAsStream01() throws Exception {
+    // given
+    final int length = PART_SIZE * 5 + 1;
+    String key = UUID.randomUUID().toString();
+    byte[] data = createObject(key, length);
+    S3ParallelDownloader downloader = new S3ParallelDownloader(this.client, PART_SIZE, 2);
+
+    // when
+    byte[] content;
+    try (InputStream is = downloader.downloadAsStream(BUCKET_NAME, key, null)) {
+      content = is.readAllBytes();
+    }
+
+    // then
+    assertArrayEquals(data, content);
+  }
+
+  /**
+   * Closing the stream stops downloading the remaining parts.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDownloadAsStream02() throws Exception {
+    // given
+    final int parts = 10;
+    String key = UUID.randomUUID().toString();
+    byte[] data = createObject(key, PART_SIZE * parts);
+    S3ParallelDownloader downloader = new S3ParallelDownloader(this.client, PART_SIZE, 2);
+
+    InputStream is = downloader.downloadAsStream(BUCKET_NAME, key, null);
+    assertEquals(data[0] & 0xff, is.read());
+
+    // when
+    is.close();
+
+    // then
+    assertEquals(-1, is.read());
+    assertTrue(this.client.getObjectCount() < parts);
+  }
+
+  /**
+   * {@link S3Client} that counts GET requests and can change HEAD responses.
+   */
+  private static final class CountingS3Client implements S3Client {
+
+    /** {@link S3Client}. */
+    private final S3Client delegate;
+    /** Number of GET requests. */
+    private final AtomicInteger gets = new AtomicInteger();
+    /** Change the HEAD response. */
+    private UnaryOperator<HeadObjectResponse> onHead = UnaryOperator.identity();
+
+    CountingS3Client(final S3Client s3Client) {
+      this.delegate = s3Client;
+    }
+
+    @Override
+    public void close() {
+      // the delegate is shared between tests
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(final GetObjectRequest request) {
+      this.gets.incrementAndGet();
+      return this.delegate.getObject(request);
+    }
+
+    int getObjectCount() {
+      return this.gets.get();
+    }
+
+    @Override
+    public HeadObjectResponse headObject(final HeadObjectRequest request) {
+      return this.onHead.apply(this.delegate.headObject(request));
+    }
+
+    @Override
+    public String serviceName() {
+      return this.delegate.serviceName();
+    }
+  }
+}
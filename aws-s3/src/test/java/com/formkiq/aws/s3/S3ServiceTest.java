@@ -0,0 +1,132 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import static com.formkiq.testutils.aws.TestServices.BUCKET_NAME;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.testutils.aws.LocalStackExtension;
+import com.formkiq.testutils.aws.TestServices;
+
+/**
+ * 
+ * Unit Tests for {@link S3Service}.
+ *
+ */
+@ExtendWith(LocalStackExtension.class)
+class S3ServiceTest {
+
+  /** Mark Limit. */
+  private static final int MARK_LIMIT = 64 * 1024;
+  /** {@link S3Service}. */
+  private static S3Service s3Service;
+
+  @BeforeAll
+  public static void beforeAll() throws URISyntaxException {
+    s3Service = new S3Service(TestServices.getS3Connection(null));
+  }
+
+  private static String putObject(final byte[] data) {
+    String key = UUID.randomUUID().toString();
+    s3Service.putObject(BUCKET_NAME, key, data, "application/octet-stream");
+    return key;
+  }
+
+  private static byte[] createData(final int length) {
+    byte[] data = new byte[length];
+    new Random().nextBytes(data);
+    return data;
+  }
+
+  /**
+   * Reset within the mark limit rereads the content.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testGetContentAsInputStream01() throws Exception {
+    // given
+    final int offset = 100;
+    byte[] data = createData(MARK_LIMIT * 4);
+    String key = putObject(data);
+
+    // when
+    try (InputStream is = s3Service.getContentAsInputStream(BUCKET_NAME, key, MARK_LIMIT)) {
+
+      byte[] start = is.readNBytes(offset);
+      is.mark(MARK_LIMIT);
+      byte[] marked = is.readNBytes(MARK_LIMIT);
+      is.reset();
+      byte[] reread = is.readNBytes(MARK_LIMIT);
+      byte[] rest = is.readAllBytes();
+
+      // then
+      assertArrayEquals(Arrays.copyOfRange(data, 0, offset), start);
+      assertArrayEquals(Arrays.copyOfRange(data, offset, offset + MARK_LIMIT), marked);
+      assertArrayEquals(marked, reread);
+      assertArrayEquals(Arrays.copyOfRange(data, offset + MARK_LIMIT, data.length), rest);
+    }
+  }
+
+  /**
+   * Reading beyond the mark limit invalidates the mark.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testGetContentAsInputStream02() throws Exception {
+    // given
+    byte[] data = createData(MARK_LIMIT * 4);
+    String key = putObject(data);
+
+    // when
+    try (InputStream is = s3Service.getContentAsInputStream(BUCKET_NAME, key, MARK_LIMIT)) {
+
+      is.mark(MARK_LIMIT);
+      byte[] read = is.readNBytes(MARK_LIMIT * 2);
+
+      // then
+      assertArrayEquals(Arrays.copyOfRange(data, 0, MARK_LIMIT * 2), read);
+      assertThrows(IOException.class, is::reset);
+    }
+  }
+
+  /**
+   * Mark limit must be greater than 0.
+   */
+  @Test
+  void testGetContentAsInputStream03() {
+    assertThrows(IllegalArgumentException.class,
+        () -> s3Service.getContentAsInputStream(BUCKET_NAME, "test.txt", 0));
+  }
+}
@@ -327,9 +327,8 @@ public class ConsoleInstallHandler implements RequestHandler<Map<String, Object>
     logger.log("unpacking " + consoleZipKey + " from bucket " + distributionBucket + " to bucket "
         + destinationBucket);
 
-    InputStream stream = this.s3UsEast1.getContentAsInputStream(distributionBucket, consoleZipKey);
-
-    try {
+    try (InputStream stream =
+        this.s3UsEast1.getContentAsInputStream(distributionBucket, consoleZipKey)) {
 
       writeToBucket(stream, destinationBucket, consoleversion);
 
@@ -337,14 +336,6 @@ public class ConsoleInstallHandler implements RequestHandler<Map<String, Object>
 
       logStacktrace(context, e);
       sendResponse(input, logger, context, "FAILED", "Unable to Write files to Bucket.");
-
-    } finally {
-
-      try {
-        stream.close();
-      } catch (IOException e) {
-        logger.log("cannot close stream " + e);
-      }
     }
   }
 
@@ -28,6 +28,7 @@ import com.amazonaws.services.lambda.runtime.LambdaRuntime;
 import com.formkiq.aws.sns.SnsConnectionBuilder;
 import com.formkiq.aws.sns.SnsService;
 import com.formkiq.module.events.document.DocumentEvent;
+import com.formkiq.module.events.document.DocumentEventTypeAdapter;
 import com.formkiq.module.events.folder.FolderEvent;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -44,7 +45,8 @@ public final class EventServiceSns implements EventService {
   /** Max Sns Message Size. */
   public static final int MAX_SNS_MESSAGE_SIZE = 256000;
   /** {@link Gson}. */
-  private Gson gson = new GsonBuilder().create();
+  private Gson gson = new GsonBuilder()
+      .registerTypeAdapter(DocumentEvent.class, new DocumentEventTypeAdapter()).create();
   /** {@link SnsService}. */
   private SnsService snsService;
   /** SNS Topic Arn. */
@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.events.document;
+
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming {@link TypeAdapter} for {@link DocumentEvent}, avoids reflection when publishing and
+ * consuming document events. Unknown properties are skipped.
+ */
+public class DocumentEventTypeAdapter extends TypeAdapter<DocumentEvent> {
+
+  /**
+   * constructor.
+   */
+  public DocumentEventTypeAdapter() {}
+
+  @Override
+  public DocumentEvent read(final JsonReader in) throws IOException {
+
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    DocumentEvent event = new DocumentEvent();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "siteId" -> event.siteId(readString(in));
+        case "documentId" -> event.documentId(readString(in));
+        case "s3key" -> event.s3key(readString(in));
+        case "s3bucket" -> event.s3bucket(readString(in));
+        case "type" -> event.type(readString(in));
+        case "userId" -> event.userId(readString(in));
+        case "content" -> event.content(readString(in));
+        case "contentType" -> event.contentType(readString(in));
+        case "path" -> event.path(readString(in));
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    return event;
+  }
+
+  private String readString(final JsonReader in) throws IOException {
+
+    JsonToken token = in.peek();
+    String result = null;
+
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+    } else if (token == JsonToken.BOOLEAN) {
+      result = Boolean.toString(in.nextBoolean());
+    } else {
+      result = in.nextString();
+    }
+
+    return result;
+  }
+
+  @Override
+  public void write(final JsonWriter out, final DocumentEvent event) throws IOException {
+
+    if (event == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    writeString(out, "siteId", event.siteId());
+    writeString(out, "documentId", event.documentId());
+    writeString(out, "s3key", event.s3key());
+    writeString(out, "s3bucket", event.s3bucket());
+    writeString(out, "type", event.type());
+    writeString(out, "userId", event.userId());
+    writeString(out, "content", event.content());
+    writeString(out, "contentType", event.contentType());
+    writeString(out, "path", event.path());
+    out.endObject();
+  }
+
+  private void writeString(final JsonWriter out, final String name, final String value)
+      throws IOException {
+    if (value != null) {
+      out.name(name).value(value);
+    }
+  }
+}
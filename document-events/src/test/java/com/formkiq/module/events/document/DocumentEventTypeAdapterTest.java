@@ -0,0 +1,64 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.events.document;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * 
+ * Unit Test for {@link DocumentEventTypeAdapter}.
+ *
+ */
+class DocumentEventTypeAdapterTest {
+
+  /** Reflective {@link Gson}. */
+  private final Gson reflective = new GsonBuilder().create();
+  /** Streaming {@link Gson}. */
+  private final Gson streaming = new GsonBuilder()
+      .registerTypeAdapter(DocumentEvent.class, new DocumentEventTypeAdapter()).create();
+
+  /**
+   * Streaming adapter matches the reflective adapter.
+   */
+  @Test
+  void testReadWrite01() {
+    // given
+    DocumentEvent event = new DocumentEvent().siteId("finance").documentId("123")
+        .s3bucket("bucket").s3key("finance/123").type("create").userId("joe")
+        .content("{\"a\":\"<b>\"}").contentType("application/json");
+
+    // when
+    String json = this.streaming.toJson(event);
+    DocumentEvent read = this.streaming.fromJson(json + " ", DocumentEvent.class);
+
+    // then
+    assertEquals(this.reflective.toJson(event), json);
+    assertEquals(json, this.reflective.toJson(read));
+    assertEquals("finance", this.streaming
+        .fromJson("{\"siteId\":\"finance\",\"unknown\":[1,2]}", DocumentEvent.class).siteId());
+  }
+}
@@ -27,7 +27,6 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
 import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromL;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -96,8 +95,6 @@ public class ApiKey implements DynamodbRecord<ApiKey>, DbKeys {
   @Override
   public Map<String, AttributeValue> getAttributes(final String siteIdParam) {
 
-    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
     Map<String, AttributeValue> map = new HashMap<>();
     map.put(DbKeys.PK, AttributeValue.fromS(pk(siteIdParam)));
     map.put(DbKeys.SK, AttributeValue.fromS(sk()));
@@ -115,7 +112,7 @@ public class ApiKey implements DynamodbRecord<ApiKey>, DbKeys {
     map.put(GSI2_SK, AttributeValue.fromS(skGsi2()));
 
     if (this.insertedDate != null) {
-      map.put("inserteddate", AttributeValue.fromS(df.format(this.insertedDate)));
+      map.put("inserteddate", AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
     }
 
     return map;
@@ -133,11 +130,9 @@ public class ApiKey implements DynamodbRecord<ApiKey>, DbKeys {
     ApiKey record = new ApiKey().apiKey(ss(attrs, "apiKey")).name(ss(attrs, "name"))
         .userId(ss(attrs, "userId")).permissions(toPermissions(attrs)).siteId(ss(attrs, "siteId"));
 
-    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
     if (attrs.containsKey("inserteddate")) {
       try {
-        record = record.insertedDate(df.parse(ss(attrs, "inserteddate")));
+        record = record.insertedDate(DateUtil.parseIsoDate(ss(attrs, "inserteddate")));
       } catch (ParseException e) {
         e.printStackTrace();
         throw new IllegalArgumentException("invalid 'inserteddate'");
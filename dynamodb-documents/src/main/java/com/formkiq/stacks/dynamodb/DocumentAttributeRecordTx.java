@@ -0,0 +1,61 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import java.util.Collection;
+import com.formkiq.aws.dynamodb.DynamodbRecordTx;
+import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecord;
+
+/**
+ * {@link DynamodbRecordTx} for {@link DocumentAttributeRecord} which also tracks which of the
+ * records to save did not previously exist.
+ */
+public class DocumentAttributeRecordTx extends DynamodbRecordTx {
+
+  /** Records being saved that did not previously exist. */
+  private final Collection<DocumentAttributeRecord> added;
+
+  /**
+   * constructor.
+   * 
+   * @param recordsToSave {@link Collection} {@link DocumentAttributeRecord}
+   * @param recordsToDelete {@link Collection} {@link DocumentAttributeRecord}
+   * @param recordsAdded {@link Collection} {@link DocumentAttributeRecord}
+   */
+  public DocumentAttributeRecordTx(final Collection<DocumentAttributeRecord> recordsToSave,
+      final Collection<DocumentAttributeRecord> recordsToDelete,
+      final Collection<DocumentAttributeRecord> recordsAdded) {
+    super(recordsToSave, recordsToDelete);
+    this.added = recordsAdded;
+  }
+
+  /**
+   * Get {@link DocumentAttributeRecord} being saved that did not previously exist.
+   * 
+   * @return {@link Collection} {@link DocumentAttributeRecord}
+   */
+  public Collection<DocumentAttributeRecord> getAdded() {
+    return this.added;
+  }
+}
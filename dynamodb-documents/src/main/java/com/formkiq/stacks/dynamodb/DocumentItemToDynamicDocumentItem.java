@@ -24,9 +24,7 @@
 package com.formkiq.stacks.dynamodb;
 
 import static com.formkiq.aws.dynamodb.objects.Objects.notNull;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
@@ -40,6 +38,9 @@ import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 public class DocumentItemToDynamicDocumentItem
     implements Function<DocumentItem, DynamicDocumentItem> {
 
+  /** Number of {@link DocumentItem} fields, plus child "documents". */
+  private static final int ITEM_SIZE = 14;
+
   @Override
   public DynamicDocumentItem apply(final DocumentItem item) {
 
@@ -57,7 +58,7 @@ public class DocumentItemToDynamicDocumentItem
 
   private DynamicDocumentItem convert(final DocumentItem item) {
 
-    Map<String, Object> map = new HashMap<>();
+    DynamicDocumentItem map = new DynamicDocumentItem(ITEM_SIZE);
     map.put("checksum", item.getChecksum());
     map.put("checksumType", item.getChecksumType());
     map.put("contentLength", item.getContentLength());
@@ -72,6 +73,6 @@ public class DocumentItemToDynamicDocumentItem
     map.put("TimeToLive", item.getTimeToLive());
     map.put("metadata", item.getMetadata());
 
-    return new DynamicDocumentItem(map);
+    return map;
   }
 }
@@ -31,6 +31,9 @@ import com.formkiq.aws.dynamodb.model.SearchResponseFields;
 import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
 import com.formkiq.validation.ValidationException;
 
+import java.util.List;
+import java.util.function.Predicate;
+
 /**
  * 
  * Document Search Service.
@@ -38,6 +41,23 @@ import com.formkiq.validation.ValidationException;
  */
 public interface DocumentSearchService {
 
+  /**
+   * Export all Documents matching a search, one page at a time. The next page of results is
+   * fetched while the current page is being passed to the consumer. The export stops early when
+   * the consumer returns false and can be continued by passing the returned token.
+   *
+   * @param siteId Optional Grouping siteId
+   * @param search {@link SearchQuery}
+   * @param searchResponseFields {@link SearchResponseFields}
+   * @param token {@link PaginationMapToken} page to start from, null for the first page
+   * @param consumer {@link Predicate} for each page, return false to stop the export
+   * @return {@link PaginationMapToken} of the next page, null when every page was exported
+   * @throws ValidationException ValidationException
+   */
+  PaginationMapToken export(String siteId, SearchQuery search,
+      SearchResponseFields searchResponseFields, PaginationMapToken token,
+      Predicate<List<DynamicDocumentItem>> consumer) throws ValidationException;
+
   /**
    * Search for Documents in Folder.
    * 
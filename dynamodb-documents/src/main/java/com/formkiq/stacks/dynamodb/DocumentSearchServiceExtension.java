@@ -24,8 +24,12 @@
 package com.formkiq.stacks.dynamodb;
 
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.cache.CacheService;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
+import com.formkiq.stacks.dynamodb.cache.SearchEpochExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchResultCache;
 
 /**
  * 
@@ -34,6 +38,11 @@ import com.formkiq.module.lambdaservices.AwsServiceExtension;
  */
 public class DocumentSearchServiceExtension implements AwsServiceExtension<DocumentSearchService> {
 
+  /** Default Search Cache Time To Live in seconds. */
+  private static final long DEFAULT_CACHE_TTL_SECONDS = 300;
+  /** Milliseconds per second. */
+  private static final long MILLISECONDS = 1000;
+
   /** {@link DocumentSearchService}. */
   private DocumentSearchService service;
 
@@ -50,10 +59,38 @@ public class DocumentSearchServiceExtension implements AwsServiceExtension<Docum
           awsServiceCache.getExtension(DynamoDbConnectionBuilder.class);
       DocumentService documentService = awsServiceCache.getExtension(DocumentService.class);
 
-      this.service = new DocumentSearchServiceImpl(connection, documentService,
-          awsServiceCache.environment("DOCUMENTS_TABLE"));
+      String documentsTable = awsServiceCache.environment("DOCUMENTS_TABLE");
+      this.service = new DocumentSearchServiceImpl(connection, documentService, documentsTable,
+          createSearchResultCache(awsServiceCache));
     }
 
     return this.service;
   }
+
+  /**
+   * Create {@link SearchResultCache} if "SEARCH_CACHE_MAX_ENTRIES" is set to a positive number.
+   * 
+   * @param awsServiceCache {@link AwsServiceCache}
+   * @return {@link SearchResultCache}
+   */
+  private SearchResultCache createSearchResultCache(final AwsServiceCache awsServiceCache) {
+
+    SearchResultCache cache = null;
+    SearchEpoch epoch = awsServiceCache.getExtensionOrNull(SearchEpoch.class);
+
+    if (epoch != null) {
+
+      long ttlInSeconds = SearchEpochExtension.getPositiveNumber(awsServiceCache,
+          "SEARCH_CACHE_TTL_SECONDS", DEFAULT_CACHE_TTL_SECONDS);
+
+      CacheService cacheService = "true".equals(awsServiceCache.environment("SEARCH_CACHE_TABLE"))
+          ? awsServiceCache.getExtensionOrNull(CacheService.class)
+          : null;
+
+      cache = new SearchResultCache(epoch, cacheService,
+          SearchEpochExtension.getMaxEntries(awsServiceCache), ttlInSeconds * MILLISECONDS);
+    }
+
+    return cache;
+  }
 }
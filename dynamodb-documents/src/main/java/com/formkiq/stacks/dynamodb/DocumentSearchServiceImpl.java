@@ -23,6 +23,7 @@
  */
 package com.formkiq.stacks.dynamodb;
 
+import com.formkiq.aws.dynamodb.DynamodbRecordCodec;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamicObject;
@@ -49,6 +50,7 @@ import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecord;
 import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecordToMap;
 import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeValueType;
+import com.formkiq.stacks.dynamodb.cache.SearchResultCache;
 import com.formkiq.stacks.dynamodb.schemas.SchemaCompositeKeyRecord;
 import com.formkiq.stacks.dynamodb.schemas.SchemaService;
 import com.formkiq.stacks.dynamodb.schemas.SchemaServiceDynamodb;
@@ -74,7 +76,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.formkiq.aws.dynamodb.DbKeys.GLOBAL_FOLDER_METADATA;
@@ -101,6 +111,13 @@ import static com.formkiq.stacks.dynamodb.attributes.AttributeRecord.ATTR;
  */
 public final class DocumentSearchServiceImpl implements DocumentSearchService {
 
+  /** Export search page size. */
+  private static final int EXPORT_PAGE_SIZE = 100;
+  /** Number of pages fetched ahead of the export consumer. */
+  private static final int EXPORT_PREFETCH_PAGES = 2;
+  /** Export page poll timeout in milliseconds. */
+  private static final long EXPORT_POLL_TIMEOUT_MS = 100;
+
   /** {@link DynamoDbService}. */
   private final DynamoDbService db;
   /** {@link DynamoDbClient}. */
@@ -113,6 +130,8 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
   private final FolderIndexProcessor folderIndexProcesor;
   /** {@link SchemaService}. */
   private final SchemaService schemaService;
+  /** {@link SearchResultCache}. */
+  private final SearchResultCache searchCache;
 
   /**
    * constructor.
@@ -123,8 +142,23 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
    */
   public DocumentSearchServiceImpl(final DynamoDbConnectionBuilder connection,
       final DocumentService documentService, final String documentsTable) {
+    this(connection, documentService, documentsTable, null);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbConnectionBuilder}
+   * @param documentService {@link DocumentService}
+   * @param documentsTable {@link String}
+   * @param searchResultCache {@link SearchResultCache}, optional
+   */
+  public DocumentSearchServiceImpl(final DynamoDbConnectionBuilder connection,
+      final DocumentService documentService, final String documentsTable,
+      final SearchResultCache searchResultCache) {
 
     this.dbClient = connection.build();
+    this.searchCache = searchResultCache;
     this.docService = documentService;
 
     if (documentsTable == null) {
@@ -173,6 +207,8 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
     if (searchResponseFields != null) {
 
       Set<String> keyNames = new HashSet<>(notNull(searchResponseFields.getAttributes()));
+      DynamodbRecordCodec<DocumentAttributeRecord> codec =
+          DynamodbRecordCodec.of(DocumentAttributeRecord.class, DocumentAttributeRecord::new);
 
       for (DynamicDocumentItem item : results) {
 
@@ -189,7 +225,7 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
 
         List<DocumentAttributeRecord> records =
             notNull(response.items()).stream().filter(a -> keyNames.contains(a.get("key").s()))
-                .map(a -> new DocumentAttributeRecord().getFromAttributes(siteId, a)).toList();
+                .map(a -> codec.decode(siteId, a)).toList();
 
         Collection<Map<String, Object>> attributes =
             new DocumentAttributeRecordToMap(true).apply(records);
@@ -230,6 +266,42 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
     }
   }
 
+  /**
+   * Add Response Tags to {@link DynamicDocumentItem}.
+   * 
+   * @param siteId {@link String}
+   * @param results {@link List} {@link DynamicDocumentItem}
+   * @param searchResponseFields {@link SearchResponseFields}
+   */
+  private void addResponseTags(final String siteId, final List<DynamicDocumentItem> results,
+      final SearchResponseFields searchResponseFields) {
+
+    if (searchResponseFields != null && !notNull(searchResponseFields.getTags()).isEmpty()
+        && !results.isEmpty()) {
+
+      Set<String> documentIds =
+          results.stream().map(DynamicDocumentItem::getDocumentId).collect(Collectors.toSet());
+
+      Map<String, Collection<DocumentTag>> responseTags =
+          this.docService.findDocumentsTags(siteId, documentIds, searchResponseFields.getTags());
+
+      results.forEach(doc -> {
+
+        Map<String, Object> map = new HashMap<>();
+
+        notNull(responseTags.get(doc.getDocumentId())).forEach(tag -> {
+          if (tag.getValues() != null) {
+            map.put(tag.getKey(), tag.getValues());
+          } else {
+            map.put(tag.getKey(), tag.getValue());
+          }
+        });
+
+        doc.put("tags", map);
+      });
+    }
+  }
+
   private SearchAttributeCriteria createAttributesCriteria(final String siteId,
       final SearchQuery query) throws ValidationException {
 
@@ -249,6 +321,98 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
         .scanIndexForward(scanIndexForward).limit(maxresults).build();
   }
 
+  @Override
+  public PaginationMapToken export(final String siteId, final SearchQuery query,
+      final SearchResponseFields searchResponseFields, final PaginationMapToken startToken,
+      final Predicate<List<DynamicDocumentItem>> consumer) throws ValidationException {
+
+    BlockingQueue<PaginationResults<DynamicDocumentItem>> pages =
+        new ArrayBlockingQueue<>(EXPORT_PREFETCH_PAGES);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Void> producer = executor.submit(
+        () -> exportPages(siteId, query, searchResponseFields, startToken, pages));
+
+    PaginationMapToken next = null;
+
+    try {
+
+      while (true) {
+
+        PaginationResults<DynamicDocumentItem> page =
+            pages.poll(EXPORT_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        if (page != null) {
+
+          if (!consumer.test(page.getResults())) {
+            next = page.getToken();
+            break;
+          }
+
+        } else if (producer.isDone() && pages.isEmpty()) {
+          // rethrows any search failure
+          producer.get();
+          break;
+        }
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+
+    } catch (ExecutionException e) {
+
+      if (e.getCause() instanceof ValidationException ve) {
+        throw ve;
+      } else if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+
+      throw new IllegalStateException(e.getCause());
+
+    } finally {
+      producer.cancel(true);
+      executor.shutdownNow();
+    }
+
+    return next;
+  }
+
+  /**
+   * Search every page, starting from a token, into a bounded queue.
+   * 
+   * @param siteId {@link String}
+   * @param query {@link SearchQuery}
+   * @param searchResponseFields {@link SearchResponseFields}
+   * @param startToken {@link PaginationMapToken}
+   * @param pages {@link BlockingQueue}
+   * @return {@link Void}
+   * @throws ValidationException ValidationException
+   * @throws InterruptedException InterruptedException
+   */
+  private Void exportPages(final String siteId, final SearchQuery query,
+      final SearchResponseFields searchResponseFields, final PaginationMapToken startToken,
+      final BlockingQueue<PaginationResults<DynamicDocumentItem>> pages)
+      throws ValidationException, InterruptedException {
+
+    PaginationMapToken token = startToken;
+
+    do {
+      PaginationResults<DynamicDocumentItem> results =
+          searchDocuments(siteId, query, searchResponseFields, token, EXPORT_PAGE_SIZE);
+      addResponseTags(siteId, results.getResults(), searchResponseFields);
+
+      if (!results.getResults().isEmpty()) {
+        pages.put(results);
+      }
+
+      token = results.getToken();
+
+    } while (token != null);
+
+    return null;
+  }
+
   /**
    * Filter {@link AttributeValue} by {@link SearchTagCriteria}.
    * 
@@ -602,6 +766,30 @@ public final class DocumentSearchServiceImpl implements DocumentSearchService {
       final SearchResponseFields searchResponseFields, final PaginationMapToken token,
       final int maxresults) throws ValidationException {
 
+    PaginationResults<DynamicDocumentItem> results;
+
+    if (this.searchCache != null) {
+
+      String key =
+          this.searchCache.createKey(siteId, query, searchResponseFields, token, maxresults);
+      results = this.searchCache.get(key);
+
+      if (results == null) {
+        results = searchDocuments(siteId, query, searchResponseFields, token, maxresults);
+        this.searchCache.put(key, results);
+      }
+
+    } else {
+      results = searchDocuments(siteId, query, searchResponseFields, token, maxresults);
+    }
+
+    return results;
+  }
+
+  private PaginationResults<DynamicDocumentItem> searchDocuments(final String siteId,
+      final SearchQuery query, final SearchResponseFields searchResponseFields,
+      final PaginationMapToken token, final int maxresults) throws ValidationException {
+
     SearchMetaCriteria meta = query.getMeta();
     PaginationResults<DynamicDocumentItem> results;
 
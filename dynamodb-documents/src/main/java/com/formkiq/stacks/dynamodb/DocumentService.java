@@ -265,6 +265,17 @@ public interface DocumentService {
   PaginationResults<DocumentAttributeRecord> findDocumentAttributes(String siteId,
       String documentId, PaginationMapToken pagination, int limit);
 
+  /**
+   * Find a Document's string fields, reading only those fields from the document record.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param fields {@link Collection} {@link String}
+   * @return {@link Map}, empty if the document does not exist
+   */
+  Map<String, String> findDocumentFields(String siteId, String documentId,
+      Collection<String> fields);
+
   /**
    * Get Document Format.
    * 
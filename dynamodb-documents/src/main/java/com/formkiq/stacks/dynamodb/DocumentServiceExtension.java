@@ -26,6 +26,8 @@ package com.formkiq.stacks.dynamodb;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
 
 /**
  * 
@@ -54,8 +56,13 @@ public class DocumentServiceExtension implements AwsServiceExtension<DocumentSer
       DocumentServiceInterceptor interceptor =
           awsServiceCache.getExtensionOrNull(DocumentServiceInterceptor.class);
 
-      this.service = new DocumentServiceImpl(connection,
-          awsServiceCache.environment("DOCUMENTS_TABLE"), versionService, interceptor);
+      AttributeFacetService facetService =
+          awsServiceCache.getExtensionOrNull(AttributeFacetService.class);
+
+      this.service =
+          new DocumentServiceImpl(connection, awsServiceCache.environment("DOCUMENTS_TABLE"),
+              versionService, interceptor, awsServiceCache.getExtensionOrNull(SearchEpoch.class),
+              facetService);
     }
 
     return this.service;
@@ -23,6 +23,7 @@
  */
 package com.formkiq.stacks.dynamodb;
 
+import com.formkiq.aws.dynamodb.DynamodbRecordCodec;
 import com.formkiq.aws.dynamodb.AttributeValueToMap;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
@@ -30,7 +31,6 @@ import com.formkiq.aws.dynamodb.DynamicObject;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.DynamoDbService;
 import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
-import com.formkiq.aws.dynamodb.DynamodbRecordTx;
 import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResult;
 import com.formkiq.aws.dynamodb.PaginationResults;
@@ -47,6 +47,7 @@ import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.stacks.dynamodb.attributes.AttributeDataType;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
 import com.formkiq.stacks.dynamodb.attributes.AttributeKeyReserved;
 import com.formkiq.stacks.dynamodb.attributes.AttributeRecord;
 import com.formkiq.stacks.dynamodb.attributes.AttributeService;
@@ -62,6 +63,7 @@ import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecordPredicate;
 import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecordsToSchemaAttributes;
 import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeValueType;
 import com.formkiq.stacks.dynamodb.attributes.DynamicObjectToDocumentAttributeRecord;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
 import com.formkiq.stacks.dynamodb.documents.DocumentPublicationRecord;
 import com.formkiq.stacks.dynamodb.schemas.Schema;
 import com.formkiq.stacks.dynamodb.schemas.SchemaAttributes;
@@ -132,6 +134,8 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
   private final AttributeService attributeService;
   /** {@link AttributeValidator}. */
   private final AttributeValidator attributeValidator;
+  /** {@link AttributeFacetService}, null when facet counters are not enabled. */
+  private final AttributeFacetService facetService;
   /** {@link DynamoDbClient}. */
   private final DynamoDbClient dbClient;
   /** {@link DynamoDbService}. */
@@ -148,6 +152,9 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
   private String lastShortDate = null;
   /** {@link SchemaService}. */
   private final SchemaService schemaService;
+
+  /** {@link SearchEpoch}. */
+  private final SearchEpoch searchEpoch;
   /** {@link DocumentVersionService}. */
   private final DocumentVersionService versionsService;
   /** {@link SimpleDateFormat} YYYY-mm-dd format. */
@@ -180,6 +187,40 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
   public DocumentServiceImpl(final DynamoDbConnectionBuilder connection,
       final String documentsTable, final DocumentVersionService documentVersionsService,
       final DocumentServiceInterceptor documentServiceInterceptor) {
+    this(connection, documentsTable, documentVersionsService, documentServiceInterceptor, null);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbConnectionBuilder}
+   * @param documentsTable {@link String}
+   * @param documentVersionsService {@link DocumentVersionService}
+   * @param documentServiceInterceptor {@link DocumentServiceInterceptor}
+   * @param epoch {@link SearchEpoch}, null when the search cache is not enabled
+   */
+  public DocumentServiceImpl(final DynamoDbConnectionBuilder connection,
+      final String documentsTable, final DocumentVersionService documentVersionsService,
+      final DocumentServiceInterceptor documentServiceInterceptor, final SearchEpoch epoch) {
+    this(connection, documentsTable, documentVersionsService, documentServiceInterceptor, epoch,
+        null);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbConnectionBuilder}
+   * @param documentsTable {@link String}
+   * @param documentVersionsService {@link DocumentVersionService}
+   * @param documentServiceInterceptor {@link DocumentServiceInterceptor}
+   * @param epoch {@link SearchEpoch}, null when the search cache is not enabled
+   * @param attributeFacetService {@link AttributeFacetService}, null when facet counters are not
+   *        enabled
+   */
+  public DocumentServiceImpl(final DynamoDbConnectionBuilder connection,
+      final String documentsTable, final DocumentVersionService documentVersionsService,
+      final DocumentServiceInterceptor documentServiceInterceptor, final SearchEpoch epoch,
+      final AttributeFacetService attributeFacetService) {
 
     if (documentsTable == null) {
       throw new IllegalArgumentException("'documentsTable' is null");
@@ -190,12 +231,14 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     this.versionsService = documentVersionsService;
     this.dbClient = connection.build();
     this.documentTableName = documentsTable;
-    this.folderIndexProcessor = new FolderIndexProcessorImpl(connection, documentsTable);
+    this.folderIndexProcessor = new FolderIndexProcessorImpl(connection, documentsTable, epoch);
     this.dbService = new DynamoDbServiceImpl(connection, documentsTable);
     this.attributeValidator = new AttributeValidatorImpl(this.dbService);
     this.attributeService = new AttributeServiceDynamodb(this.dbService);
+    this.facetService = attributeFacetService;
     this.yyyymmddFormat = new SimpleDateFormat("yyyy-MM-dd");
     this.schemaService = new SchemaServiceDynamodb(this.dbService);
+    this.searchEpoch = epoch;
 
     TimeZone tz = TimeZone.getTimeZone("UTC");
     this.yyyymmddFormat.setTimeZone(tz);
@@ -215,7 +258,9 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     WriteRequestBuilder writeBuilder =
         new WriteRequestBuilder().appends(this.documentTableName, folderIndex);
 
-    writeBuilder.batchWriteItem(this.dbClient);
+    if (writeBuilder.batchWriteItem(this.dbClient)) {
+      invalidateSearchCache(siteId);
+    }
   }
 
   private void addMetadata(final DocumentItem document,
@@ -252,6 +297,7 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
       writeBuilder.batchWriteItem(this.dbClient);
 
       this.indexWriter.writeTagIndex(siteId, tagKeys);
+      invalidateSearchCache(siteId);
     }
   }
 
@@ -444,6 +490,7 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     AttributeValue sk;
 
     List<Map<String, AttributeValue>> list = queryDocumentAttributes(pk, null);
+    List<DocumentAttributeRecord> documentAttributes = toDocumentAttributes(siteId, list, ATTR);
 
     if (softDelete) {
 
@@ -472,6 +519,11 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
       }
     }
 
+    if (deleted) {
+      updateFacets(siteId, null, documentAttributes);
+      invalidateSearchCache(siteId);
+    }
+
     if (this.interceptor != null) {
 
       if (documentRecord.isEmpty()) {
@@ -532,7 +584,9 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
         .map(a -> Map.of(PK, a.fromS(a.pk(siteId)), SK, a.fromS(a.sk()))).toList();
     this.dbService.deleteItems(keys);
 
+    updateFacets(siteId, null, documentAttributes);
     this.versionsService.addRecords(siteId, documentAttributes);
+    invalidateSearchCache(siteId);
   }
 
   @Override
@@ -551,7 +605,15 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     DocumentAttributeRecord r =
         new DocumentAttributeRecord().setDocumentId(documentId).setKey(attributeKey)
             .setStringValue(attributeValue).setValueType(DocumentAttributeValueType.STRING);
-    return this.dbService.deleteItem(Map.of(PK, r.fromS(r.pk(siteId)), SK, r.fromS(r.sk())));
+    boolean deleted =
+        this.dbService.deleteItem(Map.of(PK, r.fromS(r.pk(siteId)), SK, r.fromS(r.sk())));
+
+    if (deleted) {
+      updateFacets(siteId, null, List.of(r));
+      invalidateSearchCache(siteId);
+    }
+
+    return deleted;
   }
 
   @Override
@@ -581,6 +643,7 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
   @Override
   public void deleteDocumentTag(final String siteId, final String documentId, final String tagKey) {
     deleteItem(keysDocumentTag(siteId, documentId, tagKey));
+    invalidateSearchCache(siteId);
   }
 
   @Override
@@ -876,8 +939,8 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     QueryResponse response =
         this.dbService.queryBeginsWith(config, r.fromS(r.pk(siteId)), r.fromS(sk), null, limit);
 
-    return response.items().stream()
-        .map(a -> new DocumentAttributeRecord().getFromAttributes(siteId, a)).toList();
+    return DynamodbRecordCodec.of(DocumentAttributeRecord.class, DocumentAttributeRecord::new)
+        .decodeAll(siteId, response.items());
   }
 
   @Override
@@ -891,12 +954,30 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     QueryResponse response = this.dbService.queryBeginsWith(config, r.fromS(r.pk(siteId)),
         r.fromS(AttributeRecord.ATTR), startkey, limit);
 
-    List<DocumentAttributeRecord> list = response.items().stream()
-        .map(a -> new DocumentAttributeRecord().getFromAttributes(siteId, a)).toList();
+    List<DocumentAttributeRecord> list =
+        DynamodbRecordCodec.of(DocumentAttributeRecord.class, DocumentAttributeRecord::new)
+            .decodeAll(siteId, response.items());
 
     return new PaginationResults<>(list, new QueryResponseToPagination().apply(response));
   }
 
+  @Override
+  public Map<String, String> findDocumentFields(final String siteId, final String documentId,
+      final Collection<String> fields) {
+
+    Map<String, String> names =
+        fields.stream().collect(Collectors.toMap(f -> "#" + f, Function.identity()));
+
+    QueryConfig config = new QueryConfig().projectionExpression(String.join(",", names.keySet()))
+        .expressionAttributeNames(names);
+
+    Map<String, AttributeValue> keys = keysDocument(siteId, documentId);
+    Map<String, AttributeValue> item = this.dbService.get(config, keys.get(PK), keys.get(SK));
+
+    return item.entrySet().stream().filter(e -> e.getValue().s() != null)
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().s()));
+  }
+
   @Override
   public Optional<DocumentFormat> findDocumentFormat(final String siteId, final String documentId,
       final String contentType) {
@@ -1399,6 +1480,32 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     return this.schemaService.getSitesSchema(siteId);
   }
 
+  /**
+   * Increment the site's {@link SearchEpoch} so cached search results are no longer used, does
+   * nothing when the search cache is not enabled.
+   *
+   * @param siteId {@link String}
+   */
+  private void invalidateSearchCache(final String siteId) {
+    if (this.searchEpoch != null) {
+      this.searchEpoch.increment(siteId);
+    }
+  }
+
+  /**
+   * Update the Attribute Facet counters, does nothing when facet counters are not enabled.
+   *
+   * @param siteId {@link String}
+   * @param added {@link Collection} {@link DocumentAttributeRecord}
+   * @param removed {@link Collection} {@link DocumentAttributeRecord}
+   */
+  private void updateFacets(final String siteId, final Collection<DocumentAttributeRecord> added,
+      final Collection<DocumentAttributeRecord> removed) {
+    if (this.facetService != null) {
+      this.facetService.updateFacets(siteId, added, removed);
+    }
+  }
+
   /**
    * Is {@link List} {@link DynamicObject} contain a non generated tag.
    *
@@ -1622,6 +1729,10 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     deletes.forEach(this.dbClient::deleteItem);
     puts.forEach(this.dbClient::putItem);
 
+    if (!deletes.isEmpty() || !puts.isEmpty()) {
+      invalidateSearchCache(siteId);
+    }
+
     return !deletes.isEmpty();
   }
 
@@ -1644,6 +1755,8 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
         this.dbClient.deleteItem(deleteItemRequest);
       });
     }
+
+    invalidateSearchCache(siteId);
   }
 
   @Override
@@ -1684,6 +1797,12 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
       restored = this.dbService.moveItems(list,
           new DocumentRestoreMoveAttributeFunction(siteId, documentId));
 
+      if (restored) {
+        updateFacets(siteId,
+            toDocumentAttributes(siteId, list, SOFT_DELETE + ATTR), null);
+        invalidateSearchCache(siteId);
+      }
+
       if (this.interceptor != null) {
         Map<String, Object> apply = new AttributeValueToMap().apply(attr);
         this.interceptor.restoreSoftDeletedDocument(siteId, documentId, apply);
@@ -1819,8 +1938,8 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
       writeBuilder.append(this.documentTableName, folderIndexRecord.getAttributes(siteId));
     }
 
-    DynamodbRecordTx tx = getSaveDocumentAttributesTx(siteId, document.getDocumentId(), attributes,
-        AttributeValidation.FULL, options.getValidationAccess());
+    DocumentAttributeRecordTx tx = getSaveDocumentAttributesTx(siteId, document.getDocumentId(),
+        attributes, AttributeValidation.FULL, options.getValidationAccess());
 
     writeBuilder.appends(this.documentTableName,
         tx.getSaves().stream().map(a -> a.getAttributes(siteId)).toList());
@@ -1835,6 +1954,9 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
 
       String documentId = document.getDocumentId();
 
+      updateFacets(siteId, tx.getAdded(), null);
+      invalidateSearchCache(siteId);
+
       // delete old composite keys
       deleteDocumentAttributes(siteId, (Collection<DocumentAttributeRecord>) tx.getDeletes());
 
@@ -1907,28 +2029,31 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
       final Collection<DocumentAttributeRecord> attributes, final AttributeValidation validation,
       final AttributeValidationAccess validationAccess) throws ValidationException {
 
-    DynamodbRecordTx tx =
+    DocumentAttributeRecordTx tx =
         getSaveDocumentAttributesTx(siteId, documentId, attributes, validation, validationAccess);
 
     saveDocumentAttributes(siteId, tx);
   }
 
-  private void saveDocumentAttributes(final String siteId, final DynamodbRecordTx tx) {
+  private void saveDocumentAttributes(final String siteId, final DocumentAttributeRecordTx tx) {
 
     if (tx != null) {
       // save document attributes
       this.dbService.putItems(tx.getSaves().stream().map(k -> k.getAttributes(siteId)).toList());
+      updateFacets(siteId, tx.getAdded(), null);
+      invalidateSearchCache(siteId);
 
       // delete old composite keys
       deleteDocumentAttributes(siteId, (Collection<DocumentAttributeRecord>) tx.getDeletes());
     }
   }
 
-  private DynamodbRecordTx getSaveDocumentAttributesTx(final String siteId, final String documentId,
-      final Collection<DocumentAttributeRecord> allAttributes, final AttributeValidation validation,
-      final AttributeValidationAccess validationAccess) throws ValidationException {
+  private DocumentAttributeRecordTx getSaveDocumentAttributesTx(final String siteId,
+      final String documentId, final Collection<DocumentAttributeRecord> allAttributes,
+      final AttributeValidation validation, final AttributeValidationAccess validationAccess)
+      throws ValidationException {
 
-    DynamodbRecordTx tx;
+    DocumentAttributeRecordTx tx;
 
     if (allAttributes != null) {
 
@@ -1968,10 +2093,16 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
       Date now = new Date();
       toSave.forEach(t -> t.setInsertedDate(now));
 
-      tx = new DynamodbRecordTx(toSave,
-          Objects.concat(attributesToBeDeleted, compositeKeysToBeDeleted));
+      Set<String> previousSks = previousAllAttributes.stream().map(DocumentAttributeRecord::sk)
+          .collect(Collectors.toSet());
+      List<DocumentAttributeRecord> added =
+          toSave.stream().filter(a -> !previousSks.contains(a.sk())).toList();
+
+      tx = new DocumentAttributeRecordTx(toSave,
+          Objects.concat(attributesToBeDeleted, compositeKeysToBeDeleted), added);
     } else {
-      tx = new DynamodbRecordTx(Collections.emptyList(), Collections.emptyList());
+      tx = new DocumentAttributeRecordTx(Collections.emptyList(), Collections.emptyList(),
+          Collections.emptyList());
     }
 
     return tx;
@@ -2063,6 +2194,22 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
     return attributesToBeDeleted;
   }
 
+  /**
+   * Convert Document Attribute database records to {@link DocumentAttributeRecord}.
+   * 
+   * @param siteId {@link String}
+   * @param records {@link List} {@link Map}
+   * @param skPrefix {@link String}
+   * @return {@link List} {@link DocumentAttributeRecord}
+   */
+  private List<DocumentAttributeRecord> toDocumentAttributes(final String siteId,
+      final List<Map<String, AttributeValue>> records, final String skPrefix) {
+    DocumentAttributeRecord r = new DocumentAttributeRecord();
+    return records.stream()
+        .filter(a -> a.get(SK).s().startsWith(skPrefix) && a.containsKey("valueType"))
+        .map(a -> r.getFromAttributes(siteId, a)).toList();
+  }
+
   private boolean isSetAccess(final AttributeValidationAccess validationAccess) {
     return AttributeValidationAccess.ADMIN_SET.equals(validationAccess)
         || AttributeValidationAccess.SET.equals(validationAccess);
@@ -2304,6 +2451,7 @@ public final class DocumentServiceImpl implements DocumentService, DbKeys {
 
     Map<String, AttributeValue> keys = keysDocument(siteId, documentId);
     this.dbService.updateValues(keys.get(PK), keys.get(SK), attributes);
+    invalidateSearchCache(siteId);
   }
 
   private void updatePathFromDeepLink(final DocumentItem item) {
@@ -23,6 +23,7 @@
  */
 package com.formkiq.stacks.dynamodb;
 
+import java.util.Collection;
 import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.model.DocumentSync;
@@ -88,4 +89,12 @@ public interface DocumentSyncService {
    */
   void saveSync(String siteId, String documentId, DocumentSyncServiceType service,
       DocumentSyncStatus status, DocumentSyncType type, String userId, String message);
+
+  /**
+   * Save multiple Syncs using batch writes.
+   * 
+   * @param siteId {@link String}
+   * @param syncs {@link Collection} {@link DocumentSync}
+   */
+  void saveSyncs(String siteId, Collection<DocumentSync> syncs);
 }
@@ -29,6 +29,7 @@ import static com.formkiq.aws.dynamodb.DbKeys.SK;
 import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -44,6 +45,7 @@ import com.formkiq.aws.dynamodb.PaginationToAttributeValue;
 import com.formkiq.aws.dynamodb.QueryConfig;
 import com.formkiq.aws.dynamodb.QueryResponseToPagination;
 import com.formkiq.aws.dynamodb.model.DocumentSync;
+import com.formkiq.aws.dynamodb.model.DocumentSyncMap;
 import com.formkiq.aws.dynamodb.model.DocumentSyncServiceType;
 import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
@@ -110,21 +112,53 @@ public final class DocumentSyncServiceDynamoDb implements DocumentSyncService {
       final DocumentSyncServiceType service, final DocumentSyncStatus status,
       final DocumentSyncType type, final String userId, final String message) {
 
+    DocumentSync sync = new DocumentSyncMap(new HashMap<>());
+    sync.setDocumentId(documentId);
+    sync.setService(service);
+    sync.setStatus(status);
+    sync.setType(type);
+    sync.setUserId(userId);
+    sync.setMessage(message);
+
     String fullInsertedDate = this.df.format(new Date());
+    this.db.putItem(toAttributes(siteId, sync, fullInsertedDate));
+  }
+
+  @Override
+  public void saveSyncs(final String siteId, final Collection<DocumentSync> syncs) {
+
+    String fullInsertedDate = this.df.format(new Date());
+
+    List<Map<String, AttributeValue>> items = syncs.stream()
+        .map(sync -> toAttributes(siteId, sync, fullInsertedDate)).collect(Collectors.toList());
+
+    this.db.putItems(items);
+  }
+
+  /**
+   * Convert {@link DocumentSync} to DynamoDb attributes.
+   * 
+   * @param siteId {@link String}
+   * @param sync {@link DocumentSync}
+   * @param fullInsertedDate {@link String}
+   * @return {@link Map}
+   */
+  private Map<String, AttributeValue> toAttributes(final String siteId, final DocumentSync sync,
+      final String fullInsertedDate) {
 
     Map<String, AttributeValue> attrs = new HashMap<>();
-    attrs.put(PK, AttributeValue.fromS(getPk(siteId, documentId)));
+    attrs.put(PK, AttributeValue.fromS(getPk(siteId, sync.getDocumentId())));
     attrs.put(SK, AttributeValue.fromS(SK_SYNCS + fullInsertedDate + TAG_DELIMINATOR + ID.uuid()));
 
-    attrs.put("documentId", AttributeValue.fromS(documentId));
-    attrs.put("service", AttributeValue.fromS(service.name()));
+    attrs.put("documentId", AttributeValue.fromS(sync.getDocumentId()));
+    attrs.put("service", AttributeValue.fromS(sync.getService().name()));
     attrs.put("syncDate", AttributeValue.fromS(fullInsertedDate));
-    attrs.put("userId", AttributeValue.fromS(userId));
-    attrs.put("status", AttributeValue.fromS(status.name()));
-    attrs.put("type", AttributeValue.fromS(type.name()));
-    attrs.put("message", AttributeValue.fromS(message));
+    attrs.put("userId", AttributeValue.fromS(sync.getUserId()));
+    attrs.put("status", AttributeValue.fromS(sync.getStatus().name()));
+    attrs.put("type", AttributeValue.fromS(sync.getType().name()));
+    attrs.put("message", AttributeValue.fromS(sync.getMessage()));
 
-    this.db.putItem(attrs);
+    return attrs;
   }
 
   @Override
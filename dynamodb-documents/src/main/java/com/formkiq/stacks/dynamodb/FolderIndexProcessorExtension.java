@@ -26,6 +26,7 @@ package com.formkiq.stacks.dynamodb;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
 
 /**
  * 
@@ -51,8 +52,9 @@ public class FolderIndexProcessorExtension implements AwsServiceExtension<Folder
       DynamoDbConnectionBuilder connection =
           awsServiceCache.getExtension(DynamoDbConnectionBuilder.class);
 
-      this.service =
-          new FolderIndexProcessorImpl(connection, awsServiceCache.environment("DOCUMENTS_TABLE"));
+      this.service = new FolderIndexProcessorImpl(connection,
+          awsServiceCache.environment("DOCUMENTS_TABLE"),
+          awsServiceCache.getExtensionOrNull(SearchEpoch.class));
     }
 
     return this.service;
@@ -51,6 +51,7 @@ import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
 import com.formkiq.aws.dynamodb.ID;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.objects.Strings;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
@@ -116,6 +117,8 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
   private final String documentTableName;
   /** {@link DynamoDbService}. */
   private final DynamoDbService db;
+  /** {@link SearchEpoch}, null when the search cache is not enabled. */
+  private final SearchEpoch searchEpoch;
 
   /**
    * constructor.
@@ -125,9 +128,22 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
    */
   public FolderIndexProcessorImpl(final DynamoDbConnectionBuilder connection,
       final String documentsTable) {
+    this(connection, documentsTable, null);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbClient}
+   * @param documentsTable {@link String}
+   * @param epoch {@link SearchEpoch}, null when the search cache is not enabled
+   */
+  public FolderIndexProcessorImpl(final DynamoDbConnectionBuilder connection,
+      final String documentsTable, final SearchEpoch epoch) {
     this.dbClient = connection.build();
     this.documentTableName = documentsTable;
     this.db = new DynamoDbServiceImpl(connection, documentsTable);
+    this.searchEpoch = epoch;
   }
 
   private void checkParentId(final FolderIndexRecord record, final String parentId) {
@@ -187,6 +203,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
 
           this.dbClient.transactWriteItems(TransactWriteItemsRequest.builder()
               .transactItems(TransactWriteItem.builder().put(put).build()).build());
+          invalidateSearchCache(siteId);
         }
 
       } finally {
@@ -252,6 +269,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
       Map<String, AttributeValueUpdate> values = Map.of("lastModifiedDate",
           AttributeValueUpdate.builder().value(attributes.get("lastModifiedDate")).build());
       this.db.updateItem(parent.fromS(parent.pk(siteId)), parent.fromS(parent.sk()), values);
+      invalidateSearchCache(siteId);
     }
 
     FolderIndexRecord r = new FolderIndexRecord().parentDocumentId(parentId).documentId(documentId)
@@ -299,6 +317,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
 
       if (!hasFiles(siteId, documentId)) {
         deleted = this.db.deleteItem(fromS(pk), fromS(sk));
+        invalidateSearchCache(siteId);
       } else {
         throw new IOException("folder is not empty");
       }
@@ -324,6 +343,10 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
         this.db.deleteItem(file.get(PK), file.get(SK));
       }
 
+      if (!files.isEmpty()) {
+        invalidateSearchCache(siteId);
+      }
+
     } catch (IOException e) {
       e.printStackTrace();
     }
@@ -577,6 +600,18 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
     return !response.items().isEmpty();
   }
 
+  /**
+   * Increment the site's {@link SearchEpoch} so cached search results are no longer used, does
+   * nothing when the search cache is not enabled.
+   *
+   * @param siteId {@link String}
+   */
+  private void invalidateSearchCache(final String siteId) {
+    if (this.searchEpoch != null) {
+      this.searchEpoch.increment(siteId);
+    }
+  }
+
   @Override
   public boolean isFolderIdInPath(final String siteId, final String path, final String folderId)
       throws IOException {
@@ -722,6 +757,8 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
       throw new RuntimeException(
           String.format("Unsupported move %s to %s", sourceType, targetType));
     }
+
+    invalidateSearchCache(siteId);
   }
 
   /**
@@ -25,7 +25,6 @@ package com.formkiq.stacks.dynamodb;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -112,8 +111,6 @@ public class FolderIndexRecord implements DynamodbRecord<FolderIndexRecord>, DbK
   @Override
   public Map<String, AttributeValue> getAttributes(final String siteId) {
 
-    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
     Map<String, AttributeValue> attrs =
         new HashMap<>(Map.of(DbKeys.PK, AttributeValue.fromS(pk(siteId)), DbKeys.SK,
             AttributeValue.fromS(sk()), "documentId", AttributeValue.fromS(this.documentId), "path",
@@ -123,11 +120,12 @@ public class FolderIndexRecord implements DynamodbRecord<FolderIndexRecord>, DbK
       attrs.put("parentDocumentId", AttributeValue.fromS(this.parentDocumentId));
     }
     if (this.insertedDate != null) {
-      attrs.put("inserteddate", AttributeValue.fromS(df.format(this.insertedDate)));
+      attrs.put("inserteddate", AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
     }
 
     if (this.lastModifiedDate != null) {
-      attrs.put("lastModifiedDate", AttributeValue.fromS(df.format(this.lastModifiedDate)));
+      attrs.put("lastModifiedDate",
+          AttributeValue.fromS(DateUtil.formatIsoDate(this.lastModifiedDate)));
     }
 
     if (this.userId != null) {
@@ -155,11 +153,9 @@ public class FolderIndexRecord implements DynamodbRecord<FolderIndexRecord>, DbK
         .path(ss(attrs, "path")).type(ss(attrs, "type")).userId(ss(attrs, "userId"))
         .parentDocumentId(ss(attrs, "parentDocumentId"));
 
-    SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
     if (attrs.containsKey("inserteddate")) {
       try {
-        record = record.insertedDate(df.parse(ss(attrs, "inserteddate")));
+        record = record.insertedDate(DateUtil.parseIsoDate(ss(attrs, "inserteddate")));
       } catch (ParseException e) {
         e.printStackTrace();
         throw new IllegalArgumentException("invalid 'inserteddate'");
@@ -168,7 +164,7 @@ public class FolderIndexRecord implements DynamodbRecord<FolderIndexRecord>, DbK
 
     if (attrs.containsKey("lastModifiedDate")) {
       try {
-        record = record.lastModifiedDate(df.parse(ss(attrs, "lastModifiedDate")));
+        record = record.lastModifiedDate(DateUtil.parseIsoDate(ss(attrs, "lastModifiedDate")));
       } catch (ParseException e) {
         throw new IllegalArgumentException("invalid 'lastModifiedDate'");
       }
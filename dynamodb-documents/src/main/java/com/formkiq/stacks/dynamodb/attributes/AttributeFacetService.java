@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.attributes;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 
+ * Service for maintaining Document Attribute Value facet counters.
+ *
+ */
+public interface AttributeFacetService {
+
+  /**
+   * Get the number of documents per Attribute Value.
+   * 
+   * @param siteId {@link String}
+   * @param attributeKey {@link String}
+   * @return {@link Map} of attribute value to document count
+   */
+  Map<String, Long> getFacets(String siteId, String attributeKey);
+
+  /**
+   * Update Facet counters.
+   * 
+   * @param siteId {@link String}
+   * @param added {@link Collection} {@link DocumentAttributeRecord} added to documents
+   * @param removed {@link Collection} {@link DocumentAttributeRecord} removed from documents
+   */
+  void updateFacets(String siteId, Collection<DocumentAttributeRecord> added,
+      Collection<DocumentAttributeRecord> removed);
+}
@@ -0,0 +1,223 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.attributes;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import static com.formkiq.aws.dynamodb.objects.Objects.formatDouble;
+import static com.formkiq.aws.dynamodb.objects.Objects.notNull;
+import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromN;
+import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.QueryConfig;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+/**
+ * 
+ * DynamoDb implementation of {@link AttributeFacetService}.
+ * 
+ * Counters are written using atomic ADD updates spread over a fixed number of shards (one
+ * partition key per shard) so a popular attribute value does not become a hot key. Reads query
+ * every shard and sum the counts.
+ * 
+ * Counters are only maintained for writes made after facets were enabled and updates are not part
+ * of the document write transaction.
+ *
+ */
+public final class AttributeFacetServiceDynamodb implements AttributeFacetService, DbKeys {
+
+  /** Default Number of Shards. */
+  public static final int DEFAULT_SHARDS = 10;
+  /** Facet PK prefix. */
+  private static final String PREFIX_FACET = "facet" + TAG_DELIMINATOR;
+  /** Facet SK prefix. */
+  private static final String PREFIX_VALUE = "value" + TAG_DELIMINATOR;
+  /** Facet Count attribute. */
+  private static final String COUNT = "facetCount";
+  /** Query Limit. */
+  private static final int LIMIT = 100;
+
+  /** {@link DynamoDbService}. */
+  private final DynamoDbService db;
+  /** Number of shards. */
+  private final int shards;
+
+  /**
+   * constructor.
+   * 
+   * @param dbService {@link DynamoDbService}
+   */
+  public AttributeFacetServiceDynamodb(final DynamoDbService dbService) {
+    this(dbService, DEFAULT_SHARDS);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param dbService {@link DynamoDbService}
+   * @param shardCount int
+   */
+  public AttributeFacetServiceDynamodb(final DynamoDbService dbService, final int shardCount) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("'shardCount' must be greater than 0");
+    }
+    this.db = dbService;
+    this.shards = shardCount;
+  }
+
+  /**
+   * Add the facet value for a {@link DocumentAttributeRecord} to the deltas.
+   * 
+   * @param deltas {@link Map}
+   * @param record {@link DocumentAttributeRecord}
+   * @param delta long
+   */
+  private void addDelta(final Map<String, Map<String, Long>> deltas,
+      final DocumentAttributeRecord record, final long delta) {
+
+    String value = getFacetValue(record);
+    if (value != null) {
+      deltas.computeIfAbsent(record.getKey(), k -> new HashMap<>()).merge(value, delta,
+          Long::sum);
+    }
+  }
+
+  @Override
+  public Map<String, Long> getFacets(final String siteId, final String attributeKey) {
+
+    Map<String, Long> facets = new TreeMap<>();
+    QueryConfig config = new QueryConfig();
+    AttributeValue sk = fromS(PREFIX_VALUE);
+
+    for (int i = 0; i < this.shards; i++) {
+
+      AttributeValue pk = fromS(pk(siteId, attributeKey, i));
+      Map<String, AttributeValue> startkey = null;
+
+      do {
+
+        QueryResponse response = this.db.queryBeginsWith(config, pk, sk, startkey, LIMIT);
+
+        response.items().forEach(item -> {
+          String value = item.get("value").s();
+          long count = Long.parseLong(item.get(COUNT).n());
+          facets.merge(value, Long.valueOf(count), Long::sum);
+        });
+
+        startkey = response.lastEvaluatedKey();
+
+      } while (startkey != null && !startkey.isEmpty());
+    }
+
+    facets.values().removeIf(c -> c.longValue() <= 0);
+    return facets;
+  }
+
+  /**
+   * Get the Facet value of a {@link DocumentAttributeRecord}, null if the attribute is not
+   * counted.
+   * 
+   * @param record {@link DocumentAttributeRecord}
+   * @return {@link String}
+   */
+  private String getFacetValue(final DocumentAttributeRecord record) {
+
+    String value = null;
+
+    if (record.getValueType() != null) {
+      value = switch (record.getValueType()) {
+        case STRING, CLASSIFICATION -> record.getStringValue();
+        case NUMBER -> record.getNumberValue() != null ? formatDouble(record.getNumberValue())
+            : null;
+        case BOOLEAN -> record.getBooleanValue() != null ? record.getBooleanValue().toString()
+            : null;
+        default -> null;
+      };
+    }
+
+    return value;
+  }
+
+  /**
+   * Facet PK.
+   * 
+   * @param siteId {@link String}
+   * @param attributeKey {@link String}
+   * @param shard int
+   * @return {@link String}
+   */
+  private String pk(final String siteId, final String attributeKey, final int shard) {
+    return createDatabaseKey(siteId,
+        PREFIX_FACET + attributeKey + TAG_DELIMINATOR + "shard" + TAG_DELIMINATOR + shard);
+  }
+
+  @Override
+  public void updateFacets(final String siteId, final Collection<DocumentAttributeRecord> added,
+      final Collection<DocumentAttributeRecord> removed) {
+
+    Map<String, Map<String, Long>> deltas = new HashMap<>();
+    notNull(added).forEach(a -> addDelta(deltas, a, 1));
+    notNull(removed).forEach(a -> addDelta(deltas, a, -1));
+
+    deltas.forEach((key, values) -> values.forEach((value, delta) -> {
+      if (delta.longValue() != 0) {
+        updateCounter(siteId, key, value, delta.longValue());
+      }
+    }));
+  }
+
+  /**
+   * Atomically ADD to a randomly selected shard counter.
+   * 
+   * @param siteId {@link String}
+   * @param attributeKey {@link String}
+   * @param value {@link String}
+   * @param delta long
+   */
+  private void updateCounter(final String siteId, final String attributeKey, final String value,
+      final long delta) {
+
+    int shard = ThreadLocalRandom.current().nextInt(this.shards);
+
+    Map<String, AttributeValue> key = Map.of(PK, fromS(pk(siteId, attributeKey, shard)), SK,
+        fromS(PREFIX_VALUE + value));
+
+    UpdateItemRequest request = UpdateItemRequest.builder().tableName(this.db.getTableName())
+        .key(key).updateExpression("SET #key = :key, #value = :value ADD #count :delta")
+        .expressionAttributeNames(Map.of("#key", "key", "#value", "value", "#count", COUNT))
+        .expressionAttributeValues(Map.of(":key", fromS(attributeKey), ":value", fromS(value),
+            ":delta", fromN(String.valueOf(delta))))
+        .build();
+
+    this.db.updateItem(request);
+  }
+}
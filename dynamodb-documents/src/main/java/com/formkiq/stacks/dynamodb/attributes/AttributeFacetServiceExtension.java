@@ -0,0 +1,69 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.attributes;
+
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.AwsServiceExtension;
+
+/**
+ * 
+ * {@link AwsServiceExtension} for {@link AttributeFacetService}. Facet counters are enabled by
+ * setting "ATTRIBUTE_FACETS_ENABLED" to "true", when they are not enabled no
+ * {@link AttributeFacetService} is created so attribute writes do not update the counters.
+ *
+ */
+public class AttributeFacetServiceExtension implements AwsServiceExtension<AttributeFacetService> {
+
+  /** {@link AttributeFacetService}. */
+  private AttributeFacetService service;
+
+  /**
+   * Are Facet counters enabled.
+   * 
+   * @param awsServiceCache {@link AwsServiceCache}
+   * @return boolean
+   */
+  public static boolean isEnabled(final AwsServiceCache awsServiceCache) {
+    return "true".equals(awsServiceCache.environment("ATTRIBUTE_FACETS_ENABLED"));
+  }
+
+  /**
+   * constructor.
+   */
+  public AttributeFacetServiceExtension() {}
+
+  @Override
+  public AttributeFacetService loadService(final AwsServiceCache awsServiceCache) {
+    if (this.service == null && isEnabled(awsServiceCache)) {
+      DynamoDbConnectionBuilder connection =
+          awsServiceCache.getExtension(DynamoDbConnectionBuilder.class);
+      this.service = new AttributeFacetServiceDynamodb(
+          new DynamoDbServiceImpl(connection, awsServiceCache.environment("DOCUMENTS_TABLE")));
+    }
+
+    return this.service;
+  }
+}
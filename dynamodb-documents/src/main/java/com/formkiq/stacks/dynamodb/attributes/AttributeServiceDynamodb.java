@@ -29,6 +29,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.DynamodbRecordCodec;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamoDbService;
@@ -179,8 +180,8 @@ public class AttributeServiceDynamodb implements AttributeService, DbKeys {
 
     List<Map<String, AttributeValue>> attrs = this.db.getBatch(new BatchGetConfig(), keys);
 
-    List<AttributeRecord> list =
-        attrs.stream().map(a -> new AttributeRecord().getFromAttributes(siteId, a)).toList();
+    List<AttributeRecord> list = DynamodbRecordCodec
+        .of(AttributeRecord.class, AttributeRecord::new).decodeAll(siteId, attrs);
 
     return new PaginationResults<>(list, new QueryResponseToPagination().apply(response));
   }
@@ -215,7 +216,9 @@ public class AttributeServiceDynamodb implements AttributeService, DbKeys {
 
     List<Map<String, AttributeValue>> values = this.db.getBatch(new BatchGetConfig(), keys);
 
-    return values.stream().map(a -> new AttributeRecord().getFromAttributes(siteId, a))
+    DynamodbRecordCodec<AttributeRecord> codec =
+        DynamodbRecordCodec.of(AttributeRecord.class, AttributeRecord::new);
+    return values.stream().map(a -> codec.decode(siteId, a))
         .collect(Collectors.toMap(AttributeRecord::getKey, a -> a));
   }
 
@@ -31,13 +31,12 @@ import com.formkiq.graalvm.annotations.Reflectable;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Objects.formatDouble;
+import static com.formkiq.aws.dynamodb.objects.Objects.newHashMap;
 import static com.formkiq.stacks.dynamodb.attributes.AttributeRecord.ATTR;
 
 /**
@@ -49,8 +48,11 @@ import static com.formkiq.stacks.dynamodb.attributes.AttributeRecord.ATTR;
 public class DocumentAttributeRecord
     implements DynamodbVersionRecord<DocumentAttributeRecord>, DbKeys {
 
-  /** {@link SimpleDateFormat}. */
-  private final SimpleDateFormat df = DateUtil.getIsoDateFormatter();
+  /** Maximum number of data attributes. */
+  private static final int DATA_ATTRIBUTES_SIZE = 8;
+  /** Number of key attributes. */
+  private static final int KEY_ATTRIBUTES_SIZE = 4;
+
   /** Boolean value. */
   private Boolean booleanValue;
   /** Attribute Document Id. */
@@ -96,7 +98,9 @@ public class DocumentAttributeRecord
   @Override
   public Map<String, AttributeValue> getAttributes(final String siteId) {
 
-    Map<String, AttributeValue> map = new HashMap<>(getDataAttributes());
+    Map<String, AttributeValue> data = getDataAttributes();
+    Map<String, AttributeValue> map = newHashMap(data.size() + KEY_ATTRIBUTES_SIZE);
+    map.putAll(data);
 
     map.put(DbKeys.PK, fromS(pk(siteId)));
     map.put(DbKeys.SK, fromS(sk()));
@@ -109,7 +113,7 @@ public class DocumentAttributeRecord
   @Override
   public Map<String, AttributeValue> getDataAttributes() {
 
-    Map<String, AttributeValue> map = new HashMap<>();
+    Map<String, AttributeValue> map = newHashMap(DATA_ATTRIBUTES_SIZE);
     map.put("key", fromS(this.key));
     map.put("valueType", fromS(this.valueType.name()));
     map.put("documentId", fromS(this.documentId));
@@ -128,7 +132,8 @@ public class DocumentAttributeRecord
     }
 
     if (this.insertedDate != null) {
-      map.put("inserteddate", AttributeValue.fromS(df.format(this.insertedDate)));
+      map.put("inserteddate",
+          AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
     }
 
     return map;
@@ -160,7 +165,8 @@ public class DocumentAttributeRecord
 
       if (attrs.containsKey("inserteddate")) {
         try {
-          record = record.setInsertedDate(df.parse(ss(attrs, "inserteddate")));
+          record = record.setInsertedDate(
+              DateUtil.parseIsoDate(ss(attrs, "inserteddate")));
         } catch (ParseException e) {
           // ignore
         }
@@ -378,7 +384,8 @@ public class DocumentAttributeRecord
 
   @Override
   public String skVersion() {
-    String sk = ATTR + this.key + "#" + this.df.format(getInsertedDate()) + "#";
+    String sk = ATTR + this.key + "#"
+        + DateUtil.formatIsoDate(getInsertedDate()) + "#";
     return getSkValue(sk);
   }
 
@@ -23,7 +23,7 @@
  */
 package com.formkiq.stacks.dynamodb.attributes;
 
-import com.formkiq.aws.dynamodb.DynamodbRecordToMap;
+import com.formkiq.aws.dynamodb.objects.DateUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
+import static com.formkiq.aws.dynamodb.objects.Objects.newHashMap;
 import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
 
 /**
@@ -39,6 +40,8 @@ import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
 public class DocumentAttributeRecordToMap
     implements Function<Collection<DocumentAttributeRecord>, Collection<Map<String, Object>>> {
 
+  /** Maximum number of response values of a {@link DocumentAttributeRecord}. */
+  private static final int RECORD_SIZE = 7;
   /** Whether Keys should be unique. */
   private final boolean uniqueKeys;
 
@@ -74,14 +77,7 @@ public class DocumentAttributeRecordToMap
 
       } else {
 
-        lastValues = new DynamodbRecordToMap().apply(a);
-        lastValues.remove("documentId");
-
-        if (lastValues.containsKey("inserteddate")) {
-          lastValues.put("insertedDate", lastValues.get("inserteddate"));
-          lastValues.remove("inserteddate");
-        }
-
+        lastValues = toMap(a);
         c.add(lastValues);
 
         last = a;
@@ -91,6 +87,39 @@ public class DocumentAttributeRecordToMap
     return c;
   }
 
+  /**
+   * Convert {@link DocumentAttributeRecord} directly to its response {@link Map}, without building
+   * the {@link software.amazon.awssdk.services.dynamodb.model.AttributeValue} {@link Map} first.
+   * 
+   * @param a {@link DocumentAttributeRecord}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toMap(final DocumentAttributeRecord a) {
+
+    Map<String, Object> values = newHashMap(RECORD_SIZE);
+    values.put("key", a.getKey());
+    values.put("valueType", a.getValueType() != null ? a.getValueType().name() : null);
+    values.put("userId", a.getUserId());
+
+    if (a.getBooleanValue() != null) {
+      values.put("booleanValue", a.getBooleanValue());
+    }
+
+    if (a.getNumberValue() != null) {
+      values.put("numberValue", a.getNumberValue());
+    }
+
+    if (a.getStringValue() != null) {
+      values.put("stringValue", a.getStringValue());
+    }
+
+    if (a.getInsertedDate() != null) {
+      values.put("insertedDate", DateUtil.formatIsoDate(a.getInsertedDate()));
+    }
+
+    return values;
+  }
+
   private void addNumberValues(final Map<String, Object> lastValues,
       final DocumentAttributeRecord a) {
     if (lastValues.containsKey("numberValue")) {
@@ -0,0 +1,224 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.cache;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromN;
+import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+/**
+ * 
+ * Per site write epoch. Every write that can change a search result increments the site's
+ * epoch, which invalidates all cached search results for that site.
+ * 
+ * The epoch is the sum of a fixed number of counters (one partition key per shard), each write
+ * increments a randomly selected shard so a site with a high write rate does not become a hot
+ * key. The number of shards must be the same for every function using the epoch.
+ * 
+ * The epoch is cached in-process for a short refresh interval so cache hits do not read DynamoDB.
+ * Increments made through the same instance are visible immediately, increments made by other
+ * instances are picked up after at most the refresh interval.
+ *
+ */
+public class SearchEpoch implements DbKeys {
+
+  /** Default in-process refresh interval in milliseconds. */
+  public static final long DEFAULT_REFRESH_IN_MILLIS = 1000;
+  /** Default Number of Shards. */
+  public static final int DEFAULT_SHARDS = 10;
+  /** Epoch Attribute. */
+  private static final String EPOCH = "Number";
+  /** Shard Attribute. */
+  private static final String SHARD = "shard";
+  /** Epoch SK. */
+  private static final String SK_EPOCH = "epoch";
+  /** Epoch PK prefix. */
+  private static final String PREFIX_EPOCH = "searchepoch";
+
+  /** {@link DynamoDbService}. */
+  private final DynamoDbService db;
+  /** In-process epochs by site. */
+  private final Map<String, CachedEpoch> epochs = new ConcurrentHashMap<>();
+  /** In-process refresh interval in milliseconds. */
+  private final long refreshInMillis;
+  /** Number of shards. */
+  private final int shards;
+
+  /**
+   * constructor.
+   * 
+   * @param dbService {@link DynamoDbService}
+   */
+  public SearchEpoch(final DynamoDbService dbService) {
+    this(dbService, DEFAULT_REFRESH_IN_MILLIS);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param dbService {@link DynamoDbService}
+   * @param refreshIntervalInMillis long, how long an epoch read from DynamoDB is reused
+   */
+  public SearchEpoch(final DynamoDbService dbService, final long refreshIntervalInMillis) {
+    this(dbService, refreshIntervalInMillis, DEFAULT_SHARDS);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param dbService {@link DynamoDbService}
+   * @param refreshIntervalInMillis long, how long an epoch read from DynamoDB is reused
+   * @param shardCount int
+   */
+  public SearchEpoch(final DynamoDbService dbService, final long refreshIntervalInMillis,
+      final int shardCount) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("'shardCount' must be greater than 0");
+    }
+    this.db = dbService;
+    this.refreshInMillis = refreshIntervalInMillis;
+    this.shards = shardCount;
+  }
+
+  /**
+   * Get the current Site Epoch.
+   * 
+   * @param siteId {@link String}
+   * @return long
+   */
+  public long get(final String siteId) {
+
+    String site = siteId != null ? siteId : "";
+    long now = System.currentTimeMillis();
+    CachedEpoch cached = this.epochs.get(site);
+
+    if (cached == null || cached.expires() <= now) {
+
+      List<Map<String, AttributeValue>> keys = IntStream.range(0, this.shards)
+          .mapToObj(i -> Map.of(PK, fromS(pk(siteId, i)), SK, fromS(SK_EPOCH))).toList();
+
+      long[] values = new long[this.shards];
+      this.db.getBatch(new BatchGetConfig(), keys).forEach(item -> {
+        int shard = Integer.parseInt(item.get(SHARD).n());
+        if (shard < this.shards) {
+          values[shard] = Long.parseLong(item.get(EPOCH).n());
+        }
+      });
+
+      CachedEpoch epoch = new CachedEpoch(values, now + this.refreshInMillis);
+      cached = this.epochs.merge(site, epoch, CachedEpoch::merge);
+    }
+
+    return cached.value();
+  }
+
+  /**
+   * Increment the Site Epoch.
+   * 
+   * @param siteId {@link String}
+   */
+  public void increment(final String siteId) {
+
+    int shard = ThreadLocalRandom.current().nextInt(this.shards);
+
+    UpdateItemRequest request = UpdateItemRequest.builder().tableName(this.db.getTableName())
+        .key(Map.of(PK, fromS(pk(siteId, shard)), SK, fromS(SK_EPOCH)))
+        .updateExpression("SET #shard = :shard ADD #epoch :val")
+        .expressionAttributeNames(Map.of("#shard", SHARD, "#epoch", EPOCH))
+        .expressionAttributeValues(
+            Map.of(":shard", fromN(String.valueOf(shard)), ":val", fromN("1")))
+        .returnValues(ReturnValue.UPDATED_NEW).build();
+
+    UpdateItemResponse response = this.db.updateItem(request);
+    long value = Long.parseLong(response.attributes().get(EPOCH).n());
+
+    // the other shards are unknown when the site is not cached, the next get reads them all
+    String site = siteId != null ? siteId : "";
+    this.epochs.computeIfPresent(site, (k, current) -> current.with(shard, value));
+  }
+
+  private String pk(final String siteId, final int shard) {
+    return createDatabaseKey(siteId, PREFIX_EPOCH + TAG_DELIMINATOR + shard);
+  }
+
+  /**
+   * In-process epoch.
+   * 
+   * @param shardValues long[], counter of each shard
+   * @param expires long, expiry time in milliseconds
+   */
+  private record CachedEpoch(long[] shardValues, long expires) {
+
+    /**
+     * Merge a newer read, never moving a shard backwards.
+     * 
+     * @param current {@link CachedEpoch}
+     * @param next {@link CachedEpoch}
+     * @return {@link CachedEpoch}
+     */
+    static CachedEpoch merge(final CachedEpoch current, final CachedEpoch next) {
+      long[] values = next.shardValues().clone();
+      for (int i = 0; i < values.length && i < current.shardValues().length; i++) {
+        values[i] = Math.max(values[i], current.shardValues()[i]);
+      }
+      return new CachedEpoch(values, next.expires());
+    }
+
+    /**
+     * Get the epoch.
+     * 
+     * @return long
+     */
+    long value() {
+      return Arrays.stream(this.shardValues).sum();
+    }
+
+    /**
+     * Set the value of a shard, never moving it backwards.
+     * 
+     * @param shard int
+     * @param value long
+     * @return {@link CachedEpoch}
+     */
+    CachedEpoch with(final int shard, final long value) {
+      long[] values = this.shardValues.clone();
+      values[shard] = Math.max(values[shard], value);
+      return new CachedEpoch(values, this.expires);
+    }
+  }
+}
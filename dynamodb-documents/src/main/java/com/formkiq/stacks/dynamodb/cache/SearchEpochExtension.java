@@ -0,0 +1,100 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.cache;
+
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.AwsServiceExtension;
+
+/**
+ * 
+ * {@link AwsServiceExtension} for {@link SearchEpoch}. The search cache is enabled by setting
+ * "SEARCH_CACHE_MAX_ENTRIES" to a positive number, when it is not enabled no {@link SearchEpoch}
+ * is created so writes do not update the epoch. Every function that writes documents must have
+ * the same setting as the functions that search and must register this extension at startup.
+ *
+ */
+public class SearchEpochExtension implements AwsServiceExtension<SearchEpoch> {
+
+  /**
+   * Get a positive number environment variable.
+   * 
+   * @param awsServiceCache {@link AwsServiceCache}
+   * @param key {@link String}
+   * @param defaultValue long
+   * @return long, default value if not set or not a positive number
+   */
+  public static long getPositiveNumber(final AwsServiceCache awsServiceCache, final String key,
+      final long defaultValue) {
+
+    long result = defaultValue;
+    String value = awsServiceCache.environment(key);
+
+    if (value != null) {
+      try {
+        long number = Long.parseLong(value.trim());
+        result = number > 0 ? number : defaultValue;
+      } catch (NumberFormatException e) {
+        result = defaultValue;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Get Search Cache maximum number of in-process entries.
+   * 
+   * @param awsServiceCache {@link AwsServiceCache}
+   * @return int, 0 if the search cache is not enabled
+   */
+  public static int getMaxEntries(final AwsServiceCache awsServiceCache) {
+    return (int) Math.min(Integer.MAX_VALUE,
+        getPositiveNumber(awsServiceCache, "SEARCH_CACHE_MAX_ENTRIES", 0));
+  }
+
+  /**
+   * constructor.
+   */
+  public SearchEpochExtension() {}
+
+  @Override
+  public SearchEpoch loadService(final AwsServiceCache awsServiceCache) {
+
+    SearchEpoch epoch = null;
+
+    if (getMaxEntries(awsServiceCache) > 0) {
+      DynamoDbConnectionBuilder connection =
+          awsServiceCache.getExtension(DynamoDbConnectionBuilder.class);
+      long refresh = getPositiveNumber(awsServiceCache, "SEARCH_CACHE_EPOCH_REFRESH_MILLIS",
+          SearchEpoch.DEFAULT_REFRESH_IN_MILLIS);
+      epoch = new SearchEpoch(
+          new DynamoDbServiceImpl(connection, awsServiceCache.environment("DOCUMENTS_TABLE")),
+          refresh);
+    }
+
+    return epoch;
+  }
+}
@@ -0,0 +1,241 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.formkiq.aws.dynamodb.PaginationMapToken;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.cache.CacheService;
+import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
+import com.formkiq.aws.dynamodb.model.SearchQuery;
+import com.formkiq.aws.dynamodb.model.SearchResponseFields;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.ToNumberPolicy;
+
+/**
+ * 
+ * Search result page cache. Entries are keyed by site, the site's {@link SearchEpoch}, the
+ * normalized {@link SearchQuery}, response fields, pagination token and limit, so any write
+ * which increments the epoch makes previously cached pages unreachable.
+ * 
+ * Pages are kept in a bounded in-process LRU and, when a {@link CacheService} is supplied, in
+ * the cache table so they are shared between instances.
+ *
+ */
+public class SearchResultCache {
+
+  /** Date Format, matches the API response format. */
+  private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ssZ";
+  /** Cache Key prefix. */
+  private static final String PREFIX_KEY = "search#";
+  /** Number of days to keep entries in {@link CacheService}. */
+  private static final int CACHE_IN_DAYS = 1;
+  /** In-process map load factor. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** {@link Gson}. */
+  private final Gson gson = new GsonBuilder().disableHtmlEscaping().setDateFormat(DATE_FORMAT)
+      .setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+  /** {@link SearchEpoch}. */
+  private final SearchEpoch epoch;
+  /** {@link CacheService}, optional. */
+  private final CacheService cacheService;
+  /** In-process entries. */
+  private final Map<String, CacheEntry> entries;
+  /** Time to live of in-process entries in milliseconds. */
+  private final long ttlInMillis;
+
+  /**
+   * constructor.
+   * 
+   * @param searchEpoch {@link SearchEpoch}
+   * @param cache {@link CacheService}, optional
+   * @param maxEntries int maximum number of in-process entries
+   * @param timeToLiveInMillis long
+   */
+  public SearchResultCache(final SearchEpoch searchEpoch, final CacheService cache,
+      final int maxEntries, final long timeToLiveInMillis) {
+    this.epoch = searchEpoch;
+    this.cacheService = cache;
+    this.ttlInMillis = timeToLiveInMillis;
+    this.entries = new LinkedHashMap<>(maxEntries, LOAD_FACTOR, true) {
+      /** serialVersionUID. */
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Copy results so callers can modify the returned documents without changing the cache.
+   * 
+   * @param results {@link PaginationResults}
+   * @return {@link PaginationResults}
+   */
+  private PaginationResults<DynamicDocumentItem> copy(
+      final PaginationResults<DynamicDocumentItem> results) {
+    List<DynamicDocumentItem> list =
+        results.getResults().stream().map(r -> new DynamicDocumentItem(new HashMap<>(r))).toList();
+    return new PaginationResults<>(list, results.getToken());
+  }
+
+  /**
+   * Create Cache Key for a search, includes the current site epoch so it must be created before
+   * the search is executed.
+   * 
+   * @param siteId {@link String}
+   * @param query {@link SearchQuery}
+   * @param responseFields {@link SearchResponseFields}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @return {@link String}
+   */
+  public String createKey(final String siteId, final SearchQuery query,
+      final SearchResponseFields responseFields, final PaginationMapToken token,
+      final int maxresults) {
+
+    Map<String, Object> key = new LinkedHashMap<>();
+    key.put("query", query);
+    key.put("responseFields", responseFields);
+    key.put("token", token != null ? token.getAttributeMap() : null);
+    key.put("limit", Integer.valueOf(maxresults));
+
+    String site = siteId != null ? siteId : "";
+    return PREFIX_KEY + site + "#" + this.epoch.get(siteId) + "#" + sha256(this.gson.toJson(key));
+  }
+
+  /**
+   * Get Cached Search Results.
+   * 
+   * @param key {@link String}
+   * @return {@link PaginationResults}, null if not cached
+   */
+  @SuppressWarnings("unchecked")
+  public PaginationResults<DynamicDocumentItem> get(final String key) {
+
+    PaginationResults<DynamicDocumentItem> results = null;
+
+    CacheEntry entry;
+    synchronized (this.entries) {
+      entry = this.entries.get(key);
+    }
+
+    if (entry != null && entry.expires > System.currentTimeMillis()) {
+
+      results = copy(entry.results);
+
+    } else if (this.cacheService != null) {
+
+      String json = this.cacheService.read(key);
+
+      if (json != null) {
+        Map<String, Object> map = this.gson.fromJson(json, Map.class);
+        List<Map<String, Object>> list = (List<Map<String, Object>>) map.get("results");
+        Map<String, Object> token = (Map<String, Object>) map.get("token");
+
+        results = new PaginationResults<>(
+            list.stream().map(DynamicDocumentItem::new).toList(),
+            token != null ? new PaginationMapToken(token) : null);
+
+        putLocal(key, results);
+        results = copy(results);
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Add Search Results to the cache.
+   * 
+   * @param key {@link String}
+   * @param results {@link PaginationResults}
+   */
+  public void put(final String key, final PaginationResults<DynamicDocumentItem> results) {
+
+    PaginationResults<DynamicDocumentItem> c = copy(results);
+    putLocal(key, c);
+
+    if (this.cacheService != null) {
+      Map<String, Object> map = new HashMap<>();
+      map.put("results", c.getResults());
+      map.put("token", c.getToken() != null ? c.getToken().getAttributeMap() : null);
+      this.cacheService.write(key, this.gson.toJson(map), CACHE_IN_DAYS);
+    }
+  }
+
+  private void putLocal(final String key, final PaginationResults<DynamicDocumentItem> results) {
+    CacheEntry entry = new CacheEntry(results, System.currentTimeMillis() + this.ttlInMillis);
+    synchronized (this.entries) {
+      this.entries.put(key, entry);
+    }
+  }
+
+  private static String sha256(final String s) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(s.getBytes(StandardCharsets.UTF_8));
+
+      StringBuilder sb = new StringBuilder();
+      for (byte b : hash) {
+        sb.append(String.format("%02x", Byte.valueOf(b)));
+      }
+      return sb.toString();
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * In-process cache entry.
+   */
+  private static final class CacheEntry {
+    /** Cached Results. */
+    private final PaginationResults<DynamicDocumentItem> results;
+    /** Expiry time in milliseconds. */
+    private final long expires;
+
+    /**
+     * constructor.
+     * 
+     * @param pageResults {@link PaginationResults}
+     * @param expiryTime long
+     */
+    CacheEntry(final PaginationResults<DynamicDocumentItem> pageResults, final long expiryTime) {
+      this.results = pageResults;
+      this.expires = expiryTime;
+    }
+  }
+}
@@ -0,0 +1,360 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb.documents;
+
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamodbRecord;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+
+/**
+ * Search Export Record, tracks the progress of an asynchronous search export. An export that does
+ * not finish in one invocation saves a checkpoint (the search cursor and the S3 multipart upload
+ * id) so the next invocation continues where it stopped.
+ */
+public class SearchExportRecord implements DynamodbRecord<SearchExportRecord>, DbKeys {
+
+  /** Status Complete. */
+  public static final String STATUS_COMPLETE = "COMPLETE";
+  /** Status Failed. */
+  public static final String STATUS_FAILED = "FAILED";
+  /** Status In Progress. */
+  public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+  /** Status Pending. */
+  public static final String STATUS_PENDING = "PENDING";
+
+  /** Number of Checkpoints saved. */
+  private long checkpoint;
+  /** Search cursor of the next page to export. */
+  private String cursor;
+  /** Number of Documents exported. */
+  private long documentCount;
+  /** Export Id. */
+  private String exportId;
+  /** Inserted Date. */
+  private String insertedDate;
+  /** Export S3 Key. */
+  private String s3Key;
+  /** Export Status. */
+  private String status;
+  /** Time To Live. */
+  private String timeToLive;
+  /** S3 Multipart Upload Id. */
+  private String uploadId;
+  /** User Id. */
+  private String userId;
+
+  /**
+   * constructor.
+   */
+  public SearchExportRecord() {}
+
+  @Override
+  public Map<String, AttributeValue> getAttributes(final String siteId) {
+
+    Map<String, AttributeValue> map = new HashMap<>(getDataAttributes());
+
+    map.put(DbKeys.PK, fromS(pk(siteId)));
+    map.put(DbKeys.SK, fromS(sk()));
+
+    return map;
+  }
+
+  @Override
+  public Map<String, AttributeValue> getDataAttributes() {
+
+    Map<String, AttributeValue> map = new HashMap<>();
+    map.put("exportId", fromS(getExportId()));
+    map.put("status", fromS(getStatus()));
+    map.put("documentCount", AttributeValue.fromN(String.valueOf(getDocumentCount())));
+    map.put("s3Key", fromS(getS3Key()));
+    map.put("userId", fromS(getUserId()));
+    map.put("inserteddate", fromS(getInsertedDate()));
+    map.put("checkpoint", AttributeValue.fromN(String.valueOf(getCheckpoint())));
+
+    if (this.cursor != null) {
+      map.put("cursor", fromS(this.cursor));
+    }
+
+    if (this.uploadId != null) {
+      map.put("uploadId", fromS(this.uploadId));
+    }
+
+    if (this.timeToLive != null) {
+      map.put("TimeToLive", AttributeValue.fromN(this.timeToLive));
+    }
+
+    return map;
+  }
+
+  /**
+   * Get Number of Checkpoints saved.
+   *
+   * @return long
+   */
+  public long getCheckpoint() {
+    return this.checkpoint;
+  }
+
+  /**
+   * Get Search cursor of the next page to export.
+   *
+   * @return {@link String}
+   */
+  public String getCursor() {
+    return this.cursor;
+  }
+
+  /**
+   * Get Number of Documents exported.
+   *
+   * @return long
+   */
+  public long getDocumentCount() {
+    return this.documentCount;
+  }
+
+  /**
+   * Get Export Id.
+   *
+   * @return {@link String}
+   */
+  public String getExportId() {
+    return this.exportId;
+  }
+
+  @Override
+  public SearchExportRecord getFromAttributes(final String siteId,
+      final Map<String, AttributeValue> attrs) {
+
+    SearchExportRecord record = null;
+
+    if (!attrs.isEmpty()) {
+
+      Double count = nn(attrs, "documentCount");
+      Double checkpoints = nn(attrs, "checkpoint");
+
+      record = new SearchExportRecord().setExportId(ss(attrs, "exportId"))
+          .setStatus(ss(attrs, "status")).setS3Key(ss(attrs, "s3Key"))
+          .setUserId(ss(attrs, "userId")).setInsertedDate(ss(attrs, "inserteddate"))
+          .setDocumentCount(count != null ? count.longValue() : 0)
+          .setCheckpoint(checkpoints != null ? checkpoints.longValue() : 0)
+          .setCursor(ss(attrs, "cursor")).setUploadId(ss(attrs, "uploadId"));
+    }
+
+    return record;
+  }
+
+  /**
+   * Get Inserted Date.
+   *
+   * @return {@link String}
+   */
+  public String getInsertedDate() {
+    return this.insertedDate;
+  }
+
+  /**
+   * Get Export S3 Key.
+   *
+   * @return {@link String}
+   */
+  public String getS3Key() {
+    return this.s3Key;
+  }
+
+  /**
+   * Get Export Status.
+   *
+   * @return {@link String}
+   */
+  public String getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Get S3 Multipart Upload Id.
+   *
+   * @return {@link String}
+   */
+  public String getUploadId() {
+    return this.uploadId;
+  }
+
+  /**
+   * Get User Id.
+   *
+   * @return {@link String}
+   */
+  public String getUserId() {
+    return this.userId;
+  }
+
+  @Override
+  public String pk(final String siteId) {
+    if (this.exportId == null) {
+      throw new IllegalArgumentException("'exportId' is required");
+    }
+    return createDatabaseKey(siteId, "searchexport#" + this.exportId);
+  }
+
+  @Override
+  public String pkGsi1(final String siteId) {
+    return null;
+  }
+
+  @Override
+  public String pkGsi2(final String siteId) {
+    return null;
+  }
+
+  /**
+   * Set Number of Checkpoints saved.
+   *
+   * @param checkpoints long
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setCheckpoint(final long checkpoints) {
+    this.checkpoint = checkpoints;
+    return this;
+  }
+
+  /**
+   * Set Search cursor of the next page to export.
+   *
+   * @param nextCursor {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setCursor(final String nextCursor) {
+    this.cursor = nextCursor;
+    return this;
+  }
+
+  /**
+   * Set Number of Documents exported.
+   *
+   * @param count long
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setDocumentCount(final long count) {
+    this.documentCount = count;
+    return this;
+  }
+
+  /**
+   * Set Export Id.
+   *
+   * @param id {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setExportId(final String id) {
+    this.exportId = id;
+    return this;
+  }
+
+  /**
+   * Set Inserted Date.
+   *
+   * @param date {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setInsertedDate(final String date) {
+    this.insertedDate = date;
+    return this;
+  }
+
+  /**
+   * Set Export S3 Key.
+   *
+   * @param key {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setS3Key(final String key) {
+    this.s3Key = key;
+    return this;
+  }
+
+  /**
+   * Set Export Status.
+   *
+   * @param exportStatus {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setStatus(final String exportStatus) {
+    this.status = exportStatus;
+    return this;
+  }
+
+  /**
+   * Set Time To Live, epoch seconds.
+   *
+   * @param ttl {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setTimeToLive(final String ttl) {
+    this.timeToLive = ttl;
+    return this;
+  }
+
+  /**
+   * Set S3 Multipart Upload Id.
+   *
+   * @param multipartUploadId {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setUploadId(final String multipartUploadId) {
+    this.uploadId = multipartUploadId;
+    return this;
+  }
+
+  /**
+   * Set User Id.
+   *
+   * @param exportUserId {@link String}
+   * @return {@link SearchExportRecord}
+   */
+  public SearchExportRecord setUserId(final String exportUserId) {
+    this.userId = exportUserId;
+    return this;
+  }
+
+  @Override
+  public String sk() {
+    return "export";
+  }
+
+  @Override
+  public String skGsi1() {
+    return null;
+  }
+
+  @Override
+  public String skGsi2() {
+    return null;
+  }
+}
@@ -34,6 +34,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
+import com.formkiq.aws.dynamodb.DynamodbRecordCodec;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamoDbService;
@@ -98,7 +99,7 @@ public class MappingServiceDynamodb implements MappingService, DbKeys {
     List<Map<String, AttributeValue>> attrs = this.db.getBatch(new BatchGetConfig(), keys);
 
     List<MappingRecord> list =
-        attrs.stream().map(a -> new MappingRecord().getFromAttributes(siteId, a)).toList();
+        DynamodbRecordCodec.of(MappingRecord.class, MappingRecord::new).decodeAll(siteId, attrs);
 
     return new PaginationResults<>(list, new QueryResponseToPagination().apply(response));
   }
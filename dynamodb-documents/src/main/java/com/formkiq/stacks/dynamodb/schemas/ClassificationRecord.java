@@ -29,7 +29,6 @@ import com.formkiq.aws.dynamodb.objects.DateUtil;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,8 +40,6 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
  */
 public class ClassificationRecord implements DynamodbRecord<ClassificationRecord> {
 
-  /** {@link SimpleDateFormat}. */
-  private final SimpleDateFormat df = DateUtil.getIsoDateFormatter();
   /** Name of Schema. */
   private String name;
   /** Schema {@link String}. */
@@ -136,7 +133,7 @@ public class ClassificationRecord implements DynamodbRecord<ClassificationRecord
   public Map<String, AttributeValue> getDataAttributes() {
     return Map.of("name", fromS(this.name), "documentId", fromS(this.documentId), "schema",
         fromS(this.schema), "userId", fromS(this.userId), "inserteddate",
-        AttributeValue.fromS(df.format(this.insertedDate)));
+        AttributeValue.fromS(DateUtil.formatIsoDate(this.insertedDate)));
   }
 
   @Override
@@ -152,7 +149,8 @@ public class ClassificationRecord implements DynamodbRecord<ClassificationRecord
 
       if (attrs.containsKey("inserteddate")) {
         try {
-          record = record.setInsertedDate(df.parse(ss(attrs, "inserteddate")));
+          record = record.setInsertedDate(
+              DateUtil.parseIsoDate(ss(attrs, "inserteddate")));
         } catch (ParseException e) {
           // ignore
         }
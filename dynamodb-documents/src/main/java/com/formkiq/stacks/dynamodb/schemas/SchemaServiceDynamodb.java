@@ -23,6 +23,7 @@
  */
 package com.formkiq.stacks.dynamodb.schemas;
 
+import com.formkiq.aws.dynamodb.DynamodbRecordCodec;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamoDbService;
@@ -185,7 +186,8 @@ public class SchemaServiceDynamodb implements SchemaService, DbKeys {
         this.db.getBatch(new BatchGetConfig(), response.items());
 
     List<ClassificationRecord> list =
-        attrs.stream().map(a -> new ClassificationRecord().getFromAttributes(siteId, a)).toList();
+        DynamodbRecordCodec.of(ClassificationRecord.class, ClassificationRecord::new)
+            .decodeAll(siteId, attrs);
 
     return new PaginationResults<>(list, new QueryResponseToPagination().apply(response));
   }
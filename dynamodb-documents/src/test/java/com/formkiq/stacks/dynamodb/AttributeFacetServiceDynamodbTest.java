@@ -0,0 +1,153 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetServiceDynamodb;
+import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecord;
+import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeValueType;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+
+/** Unit Tests for {@link AttributeFacetServiceDynamodb}. */
+@ExtendWith(DynamoDbExtension.class)
+public class AttributeFacetServiceDynamodbTest {
+
+  /** {@link DynamoDbService}. */
+  private DynamoDbService db;
+  /** {@link AttributeFacetService}. */
+  private AttributeFacetService service;
+
+  /**
+   * Before Test.
+   *
+   * @throws Exception Exception
+   */
+  @BeforeEach
+  public void before() throws Exception {
+    this.db =
+        new DynamoDbServiceImpl(DynamoDbTestServices.getDynamoDbConnection(), DOCUMENTS_TABLE);
+    this.service = new AttributeFacetServiceDynamodb(this.db);
+  }
+
+  /**
+   * Create String {@link DocumentAttributeRecord}.
+   * 
+   * @param key {@link String}
+   * @param value {@link String}
+   * @return {@link DocumentAttributeRecord}
+   */
+  private DocumentAttributeRecord createStringAttribute(final String key, final String value) {
+    return new DocumentAttributeRecord().setDocumentId(ID.uuid()).setKey(key)
+        .setStringValue(value).setValueType(DocumentAttributeValueType.STRING);
+  }
+
+  /**
+   * Add / Remove string attribute facets.
+   */
+  @Test
+  public void testUpdateFacets01() {
+    // given
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+      String key = "status" + ID.uuid();
+      final int count = 5;
+
+      // when
+      for (int i = 0; i < count; i++) {
+        this.service.updateFacets(siteId, List.of(createStringAttribute(key, "PENDING")), null);
+      }
+      this.service.updateFacets(siteId, List.of(createStringAttribute(key, "COMPLETE")), null);
+      this.service.updateFacets(siteId, null, List.of(createStringAttribute(key, "PENDING")));
+
+      // then
+      Map<String, Long> facets = this.service.getFacets(siteId, key);
+      assertEquals(2, facets.size());
+      assertEquals(Long.valueOf(1), facets.get("COMPLETE"));
+      assertEquals(Long.valueOf(count - 1), facets.get("PENDING"));
+
+      // when
+      this.service.updateFacets(siteId, null, List.of(createStringAttribute(key, "COMPLETE")));
+
+      // then
+      facets = this.service.getFacets(siteId, key);
+      assertEquals(1, facets.size());
+      assertEquals(Long.valueOf(count - 1), facets.get("PENDING"));
+    }
+  }
+
+  /**
+   * Number, Boolean and Key only attribute facets.
+   */
+  @Test
+  public void testUpdateFacets02() {
+    // given
+    String siteId = ID.uuid();
+    DocumentAttributeRecord number = new DocumentAttributeRecord().setDocumentId(ID.uuid())
+        .setKey("amount").setNumberValue(Double.valueOf("12.5"))
+        .setValueType(DocumentAttributeValueType.NUMBER);
+    DocumentAttributeRecord bool = new DocumentAttributeRecord().setDocumentId(ID.uuid())
+        .setKey("flag").setBooleanValue(Boolean.TRUE)
+        .setValueType(DocumentAttributeValueType.BOOLEAN);
+    DocumentAttributeRecord keyOnly = new DocumentAttributeRecord().setDocumentId(ID.uuid())
+        .setKey("keyonly").setValueType(DocumentAttributeValueType.KEY_ONLY);
+
+    // when
+    this.service.updateFacets(siteId, List.of(number, bool, keyOnly, number), null);
+
+    // then
+    assertEquals(Map.of("12.5", Long.valueOf(2)), this.service.getFacets(siteId, "amount"));
+    assertEquals(Map.of("true", Long.valueOf(1)), this.service.getFacets(siteId, "flag"));
+    assertTrue(this.service.getFacets(siteId, "keyonly").isEmpty());
+  }
+
+  /**
+   * Attribute without a value type is not counted.
+   */
+  @Test
+  public void testUpdateFacets03() {
+    // given
+    String siteId = ID.uuid();
+    DocumentAttributeRecord record =
+        new DocumentAttributeRecord().setDocumentId(ID.uuid()).setKey("novaluetype");
+
+    // when
+    this.service.updateFacets(siteId, List.of(record), null);
+
+    // then
+    assertTrue(this.service.getFacets(siteId, "novaluetype").isEmpty());
+  }
+}
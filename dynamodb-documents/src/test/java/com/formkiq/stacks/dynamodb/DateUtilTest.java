@@ -24,6 +24,8 @@
 package com.formkiq.stacks.dynamodb;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
@@ -128,4 +130,28 @@ public class DateUtilTest {
     date = DateUtil.toDateFromString("2020-01-28T17:31:45", "+0500");
     assertEquals("2020-01-28T12:31:45", this.df.format(date));
   }
+
+  /**
+   * Test ISO format / parse matches the ISO {@link SimpleDateFormat}.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testFormatIsoDate01() throws Exception {
+    // given
+    SimpleDateFormat iso = DateUtil.getIsoDateFormatter();
+    Date date = iso.parse(iso.format(new Date()));
+
+    // when
+    String formatted = DateUtil.formatIsoDate(date);
+
+    // then
+    assertEquals(iso.format(date), formatted);
+    assertEquals(date, DateUtil.parseIsoDate(formatted));
+    assertEquals(iso.parse("2020-01-28T17:31:45-0500"),
+        DateUtil.parseIsoDate("2020-01-28T17:31:45-0500"));
+    assertEquals(iso.parse("2020-01-28T17:31:45+0000 extra"),
+        DateUtil.parseIsoDate("2020-01-28T17:31:45+0000 extra"));
+    assertThrows(ParseException.class, () -> DateUtil.parseIsoDate("2020-01-28"));
+  }
 }
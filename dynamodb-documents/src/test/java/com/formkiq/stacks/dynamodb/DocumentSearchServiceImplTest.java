@@ -1085,4 +1085,87 @@ public class DocumentSearchServiceImplTest implements DbKeys {
       }
     }
   }
+
+  /**
+   * Export all documents matching a tag search.
+   *
+   * @throws ValidationException ValidationException
+   */
+  @Test
+  public void testExport01() throws ValidationException {
+    for (String prefix : Arrays.asList(null, ID.uuid())) {
+      // given
+      createTestData(prefix);
+      SearchQuery q = new SearchQuery().tag(new SearchTagCriteria("status").eq("active"));
+
+      List<String> expected = new ArrayList<>();
+      PaginationMapToken token = null;
+      do {
+        PaginationResults<DynamicDocumentItem> results =
+            this.searchService.search(prefix, q, null, token, MAX_RESULTS);
+        results.getResults().forEach(r -> expected.add(r.getDocumentId()));
+        token = results.getToken();
+      } while (token != null);
+
+      List<String> documentIds = new ArrayList<>();
+
+      // when
+      PaginationMapToken next = this.searchService.export(prefix, q, null, null, page -> {
+        page.forEach(doc -> documentIds.add(doc.getDocumentId()));
+        return true;
+      });
+
+      // then
+      assertNull(next);
+      assertTrue(expected.size() > MAX_RESULTS);
+      assertEquals(expected, documentIds);
+    }
+  }
+
+  /**
+   * Export stopped after the first page and continued from the returned token.
+   *
+   * @throws ValidationException ValidationException
+   */
+  @Test
+  public void testExport02() throws ValidationException {
+    // more than one export page
+    final int count = 6;
+
+    for (String prefix : Arrays.asList(null, ID.uuid())) {
+      // given
+      for (int i = 0; i < count; i++) {
+        createTestData(prefix);
+      }
+      SearchQuery q = new SearchQuery().tag(new SearchTagCriteria("status").eq("active"));
+
+      List<String> expected = new ArrayList<>();
+      this.searchService.export(prefix, q, null, null, page -> {
+        page.forEach(doc -> expected.add(doc.getDocumentId()));
+        return true;
+      });
+
+      List<String> documentIds = new ArrayList<>();
+
+      // when
+      PaginationMapToken next = this.searchService.export(prefix, q, null, null, page -> {
+        page.forEach(doc -> documentIds.add(doc.getDocumentId()));
+        return false;
+      });
+
+      // then
+      assertNotNull(next);
+      assertTrue(documentIds.size() < expected.size());
+
+      // when
+      next = this.searchService.export(prefix, q, null, next, page -> {
+        page.forEach(doc -> documentIds.add(doc.getDocumentId()));
+        return true;
+      });
+
+      // then
+      assertNull(next);
+      assertEquals(expected, documentIds);
+    }
+  }
 }
@@ -720,6 +720,28 @@ public class DocumentServiceImplTest implements DbKeys {
     }
   }
 
+  /** Find document fields. */
+  @Test
+  public void testFindDocumentFields01() {
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+      // given
+      DocumentItem document = createTestData(siteId).get(0);
+      String documentId = document.getDocumentId();
+      List<String> fields = List.of("checksum", "contentType", "lastModifiedDate");
+
+      // when
+      Map<String, String> map = service.findDocumentFields(siteId, documentId, fields);
+      Map<String, String> missing = service.findDocumentFields(siteId, ID.uuid(), fields);
+
+      // then
+      assertEquals(3, map.size());
+      assertEquals(document.getChecksum(), map.get("checksum"));
+      assertEquals("text/plain", map.get("contentType"));
+      assertNotNull(map.get("lastModifiedDate"));
+      assertTrue(missing.isEmpty());
+    }
+  }
+
   /** Find documents. */
   @Test
   public void testFindDocuments01() {
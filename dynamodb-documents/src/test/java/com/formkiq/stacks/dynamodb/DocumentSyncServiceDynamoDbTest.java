@@ -29,7 +29,10 @@ import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENT_SYNCS_TABLE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.formkiq.aws.dynamodb.ID;
@@ -39,6 +42,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.model.DocumentSync;
+import com.formkiq.aws.dynamodb.model.DocumentSyncMap;
 import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
 import com.formkiq.testutils.aws.DynamoDbExtension;
@@ -101,4 +105,41 @@ public class DocumentSyncServiceDynamoDbTest {
       assertNotNull(results.getResults().get(0).getSyncDate());
     }
   }
+
+  /**
+   * Save multiple Document Syncs.
+   */
+  @Test
+  public void testSaveSyncs01() {
+    // given
+    final int count = 30;
+
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+
+      List<DocumentSync> syncs = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        DocumentSync sync = new DocumentSyncMap(new HashMap<>());
+        sync.setDocumentId(ID.uuid());
+        sync.setService(TYPESENSE);
+        sync.setStatus(DocumentSyncStatus.COMPLETE);
+        sync.setType(DocumentSyncType.METADATA);
+        sync.setUserId("joe");
+        sync.setMessage(MESSAGE_ADDED_METADATA);
+        syncs.add(sync);
+      }
+
+      // when
+      syncService.saveSyncs(siteId, syncs);
+
+      // then
+      for (DocumentSync sync : syncs) {
+        PaginationResults<DocumentSync> results =
+            syncService.getSyncs(siteId, sync.getDocumentId(), null, 2);
+        assertEquals(1, results.getResults().size());
+        assertEquals(DocumentSyncStatus.COMPLETE, results.getResults().get(0).getStatus());
+        assertEquals("joe", results.getResults().get(0).getUserId());
+        assertEquals(MESSAGE_ADDED_METADATA, results.getResults().get(0).getMessage());
+      }
+    }
+  }
 }
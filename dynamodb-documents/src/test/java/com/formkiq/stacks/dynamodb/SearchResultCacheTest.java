@@ -0,0 +1,266 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
+import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
+import com.formkiq.aws.dynamodb.model.SearchQuery;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
+import com.formkiq.stacks.dynamodb.cache.SearchEpochExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchResultCache;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/** Unit Tests for {@link SearchResultCache}. */
+@ExtendWith(DynamoDbExtension.class)
+public class SearchResultCacheTest {
+
+  /** Max Entries. */
+  private static final int MAX_ENTRIES = 2;
+  /** Time To Live. */
+  private static final long TTL = 60000;
+
+  /** {@link SearchResultCache}. */
+  private SearchResultCache cache;
+  /** {@link SearchEpoch}. */
+  private SearchEpoch epoch;
+
+  /**
+   * Before Test.
+   *
+   * @throws Exception Exception
+   */
+  @BeforeEach
+  public void before() throws Exception {
+    this.epoch = new SearchEpoch(
+        new DynamoDbServiceImpl(DynamoDbTestServices.getDynamoDbConnection(), DOCUMENTS_TABLE));
+    this.cache = new SearchResultCache(this.epoch, null, MAX_ENTRIES, TTL);
+  }
+
+  /**
+   * Create {@link PaginationResults}.
+   * 
+   * @param documentId {@link String}
+   * @return {@link PaginationResults}
+   */
+  private PaginationResults<DynamicDocumentItem> createResults(final String documentId) {
+    Map<String, Object> map = new HashMap<>(Map.of("documentId", documentId));
+    return new PaginationResults<>(List.of(new DynamicDocumentItem(map)), null);
+  }
+
+  /**
+   * Cache hit, then epoch increment invalidates.
+   */
+  @Test
+  public void testGet01() {
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+      // given
+      SearchQuery q = new SearchQuery().text(ID.uuid());
+      String key = this.cache.createKey(siteId, q, null, null, 10);
+      this.cache.put(key, createResults("123"));
+
+      // when
+      PaginationResults<DynamicDocumentItem> results = this.cache.get(key);
+
+      // then
+      assertNotNull(results);
+      assertEquals("123", results.getResults().get(0).getDocumentId());
+      assertEquals(key, this.cache.createKey(siteId, q, null, null, 10));
+      assertNotEquals(key, this.cache.createKey(siteId, q, null, null, 2));
+
+      // when
+      this.epoch.increment(siteId);
+
+      // then
+      String newKey = this.cache.createKey(siteId, q, null, null, 10);
+      assertNotEquals(key, newKey);
+      assertNull(this.cache.get(newKey));
+    }
+  }
+
+  /**
+   * Modifying returned results does not change cached results.
+   */
+  @Test
+  public void testGet02() {
+    // given
+    String key = this.cache.createKey(null, new SearchQuery().text(ID.uuid()), null, null, 10);
+    this.cache.put(key, createResults("123"));
+
+    // when
+    this.cache.get(key).getResults().get(0).put("tags", "abc");
+
+    // then
+    assertNull(this.cache.get(key).getResults().get(0).get("tags"));
+  }
+
+  /**
+   * Least recently used entries are evicted.
+   */
+  @Test
+  public void testPut01() {
+    // given
+    String key0 = this.cache.createKey(null, new SearchQuery().text(ID.uuid()), null, null, 10);
+    String key1 = this.cache.createKey(null, new SearchQuery().text(ID.uuid()), null, null, 10);
+    String key2 = this.cache.createKey(null, new SearchQuery().text(ID.uuid()), null, null, 10);
+
+    // when
+    this.cache.put(key0, createResults("0"));
+    this.cache.put(key1, createResults("1"));
+    this.cache.put(key2, createResults("2"));
+
+    // then
+    assertNull(this.cache.get(key0));
+    assertNotNull(this.cache.get(key1));
+    assertNotNull(this.cache.get(key2));
+  }
+
+  /**
+   * Epoch is cached in-process, increments from other instances are seen after the refresh.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testEpoch01() throws Exception {
+    // given
+    String siteId = ID.uuid();
+    DynamoDbServiceImpl db =
+        new DynamoDbServiceImpl(DynamoDbTestServices.getDynamoDbConnection(), DOCUMENTS_TABLE);
+    SearchEpoch cached = new SearchEpoch(db, TTL, 1);
+    SearchEpoch other = new SearchEpoch(db, 0, 1);
+    long start = cached.get(siteId);
+
+    // when
+    other.increment(siteId);
+
+    // then
+    assertEquals(start, cached.get(siteId));
+    assertEquals(start + 1, other.get(siteId));
+
+    // when
+    cached.increment(siteId);
+
+    // then
+    assertEquals(start + 2, cached.get(siteId));
+  }
+
+  /**
+   * Increments are spread over the epoch shards, every increment is counted.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testEpoch02() throws Exception {
+    // given
+    final int increments = 20;
+    String siteId = ID.uuid();
+    DynamoDbServiceImpl db =
+        new DynamoDbServiceImpl(DynamoDbTestServices.getDynamoDbConnection(), DOCUMENTS_TABLE);
+    SearchEpoch cached = new SearchEpoch(db, TTL);
+    long start = cached.get(siteId);
+
+    // when
+    for (int i = 0; i < increments; i++) {
+      cached.increment(siteId);
+    }
+
+    // then
+    assertEquals(start + increments, cached.get(siteId));
+    assertEquals(start + increments, new SearchEpoch(db, 0).get(siteId));
+
+    long shards = db.getBatch(new BatchGetConfig(),
+        IntStream.range(0, SearchEpoch.DEFAULT_SHARDS)
+            .mapToObj(i -> Map.of(DbKeys.PK,
+                AttributeValue.fromS(SiteIdKeyGenerator.createDatabaseKey(siteId,
+                    "searchepoch" + DbKeys.TAG_DELIMINATOR + i)),
+                DbKeys.SK, AttributeValue.fromS("epoch")))
+            .toList())
+        .size();
+    assertTrue(shards > 1);
+  }
+
+  /**
+   * {@link SearchEpoch} is only created when the search cache is enabled.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testSearchEpochExtension01() throws Exception {
+    // given
+    for (String maxEntries : Arrays.asList(null, "", "abc", "0", "-1")) {
+      Map<String, String> env = new HashMap<>();
+      env.put("DOCUMENTS_TABLE", DOCUMENTS_TABLE);
+      env.put("SEARCH_CACHE_MAX_ENTRIES", maxEntries);
+      AwsServiceCache serviceCache = new AwsServiceCache().environment(env);
+      serviceCache.register(SearchEpoch.class, new SearchEpochExtension());
+
+      // when
+      SearchEpoch searchEpoch = serviceCache.getExtensionOrNull(SearchEpoch.class);
+
+      // then
+      assertNull(searchEpoch);
+      assertEquals(0, SearchEpochExtension.getMaxEntries(serviceCache));
+    }
+
+    // given
+    AwsServiceCache serviceCache = new AwsServiceCache()
+        .environment(Map.of("DOCUMENTS_TABLE", DOCUMENTS_TABLE, "SEARCH_CACHE_MAX_ENTRIES", "10"));
+    serviceCache.register(DynamoDbConnectionBuilder.class,
+        new ClassServiceExtension<>(DynamoDbTestServices.getDynamoDbConnection()));
+    serviceCache.register(SearchEpoch.class, new SearchEpochExtension());
+
+    // when
+    SearchEpoch searchEpoch = serviceCache.getExtensionOrNull(SearchEpoch.class);
+
+    // then
+    assertNotNull(searchEpoch);
+    assertSame(searchEpoch, serviceCache.getExtension(SearchEpoch.class));
+    assertEquals(10, SearchEpochExtension.getMaxEntries(serviceCache));
+  }
+}
@@ -30,14 +30,18 @@ import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_FOUND;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_METHOD_CONFLICT;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_NOT_FOUND;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_NOT_IMPLEMENTED;
+import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_NOT_MODIFIED;
+import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_OK;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_TOO_MANY_REQUESTS;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_UNAUTHORIZED;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.DateTimeException;
 import java.util.Base64;
@@ -62,9 +66,10 @@ import com.formkiq.aws.services.lambda.exceptions.TooManyRequestsException;
 import com.formkiq.aws.services.lambda.exceptions.UnauthorizedException;
 import com.formkiq.aws.sqs.SqsService;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetrics;
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetricsRegistry;
 import com.formkiq.validation.ValidationException;
 import com.google.gson.Gson;
-import software.amazon.awssdk.utils.IoUtils;
 import software.amazon.awssdk.utils.StringUtils;
 
 /**
@@ -74,16 +79,19 @@ import software.amazon.awssdk.utils.StringUtils;
  */
 public abstract class AbstractRestApiRequestHandler implements RequestStreamHandler {
 
+  /** Minimum JSON body size in bytes that is gzip compressed. */
+  private static final int COMPRESSION_THRESHOLD = 1024;
+
   /** {@link Gson}. */
   protected Gson gson = GsonUtil.getInstance();
 
   private void buildForbiddenException(final LambdaLogger logger, final AwsServiceCache awsServices,
-      final OutputStream output, final ForbiddenException e) throws IOException {
+      final ApiResponseWriter writer, final ForbiddenException e) throws IOException {
     if (awsServices.debug() && e.getDebug() != null) {
       logger.log(e.getDebug());
     }
 
-    buildResponse(logger, awsServices, output, SC_UNAUTHORIZED, Collections.emptyMap(),
+    buildResponse(logger, writer, SC_UNAUTHORIZED, Collections.emptyMap(),
         new ApiResponseError(e.getMessage()));
   }
 
@@ -91,20 +99,20 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
    * Handle Exception.
    *
    * @param logger {@link LambdaLogger}
-   * @param awsServices {@link AwsServiceCache}
-   * @param output {@link OutputStream}
+   * @param writer {@link ApiResponseWriter}
    * @param status {@link ApiResponseStatus}
    * @param headers {@link Map}
    * @param apiResponse {@link ApiResponse}
    * @throws IOException IOException
    */
-  protected void buildResponse(final LambdaLogger logger, final AwsServiceCache awsServices,
-      final OutputStream output, final ApiResponseStatus status, final Map<String, String> headers,
+  protected void buildResponse(final LambdaLogger logger, final ApiResponseWriter writer,
+      final ApiResponseStatus status, final Map<String, String> headers,
       final ApiResponse apiResponse) throws IOException {
 
-    Map<String, Object> response = new HashMap<>();
+    ApiHandlerEvent.response(status.getStatusCode());
+
+    Object body = null;
     Map<String, String> jsonheaders = createJsonHeaders();
-    response.put("statusCode", status.getStatusCode());
 
     if (apiResponse instanceof ApiRedirectResponse) {
       jsonheaders.put("Location", ((ApiRedirectResponse) apiResponse).getRedirectUri());
@@ -112,16 +120,51 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
         && apiResponse instanceof ApiMessageResponse) {
       jsonheaders.put("Location", ((ApiMessageResponse) apiResponse).getMessage());
     } else if (apiResponse instanceof ApiMapResponse) {
-      response.put("body", this.gson.toJson(((ApiMapResponse) apiResponse).getMap()));
+      body = ((ApiMapResponse) apiResponse).getMap();
       jsonheaders.putAll(headers);
     } else {
-      response.put("body", this.gson.toJson(apiResponse));
+      body = apiResponse;
       jsonheaders.putAll(headers);
     }
 
-    response.put("headers", jsonheaders);
+    writer.write(status.getStatusCode(), jsonheaders, body);
+  }
+
+  /**
+   * Call Handler GET Method, answering a matching 'If-None-Match' with a 304 Not Modified before
+   * the response is loaded and adding the handler's ETag to 200 responses.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param event {@link ApiGatewayRequestEvent}
+   * @param authorization ApiAuthorization
+   * @param handler {@link ApiGatewayRequestHandler}
+   * @return {@link ApiRequestHandlerResponse}
+   * @throws Exception Exception
+   */
+  private ApiRequestHandlerResponse callConditionalGet(final LambdaLogger logger,
+      final ApiGatewayRequestEvent event, final ApiAuthorization authorization,
+      final ApiGatewayRequestHandler handler) throws Exception {
+
+    AwsServiceCache awsServices = getAwsServices();
+    handler.beforeGet(logger, event, authorization, awsServices);
+
+    String etag = handler.getEtag(logger, event, authorization, awsServices);
+
+    ApiRequestHandlerResponse response;
+
+    if (etag != null && ConditionalGet.isMatch(ConditionalGet.getHeader(event, "If-None-Match"),
+        etag)) {
+      response = new ApiRequestHandlerResponse(SC_NOT_MODIFIED, null);
+    } else {
+      response = handler.get(logger, event, authorization, awsServices);
+    }
+
+    if (etag != null && (SC_OK.equals(response.getStatus())
+        || SC_NOT_MODIFIED.equals(response.getStatus()))) {
+      response.addHeader("ETag", etag);
+    }
 
-    writeJson(logger, awsServices, output, response);
+    return response;
   }
 
   /**
@@ -267,21 +310,22 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
   }
 
   /**
-   * Get {@link ApiGatewayRequestEvent}.
+   * Get {@link LambdaInputEvent}, parsed from the UTF-8 bytes without creating a {@link String}
+   * copy of the whole event or of the request body.
    *
-   * @param str {@link String}
+   * @param bytes byte[]
    * @param logger {@link LambdaLogger}
    * @param awsservice {@link AwsServiceCache}
-   * @return {@link ApiGatewayRequestEvent}
+   * @return {@link LambdaInputEvent}
    */
-  private ApiGatewayRequestEvent getApiGatewayEvent(final String str, final LambdaLogger logger,
+  private LambdaInputEvent getLambdaInputEvent(final byte[] bytes, final LambdaLogger logger,
       final AwsServiceCache awsservice) {
 
     if (awsservice.debug()) {
-      logger.log(str);
+      logger.log(new String(bytes, StandardCharsets.UTF_8));
     }
 
-    return this.gson.fromJson(str, ApiGatewayRequestEvent.class);
+    return LambdaInputEvent.fromJson(this.gson, bytes);
   }
 
   private List<ApiRequestHandlerInterceptor> getApiRequestHandlerInterceptors(
@@ -346,31 +390,52 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
     AwsServiceCache awsServices = getAwsServices();
 
-    String str = IoUtils.toUtf8String(input);
+    byte[] bytes = input.readAllBytes();
+    LambdaInputEvent inputEvent = getLambdaInputEvent(bytes, logger, awsServices);
 
-    ApiGatewayRequestEvent event = getApiGatewayEvent(str, logger, awsServices);
+    if (inputEvent == null) {
+      handleOtherRequest(context, new String(bytes, StandardCharsets.UTF_8));
 
-    if (!isEmpty(event)) {
+    } else if (inputEvent.isApiGatewayEvent()) {
 
-      processApiGatewayRequest(logger, event, awsServices, output);
+      ApiGatewayRequestEvent event = inputEvent.event();
+      boolean gzip =
+          isEnabled(awsServices, "ENABLE_RESPONSE_COMPRESSION") && isGzipAccepted(event);
+      processApiGatewayRequest(logger, event, awsServices,
+          (statusCode, headers, body) -> writeResponse(logger, awsServices, output, gzip,
+              statusCode, headers, body));
 
-    } else {
+    } else if (inputEvent.hasSqsRecords()) {
 
-      if (str.contains("aws:sqs")) {
-        LambdaInputRecords records = this.gson.fromJson(str, LambdaInputRecords.class);
-        for (LambdaInputRecord record : records.getRecords()) {
-          if ("aws:sqs".equals(record.getEventSource())) {
-            handleSqsRequest(logger, awsServices, record);
-          }
+      LambdaInputRecords records =
+          this.gson.fromJson(inputEvent.toJson(null), LambdaInputRecords.class);
+      for (LambdaInputRecord record : records.getRecords()) {
+        if ("aws:sqs".equals(record.getEventSource())) {
+          handleSqsRequest(logger, awsServices, record);
         }
+      }
 
-      } else {
+    } else {
 
-        handleOtherRequest(context, str);
-      }
+      handleOtherRequest(context, new String(bytes, StandardCharsets.UTF_8));
     }
   }
 
+  /**
+   * Handle a typed {@link ApiGatewayRequestEvent} in process. The response is passed to the
+   * {@link ApiResponseWriter} as is, without being wrapped in the API Gateway Lambda proxy
+   * response.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param event {@link ApiGatewayRequestEvent}
+   * @param writer {@link ApiResponseWriter}
+   * @throws IOException IOException
+   */
+  public void handleRequest(final LambdaLogger logger, final ApiGatewayRequestEvent event,
+      final ApiResponseWriter writer) throws IOException {
+    processApiGatewayRequest(logger, event, getAwsServices(), writer);
+  }
+
   /**
    * Handler for Sqs Requests.
    * 
@@ -451,14 +516,9 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     return isAuthorized;
   }
 
-  /**
-   * Is {@link ApiGatewayRequestEvent} empty.
-   * 
-   * @param event {@link ApiGatewayRequestEvent}
-   * @return boolean
-   */
-  private boolean isEmpty(final ApiGatewayRequestEvent event) {
-    return event != null && event.getHeaders() == null && event.getPath() == null;
+  private boolean isGzipAccepted(final ApiGatewayRequestEvent event) {
+    String acceptEncoding = ConditionalGet.getHeader(event, "Accept-Encoding");
+    return acceptEncoding != null && acceptEncoding.contains("gzip");
   }
 
   private void log(final LambdaLogger logger, final ApiGatewayRequestEvent event,
@@ -507,12 +567,19 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
    * @param logger {@link LambdaLogger}
    * @param event {@link ApiGatewayRequestEvent}
    * @param awsServices {@link AwsServiceCache}
-   * @param output {@link OutputStream}
+   * @param writer {@link ApiResponseWriter}
    * @throws IOException IOException
    */
   private void processApiGatewayRequest(final LambdaLogger logger,
       final ApiGatewayRequestEvent event, final AwsServiceCache awsServices,
-      final OutputStream output) throws IOException {
+      final ApiResponseWriter writer) throws IOException {
+
+    ApiHandlerEvent.start(event.getHttpMethod(), event.getResource());
+
+    boolean awsCallMetrics = isAwsCallMetrics(awsServices);
+    if (awsCallMetrics) {
+      AwsCallMetrics.start(event.getHttpMethod() + " " + event.getResource());
+    }
 
     try {
 
@@ -532,40 +599,83 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
       sendWebNotify(authorization, event, object);
 
-      buildResponse(logger, awsServices, output, object.getStatus(), object.getHeaders(),
-          object.getResponse());
+      buildResponse(logger, writer, object.getStatus(), object.getHeaders(), object.getResponse());
 
     } catch (NotFoundException e) {
-      buildResponse(logger, awsServices, output, SC_NOT_FOUND, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_NOT_FOUND, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (ConflictException e) {
-      buildResponse(logger, awsServices, output, SC_METHOD_CONFLICT, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_METHOD_CONFLICT, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (TooManyRequestsException e) {
-      buildResponse(logger, awsServices, output, SC_TOO_MANY_REQUESTS, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_TOO_MANY_REQUESTS, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (BadException | IllegalArgumentException | DateTimeException e) {
-      buildResponse(logger, awsServices, output, SC_BAD_REQUEST, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_BAD_REQUEST, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (ForbiddenException e) {
-      buildForbiddenException(logger, awsServices, output, e);
+      buildForbiddenException(logger, awsServices, writer, e);
     } catch (UnauthorizedException e) {
-      buildResponse(logger, awsServices, output, SC_UNAUTHORIZED, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_UNAUTHORIZED, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (NotImplementedException e) {
-      buildResponse(logger, awsServices, output, SC_NOT_IMPLEMENTED, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_NOT_IMPLEMENTED, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (ValidationException e) {
-      buildResponse(logger, awsServices, output, SC_BAD_REQUEST, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_BAD_REQUEST, Collections.emptyMap(),
           new ApiResponseError(e.errors()));
     } catch (Exception e) {
       logError(logger, e);
 
-      buildResponse(logger, awsServices, output, SC_ERROR, Collections.emptyMap(),
+      buildResponse(logger, writer, SC_ERROR, Collections.emptyMap(),
           new ApiResponseError("Internal Server Error"));
 
     } finally {
       ApiAuthorization.logout();
+      ApiHandlerEvent.end();
+
+      if (awsCallMetrics) {
+        logAwsCallMetrics(logger);
+      }
+    }
+  }
+
+  /**
+   * Whether per request AWS call metrics are enabled.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @return boolean
+   */
+  private boolean isAwsCallMetrics(final AwsServiceCache awsServices) {
+    return isEnabled(awsServices, "ENABLE_AWS_CALL_METRICS");
+  }
+
+  /**
+   * Whether an 'ENABLE_*' environment variable is set to true.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @param key {@link String}
+   * @return boolean
+   */
+  private boolean isEnabled(final AwsServiceCache awsServices, final String key) {
+    return awsServices.environment() != null && "true".equals(awsServices.environment(key));
+  }
+
+  /**
+   * Ends the current {@link AwsCallMetrics} and logs it in Embedded Metric Format.
+   * 
+   * @param logger {@link LambdaLogger}
+   */
+  private void logAwsCallMetrics(final LambdaLogger logger) {
+
+    AwsCallMetrics metrics = AwsCallMetrics.end();
+
+    if (metrics != null) {
+      AwsCallMetricsRegistry.getInstance().add(metrics);
+
+      if (metrics.getCallCount() > 0) {
+        logger.log(AwsCallMetricsFormatter.toEmf(this.gson, metrics, System.currentTimeMillis()));
+      }
     }
   }
 
@@ -612,7 +722,9 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
       throw new ForbiddenException(s);
     }
 
-    return callHandlerMethod(logger, method, event, authorization, handler);
+    return "get".equals(method) && isEnabled(getAwsServices(), "ENABLE_CONDITIONAL_GET")
+        ? callConditionalGet(logger, event, authorization, handler)
+        : callHandlerMethod(logger, method, event, authorization, handler);
   }
 
   /**
@@ -671,6 +783,107 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
         : "";
   }
 
+  /**
+   * Write API Gateway Response directly to the {@link OutputStream}, the body is serialized
+   * straight into the escaped "body" string instead of being built as an intermediate
+   * {@link String}. When the client accepts gzip, bodies over the compression threshold are
+   * gzip compressed and base64 encoded as they are serialized.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param awsServices {@link AwsServiceCache}
+   * @param output {@link OutputStream}
+   * @param gzip boolean whether the client accepts gzip
+   * @param statusCode int
+   * @param headers {@link Map}
+   * @param body {@link Object}
+   * @throws IOException IOException
+   */
+  private void writeResponse(final LambdaLogger logger, final AwsServiceCache awsServices,
+      final OutputStream output, final boolean gzip, final int statusCode,
+      final Map<String, String> headers, final Object body) throws IOException {
+
+    if (awsServices.debug()) {
+
+      Map<String, Object> response = new HashMap<>();
+      response.put("statusCode", statusCode);
+      response.put("headers", headers);
+      if (body != null) {
+        response.put("body", this.gson.toJson(body));
+      }
+
+      writeJson(logger, awsServices, output, response);
+
+    } else if (gzip && body != null) {
+
+      writeCompressedResponse(output, statusCode, headers, body);
+
+    } else {
+
+      try (Writer writer =
+          new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+        writeResponseStart(writer, statusCode, headers);
+
+        if (body != null) {
+          writer.write(",\"body\":\"");
+          this.gson.toJson(body, new JsonStringEscapeWriter(writer));
+          writer.write('"');
+        }
+
+        writer.write('}');
+      }
+    }
+  }
+
+  /**
+   * Write API Gateway Response with a gzip compressed, base64 encoded body when the JSON body is
+   * over the compression threshold. The JSON is compressed and encoded into the
+   * {@link OutputStream} while it is serialized, only bodies under the threshold are buffered.
+   *
+   * @param output {@link OutputStream}
+   * @param statusCode int
+   * @param headers {@link Map}
+   * @param body {@link Object}
+   * @throws IOException IOException
+   */
+  private void writeCompressedResponse(final OutputStream output, final int statusCode,
+      final Map<String, String> headers, final Object body) throws IOException {
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+    Base64GzipThresholdOutputStream os =
+        new Base64GzipThresholdOutputStream(output, COMPRESSION_THRESHOLD, () -> {
+          Map<String, String> map = new HashMap<>(headers);
+          map.put("Content-Encoding", "gzip");
+          map.put("Vary", "Accept-Encoding");
+
+          writeResponseStart(writer, statusCode, map);
+          writer.write(",\"isBase64Encoded\":true,\"body\":\"");
+          writer.flush();
+        });
+
+    try (Writer json = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
+      this.gson.toJson(body, json);
+    }
+
+    if (!os.isCompressed()) {
+      writeResponseStart(writer, statusCode, headers);
+      writer.write(",\"body\":\"");
+      new JsonStringEscapeWriter(writer)
+          .write(new String(os.getBuffer(), StandardCharsets.UTF_8));
+    }
+
+    writer.write("\"}");
+    writer.close();
+  }
+
+  private void writeResponseStart(final Writer writer, final int statusCode,
+      final Map<String, String> headers) throws IOException {
+    writer.write("{\"statusCode\":");
+    writer.write(String.valueOf(statusCode));
+    writer.write(",\"headers\":");
+    this.gson.toJson(headers, writer);
+  }
+
   /**
    * Write JSON Response {@link OutputStream}.
    *
@@ -58,6 +58,9 @@ public class ApiGatewayRequestEvent {
   /** Request Body. */
   private String body;
 
+  /** Request Body, not yet decoded from the Lambda payload. */
+  private transient RawJsonString rawBody;
+
   /** Is Request Body Base64 Encoded. */
   private Boolean isBase64Encoded;
 
@@ -86,6 +89,11 @@ public class ApiGatewayRequestEvent {
    * @return {@link String}
    */
   public String getBody() {
+    if (this.body == null && this.rawBody != null) {
+      this.body = this.rawBody.decode();
+      this.rawBody = null;
+    }
+
     return this.body;
   }
 
@@ -163,6 +171,15 @@ public class ApiGatewayRequestEvent {
     return this.queryStringParameters;
   }
 
+  /**
+   * Get Request Body, if it has not been decoded from the Lambda payload.
+   * 
+   * @return {@link RawJsonString}
+   */
+  RawJsonString getRawBody() {
+    return this.rawBody;
+  }
+
   /**
    * Get Request Context.
    * 
@@ -188,6 +205,7 @@ public class ApiGatewayRequestEvent {
    */
   public void setBody(final String requestBody) {
     this.body = requestBody;
+    this.rawBody = null;
   }
 
   /**
@@ -244,6 +262,16 @@ public class ApiGatewayRequestEvent {
     this.queryStringParameters = map;
   }
 
+  /**
+   * Set Request Body, decoded from the Lambda payload when it is read.
+   * 
+   * @param requestBody {@link RawJsonString}
+   */
+  void setRawBody(final RawJsonString requestBody) {
+    this.body = null;
+    this.rawBody = requestBody;
+  }
+
   /**
    * Set Request Context.
    * 
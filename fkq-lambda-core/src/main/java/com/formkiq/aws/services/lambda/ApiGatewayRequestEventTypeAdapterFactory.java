@@ -0,0 +1,452 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * {@link TypeAdapterFactory} for streaming {@link ApiGatewayRequestEvent},
+ * {@link ApiGatewayRequestContext} and {@link LambdaInputEvent} without reflection. Unknown
+ * properties are skipped, the same as the reflective adapter.
+ */
+public class ApiGatewayRequestEventTypeAdapterFactory implements TypeAdapterFactory {
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+
+    Class<? super T> rawType = type.getRawType();
+    TypeAdapter<T> adapter = null;
+
+    if (ApiGatewayRequestEvent.class.equals(rawType)) {
+      adapter = (TypeAdapter<T>) new EventAdapter(gson.getAdapter(ApiGatewayRequestContext.class));
+    } else if (ApiGatewayRequestContext.class.equals(rawType)) {
+      adapter = (TypeAdapter<T>) new ContextAdapter(gson.getAdapter(Object.class));
+    } else if (LambdaInputEvent.class.equals(rawType)) {
+      adapter = (TypeAdapter<T>) new InputEventAdapter(
+          new EventAdapter(gson.getAdapter(ApiGatewayRequestContext.class)),
+          gson.getAdapter(JsonElement.class));
+    }
+
+    return adapter;
+  }
+
+  /**
+   * Read {@link Boolean}.
+   * 
+   * @param in {@link JsonReader}
+   * @return {@link Boolean}
+   * @throws IOException IOException
+   */
+  private static Boolean readBoolean(final JsonReader in) throws IOException {
+
+    JsonToken token = in.peek();
+    Boolean result = null;
+
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+    } else if (token == JsonToken.STRING) {
+      result = Boolean.valueOf(in.nextString());
+    } else {
+      result = Boolean.valueOf(in.nextBoolean());
+    }
+
+    return result;
+  }
+
+  /**
+   * Read {@link Map} of {@link Object}.
+   * 
+   * @param in {@link JsonReader}
+   * @param objectAdapter {@link TypeAdapter}
+   * @return {@link Map}
+   * @throws IOException IOException
+   */
+  private static Map<String, Object> readObjectMap(final JsonReader in,
+      final TypeAdapter<Object> objectAdapter) throws IOException {
+
+    Map<String, Object> map = null;
+
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+    } else {
+      map = new LinkedHashMap<>();
+      in.beginObject();
+      while (in.hasNext()) {
+        map.put(in.nextName(), objectAdapter.read(in));
+      }
+      in.endObject();
+    }
+
+    return map;
+  }
+
+  /**
+   * Read {@link String}, numbers and booleans are returned as their {@link String} value.
+   * 
+   * @param in {@link JsonReader}
+   * @return {@link String}
+   * @throws IOException IOException
+   */
+  private static String readString(final JsonReader in) throws IOException {
+
+    JsonToken token = in.peek();
+    String result = null;
+
+    if (token == JsonToken.NULL) {
+      in.nextNull();
+    } else if (token == JsonToken.BOOLEAN) {
+      result = Boolean.toString(in.nextBoolean());
+    } else {
+      result = in.nextString();
+    }
+
+    return result;
+  }
+
+  /**
+   * Read {@link Map} of {@link String}.
+   * 
+   * @param in {@link JsonReader}
+   * @return {@link Map}
+   * @throws IOException IOException
+   */
+  private static Map<String, String> readStringMap(final JsonReader in) throws IOException {
+
+    Map<String, String> map = null;
+
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+    } else {
+      map = new LinkedHashMap<>();
+      in.beginObject();
+      while (in.hasNext()) {
+        map.put(in.nextName(), readString(in));
+      }
+      in.endObject();
+    }
+
+    return map;
+  }
+
+  /**
+   * Write {@link Map} of {@link Object}.
+   * 
+   * @param out {@link JsonWriter}
+   * @param name {@link String}
+   * @param map {@link Map}
+   * @param objectAdapter {@link TypeAdapter}
+   * @throws IOException IOException
+   */
+  private static void writeObjectMap(final JsonWriter out, final String name,
+      final Map<String, Object> map, final TypeAdapter<Object> objectAdapter) throws IOException {
+    if (map != null) {
+      out.name(name).beginObject();
+      for (Map.Entry<String, Object> e : map.entrySet()) {
+        out.name(e.getKey());
+        objectAdapter.write(out, e.getValue());
+      }
+      out.endObject();
+    }
+  }
+
+  /**
+   * Write {@link String}.
+   * 
+   * @param out {@link JsonWriter}
+   * @param name {@link String}
+   * @param value {@link String}
+   * @throws IOException IOException
+   */
+  private static void writeString(final JsonWriter out, final String name, final String value)
+      throws IOException {
+    if (value != null) {
+      out.name(name).value(value);
+    }
+  }
+
+  /**
+   * Write {@link Map} of {@link String}.
+   * 
+   * @param out {@link JsonWriter}
+   * @param name {@link String}
+   * @param map {@link Map}
+   * @throws IOException IOException
+   */
+  private static void writeStringMap(final JsonWriter out, final String name,
+      final Map<String, String> map) throws IOException {
+    if (map != null) {
+      out.name(name).beginObject();
+      for (Map.Entry<String, String> e : map.entrySet()) {
+        out.name(e.getKey()).value(e.getValue());
+      }
+      out.endObject();
+    }
+  }
+
+  /**
+   * {@link TypeAdapter} for {@link ApiGatewayRequestContext}.
+   */
+  private static final class ContextAdapter extends TypeAdapter<ApiGatewayRequestContext> {
+
+    /** {@link TypeAdapter} for {@link Object} values. */
+    private final TypeAdapter<Object> objectAdapter;
+
+    /**
+     * constructor.
+     * 
+     * @param adapter {@link TypeAdapter}
+     */
+    ContextAdapter(final TypeAdapter<Object> adapter) {
+      this.objectAdapter = adapter;
+    }
+
+    @Override
+    public ApiGatewayRequestContext read(final JsonReader in) throws IOException {
+
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      ApiGatewayRequestContext context = new ApiGatewayRequestContext();
+
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "authorizer" -> context.setAuthorizer(readObjectMap(in, this.objectAdapter));
+          case "domainName" -> context.setDomainName(readString(in));
+          case "identity" -> context.setIdentity(readObjectMap(in, this.objectAdapter));
+          case "protocol" -> context.setProtocol(readString(in));
+          case "requestId" -> context.setRequestId(readString(in));
+          case "requestTime" -> context.setRequestTime(readString(in));
+          default -> in.skipValue();
+        }
+      }
+      in.endObject();
+
+      return context;
+    }
+
+    @Override
+    public void write(final JsonWriter out, final ApiGatewayRequestContext context)
+        throws IOException {
+
+      if (context == null) {
+        out.nullValue();
+        return;
+      }
+
+      out.beginObject();
+      writeObjectMap(out, "authorizer", context.getAuthorizer(), this.objectAdapter);
+      writeString(out, "domainName", context.getDomainName());
+      writeObjectMap(out, "identity", context.getIdentity(), this.objectAdapter);
+      writeString(out, "protocol", context.getProtocol());
+      writeString(out, "requestId", context.getRequestId());
+      writeString(out, "requestTime", context.getRequestTime());
+      out.endObject();
+    }
+  }
+
+  /**
+   * {@link TypeAdapter} for {@link ApiGatewayRequestEvent}.
+   */
+  private static final class EventAdapter extends TypeAdapter<ApiGatewayRequestEvent> {
+
+    /** {@link ApiGatewayRequestContext} {@link TypeAdapter}. */
+    private final TypeAdapter<ApiGatewayRequestContext> contextAdapter;
+
+    /**
+     * constructor.
+     * 
+     * @param adapter {@link TypeAdapter}
+     */
+    EventAdapter(final TypeAdapter<ApiGatewayRequestContext> adapter) {
+      this.contextAdapter = adapter;
+    }
+
+    @Override
+    public ApiGatewayRequestEvent read(final JsonReader in) throws IOException {
+
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      ApiGatewayRequestEvent event = new ApiGatewayRequestEvent();
+
+      in.beginObject();
+      while (in.hasNext()) {
+        if (!readProperty(in, in.nextName(), event)) {
+          in.skipValue();
+        }
+      }
+      in.endObject();
+
+      return event;
+    }
+
+    /**
+     * Read a single {@link ApiGatewayRequestEvent} property.
+     * 
+     * @param in {@link JsonReader}
+     * @param name {@link String}
+     * @param event {@link ApiGatewayRequestEvent}
+     * @return boolean whether the property was read
+     * @throws IOException IOException
+     */
+    boolean readProperty(final JsonReader in, final String name,
+        final ApiGatewayRequestEvent event) throws IOException {
+
+      boolean read = true;
+
+      switch (name) {
+        case "resource" -> event.setResource(readString(in));
+        case "path" -> event.setPath(readString(in));
+        case "httpMethod" -> event.setHttpMethod(readString(in));
+        case "headers" -> event.setHeaders(readStringMap(in));
+        case "queryStringParameters" -> event.setQueryStringParameters(readStringMap(in));
+        case "pathParameters" -> event.setPathParameters(readStringMap(in));
+        case "requestContext" -> event.setRequestContext(this.contextAdapter.read(in));
+        case "body" -> event.setBody(readString(in));
+        case "isBase64Encoded" -> event.setIsBase64Encoded(readBoolean(in));
+        default -> read = false;
+      }
+
+      return read;
+    }
+
+    @Override
+    public void write(final JsonWriter out, final ApiGatewayRequestEvent event)
+        throws IOException {
+
+      if (event == null) {
+        out.nullValue();
+        return;
+      }
+
+      out.beginObject();
+      writeString(out, "resource", event.getResource());
+      writeString(out, "path", event.getPath());
+      writeString(out, "httpMethod", event.getHttpMethod());
+      writeStringMap(out, "headers", event.getHeaders());
+      writeStringMap(out, "queryStringParameters", event.getQueryStringParameters());
+      writeStringMap(out, "pathParameters", event.getPathParameters());
+
+      if (event.getRequestContext() != null) {
+        out.name("requestContext");
+        this.contextAdapter.write(out, event.getRequestContext());
+      }
+
+      writeString(out, "body", event.getBody());
+
+      if (event.getIsBase64Encoded() != null) {
+        out.name("isBase64Encoded").value(event.getIsBase64Encoded().booleanValue());
+      }
+
+      out.endObject();
+    }
+  }
+
+  /**
+   * {@link TypeAdapter} for {@link LambdaInputEvent}. The Lambda payload is read in a single pass,
+   * {@link ApiGatewayRequestEvent} properties are read directly into the event and only the
+   * "Records" and unknown top level properties are kept as a {@link JsonElement} tree. The
+   * "body" is skipped, {@link LambdaInputEvent#fromJson(Gson, byte[])} keeps it as a slice of the
+   * payload bytes instead.
+   */
+  private static final class InputEventAdapter extends TypeAdapter<LambdaInputEvent> {
+
+    /** {@link EventAdapter}. */
+    private final EventAdapter eventAdapter;
+    /** {@link JsonElement} {@link TypeAdapter}. */
+    private final TypeAdapter<JsonElement> elementAdapter;
+
+    /**
+     * constructor.
+     * 
+     * @param adapter {@link EventAdapter}
+     * @param jsonElementAdapter {@link TypeAdapter}
+     */
+    InputEventAdapter(final EventAdapter adapter,
+        final TypeAdapter<JsonElement> jsonElementAdapter) {
+      this.eventAdapter = adapter;
+      this.elementAdapter = jsonElementAdapter;
+    }
+
+    @Override
+    public LambdaInputEvent read(final JsonReader in) throws IOException {
+
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      ApiGatewayRequestEvent event = new ApiGatewayRequestEvent();
+      JsonArray records = null;
+      JsonObject other = new JsonObject();
+
+      in.beginObject();
+      while (in.hasNext()) {
+
+        String name = in.nextName();
+
+        if ("Records".equals(name) && in.peek() == JsonToken.BEGIN_ARRAY) {
+          records = this.elementAdapter.read(in).getAsJsonArray();
+        } else if ("body".equals(name)) {
+          // skipped without creating a String, see LambdaInputEvent.fromJson
+          in.skipValue();
+        } else if (!this.eventAdapter.readProperty(in, name, event)) {
+          other.add(name, this.elementAdapter.read(in));
+        }
+      }
+      in.endObject();
+
+      return new LambdaInputEvent(event, records, other);
+    }
+
+    @Override
+    public void write(final JsonWriter out, final LambdaInputEvent value) throws IOException {
+
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+
+      this.elementAdapter.write(out, value.toJson(this.eventAdapter.toJsonTree(value.event())));
+    }
+  }
+}
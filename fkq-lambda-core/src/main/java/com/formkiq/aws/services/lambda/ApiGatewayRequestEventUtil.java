@@ -25,8 +25,10 @@ package com.formkiq.aws.services.lambda;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Collections;
@@ -39,7 +41,7 @@ import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.cache.CacheService;
 import com.formkiq.aws.services.lambda.exceptions.BadException;
 import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 import software.amazon.awssdk.utils.StringUtils;
 
 /**
@@ -134,25 +136,85 @@ public interface ApiGatewayRequestEventUtil {
   default <T> T fromBodyToObject(final ApiGatewayRequestEvent event, final Class<T> classOfT)
       throws BadException, IOException {
 
-    String body = event.getBody();
-    if (body == null) {
-      throw new BadException("request body is required");
-    }
+    Reader bodyReader;
 
-    byte[] data = event.getBody().getBytes(StandardCharsets.UTF_8);
+    if (event.getRawBody() != null || Boolean.TRUE.equals(event.getIsBase64Encoded())) {
+      bodyReader = new InputStreamReader(getBodyAsInputStream(event), StandardCharsets.UTF_8);
+    } else {
+      String body = event.getBody();
+      if (body == null) {
+        throw new BadException("request body is required");
+      }
 
-    if (Boolean.TRUE.equals(event.getIsBase64Encoded())) {
-      data = Base64.getDecoder().decode(body);
+      bodyReader = new StringReader(body);
     }
 
-    try (Reader reader =
-        new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)) {
+    try (Reader reader = bodyReader) {
       return GSON.fromJson(reader, classOfT);
-    } catch (JsonSyntaxException e) {
+    } catch (JsonParseException e) {
       throw new BadException("invalid JSON body");
     }
   }
 
+  /**
+   * Get {@link ApiGatewayRequestEvent} body as an {@link InputStream}. Base64 encoded bodies are
+   * decoded as the stream is read, so the decoded body is never held in memory as a whole.
+   * 
+   * @param event {@link ApiGatewayRequestEvent}
+   * @return {@link InputStream}
+   * @throws BadException BadException
+   */
+  default InputStream getBodyAsInputStream(final ApiGatewayRequestEvent event)
+      throws BadException {
+
+    boolean base64 = Boolean.TRUE.equals(event.getIsBase64Encoded());
+    RawJsonString rawBody = event.getRawBody();
+    InputStream is;
+
+    if (rawBody != null) {
+      is = rawBody.toInputStream();
+    } else {
+      String body = event.getBody();
+      if (body == null) {
+        throw new BadException("request body is required");
+      }
+
+      is = base64 ? new AsciiInputStream(body)
+          : new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    return base64 ? Base64.getDecoder().wrap(is) : is;
+  }
+
+  /**
+   * Get the length in bytes of the {@link ApiGatewayRequestEvent} body, as returned by
+   * {@link #getBodyAsInputStream(ApiGatewayRequestEvent)}, without decoding it.
+   * 
+   * @param event {@link ApiGatewayRequestEvent}
+   * @return long
+   * @throws BadException BadException
+   */
+  default long getBodyContentLength(final ApiGatewayRequestEvent event) throws BadException {
+
+    boolean base64 = Boolean.TRUE.equals(event.getIsBase64Encoded());
+    RawJsonString rawBody = event.getRawBody();
+
+    long length;
+
+    if (rawBody != null) {
+      length = RequestBodyLength.getLength(rawBody, base64);
+    } else {
+      String body = event.getBody();
+      if (body == null) {
+        throw new BadException("request body is required");
+      }
+
+      length = RequestBodyLength.getLength(body, base64);
+    }
+
+    return length;
+  }
+
   /**
    * Get {@link ApiGatewayRequestEvent} body as {@link String}.
    * 
@@ -159,6 +159,25 @@ public interface ApiGatewayRequestHandler {
         event.getHttpMethod() + " for " + event.getResource() + " not found");
   }
 
+  /**
+   * Get the ETag of the GET response, derived from the metadata the response is built from. When
+   * it matches the 'If-None-Match' header a 304 Not Modified is returned without calling
+   * {@link #get}.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param event {@link ApiGatewayRequestEvent}
+   * @param authorization {@link ApiAuthorization}
+   * @param awsServices {@link AwsServiceCache}
+   * 
+   * @return {@link String}, null if the response has no ETag
+   * 
+   * @throws Exception Exception
+   */
+  default String getEtag(LambdaLogger logger, ApiGatewayRequestEvent event,
+      ApiAuthorization authorization, AwsServiceCache awsServices) throws Exception {
+    return null;
+  }
+
   /**
    * Get Request Url.
    * 
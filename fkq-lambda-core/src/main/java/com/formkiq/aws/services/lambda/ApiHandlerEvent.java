@@ -0,0 +1,104 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 
+ * Java Flight Recorder event of an API handler execution. Only requests slower than the threshold
+ * are recorded.
+ *
+ */
+@Name("com.formkiq.ApiHandler")
+@Label("API Handler")
+@Category({"FormKiQ", "API"})
+@Description("API Gateway request handler execution")
+@Threshold("50 ms")
+@StackTrace(false)
+public class ApiHandlerEvent extends Event {
+
+  /** Current Thread {@link ApiHandlerEvent}. */
+  private static final ThreadLocal<ApiHandlerEvent> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Commit the current thread's {@link ApiHandlerEvent}.
+   */
+  public static void end() {
+    ApiHandlerEvent event = CURRENT.get();
+    if (event != null) {
+      CURRENT.remove();
+      event.commit();
+    }
+  }
+
+  /**
+   * Set the response status of the current thread's {@link ApiHandlerEvent}.
+   * 
+   * @param statusCode int
+   */
+  public static void response(final int statusCode) {
+    ApiHandlerEvent event = CURRENT.get();
+    if (event != null) {
+      event.status = statusCode;
+    }
+  }
+
+  /**
+   * Begin a {@link ApiHandlerEvent} for the current thread, if the event is enabled.
+   * 
+   * @param httpMethod {@link String}
+   * @param resource {@link String}
+   */
+  public static void start(final String httpMethod, final String resource) {
+    ApiHandlerEvent event = new ApiHandlerEvent();
+    if (event.isEnabled()) {
+      event.method = httpMethod;
+      event.route = resource;
+      event.begin();
+      CURRENT.set(event);
+    }
+  }
+
+  /** Http Method. */
+  @Label("Method")
+  private String method;
+  /** Route. */
+  @Label("Route")
+  private String route;
+  /** Response Status Code. */
+  @Label("Status")
+  private int status;
+
+  /**
+   * constructor.
+   */
+  public ApiHandlerEvent() {}
+}
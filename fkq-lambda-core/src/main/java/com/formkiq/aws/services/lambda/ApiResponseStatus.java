@@ -60,6 +60,8 @@ public enum ApiResponseStatus {
   SC_NOT_FOUND(404),
   /** {@code 501 Server Error} (HTTP/1.0 - RFC 1945). */
   SC_NOT_IMPLEMENTED(501),
+  /** {@code 304 Not Modified} (HTTP/1.0 - RFC 1945). */
+  SC_NOT_MODIFIED(304),
   /** {@code 200 OK} (HTTP/1.0 - RFC 1945). */
   SC_OK(200),
   /** {@code 402 forbidden} (HTTP/1.0 - RFC 1945). */
@@ -0,0 +1,76 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetrics;
+import com.google.gson.Gson;
+
+/**
+ * 
+ * Formats {@link AwsCallMetrics} as a CloudWatch Embedded Metric Format (EMF) log line.
+ *
+ */
+public final class AwsCallMetricsFormatter {
+
+  /** CloudWatch Metrics Namespace. */
+  private static final String NAMESPACE = "FormKiQ";
+
+  private static Map<String, String> metric(final String name, final String unit) {
+    return Map.of("Name", name, "Unit", unit);
+  }
+
+  /**
+   * Convert {@link AwsCallMetrics} to EMF Json.
+   * 
+   * @param gson {@link Gson}
+   * @param metrics {@link AwsCallMetrics}
+   * @param timestamp long
+   * @return {@link String}
+   */
+  public static String toEmf(final Gson gson, final AwsCallMetrics metrics,
+      final long timestamp) {
+
+    Map<String, Object> directive = Map.of("Namespace", NAMESPACE, "Dimensions",
+        List.of(List.of("Route")), "Metrics",
+        List.of(metric("AwsCalls", "Count"), metric("ConsumedCapacity", "Count"),
+            metric("AwsBytes", "Bytes"), metric("AwsCallLatency", "Milliseconds")));
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("_aws", Map.of("Timestamp", Long.valueOf(timestamp), "CloudWatchMetrics",
+        List.of(directive)));
+    map.put("Route", metrics.getRoute());
+    map.put("AwsCalls", Integer.valueOf(metrics.getCallCount()));
+    map.put("ConsumedCapacity", Double.valueOf(metrics.getConsumedCapacity()));
+    map.put("AwsBytes", Long.valueOf(metrics.getBytes()));
+    map.put("AwsCallLatency", metrics.getLatencies());
+    map.put("AwsOperations", metrics.getOperations());
+
+    return gson.toJson(map);
+  }
+
+  private AwsCallMetricsFormatter() {}
+}
@@ -0,0 +1,168 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 
+ * {@link OutputStream} that buffers up to 'threshold' bytes. Once more bytes are written the
+ * 'onCompress' callback is run, then the buffered and all following bytes are gzip compressed and
+ * base64 encoded straight into the target {@link OutputStream}, so a large body is never held in
+ * memory as JSON, gzip and base64 copies at the same time. The target stream is not closed.
+ *
+ */
+final class Base64GzipThresholdOutputStream extends OutputStream {
+
+  /**
+   * Callback run before the first compressed byte is written.
+   */
+  @FunctionalInterface
+  interface CompressCallback {
+    /**
+     * Run callback.
+     * 
+     * @throws IOException IOException
+     */
+    void run() throws IOException;
+  }
+
+  /** Buffered bytes, until the threshold is exceeded. */
+  private final ByteArrayOutputStream buffer;
+  /** Whether the threshold was exceeded. */
+  private boolean compressed;
+  /** Gzip {@link OutputStream}, null until the threshold is exceeded. */
+  private OutputStream gzip;
+  /** {@link CompressCallback}. */
+  private final CompressCallback onCompress;
+  /** Target {@link OutputStream}. */
+  private final OutputStream target;
+  /** Compression threshold. */
+  private final int threshold;
+
+  /**
+   * constructor.
+   * 
+   * @param targetStream {@link OutputStream}
+   * @param compressionThreshold int
+   * @param callback {@link CompressCallback}
+   */
+  Base64GzipThresholdOutputStream(final OutputStream targetStream,
+      final int compressionThreshold, final CompressCallback callback) {
+    this.target = targetStream;
+    this.threshold = compressionThreshold;
+    this.onCompress = callback;
+    this.buffer = new ByteArrayOutputStream(compressionThreshold);
+  }
+
+  /**
+   * Finish compressing, writes the gzip trailer and the base64 padding. The target
+   * {@link OutputStream} is flushed but not closed.
+   * 
+   * @throws IOException IOException
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.gzip != null) {
+      this.gzip.close();
+      this.gzip = null;
+    }
+    this.target.flush();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (this.gzip != null) {
+      this.gzip.flush();
+    }
+  }
+
+  /**
+   * Get the buffered bytes, while the threshold has not been exceeded.
+   * 
+   * @return byte[]
+   */
+  byte[] getBuffer() {
+    return this.buffer.toByteArray();
+  }
+
+  /**
+   * Whether the threshold was exceeded and the content compressed.
+   * 
+   * @return boolean
+   */
+  boolean isCompressed() {
+    return this.compressed;
+  }
+
+  private void startCompression() throws IOException {
+
+    this.onCompress.run();
+    this.compressed = true;
+
+    OutputStream nonClosing = new OutputStream() {
+      @Override
+      public void close() throws IOException {
+        target.flush();
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) throws IOException {
+        target.write(b, off, len);
+      }
+
+      @Override
+      public void write(final int b) throws IOException {
+        target.write(b);
+      }
+    };
+
+    this.gzip = new GZIPOutputStream(Base64.getEncoder().wrap(nonClosing));
+    this.buffer.writeTo(this.gzip);
+    this.buffer.reset();
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+
+    if (!this.compressed && this.buffer.size() + len > this.threshold) {
+      startCompression();
+    }
+
+    if (this.compressed) {
+      this.gzip.write(b, off, len);
+    } else {
+      this.buffer.write(b, off, len);
+    }
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+}
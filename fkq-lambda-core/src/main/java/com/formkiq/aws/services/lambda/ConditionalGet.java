@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * 
+ * Conditional GET support. A {@link ApiGatewayRequestHandler} returns an ETag from
+ * {@link ApiGatewayRequestHandler#getEtag}, derived from the record metadata its response is
+ * built from, so a matching 'If-None-Match' is answered with a 304 Not Modified before the
+ * response is loaded and serialized.
+ *
+ */
+public final class ConditionalGet {
+
+  /** private constructor. */
+  private ConditionalGet() {}
+
+  /**
+   * Create a strong ETag from the values a response is derived from, for example a document's
+   * 'lastModifiedDate' and 'checksum'.
+   * 
+   * @param values {@link String}
+   * @return {@link String}
+   */
+  public static String createEtag(final String... values) {
+
+    try {
+
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+      for (String value : values) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+
+      return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest())
+          + "\"";
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Get Header, header names are compared case insensitively.
+   * 
+   * @param event {@link ApiGatewayRequestEvent}
+   * @param name {@link String}
+   * @return {@link String}
+   */
+  static String getHeader(final ApiGatewayRequestEvent event, final String name) {
+
+    String value = null;
+    Map<String, String> headers = event.getHeaders();
+
+    if (headers != null) {
+      value = headers.get(name);
+
+      if (value == null) {
+        value = headers.entrySet().stream().filter(e -> name.equalsIgnoreCase(e.getKey()))
+            .map(Map.Entry::getValue).findFirst().orElse(null);
+      }
+    }
+
+    return value;
+  }
+
+  /**
+   * Does the 'If-None-Match' header match the ETag, using weak comparison.
+   * 
+   * @param ifNoneMatch {@link String}
+   * @param etag {@link String}
+   * @return boolean
+   */
+  static boolean isMatch(final String ifNoneMatch, final String etag) {
+
+    boolean match = false;
+
+    if (ifNoneMatch != null) {
+      for (String tag : ifNoneMatch.split(",")) {
+        String s = tag.trim();
+        s = s.startsWith("W/") ? s.substring(2) : s;
+        match = match || "*".equals(s) || etag.equals(s);
+      }
+    }
+
+    return match;
+  }
+}
@@ -35,7 +35,8 @@ public final class GsonUtil {
   /** {@link Gson}. */
   private static final Gson GSON =
       new GsonBuilder().disableHtmlEscaping().setDateFormat(DATE_FORMAT)
-          .registerTypeAdapterFactory(new CaseInsensitiveEnumTypeAdapterFactory()).create();
+          .registerTypeAdapterFactory(new CaseInsensitiveEnumTypeAdapterFactory())
+          .registerTypeAdapterFactory(new ApiGatewayRequestEventTypeAdapterFactory()).create();
 
   /** private constructor. */
   private GsonUtil() {}
@@ -0,0 +1,113 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 
+ * {@link Writer} that JSON string escapes everything written to it, so a JSON document can be
+ * streamed as the string value of another JSON document, ie: the API Gateway response "body".
+ * Escaping matches {@link com.google.gson.stream.JsonWriter} with html escaping disabled.
+ *
+ */
+final class JsonStringEscapeWriter extends Writer {
+
+  /** Hex digits. */
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  /** First non control character. */
+  private static final char MIN_PRINTABLE = 0x20;
+  /** Unicode line separator, not valid unescaped in javascript strings. */
+  private static final char LINE_SEPARATOR = 0x2028;
+  /** Unicode paragraph separator, not valid unescaped in javascript strings. */
+  private static final char PARAGRAPH_SEPARATOR = 0x2029;
+  /** Hex shift. */
+  private static final int SHIFT = 4;
+  /** Hex mask. */
+  private static final int MASK = 0xf;
+
+  /** Delegate {@link Writer}. */
+  private final Writer out;
+
+  /**
+   * constructor.
+   * 
+   * @param writer {@link Writer}
+   */
+  JsonStringEscapeWriter(final Writer writer) {
+    this.out = writer;
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  private void escape(final char c) throws IOException {
+    switch (c) {
+      case '"' -> this.out.write("\\\"");
+      case '\\' -> this.out.write("\\\\");
+      case '\t' -> this.out.write("\\t");
+      case '\b' -> this.out.write("\\b");
+      case '\n' -> this.out.write("\\n");
+      case '\r' -> this.out.write("\\r");
+      case '\f' -> this.out.write("\\f");
+      default -> {
+        if (c < MIN_PRINTABLE || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR) {
+          writeUnicode(c);
+        } else {
+          this.out.write(c);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.out.flush();
+  }
+
+  @Override
+  public void write(final char[] cbuf, final int off, final int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      escape(cbuf[i]);
+    }
+  }
+
+  @Override
+  public void write(final String str, final int off, final int len) throws IOException {
+    for (int i = off; i < off + len; i++) {
+      escape(str.charAt(i));
+    }
+  }
+
+  private void writeUnicode(final char c) throws IOException {
+    this.out.write("\\u");
+    this.out.write(HEX[(c >> (SHIFT * 3)) & MASK]);
+    this.out.write(HEX[(c >> (SHIFT * 2)) & MASK]);
+    this.out.write(HEX[(c >> SHIFT) & MASK]);
+    this.out.write(HEX[c & MASK]);
+  }
+}
@@ -0,0 +1,227 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.InputStream;
+
+/**
+ * 
+ * {@link InputStream} of the UTF-8 bytes of a JSON string value, read from the raw escaped bytes
+ * of the value between its quotes. Escape sequences are decoded as the stream is read, so the
+ * value is never copied into a {@link String}.
+ *
+ */
+final class JsonStringInputStream extends InputStream {
+
+  /** Mask to convert byte to int. */
+  private static final int BYTE_MASK = 0xff;
+  /** Hex radix. */
+  private static final int HEX = 16;
+  /** Number of hex digits in a unicode escape. */
+  private static final int UNICODE_DIGITS = 4;
+  /** Length of a unicode escape. */
+  private static final int UNICODE_ESCAPE_LENGTH = 6;
+  /** Code points below are encoded as a single UTF-8 byte. */
+  private static final int UTF8_ONE_BYTE_LIMIT = 0x80;
+  /** Code points below are encoded as two UTF-8 bytes. */
+  private static final int UTF8_TWO_BYTE_LIMIT = 0x800;
+  /** Code points below are encoded as three UTF-8 bytes. */
+  private static final int UTF8_THREE_BYTE_LIMIT = 0x10000;
+  /** UTF-8 continuation byte. */
+  private static final int UTF8_CONTINUATION = 0x80;
+  /** UTF-8 continuation byte payload mask. */
+  private static final int UTF8_CONTINUATION_MASK = 0x3f;
+  /** UTF-8 two byte lead. */
+  private static final int UTF8_TWO_BYTE_LEAD = 0xc0;
+  /** UTF-8 three byte lead. */
+  private static final int UTF8_THREE_BYTE_LEAD = 0xe0;
+  /** UTF-8 four byte lead. */
+  private static final int UTF8_FOUR_BYTE_LEAD = 0xf0;
+  /** Bits per UTF-8 continuation byte. */
+  private static final int UTF8_SHIFT = 6;
+  /** Maximum number of UTF-8 bytes of a code point. */
+  private static final int UTF8_MAX_BYTES = 4;
+
+  /** Raw JSON bytes. */
+  private final byte[] bytes;
+  /** End of the string value. */
+  private final int end;
+  /** UTF-8 bytes of a decoded unicode escape. */
+  private final byte[] pending = new byte[UTF8_MAX_BYTES];
+  /** Number of pending bytes. */
+  private int pendingLength;
+  /** Position in pending bytes. */
+  private int pendingPos;
+  /** Current position. */
+  private int pos;
+
+  /**
+   * constructor.
+   * 
+   * @param json byte[]
+   * @param offset int, start of the value after the opening quote
+   * @param length int, length of the value before the closing quote
+   */
+  JsonStringInputStream(final byte[] json, final int offset, final int length) {
+    this.bytes = json;
+    this.pos = offset;
+    this.end = offset + length;
+  }
+
+  @Override
+  public int available() {
+    return this.pendingLength - this.pendingPos;
+  }
+
+  /**
+   * Encode a code point as UTF-8 into the pending bytes, unpaired surrogates are encoded as '?',
+   * the same as {@link String#getBytes(java.nio.charset.Charset)}.
+   * 
+   * @param codePoint int
+   */
+  private void encode(final int codePoint) {
+
+    int i = 0;
+
+    if (codePoint < UTF8_ONE_BYTE_LIMIT) {
+      this.pending[i++] = (byte) codePoint;
+    } else if (codePoint < UTF8_TWO_BYTE_LIMIT) {
+      this.pending[i++] = (byte) (UTF8_TWO_BYTE_LEAD | codePoint >> UTF8_SHIFT);
+      this.pending[i++] = continuation(codePoint, 0);
+    } else if (codePoint < UTF8_THREE_BYTE_LIMIT && Character.isSurrogate((char) codePoint)) {
+      this.pending[i++] = '?';
+    } else if (codePoint < UTF8_THREE_BYTE_LIMIT) {
+      this.pending[i++] = (byte) (UTF8_THREE_BYTE_LEAD | codePoint >> (2 * UTF8_SHIFT));
+      this.pending[i++] = continuation(codePoint, 1);
+      this.pending[i++] = continuation(codePoint, 0);
+    } else {
+      this.pending[i++] = (byte) (UTF8_FOUR_BYTE_LEAD | codePoint >> (3 * UTF8_SHIFT));
+      this.pending[i++] = continuation(codePoint, 2);
+      this.pending[i++] = continuation(codePoint, 1);
+      this.pending[i++] = continuation(codePoint, 0);
+    }
+
+    this.pendingPos = 0;
+    this.pendingLength = i;
+  }
+
+  private static byte continuation(final int codePoint, final int index) {
+    return (byte) (UTF8_CONTINUATION
+        | codePoint >> (index * UTF8_SHIFT) & UTF8_CONTINUATION_MASK);
+  }
+
+  private boolean isUnicodeEscape(final int index) {
+    return index + UNICODE_ESCAPE_LENGTH <= this.end && this.bytes[index] == '\\'
+        && this.bytes[index + 1] == 'u';
+  }
+
+  private int parseHex(final int index) {
+    int value = 0;
+    for (int i = index; i < index + UNICODE_DIGITS; i++) {
+      value = value * HEX + Character.digit(this.bytes[i], HEX);
+    }
+    return value;
+  }
+
+  @Override
+  public int read() {
+
+    int result;
+
+    if (this.pendingPos < this.pendingLength) {
+      result = this.pending[this.pendingPos++] & BYTE_MASK;
+    } else if (this.pos >= this.end) {
+      result = -1;
+    } else if (this.bytes[this.pos] == '\\') {
+      this.pos++;
+      result = readEscape();
+    } else {
+      result = this.bytes[this.pos++] & BYTE_MASK;
+    }
+
+    return result;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) {
+
+    int count = 0;
+
+    while (count < len && (available() > 0 || this.pos < this.end)) {
+
+      // copy the unescaped bytes directly
+      if (available() == 0 && this.bytes[this.pos] != '\\') {
+        b[off + count++] = this.bytes[this.pos++];
+      } else {
+        b[off + count++] = (byte) read();
+      }
+    }
+
+    return len > 0 && count == 0 ? -1 : count;
+  }
+
+  /**
+   * Read the character after a backslash.
+   * 
+   * @return int
+   */
+  private int readEscape() {
+
+    char c = (char) this.bytes[this.pos++];
+
+    return switch (c) {
+      case 'b' -> '\b';
+      case 'f' -> '\f';
+      case 'n' -> '\n';
+      case 'r' -> '\r';
+      case 't' -> '\t';
+      case 'u' -> readUnicodeEscape();
+      default -> c;
+    };
+  }
+
+  /**
+   * Read a unicode escape, after "\\u", combining a surrogate pair into a single code point.
+   * 
+   * @return int, the first UTF-8 byte
+   */
+  private int readUnicodeEscape() {
+
+    int codePoint = parseHex(this.pos);
+    this.pos += UNICODE_DIGITS;
+
+    if (Character.isHighSurrogate((char) codePoint) && isUnicodeEscape(this.pos)) {
+
+      char low = (char) parseHex(this.pos + 2);
+
+      if (Character.isLowSurrogate(low)) {
+        codePoint = Character.toCodePoint((char) codePoint, low);
+        this.pos += UNICODE_ESCAPE_LENGTH;
+      }
+    }
+
+    encode(codePoint);
+    return this.pending[this.pendingPos++] & BYTE_MASK;
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Lambda handler payload read in a single streaming pass. Holds the {@link ApiGatewayRequestEvent}
+ * properties, the "Records" of an event source mapping (SQS) and any other top level properties.
+ *
+ * @param event {@link ApiGatewayRequestEvent}
+ * @param records {@link JsonArray}
+ * @param other {@link JsonObject}
+ */
+public record LambdaInputEvent(ApiGatewayRequestEvent event, JsonArray records,
+    JsonObject other) {
+
+  /**
+   * Read the Lambda payload. The {@link ApiGatewayRequestEvent} body is not copied, it is kept as
+   * a slice of the payload bytes and only decoded when it is read.
+   * 
+   * @param gson {@link Gson}
+   * @param json byte[]
+   * @return {@link LambdaInputEvent}
+   */
+  public static LambdaInputEvent fromJson(final Gson gson, final byte[] json) {
+
+    LambdaInputEvent input;
+
+    try (Reader reader =
+        new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) {
+      input = gson.fromJson(reader, LambdaInputEvent.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (input != null && input.event() != null) {
+      input.event().setRawBody(RawJsonString.find(json, "body"));
+    }
+
+    return input;
+  }
+
+  /**
+   * Is the payload an API Gateway request.
+   * 
+   * @return boolean
+   */
+  public boolean isApiGatewayEvent() {
+    return this.event != null
+        && (this.event.getHeaders() != null || this.event.getPath() != null);
+  }
+
+  /**
+   * Does the payload contain "aws:sqs" records.
+   * 
+   * @return boolean
+   */
+  public boolean hasSqsRecords() {
+
+    boolean sqs = false;
+
+    if (this.records != null) {
+      for (JsonElement record : this.records) {
+        if (record.isJsonObject() && record.getAsJsonObject().has("eventSource")
+            && "aws:sqs".equals(record.getAsJsonObject().get("eventSource").getAsString())) {
+          sqs = true;
+          break;
+        }
+      }
+    }
+
+    return sqs;
+  }
+
+  /**
+   * Rebuild the payload as a {@link JsonObject}.
+   * 
+   * @param eventJson {@link JsonElement} of the {@link ApiGatewayRequestEvent} properties
+   * @return {@link JsonObject}
+   */
+  public JsonObject toJson(final JsonElement eventJson) {
+
+    JsonObject json = new JsonObject();
+
+    if (eventJson != null && eventJson.isJsonObject()) {
+      for (Map.Entry<String, JsonElement> e : eventJson.getAsJsonObject().entrySet()) {
+        json.add(e.getKey(), e.getValue());
+      }
+    }
+
+    if (this.records != null) {
+      json.add("Records", this.records);
+    }
+
+    if (this.other != null) {
+      for (Map.Entry<String, JsonElement> e : this.other.entrySet()) {
+        json.add(e.getKey(), e.getValue());
+      }
+    }
+
+    return json;
+  }
+}
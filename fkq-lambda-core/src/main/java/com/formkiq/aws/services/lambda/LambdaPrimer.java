@@ -0,0 +1,184 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.google.gson.Gson;
+
+/**
+ * 
+ * Runs registered {@link PrimingTask} during Lambda static initialization, so SDK client creation,
+ * Gson adapter reflection, route table construction and class loading are paid during init (or
+ * captured in a SnapStart snapshot) instead of by the first invocation. Task timings are logged as
+ * a single line to show the cold start breakdown.
+ *
+ */
+public class LambdaPrimer {
+
+  /** Registered {@link PrimingTask}. */
+  private final Map<String, PrimingTask> tasks = new LinkedHashMap<>();
+  /** Names of {@link PrimingTask} that must succeed. */
+  private final Set<String> required = new HashSet<>();
+
+  /**
+   * constructor.
+   */
+  public LambdaPrimer() {}
+
+  /**
+   * Add {@link PrimingTask}.
+   * 
+   * @param name {@link String}
+   * @param task {@link PrimingTask}
+   * @return {@link LambdaPrimer}
+   */
+  public LambdaPrimer add(final String name, final PrimingTask task) {
+    this.tasks.put(name, task);
+    return this;
+  }
+
+  /**
+   * Add {@link PrimingTask} that must succeed, ie: handler initialization, a failure is rethrown
+   * from {@link #run(AwsServiceCache)}.
+   * 
+   * @param name {@link String}
+   * @param task {@link PrimingTask}
+   * @return {@link LambdaPrimer}
+   */
+  public LambdaPrimer addRequired(final String name, final PrimingTask task) {
+    this.required.add(name);
+    return add(name, task);
+  }
+
+  /**
+   * Add {@link PrimingTask} that exercises the {@link GsonUtil} adapters on synthetic API Gateway
+   * and SQS events.
+   * 
+   * @return {@link LambdaPrimer}
+   */
+  public LambdaPrimer addGson() {
+    return add("gson", s -> primeGson(GsonUtil.getInstance()));
+  }
+
+  /**
+   * Add {@link PrimingTask} that eagerly builds services registered in {@link AwsServiceCache}.
+   * 
+   * @param classes {@link Class}
+   * @return {@link LambdaPrimer}
+   */
+  public LambdaPrimer addServices(final Class<?>... classes) {
+    return add("services", s -> s.warmUp(classes));
+  }
+
+  /**
+   * Round trip synthetic events through {@link Gson} to load and cache the type adapters.
+   * 
+   * @param gson {@link Gson}
+   * @throws IOException IOException
+   */
+  private void primeGson(final Gson gson) throws IOException {
+
+    ApiGatewayRequestEvent event = new ApiGatewayRequestEventBuilder().method("get")
+        .resource("/documents/{documentId}").path("/documents/priming")
+        .pathParameters(Map.of("documentId", "priming"))
+        .queryParameters(Map.of("siteId", "default")).group("default").user("priming")
+        .body("{\"priming\":true}").build();
+
+    ApiGatewayRequestEvent copy =
+        gson.fromJson(gson.toJson(event), ApiGatewayRequestEvent.class);
+    gson.fromJson(copy.getBody(), Map.class);
+
+    LambdaInputEvent sqs = gson.fromJson(
+        "{\"Records\":[{\"eventSource\":\"aws:sqs\",\"body\":\"{}\"}]}",
+        LambdaInputEvent.class);
+    gson.fromJson(sqs.toJson(null), LambdaInputRecords.class);
+    LambdaInputEvent.fromJson(gson, gson.toJson(event).getBytes(StandardCharsets.UTF_8)).event()
+        .getBody();
+
+    try (JsonStringEscapeWriter writer = new JsonStringEscapeWriter(new StringWriter())) {
+      gson.toJson(new ApiMessageResponse("priming"), writer);
+      gson.toJson(Map.of("statusCode", "200", "headers", Collections.emptyMap()), writer);
+    }
+  }
+
+  /**
+   * Run all {@link PrimingTask}. A failing task is logged and skipped, unless it was added using
+   * {@link #addRequired(String, PrimingTask)}.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @return {@link Map} of task name to duration in milliseconds
+   */
+  public Map<String, Long> run(final AwsServiceCache awsServices) {
+
+    LambdaLogger logger = LambdaRuntime.getLogger();
+    Map<String, Long> timings = new LinkedHashMap<>();
+    long start = System.nanoTime();
+
+    this.tasks.forEach((name, task) -> {
+
+      long taskStart = System.nanoTime();
+
+      try {
+        task.prime(awsServices);
+      } catch (RuntimeException e) {
+        if (this.required.contains(name)) {
+          throw e;
+        }
+        logger.log("priming task '" + name + "' failed: " + e.getMessage());
+      } catch (Exception e) {
+        if (this.required.contains(name)) {
+          throw new IllegalStateException(e);
+        }
+        logger.log("priming task '" + name + "' failed: " + e.getMessage());
+      }
+
+      timings.put(name, toMillis(System.nanoTime() - taskStart));
+    });
+
+    String services = awsServices.getLoadTimes().entrySet().stream()
+        .map(e -> e.getKey().getSimpleName() + "=" + e.getValue() + "ms")
+        .collect(Collectors.joining(", "));
+
+    logger.log("cold start priming " + toMillis(System.nanoTime() - start) + "ms tasks "
+        + timings + " services {" + services + "}");
+
+    return timings;
+  }
+
+  private static Long toMillis(final long nanos) {
+    return Long.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+  }
+}
@@ -0,0 +1,247 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 
+ * A JSON string value kept as the raw escaped bytes between its quotes in the original JSON
+ * document. The value is only decoded when it is read.
+ *
+ */
+final class RawJsonString {
+
+  /** Raw JSON bytes. */
+  private final byte[] bytes;
+  /** Whether the value contains escape sequences. */
+  private final boolean escaped;
+  /** Length of the value. */
+  private final int length;
+  /** Start of the value. */
+  private final int offset;
+
+  /**
+   * constructor.
+   * 
+   * @param json byte[]
+   * @param start int, start of the value after the opening quote
+   * @param end int, position of the closing quote
+   * @param hasEscapes boolean
+   */
+  private RawJsonString(final byte[] json, final int start, final int end,
+      final boolean hasEscapes) {
+    this.bytes = json;
+    this.offset = start;
+    this.length = end - start;
+    this.escaped = hasEscapes;
+  }
+
+  /**
+   * Find the string value of a top level property of a valid JSON object.
+   * 
+   * @param json byte[]
+   * @param name {@link String}
+   * @return {@link RawJsonString}, null if the property is missing or not a string
+   */
+  static RawJsonString find(final byte[] json, final String name) {
+
+    RawJsonString value = null;
+    int i = skipWhitespace(json, 0);
+
+    if (i < json.length && json[i] == '{') {
+
+      i = skipWhitespace(json, i + 1);
+
+      while (value == null && i < json.length && json[i] == '"') {
+
+        int keyEnd = skipString(json, i);
+        boolean match = isName(json, i + 1, keyEnd - 1, name);
+
+        // skip ':'
+        i = skipWhitespace(json, skipWhitespace(json, keyEnd) + 1);
+
+        if (match && i < json.length && json[i] == '"') {
+          int end = skipString(json, i) - 1;
+          value = new RawJsonString(json, i + 1, end, indexOf(json, i + 1, end, '\\') >= 0);
+        } else {
+          // skip value and ','
+          i = skipWhitespace(json, skipValue(json, i));
+          i = i < json.length && json[i] == ',' ? skipWhitespace(json, i + 1) : json.length;
+        }
+      }
+    }
+
+    return value;
+  }
+
+  private static int indexOf(final byte[] json, final int start, final int end, final char c) {
+    int index = -1;
+    for (int i = start; i < end && index < 0; i++) {
+      if (json[i] == c) {
+        index = i;
+      }
+    }
+    return index;
+  }
+
+  private static boolean isName(final byte[] json, final int start, final int end,
+      final String name) {
+    boolean match = end - start == name.length();
+    for (int i = 0; match && i < name.length(); i++) {
+      match = json[start + i] == name.charAt(i);
+    }
+    return match;
+  }
+
+  private static boolean isStructuralEnd(final byte b) {
+    return b == ',' || b == '}' || b == ']' || Character.isWhitespace(b);
+  }
+
+  /**
+   * Skip a string, starting at its opening quote.
+   * 
+   * @param json byte[]
+   * @param start int
+   * @return int, the position after the closing quote
+   */
+  private static int skipString(final byte[] json, final int start) {
+    int i = start + 1;
+    while (i < json.length && json[i] != '"') {
+      i += json[i] == '\\' ? 2 : 1;
+    }
+    return i + 1;
+  }
+
+  /**
+   * Skip an object or array, starting at its opening bracket.
+   * 
+   * @param json byte[]
+   * @param start int
+   * @return int, the position after the closing bracket
+   */
+  private static int skipStructure(final byte[] json, final int start) {
+
+    int depth = 0;
+    int i = start;
+
+    do {
+      byte b = json[i];
+      if (b == '"') {
+        i = skipString(json, i);
+      } else {
+        depth += b == '{' || b == '[' ? 1 : 0;
+        depth -= b == '}' || b == ']' ? 1 : 0;
+        i++;
+      }
+    } while (depth > 0 && i < json.length);
+
+    return i;
+  }
+
+  private static int skipValue(final byte[] json, final int start) {
+
+    int i = start;
+
+    if (i < json.length && json[i] == '"') {
+      i = skipString(json, i);
+    } else if (i < json.length && (json[i] == '{' || json[i] == '[')) {
+      i = skipStructure(json, i);
+    } else {
+      while (i < json.length && !isStructuralEnd(json[i])) {
+        i++;
+      }
+    }
+
+    return i;
+  }
+
+  private static int skipWhitespace(final byte[] json, final int start) {
+    int i = start;
+    while (i < json.length && Character.isWhitespace(json[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Count the number of trailing characters.
+   * 
+   * @param c char
+   * @return int
+   */
+  int countTrailing(final char c) {
+    int count = 0;
+    for (int i = this.offset + this.length - 1; i >= this.offset && this.bytes[i] == c; i--) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Decode the value into a {@link String}.
+   * 
+   * @return {@link String}
+   */
+  String decode() {
+    return this.escaped ? new String(readAllBytes(), StandardCharsets.UTF_8)
+        : new String(this.bytes, this.offset, this.length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Get the length in bytes of the decoded UTF-8 value.
+   * 
+   * @return long
+   */
+  long getDecodedLength() {
+    try (InputStream is = toInputStream()) {
+      return this.escaped ? is.transferTo(OutputStream.nullOutputStream()) : this.length;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private byte[] readAllBytes() {
+    try (InputStream is = toInputStream()) {
+      return is.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Get the decoded UTF-8 value as an {@link InputStream}.
+   * 
+   * @return {@link InputStream}
+   */
+  InputStream toInputStream() {
+    return this.escaped ? new JsonStringInputStream(this.bytes, this.offset, this.length)
+        : new ByteArrayInputStream(this.bytes, this.offset, this.length);
+  }
+}
@@ -0,0 +1,132 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+/**
+ * Calculates the length in bytes of a request body without decoding or encoding it.
+ */
+final class RequestBodyLength {
+
+  /** Number of characters in a Base64 quantum. */
+  private static final int BASE64_QUANTUM_CHARS = 4;
+  /** Number of bytes in a Base64 quantum. */
+  private static final int BASE64_QUANTUM_BYTES = 3;
+  /** Characters below are encoded as a single UTF-8 byte. */
+  private static final int UTF8_ONE_BYTE_LIMIT = 0x80;
+  /** Characters below are encoded as two UTF-8 bytes. */
+  private static final int UTF8_TWO_BYTE_LIMIT = 0x800;
+  /** Number of UTF-8 bytes for a basic multilingual plane character. */
+  private static final int UTF8_THREE_BYTES = 3;
+  /** Number of UTF-8 bytes for a surrogate pair. */
+  private static final int UTF8_SURROGATE_PAIR_BYTES = 4;
+
+  /** private constructor. */
+  private RequestBodyLength() {}
+
+  /**
+   * Get the decoded length of the body.
+   * 
+   * @param body {@link String}
+   * @param base64 whether the body is Base64 encoded
+   * @return long
+   */
+  static long getLength(final String body, final boolean base64) {
+    return base64 ? getBase64Length(body) : getUtf8Length(body);
+  }
+
+  /**
+   * Get the decoded length of the body kept as a {@link RawJsonString}.
+   * 
+   * @param body {@link RawJsonString}
+   * @param base64 whether the body is Base64 encoded
+   * @return long
+   */
+  static long getLength(final RawJsonString body, final boolean base64) {
+    long length = body.getDecodedLength();
+    return base64 ? getBase64Length(length, body.countTrailing('=')) : length;
+  }
+
+  /**
+   * Get the decoded length of a Base64 {@link String}.
+   * 
+   * @param body {@link String}
+   * @return long
+   */
+  private static long getBase64Length(final String body) {
+
+    int padding = 0;
+    for (int i = body.length() - 1; i >= 0 && body.charAt(i) == '='; i--) {
+      padding++;
+    }
+
+    return getBase64Length(body.length(), padding);
+  }
+
+  /**
+   * Get the decoded length of Base64 characters, padding is optional.
+   * 
+   * @param length long, number of Base64 characters
+   * @param padding int, number of trailing '=' characters
+   * @return long
+   */
+  private static long getBase64Length(final long length, final int padding) {
+    return length * BASE64_QUANTUM_BYTES / BASE64_QUANTUM_CHARS - padding;
+  }
+
+  /**
+   * Get the UTF-8 encoded length of a {@link String}.
+   * 
+   * @param body {@link String}
+   * @return long
+   */
+  private static long getUtf8Length(final String body) {
+
+    long length = 0;
+    int i = 0;
+
+    while (i < body.length()) {
+
+      char c = body.charAt(i);
+
+      if (c < UTF8_ONE_BYTE_LIMIT) {
+        length++;
+      } else if (c < UTF8_TWO_BYTE_LIMIT) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < body.length()
+          && Character.isLowSurrogate(body.charAt(i + 1))) {
+        length += UTF8_SURROGATE_PAIR_BYTES;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogates are replaced with '?'
+        length++;
+      } else {
+        length += UTF8_THREE_BYTES;
+      }
+
+      i++;
+    }
+
+    return length;
+  }
+}
@@ -0,0 +1,182 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * 
+ * Unit Test for {@link ApiGatewayRequestEventTypeAdapterFactory}.
+ *
+ */
+class ApiGatewayRequestEventTypeAdapterFactoryTest {
+
+  /** Reflective {@link Gson}. */
+  private final Gson reflective = new GsonBuilder().disableHtmlEscaping().create();
+  /** Streaming {@link Gson}. */
+  private final Gson streaming = GsonUtil.getInstance();
+
+  /**
+   * Read event matches the reflective adapter.
+   */
+  @Test
+  void testRead01() {
+    // given
+    String json = "{\"resource\":\"/documents/{documentId}\",\"path\":\"/documents/123\","
+        + "\"httpMethod\":\"GET\",\"headers\":{\"Accept\":\"*/*\"},"
+        + "\"multiValueHeaders\":{\"Accept\":[\"*/*\"]},\"queryStringParameters\":null,"
+        + "\"pathParameters\":{\"documentId\":\"123\"},\"stageVariables\":null,"
+        + "\"requestContext\":{\"authorizer\":{\"claims\":{\"cognito:groups\":\"[default]\","
+        + "\"exp\":1700000000}},\"domainName\":\"localhost\",\"identity\":{\"sourceIp\":"
+        + "\"127.0.0.1\"},\"protocol\":\"HTTP/1.1\",\"requestId\":\"abc\",\"stage\":\"prod\"},"
+        + "\"body\":\"e30=\",\"isBase64Encoded\":true}";
+
+    // when
+    ApiGatewayRequestEvent expected = this.reflective.fromJson(json, ApiGatewayRequestEvent.class);
+    ApiGatewayRequestEvent event = this.streaming.fromJson(json, ApiGatewayRequestEvent.class);
+
+    // then
+    assertEquals("/documents/{documentId}", event.getResource());
+    assertEquals("GET", event.getHttpMethod());
+    assertNull(event.getQueryStringParameters());
+    assertEquals(Map.of("documentId", "123"), event.getPathParameters());
+    assertTrue(event.getIsBase64Encoded().booleanValue());
+    assertEquals(this.reflective.toJson(expected), this.reflective.toJson(event));
+  }
+
+  /**
+   * Write event matches the reflective adapter.
+   */
+  @Test
+  void testWrite01() {
+    // given
+    ApiGatewayRequestEvent event = new ApiGatewayRequestEventBuilder().method("post")
+        .resource("/documents").path("/documents").group("default").user("joe")
+        .queryParameters(Map.of("siteId", "finance")).body("{\"path\":\"a.txt\"}").build();
+
+    // when
+    String json = this.streaming.toJson(event);
+
+    // then
+    assertEquals(this.reflective.toJson(event), json);
+    assertEquals(json,
+        this.streaming.toJson(this.streaming.fromJson(json, ApiGatewayRequestEvent.class)));
+  }
+
+  /**
+   * Read {@link LambdaInputEvent} of an API Gateway request.
+   */
+  @Test
+  void testReadInputEvent01() {
+    // given
+    String json = "{\"resource\":\"/documents\",\"path\":\"/documents\","
+        + "\"httpMethod\":\"GET\",\"headers\":{\"Accept\":\"*/*\"},\"stage\":\"prod\"}";
+
+    // when
+    LambdaInputEvent input = this.streaming.fromJson(json, LambdaInputEvent.class);
+
+    // then
+    assertTrue(input.isApiGatewayEvent());
+    assertFalse(input.hasSqsRecords());
+    assertEquals("/documents", input.event().getPath());
+    assertEquals("GET", input.event().getHttpMethod());
+    assertNull(input.records());
+    assertEquals("\"prod\"", input.other().get("stage").toString());
+  }
+
+  /**
+   * Read {@link LambdaInputEvent} of SQS records.
+   */
+  @Test
+  void testReadInputEvent02() {
+    // given
+    String json = "{\"Records\":[{\"messageId\":\"1\",\"body\":\"{}\","
+        + "\"eventSource\":\"aws:sqs\"}]}";
+
+    // when
+    LambdaInputEvent input = this.streaming.fromJson(json, LambdaInputEvent.class);
+    LambdaInputRecords records =
+        this.streaming.fromJson(input.toJson(null), LambdaInputRecords.class);
+
+    // then
+    assertFalse(input.isApiGatewayEvent());
+    assertTrue(input.hasSqsRecords());
+    assertEquals(1, records.getRecords().size());
+    assertEquals("aws:sqs", records.getRecords().get(0).getEventSource());
+  }
+
+  /**
+   * Read {@link LambdaInputEvent} of an other event writes back all properties.
+   */
+  @Test
+  void testReadInputEvent03() {
+    // given
+    String json = "{\"source\":\"aws.events\",\"Records\":[{\"eventSource\":\"aws:s3\"}],"
+        + "\"detail\":{\"a\":1}}";
+
+    // when
+    LambdaInputEvent input = this.streaming.fromJson(json, LambdaInputEvent.class);
+
+    // then
+    assertFalse(input.isApiGatewayEvent());
+    assertFalse(input.hasSqsRecords());
+    assertEquals(this.reflective.fromJson(json, Map.class),
+        this.reflective.fromJson(this.streaming.toJson(input), Map.class));
+  }
+
+  /**
+   * Read {@link LambdaInputEvent} payload keeps the body undecoded until it is read.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testReadInputEvent04() throws Exception {
+    // given
+    String json = "{\"resource\":\"/documents\",\"path\":\"/documents\",\"httpMethod\":\"POST\","
+        + "\"headers\":{\"Accept\":\"*/*\"},\"body\":\"{\\\"path\\\":\\\"a.txt\\\"}\","
+        + "\"isBase64Encoded\":false}";
+
+    // when
+    LambdaInputEvent input =
+        LambdaInputEvent.fromJson(this.streaming, json.getBytes(StandardCharsets.UTF_8));
+
+    // then
+    assertTrue(input.isApiGatewayEvent());
+    assertFalse(input.other().has("body"));
+    assertNotNull(input.event().getRawBody());
+    assertEquals(Map.of("path", "a.txt"), new ApiGatewayRequestEventUtil() {}
+        .fromBodyToObject(input.event(), Map.class));
+    assertEquals("{\"path\":\"a.txt\"}", input.event().getBody());
+    assertNull(input.event().getRawBody());
+  }
+}
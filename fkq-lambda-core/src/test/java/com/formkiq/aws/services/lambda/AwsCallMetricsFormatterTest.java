@@ -0,0 +1,108 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetrics;
+import com.formkiq.module.lambdaservices.metrics.AwsCallMetricsRegistry;
+import com.google.gson.Gson;
+
+/**
+ * 
+ * Unit Test for {@link AwsCallMetricsFormatter}.
+ *
+ */
+class AwsCallMetricsFormatterTest {
+
+  /** {@link Gson}. */
+  private Gson gson = GsonUtil.getInstance();
+
+  /**
+   * Format metrics as EMF.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testToEmf01() {
+    // given
+    AwsCallMetrics metrics = AwsCallMetrics.start("GET /documents");
+    metrics.record("DynamoDb", "Query", 5, 100, 0.5);
+    metrics.record("S3", "GetObject", 20, 1000, 0);
+    AwsCallMetrics.end();
+
+    // when
+    String json = AwsCallMetricsFormatter.toEmf(this.gson, metrics, 1000L);
+
+    // then
+    assertNull(AwsCallMetrics.current());
+    Map<String, Object> map = this.gson.fromJson(json, Map.class);
+    assertEquals("GET /documents", map.get("Route"));
+    assertEquals("2.0", map.get("AwsCalls").toString());
+    assertEquals("1100.0", map.get("AwsBytes").toString());
+    assertEquals("0.5", map.get("ConsumedCapacity").toString());
+    assertEquals("[5.0, 20.0]", map.get("AwsCallLatency").toString());
+
+    Map<String, Object> aws = (Map<String, Object>) map.get("_aws");
+    assertEquals("1000.0", aws.get("Timestamp").toString());
+    List<Map<String, Object>> directives =
+        (List<Map<String, Object>>) aws.get("CloudWatchMetrics");
+    assertEquals("FormKiQ", directives.get(0).get("Namespace"));
+  }
+
+  /**
+   * Registry aggregates metrics by route.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testRegistry01() {
+    // given
+    AwsCallMetricsRegistry registry = AwsCallMetricsRegistry.getInstance();
+    registry.clear();
+
+    for (int i = 0; i < 2; i++) {
+      AwsCallMetrics metrics = AwsCallMetrics.start("GET /documents/{documentId}");
+      metrics.record("DynamoDb", "GetItem", 3, 10, 1);
+      metrics.record("DynamoDb", "GetItem", 7, 10, 1);
+      registry.add(AwsCallMetrics.end());
+    }
+
+    // when
+    Map<String, Object> snapshot = registry.snapshot();
+
+    // then
+    Map<String, Object> route = (Map<String, Object>) snapshot.get("GET /documents/{documentId}");
+    assertEquals("2", route.get("requests").toString());
+    assertEquals("4", route.get("calls").toString());
+    assertEquals("2.0", route.get("callsPerRequest").toString());
+    assertEquals("{DynamoDb.GetItem=4}", route.get("operations").toString());
+
+    Map<String, Long> histogram = (Map<String, Long>) route.get("latencyHistogram");
+    assertEquals(Long.valueOf(2), histogram.get("le_5"));
+    assertEquals(Long.valueOf(2), histogram.get("le_10"));
+    registry.clear();
+  }
+}
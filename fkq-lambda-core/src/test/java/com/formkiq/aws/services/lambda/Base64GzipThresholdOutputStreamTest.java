@@ -0,0 +1,103 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test for {@link Base64GzipThresholdOutputStream}.
+ *
+ */
+class Base64GzipThresholdOutputStreamTest {
+
+  /**
+   * Content under the threshold is buffered and not compressed.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  void testWrite01() throws IOException {
+    // given
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    byte[] content = "{\"message\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    // when
+    Base64GzipThresholdOutputStream os = new Base64GzipThresholdOutputStream(target, 1024,
+        () -> target.write("prefix:".getBytes(StandardCharsets.UTF_8)));
+    os.write(content);
+    os.close();
+
+    // then
+    assertFalse(os.isCompressed());
+    assertArrayEquals(content, os.getBuffer());
+    assertEquals(0, target.size());
+  }
+
+  /**
+   * Content over the threshold is written after the callback, gzip compressed and base64 encoded.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  void testWrite02() throws IOException {
+    // given
+    final int size = 10000;
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    byte[] content = new byte[size];
+    Arrays.fill(content, (byte) 'a');
+    byte[] prefix = "prefix:".getBytes(StandardCharsets.UTF_8);
+
+    // when
+    Base64GzipThresholdOutputStream os =
+        new Base64GzipThresholdOutputStream(target, 1024, () -> target.write(prefix));
+    for (int i = 0; i < size; i += 100) {
+      os.write(content, i, 100);
+    }
+    os.close();
+
+    // then
+    assertTrue(os.isCompressed());
+
+    String written = target.toString(StandardCharsets.UTF_8);
+    assertTrue(written.startsWith("prefix:"));
+
+    byte[] gzip = Base64.getDecoder().decode(written.substring(prefix.length));
+    try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      assertArrayEquals(content, is.readAllBytes());
+    }
+  }
+}
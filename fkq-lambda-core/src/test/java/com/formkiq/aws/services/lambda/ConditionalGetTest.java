@@ -0,0 +1,93 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test for {@link ConditionalGet}.
+ *
+ */
+class ConditionalGetTest {
+
+  /**
+   * ETag is a quoted hash of the values.
+   */
+  @Test
+  void testCreateEtag01() {
+    // given
+    String lastModifiedDate = "2024-01-01T00:00:00+0000";
+
+    // when
+    String etag = ConditionalGet.createEtag(lastModifiedDate, "abc");
+    String same = ConditionalGet.createEtag(lastModifiedDate, "abc");
+    String checksum = ConditionalGet.createEtag(lastModifiedDate, "abd");
+    String shifted = ConditionalGet.createEtag(lastModifiedDate + "a", "bc");
+    String missing = ConditionalGet.createEtag(lastModifiedDate, null);
+
+    // then
+    assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    assertEquals(etag, same);
+    assertNotEquals(etag, checksum);
+    assertNotEquals(etag, shifted);
+    assertNotEquals(etag, missing);
+  }
+
+  /**
+   * If-None-Match matching.
+   */
+  @Test
+  void testIsMatch01() {
+    assertTrue(ConditionalGet.isMatch("\"a\", \"b\"", "\"b\""));
+    assertTrue(ConditionalGet.isMatch("W/\"b\"", "\"b\""));
+    assertTrue(ConditionalGet.isMatch("*", "\"b\""));
+    assertFalse(ConditionalGet.isMatch("\"a\"", "\"b\""));
+    assertFalse(ConditionalGet.isMatch(null, "\"b\""));
+  }
+
+  /**
+   * Header names are case insensitive.
+   */
+  @Test
+  void testGetHeader01() {
+    // given
+    ApiGatewayRequestEvent event = new ApiGatewayRequestEvent();
+    event.setHeaders(Map.of("ACCEPT-Encoding", "gzip"));
+
+    // when
+    String value = ConditionalGet.getHeader(event, "Accept-Encoding");
+    String missing = ConditionalGet.getHeader(event, "If-None-Match");
+
+    // then
+    assertEquals("gzip", value);
+    assertNull(missing);
+  }
+}
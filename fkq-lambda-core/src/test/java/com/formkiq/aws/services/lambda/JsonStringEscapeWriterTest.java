@@ -0,0 +1,67 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * 
+ * Unit Test for {@link JsonStringEscapeWriter}.
+ *
+ */
+class JsonStringEscapeWriterTest {
+
+  /** {@link Gson}. */
+  private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+  /**
+   * Escaped output matches Gson string serialization.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  void testWrite01() throws IOException {
+    // given
+    Map<String, String> body =
+        Map.of("text", "line1\nline2\t\"quoted\" back\\slash \u0001   <a>");
+    String json = this.gson.toJson(body);
+
+    StringWriter sw = new StringWriter();
+
+    // when
+    try (JsonStringEscapeWriter writer = new JsonStringEscapeWriter(sw)) {
+      this.gson.toJson(body, writer);
+    }
+
+    // then
+    assertEquals(this.gson.toJson(json), "\"" + sw + "\"");
+    assertEquals(json, this.gson.fromJson("\"" + sw + "\"", String.class));
+  }
+}
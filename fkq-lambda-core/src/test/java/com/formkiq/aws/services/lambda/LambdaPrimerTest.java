@@ -0,0 +1,89 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.AwsServiceExtension;
+
+/**
+ * 
+ * Unit Test for {@link LambdaPrimer}.
+ *
+ */
+class LambdaPrimerTest {
+
+  /**
+   * Run tasks in order, failing optional tasks are skipped.
+   */
+  @Test
+  void testRun01() {
+    // given
+    List<String> calls = new ArrayList<>();
+    AwsServiceCache awsServices = new AwsServiceCache();
+    AwsServiceExtension<String> extension = s -> {
+      calls.add("service");
+      return "service";
+    };
+    awsServices.register(String.class, extension);
+
+    LambdaPrimer primer = new LambdaPrimer().addRequired("init", s -> calls.add("init"))
+        .add("fail", s -> {
+          throw new IllegalArgumentException("fail");
+        }).addServices(String.class, Integer.class).addGson();
+
+    // when
+    Map<String, Long> timings = primer.run(awsServices);
+    awsServices.getExtension(String.class);
+
+    // then
+    assertEquals("[init, fail, services, gson]", timings.keySet().toString());
+    assertEquals("[init, service]", calls.toString());
+    assertTrue(awsServices.getLoadTimes().containsKey(String.class));
+  }
+
+  /**
+   * Failing required task is rethrown.
+   */
+  @Test
+  void testRun02() {
+    // given
+    LambdaPrimer primer = new LambdaPrimer().addRequired("init", s -> {
+      throw new IllegalArgumentException("fail");
+    });
+
+    // when
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> primer.run(new AwsServiceCache()));
+
+    // then
+    assertEquals("fail", ex.getMessage());
+  }
+}
@@ -0,0 +1,132 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.google.gson.Gson;
+
+/**
+ * 
+ * Unit Test for {@link RawJsonString} and {@link JsonStringInputStream}.
+ *
+ */
+class RawJsonStringTest {
+
+  /** {@link Gson}. */
+  private final Gson gson = GsonUtil.getInstance();
+
+  private RawJsonString find(final String json) {
+    return RawJsonString.find(json.getBytes(StandardCharsets.UTF_8), "body");
+  }
+
+  /**
+   * Find top level property after nested objects, arrays and properties with the same name.
+   */
+  @Test
+  void testFind01() {
+    // given
+    String json = "{ \"resource\" : \"/a\", \"headers\": {\"body\":\"x\", \"b\":[1,{\"c\":\"}\"}]},"
+        + "\"num\": -1.5e3, \"flag\":true, \"nil\":null, \"bod\":\"y\", \"b\\\"ody\":\"z\","
+        + "\"body\" : \"hello \\\"world\\\"\", \"isBase64Encoded\":false}";
+
+    // when
+    RawJsonString body = find(json);
+
+    // then
+    assertEquals("hello \"world\"", body.decode());
+  }
+
+  /**
+   * Missing or not a string property.
+   */
+  @Test
+  void testFind02() {
+    assertNull(find("{\"resource\":\"/a\"}"));
+    assertNull(find("{\"body\":null}"));
+    assertNull(find("{\"body\":{\"a\":\"b\"}}"));
+    assertNull(find("{}"));
+    assertNull(find("[\"body\"]"));
+    assertNull(find("null"));
+  }
+
+  /**
+   * Decoded value matches the JSON parser, including escapes and surrogate pairs.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDecode01() throws Exception {
+    String[] bodies = {"", "abc", "{\"path\":\"résumé.txt\"}", "€ 😀", "a\\b/c\b\f\n\r\t",
+        "\u0001\u001f", "é 😀😀"};
+
+    for (String value : bodies) {
+      // given
+      String json = this.gson.toJson(Map.of("body", value));
+      byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+
+      // when
+      RawJsonString body = find(json);
+
+      // then
+      assertEquals(value, body.decode());
+      assertEquals(expected.length, body.getDecodedLength());
+
+      try (InputStream is = body.toInputStream()) {
+        assertArrayEquals(expected, is.readAllBytes());
+      }
+
+      try (InputStream is = body.toInputStream()) {
+        for (byte b : expected) {
+          assertEquals(b & 0xff, is.read());
+        }
+        assertEquals(-1, is.read());
+      }
+    }
+  }
+
+  /**
+   * Unicode escapes are decoded as UTF-8, unpaired surrogates as '?'.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDecode02() throws Exception {
+    // given
+    String json = "{\"body\":\"\\u00e9\\u20ac\\ud83d\\ude00\\ud83d-\\u0041\\/\"}";
+
+    // when
+    RawJsonString body = find(json);
+
+    // then
+    try (InputStream is = body.toInputStream()) {
+      assertArrayEquals("é€😀?-A/".getBytes(StandardCharsets.UTF_8), is.readAllBytes());
+    }
+  }
+}
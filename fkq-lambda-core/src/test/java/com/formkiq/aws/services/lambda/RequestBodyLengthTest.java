@@ -0,0 +1,107 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.google.gson.Gson;
+
+/**
+ * 
+ * Unit Test for {@link RequestBodyLength}.
+ *
+ */
+class RequestBodyLengthTest {
+
+  /**
+   * Length matches the decoded / encoded body.
+   */
+  @Test
+  void testGetLength01() {
+    String[] bodies = {"", "a", "ab", "abc", "{\"path\":\"résumé.txt\"}", "€ 😀"};
+
+    for (String body : bodies) {
+      // given
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      String base64 = Base64.getEncoder().encodeToString(bytes);
+
+      // when
+      long length = RequestBodyLength.getLength(body, false);
+      long base64Length = RequestBodyLength.getLength(base64, true);
+
+      // then
+      assertEquals(bytes.length, length);
+      assertEquals(bytes.length, base64Length);
+    }
+  }
+
+  /**
+   * Length of Base64 body without padding.
+   */
+  @Test
+  void testGetLength02() {
+    String[] bodies = {"", "a", "ab", "abc", "abcd", "abcde"};
+
+    for (String body : bodies) {
+      // given
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      String base64 = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+
+      // when
+      long length = RequestBodyLength.getLength(base64, true);
+
+      // then
+      assertEquals(bytes.length, length);
+    }
+  }
+
+  /**
+   * Length of body kept as the raw JSON of the Lambda payload.
+   */
+  @Test
+  void testGetLength03() {
+    Gson gson = GsonUtil.getInstance();
+    String[] bodies = {"", "abc", "{\"path\":\"résumé.txt\"}", "€ 😀\n\t\\"};
+
+    for (String body : bodies) {
+      // given
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      String base64 = Base64.getEncoder().encodeToString(bytes);
+      byte[] json = gson.toJson(Map.of("body", body)).getBytes(StandardCharsets.UTF_8);
+      byte[] base64Json = gson.toJson(Map.of("body", base64)).getBytes(StandardCharsets.UTF_8);
+
+      // when
+      long length = RequestBodyLength.getLength(RawJsonString.find(json, "body"), false);
+      long base64Length =
+          RequestBodyLength.getLength(RawJsonString.find(base64Json, "body"), true);
+
+      // then
+      assertEquals(bytes.length, length);
+      assertEquals(bytes.length, base64Length);
+    }
+  }
+}
@@ -25,12 +25,21 @@ package com.formkiq.module.lambdaservices;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import software.amazon.awssdk.regions.Region;
 
 /**
  * Get Aws Services from Cache.
+ * 
+ * Each registered {@link AwsServiceExtension} is loaded at most once, lazily on first lookup or
+ * eagerly using {@link #warmUp(Class...)}, and the loaded service is reused for every following
+ * lookup.
  *
  */
 public class AwsServiceCache {
@@ -42,11 +51,15 @@ public class AwsServiceCache {
   /** Environment {@link Map}. */
   private Map<String, String> environment;
   /** {@link AwsServiceExtension}. */
-  private final Map<Class<?>, List<AwsServiceExtension<?>>> extensions = new HashMap<>();
+  private final Map<Class<?>, List<TimedServiceExtension<?>>> extensions =
+      new ConcurrentHashMap<>();
   /** FormKiQ Type. */
   private String formKiQType;
   /** {@link Region}. */
   private Region region;
+  /** Service load of each registered {@link AwsServiceExtension}. */
+  private final Map<TimedServiceExtension<?>, FutureTask<Object>> services =
+      new ConcurrentHashMap<>();
 
   /**
    * constructor.
@@ -91,7 +104,10 @@ public class AwsServiceCache {
    * @param clazz {@link Class}
    */
   public <T> void deregister(final Class<T> clazz) {
-    this.extensions.remove(clazz);
+    List<TimedServiceExtension<?>> list = this.extensions.remove(clazz);
+    if (list != null) {
+      list.forEach(this.services::remove);
+    }
   }
 
   /**
@@ -183,10 +199,10 @@ public class AwsServiceCache {
 
     T result = null;
 
-    if (this.extensions.containsKey(clazz)) {
-      List<AwsServiceExtension<?>> list = this.extensions.get(clazz);
+    List<TimedServiceExtension<?>> list = this.extensions.get(clazz);
+    if (list != null) {
       if (list.size() == 1) {
-        result = (T) list.get(0).loadService(this);
+        result = (T) load(list.get(0));
       } else {
         throw new RuntimeException("found " + list.size() + " services");
       }
@@ -207,10 +223,10 @@ public class AwsServiceCache {
 
     List<T> results = new ArrayList<>();
 
-    if (this.extensions.containsKey(clazz)) {
-      List<AwsServiceExtension<?>> list = this.extensions.get(clazz);
+    List<TimedServiceExtension<?>> list = this.extensions.get(clazz);
+    if (list != null) {
       list.forEach(l -> {
-        T t = (T) l.loadService(this);
+        T t = (T) load(l);
         results.add(t);
       });
     }
@@ -218,6 +234,28 @@ public class AwsServiceCache {
     return results;
   }
 
+  /**
+   * Get the construction time of each loaded service, services that have not been loaded yet are
+   * not included.
+   * 
+   * @return {@link Map} of service {@link Class} to construction time in milliseconds
+   */
+  public Map<Class<?>, Long> getLoadTimes() {
+
+    Map<Class<?>, Long> times = new LinkedHashMap<>();
+
+    this.extensions.forEach((clazz, list) -> {
+      List<TimedServiceExtension<?>> loaded =
+          list.stream().filter(TimedServiceExtension::isLoaded).toList();
+      if (!loaded.isEmpty()) {
+        long nanos = loaded.stream().mapToLong(TimedServiceExtension::getLoadTimeNanos).sum();
+        times.put(clazz, Long.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos)));
+      }
+    });
+
+    return times;
+  }
+
   /**
    * Has Module.
    * 
@@ -259,6 +297,35 @@ public class AwsServiceCache {
     return this;
   }
 
+  /**
+   * Load the service of a registered {@link AwsServiceExtension} once. The load runs in the first
+   * calling thread without holding any lock, concurrent callers for the same extension wait for
+   * its result while other extensions load independently. A failed load is retried on the next
+   * call.
+   * 
+   * @param extension {@link TimedServiceExtension}
+   * @return {@link Object}
+   */
+  private Object load(final TimedServiceExtension<?> extension) {
+
+    FutureTask<Object> task = this.services.computeIfAbsent(extension,
+        e -> new FutureTask<>(() -> e.loadService(this)));
+
+    // no-op if the task has already run or is running in another thread
+    task.run();
+
+    try {
+      return task.get();
+    } catch (ExecutionException e) {
+      this.services.remove(extension, task);
+      throw e.getCause() instanceof RuntimeException re ? re
+          : new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * Registers an {@link AwsServiceExtension}.
    * 
@@ -281,15 +348,18 @@ public class AwsServiceCache {
   private <T> void register(final Class<T> clazz, final AwsServiceExtension<T> extension,
       final boolean overwrite) {
 
-    List<AwsServiceExtension<?>> list = null;
-    if (this.extensions.containsKey(clazz) && !overwrite) {
-      list = this.extensions.get(clazz);
-    } else {
-      list = new ArrayList<>();
-    }
+    TimedServiceExtension<T> timed = new TimedServiceExtension<>(extension);
 
-    list.add(extension);
-    this.extensions.put(clazz, list);
+    this.extensions.compute(clazz, (k, v) -> {
+      if (v != null && overwrite) {
+        v.forEach(this.services::remove);
+      }
+
+      List<TimedServiceExtension<?>> list =
+          v != null && !overwrite ? new ArrayList<>(v) : new ArrayList<>();
+      list.add(timed);
+      return List.copyOf(list);
+    });
   }
 
   /**
@@ -302,4 +372,19 @@ public class AwsServiceCache {
   public <T> void registerAppend(final Class<T> clazz, final AwsServiceExtension<T> extension) {
     register(clazz, extension, false);
   }
+
+  /**
+   * Eagerly load the {@link AwsServiceExtension} registered for each {@link Class}, so service
+   * construction happens during initialization instead of the first request. Classes that are not
+   * registered are ignored.
+   * 
+   * @param classes {@link Class}
+   * @return {@link AwsServiceCache}
+   */
+  public AwsServiceCache warmUp(final Class<?>... classes) {
+    for (Class<?> clazz : classes) {
+      getExtensions(clazz);
+    }
+    return this;
+  }
 }
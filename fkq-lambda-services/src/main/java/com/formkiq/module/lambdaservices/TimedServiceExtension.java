@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+/**
+ * 
+ * {@link AwsServiceExtension} wrapper that records how long the wrapped
+ * {@link AwsServiceExtension#loadService(AwsServiceCache)} took to construct the service.
+ * {@link AwsServiceCache} makes sure it is only loaded once.
+ * 
+ * @param <T> Type of Class.
+ *
+ */
+final class TimedServiceExtension<T> implements AwsServiceExtension<T> {
+
+  /** Wrapped {@link AwsServiceExtension}. */
+  private final AwsServiceExtension<T> extension;
+  /** Service construction time in nanoseconds. */
+  private volatile long loadTimeNanos = -1;
+  /** Is Service loaded. */
+  private volatile boolean loaded;
+
+  /**
+   * constructor.
+   * 
+   * @param awsServiceExtension {@link AwsServiceExtension}
+   */
+  TimedServiceExtension(final AwsServiceExtension<T> awsServiceExtension) {
+    this.extension = awsServiceExtension;
+  }
+
+  /**
+   * Get Service construction time in nanoseconds.
+   * 
+   * @return long, -1 if the service has not been loaded
+   */
+  long getLoadTimeNanos() {
+    return this.loadTimeNanos;
+  }
+
+  /**
+   * Is Service loaded.
+   * 
+   * @return boolean
+   */
+  boolean isLoaded() {
+    return this.loaded;
+  }
+
+  @Override
+  public T loadService(final AwsServiceCache awsServiceCache) {
+    long start = System.nanoTime();
+    T service = this.extension.loadService(awsServiceCache);
+    this.loadTimeNanos = System.nanoTime() - start;
+    this.loaded = true;
+    return service;
+  }
+}
@@ -0,0 +1,179 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * Per request accounting of AWS service calls (call counts, consumed capacity, bytes transferred
+ * and latencies). Calls are recorded by {@link AwsCallMetricsInterceptor} into the
+ * {@link AwsCallMetrics} started on the calling thread, calls made while no request is being
+ * tracked are ignored.
+ *
+ */
+public final class AwsCallMetrics {
+
+  /** {@link ThreadLocal}. */
+  private static final ThreadLocal<AwsCallMetrics> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Get the {@link AwsCallMetrics} of the current thread.
+   * 
+   * @return {@link AwsCallMetrics} or null
+   */
+  public static AwsCallMetrics current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Stop tracking AWS service calls on the current thread.
+   * 
+   * @return {@link AwsCallMetrics} or null if none was started
+   */
+  public static AwsCallMetrics end() {
+    AwsCallMetrics metrics = CURRENT.get();
+    CURRENT.remove();
+    return metrics;
+  }
+
+  /**
+   * Start tracking AWS service calls on the current thread.
+   * 
+   * @param route {@link String}
+   * @return {@link AwsCallMetrics}
+   */
+  public static AwsCallMetrics start(final String route) {
+    AwsCallMetrics metrics = new AwsCallMetrics(route);
+    CURRENT.set(metrics);
+    return metrics;
+  }
+
+  /** Bytes transferred. */
+  private long bytes;
+  /** Call latencies in milliseconds. */
+  private final List<Double> latencies = new ArrayList<>();
+  /** Consumed Capacity units. */
+  private double consumedCapacity;
+  /** Route. */
+  private final String route;
+  /** Call counts by service and operation, ie: "DynamoDB.Query". */
+  private final Map<String, Integer> operations = new LinkedHashMap<>();
+  /** Call counts by service. */
+  private final Map<String, Integer> services = new LinkedHashMap<>();
+
+  /**
+   * constructor.
+   * 
+   * @param apiRoute {@link String}
+   */
+  private AwsCallMetrics(final String apiRoute) {
+    this.route = apiRoute;
+  }
+
+  /**
+   * Get Bytes transferred.
+   * 
+   * @return long
+   */
+  public long getBytes() {
+    return this.bytes;
+  }
+
+  /**
+   * Get number of calls.
+   * 
+   * @return int
+   */
+  public int getCallCount() {
+    return this.latencies.size();
+  }
+
+  /**
+   * Get Consumed Capacity units.
+   * 
+   * @return double
+   */
+  public double getConsumedCapacity() {
+    return this.consumedCapacity;
+  }
+
+  /**
+   * Get Call latencies in milliseconds.
+   * 
+   * @return {@link List} {@link Double}
+   */
+  public List<Double> getLatencies() {
+    return Collections.unmodifiableList(this.latencies);
+  }
+
+  /**
+   * Get Call counts by operation, ie: "DynamoDB.Query".
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Integer> getOperations() {
+    return Collections.unmodifiableMap(this.operations);
+  }
+
+  /**
+   * Get Route.
+   * 
+   * @return {@link String}
+   */
+  public String getRoute() {
+    return this.route;
+  }
+
+  /**
+   * Get Call counts by service, ie: "DynamoDB", "S3".
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Integer> getServices() {
+    return Collections.unmodifiableMap(this.services);
+  }
+
+  /**
+   * Record AWS service call.
+   * 
+   * @param service {@link String}
+   * @param operation {@link String}
+   * @param latencyMillis double
+   * @param transferred long
+   * @param capacity double
+   */
+  public synchronized void record(final String service, final String operation,
+      final double latencyMillis, final long transferred, final double capacity) {
+    this.services.merge(service, Integer.valueOf(1), Integer::sum);
+    this.operations.merge(service + "." + operation, Integer.valueOf(1), Integer::sum);
+    this.latencies.add(Double.valueOf(latencyMillis));
+    this.bytes += transferred;
+    this.consumedCapacity += capacity;
+  }
+}
@@ -0,0 +1,282 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.EventType;
+import software.amazon.awssdk.core.SdkField;
+import software.amazon.awssdk.core.SdkPojo;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * 
+ * {@link ExecutionInterceptor} that records every AWS SDK call into the current thread's
+ * {@link AwsCallMetrics}. It does nothing when no {@link AwsCallMetrics} has been started.
+ * 
+ * DynamoDB and S3 calls are also emitted as {@link DynamoDbOperationEvent} and
+ * {@link S3TransferEvent} Java Flight Recorder events, when those events are enabled.
+ *
+ */
+public class AwsCallMetricsInterceptor implements ExecutionInterceptor {
+
+  /** S3 Bucket field. */
+  private static final String BUCKET = "Bucket";
+  /** DynamoDb Count field. */
+  private static final String COUNT = "Count";
+  /** DynamoDb Item field. */
+  private static final String ITEM = "Item";
+  /** S3 Key field. */
+  private static final String KEY = "Key";
+  /** DynamoDb BatchGetItem Responses field. */
+  private static final String RESPONSES = "Responses";
+  /** DynamoDb Table Name field. */
+  private static final String TABLE_NAME = "TableName";
+  /** DynamoDb Consumed Capacity field. */
+  private static final String CONSUMED_CAPACITY = "ConsumedCapacity";
+  /** DynamoDb Capacity Units field. */
+  private static final String CAPACITY_UNITS = "CapacityUnits";
+  /** DynamoDb Return Consumed Capacity field. */
+  private static final String RETURN_CONSUMED_CAPACITY = "ReturnConsumedCapacity";
+  /** Call start time. */
+  private static final ExecutionAttribute<Long> START_TIME =
+      new ExecutionAttribute<>("FormKiQAwsCallStartTime");
+  /** Java Flight Recorder Event. */
+  private static final ExecutionAttribute<AwsCallEvent> EVENT =
+      new ExecutionAttribute<>("FormKiQAwsCallEvent");
+  /** {@link DynamoDbOperationEvent} {@link EventType}. */
+  private static final EventType DYNAMODB_EVENT_TYPE =
+      EventType.getEventType(DynamoDbOperationEvent.class);
+  /** {@link S3TransferEvent} {@link EventType}. */
+  private static final EventType S3_EVENT_TYPE = EventType.getEventType(S3TransferEvent.class);
+
+  /**
+   * Get Capacity Units of a ConsumedCapacity or a {@link List} of ConsumedCapacity.
+   * 
+   * @param value {@link Object}
+   * @return double
+   */
+  private static double capacityUnits(final Object value) {
+
+    double units = 0;
+
+    if (value instanceof List<?> list) {
+      for (Object o : list) {
+        units += capacityUnits(o);
+      }
+    } else if (value instanceof SdkPojo pojo) {
+      for (SdkField<?> field : pojo.sdkFields()) {
+        if (CAPACITY_UNITS.equals(field.memberName())
+            && field.getValueOrDefault(pojo) instanceof Double d) {
+          units += d.doubleValue();
+        }
+      }
+    }
+
+    return units;
+  }
+
+  /** Request DynamoDb Consumed Capacity. */
+  private final boolean requestConsumedCapacity;
+
+  /**
+   * constructor.
+   * 
+   * @param returnConsumedCapacity boolean, set ReturnConsumedCapacity on requests that support it
+   */
+  public AwsCallMetricsInterceptor(final boolean returnConsumedCapacity) {
+    this.requestConsumedCapacity = returnConsumedCapacity;
+  }
+
+  @Override
+  public void afterExecution(final Context.AfterExecution context,
+      final ExecutionAttributes executionAttributes) {
+
+    Optional<String> decodedLength =
+        context.httpRequest().firstMatchingHeader("x-amz-decoded-content-length");
+    long transferred =
+        contentLength(decodedLength, context.httpRequest().firstMatchingHeader("Content-Length"))
+            + contentLength(Optional.empty(),
+                context.httpResponse().firstMatchingHeader("Content-Length"));
+
+    double capacity = this.requestConsumedCapacity ? consumedCapacity(context.response()) : 0;
+
+    record(executionAttributes, transferred, capacity);
+
+    AwsCallEvent event = executionAttributes.getAttribute(EVENT);
+    if (event != null) {
+
+      if (event instanceof DynamoDbOperationEvent e) {
+        e.setItemCount(itemCount(context.response()));
+        e.setConsumedCapacity(capacity);
+      } else if (event instanceof S3TransferEvent e) {
+        e.setBytes(transferred);
+      }
+
+      event.commit();
+    }
+  }
+
+  @Override
+  public void beforeExecution(final Context.BeforeExecution context,
+      final ExecutionAttributes executionAttributes) {
+    if (AwsCallMetrics.current() != null) {
+      executionAttributes.putAttribute(START_TIME, Long.valueOf(System.nanoTime()));
+    }
+
+    AwsCallEvent event = createEvent(context.request(),
+        executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME));
+
+    if (event != null) {
+      event.setOperation(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME));
+      event.begin();
+      executionAttributes.putAttribute(EVENT, event);
+    }
+  }
+
+  private double consumedCapacity(final SdkResponse response) {
+    return response.getValueForField(CONSUMED_CAPACITY, Object.class)
+        .map(AwsCallMetricsInterceptor::capacityUnits).orElse(Double.valueOf(0)).doubleValue();
+  }
+
+  /**
+   * Create the {@link AwsCallEvent} for the service, if there is one and its Java Flight Recorder
+   * event is enabled. The event type is checked first so nothing is allocated or looked up while
+   * no recording is running.
+   * 
+   * @param request {@link SdkRequest}
+   * @param serviceName {@link String}
+   * @return {@link AwsCallEvent}
+   */
+  private AwsCallEvent createEvent(final SdkRequest request, final String serviceName) {
+
+    AwsCallEvent event = null;
+
+    if ("DynamoDb".equalsIgnoreCase(serviceName) && DYNAMODB_EVENT_TYPE.isEnabled()) {
+      DynamoDbOperationEvent e = new DynamoDbOperationEvent();
+      e.setTable(request.getValueForField(TABLE_NAME, String.class).orElse(null));
+      event = e;
+    } else if ("S3".equalsIgnoreCase(serviceName) && S3_EVENT_TYPE.isEnabled()) {
+      S3TransferEvent e = new S3TransferEvent();
+      e.setBucket(request.getValueForField(BUCKET, String.class).orElse(null));
+      e.setKey(request.getValueForField(KEY, String.class).orElse(null));
+      event = e;
+    }
+
+    return event;
+  }
+
+  private long contentLength(final Optional<String> preferred, final Optional<String> fallback) {
+    try {
+      return Long.parseLong(preferred.or(() -> fallback).orElse("0"));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Get the number of items returned by a DynamoDB response.
+   * 
+   * @param response {@link SdkResponse}
+   * @return int
+   */
+  private int itemCount(final SdkResponse response) {
+
+    Optional<Integer> count = response.getValueForField(COUNT, Integer.class);
+
+    int items;
+    if (count.isPresent()) {
+      items = count.get().intValue();
+    } else if (response.getValueForField(ITEM, Map.class).isPresent()) {
+      items = 1;
+    } else {
+      items = response.getValueForField(RESPONSES, Map.class)
+          .map(m -> ((Map<?, ?>) m).values().stream()
+              .mapToInt(v -> v instanceof Collection<?> c ? c.size() : 0).sum())
+          .orElse(Integer.valueOf(0)).intValue();
+    }
+
+    return items;
+  }
+
+  @Override
+  public SdkRequest modifyRequest(final Context.ModifyRequest context,
+      final ExecutionAttributes executionAttributes) {
+
+    SdkRequest request = context.request();
+
+    if (this.requestConsumedCapacity && AwsCallMetrics.current() != null
+        && request.getValueForField(RETURN_CONSUMED_CAPACITY, String.class).isEmpty()
+        && request.toBuilder() instanceof SdkPojo builder) {
+
+      for (SdkField<?> field : builder.sdkFields()) {
+        if (RETURN_CONSUMED_CAPACITY.equals(field.memberName())) {
+          field.set(builder, "TOTAL");
+          request = ((SdkRequest.Builder) builder).build();
+          break;
+        }
+      }
+    }
+
+    return request;
+  }
+
+  @Override
+  public void onExecutionFailure(final Context.FailedExecution context,
+      final ExecutionAttributes executionAttributes) {
+    record(executionAttributes, 0, 0);
+
+    AwsCallEvent event = executionAttributes.getAttribute(EVENT);
+    if (event != null) {
+      event.setFailed(true);
+      event.commit();
+    }
+  }
+
+  private void record(final ExecutionAttributes executionAttributes, final long transferred,
+      final double capacity) {
+
+    AwsCallMetrics metrics = AwsCallMetrics.current();
+    Long start = executionAttributes.getAttribute(START_TIME);
+
+    if (metrics != null && start != null) {
+
+      double latency = (double) TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start.longValue())
+          / TimeUnit.MILLISECONDS.toMicros(1);
+
+      metrics.record(executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME),
+          executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME), latency,
+          transferred, capacity);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * Process wide aggregation of {@link AwsCallMetrics} by route, used by long running servers to
+ * expose AWS service call accounting.
+ *
+ */
+public final class AwsCallMetricsRegistry {
+
+  /** Singleton. */
+  private static final AwsCallMetricsRegistry INSTANCE = new AwsCallMetricsRegistry();
+
+  /**
+   * Get {@link AwsCallMetricsRegistry}.
+   * 
+   * @return {@link AwsCallMetricsRegistry}
+   */
+  public static AwsCallMetricsRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /** {@link RouteMetrics} by route. */
+  private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+  private AwsCallMetricsRegistry() {}
+
+  /**
+   * Add completed request {@link AwsCallMetrics}.
+   * 
+   * @param metrics {@link AwsCallMetrics}
+   */
+  public void add(final AwsCallMetrics metrics) {
+
+    RouteMetrics r = this.routes.computeIfAbsent(metrics.getRoute(), k -> new RouteMetrics());
+    r.requests.increment();
+    r.calls.add(metrics.getCallCount());
+    r.bytes.add(metrics.getBytes());
+    r.consumedCapacity.add(metrics.getConsumedCapacity());
+    metrics.getOperations()
+        .forEach((k, v) -> r.operations.computeIfAbsent(k, o -> new LongAdder()).add(v.intValue()));
+    metrics.getLatencies().forEach(l -> r.latency.record(l.doubleValue()));
+  }
+
+  /**
+   * Reset all metrics.
+   */
+  public void clear() {
+    this.routes.clear();
+  }
+
+  /**
+   * Get a snapshot of the metrics by route.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Object> snapshot() {
+
+    Map<String, Object> snapshot = new TreeMap<>();
+
+    this.routes.forEach((route, r) -> {
+
+      Map<String, Long> operations = new TreeMap<>();
+      r.operations.forEach((k, v) -> operations.put(k, Long.valueOf(v.sum())));
+
+      long requests = r.requests.sum();
+      long calls = r.calls.sum();
+
+      snapshot.put(route,
+          Map.of("requests", Long.valueOf(requests), "calls", Long.valueOf(calls),
+              "callsPerRequest", Double.valueOf(requests > 0 ? (double) calls / requests : 0),
+              "bytes", Long.valueOf(r.bytes.sum()), "consumedCapacity",
+              Double.valueOf(r.consumedCapacity.sum()), "operations", operations,
+              "latencyHistogram", r.latency.getBuckets()));
+    });
+
+    return snapshot;
+  }
+
+  /**
+   * Metrics of a single route.
+   */
+  private static final class RouteMetrics {
+    /** Bytes transferred. */
+    private final LongAdder bytes = new LongAdder();
+    /** Number of calls. */
+    private final LongAdder calls = new LongAdder();
+    /** Consumed Capacity. */
+    private final DoubleAdder consumedCapacity = new DoubleAdder();
+    /** {@link LatencyHistogram}. */
+    private final LatencyHistogram latency = new LatencyHistogram();
+    /** Calls by operation. */
+    private final Map<String, LongAdder> operations = new ConcurrentHashMap<>();
+    /** Number of requests. */
+    private final LongAdder requests = new LongAdder();
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 
+ * Java Flight Recorder event of a DynamoDB operation. Only operations slower than the threshold
+ * are recorded.
+ *
+ */
+@Name("com.formkiq.DynamoDbOperation")
+@Label("DynamoDB Operation")
+@Category({"FormKiQ", "AWS"})
+@Description("DynamoDB API call")
+@Threshold("20 ms")
+@StackTrace(false)
+public class DynamoDbOperationEvent extends AwsCallEvent {
+
+  /** Table Name. */
+  @Label("Table")
+  private String table;
+  /** Number of items read or written. */
+  @Label("Item Count")
+  private int itemCount;
+  /** Consumed Capacity Units. */
+  @Label("Consumed Capacity")
+  private double consumedCapacity;
+
+  /**
+   * constructor.
+   */
+  public DynamoDbOperationEvent() {}
+
+  /**
+   * Set Consumed Capacity.
+   * 
+   * @param capacity double
+   */
+  public void setConsumedCapacity(final double capacity) {
+    this.consumedCapacity = capacity;
+  }
+
+  /**
+   * Set Item Count.
+   * 
+   * @param count int
+   */
+  public void setItemCount(final int count) {
+    this.itemCount = count;
+  }
+
+  /**
+   * Set Table Name.
+   * 
+   * @param tableName {@link String}
+   */
+  public void setTable(final String tableName) {
+    this.table = tableName;
+  }
+}
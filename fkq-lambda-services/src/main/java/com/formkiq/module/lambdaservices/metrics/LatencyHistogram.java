@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 
+ * Thread-safe fixed bucket latency histogram, in milliseconds.
+ *
+ */
+public class LatencyHistogram {
+
+  /** Bucket upper bounds in milliseconds, the last bucket is unbounded. */
+  private static final long[] BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+  /** Bucket counts. */
+  private final AtomicLongArray counts = new AtomicLongArray(BOUNDS.length + 1);
+
+  /**
+   * constructor.
+   */
+  public LatencyHistogram() {}
+
+  /**
+   * Get Bucket counts, keyed by bucket label, ie: "le_10" (less or equal to 10ms) or "gt_5000".
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Long> getBuckets() {
+
+    Map<String, Long> buckets = new LinkedHashMap<>();
+
+    for (int i = 0; i < BOUNDS.length; i++) {
+      buckets.put("le_" + BOUNDS[i], Long.valueOf(this.counts.get(i)));
+    }
+
+    buckets.put("gt_" + BOUNDS[BOUNDS.length - 1], Long.valueOf(this.counts.get(BOUNDS.length)));
+    return buckets;
+  }
+
+  /**
+   * Record latency.
+   * 
+   * @param millis double
+   */
+  public void record(final double millis) {
+
+    int i = 0;
+    while (i < BOUNDS.length && millis > BOUNDS[i]) {
+      i++;
+    }
+
+    this.counts.incrementAndGet(i);
+  }
+}
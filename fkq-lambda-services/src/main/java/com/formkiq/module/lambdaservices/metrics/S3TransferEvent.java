@@ -0,0 +1,90 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 
+ * Java Flight Recorder event of a S3 request. Only requests slower than the threshold are
+ * recorded.
+ *
+ */
+@Name("com.formkiq.S3Transfer")
+@Label("S3 Transfer")
+@Category({"FormKiQ", "AWS"})
+@Description("S3 API call")
+@Threshold("20 ms")
+@StackTrace(false)
+public class S3TransferEvent extends AwsCallEvent {
+
+  /** S3 Bucket. */
+  @Label("Bucket")
+  private String bucket;
+  /** S3 Key. */
+  @Label("Key")
+  private String key;
+  /** Bytes sent and received. */
+  @Label("Bytes")
+  @DataAmount
+  private long bytes;
+
+  /**
+   * constructor.
+   */
+  public S3TransferEvent() {}
+
+  /**
+   * Set S3 Bucket.
+   * 
+   * @param s3Bucket {@link String}
+   */
+  public void setBucket(final String s3Bucket) {
+    this.bucket = s3Bucket;
+  }
+
+  /**
+   * Set Bytes transferred.
+   * 
+   * @param transferred long
+   */
+  public void setBytes(final long transferred) {
+    this.bytes = transferred;
+  }
+
+  /**
+   * Set S3 Key.
+   * 
+   * @param s3Key {@link String}
+   */
+  public void setKey(final String s3Key) {
+    this.key = s3Key;
+  }
+}
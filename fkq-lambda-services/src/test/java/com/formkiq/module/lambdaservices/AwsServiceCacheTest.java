@@ -0,0 +1,271 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test for {@link AwsServiceCache}.
+ *
+ */
+class AwsServiceCacheTest {
+
+  /** Number of concurrent callers. */
+  private static final int THREADS = 16;
+  /** Load time in milliseconds, so concurrent callers overlap. */
+  private static final long LOAD_MILLIS = 50;
+  /** Timeout waiting for a caller in seconds. */
+  private static final long TIMEOUT_SECONDS = 10;
+
+  /** {@link AwsServiceCache}. */
+  private AwsServiceCache cache;
+  /** {@link ExecutorService}. */
+  private ExecutorService executor;
+
+  @BeforeEach
+  void beforeEach() {
+    this.cache = new AwsServiceCache().environment(Map.of());
+    this.executor = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void afterEach() throws InterruptedException {
+    this.executor.shutdownNow();
+    this.executor.awaitTermination(1, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Call {@link AwsServiceCache#getExtension(Class)} from concurrent threads, released at the same
+   * time.
+   * 
+   * @param classes {@link Class} to get, in turn
+   * @return {@link List} of results
+   * @throws Exception Exception
+   */
+  private List<Object> getConcurrently(final Class<?>... classes) throws Exception {
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> futures = new ArrayList<>();
+
+    for (int i = 0; i < THREADS; i++) {
+      Class<?> clazz = classes[i % classes.length];
+      futures.add(this.executor.submit(() -> {
+        start.await();
+        return this.cache.getExtension(clazz);
+      }));
+    }
+
+    start.countDown();
+
+    List<Object> results = new ArrayList<>();
+    for (Future<Object> future : futures) {
+      results.add(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    return results;
+  }
+
+  /**
+   * Concurrent getExtension loads the extension exactly once.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testGetExtension01() throws Exception {
+    // given
+    CountingExtension<StringBuilder> extension = new CountingExtension<>(c -> new StringBuilder());
+    this.cache.register(StringBuilder.class, extension);
+
+    // when
+    List<Object> results = getConcurrently(StringBuilder.class);
+
+    // then
+    assertEquals(1, extension.getCount());
+    results.forEach(r -> assertSame(results.get(0), r));
+  }
+
+  /**
+   * Concurrent getExtension of extensions that load other extensions, each is loaded once.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testGetExtension02() throws Exception {
+    // given
+    CountingExtension<StringBuilder> builder = new CountingExtension<>(c -> new StringBuilder());
+    CountingExtension<String> string =
+        new CountingExtension<>(c -> c.getExtension(StringBuilder.class).append("a").toString());
+    this.cache.register(StringBuilder.class, builder);
+    this.cache.register(String.class, string);
+
+    // when
+    List<Object> results = getConcurrently(String.class, StringBuilder.class);
+
+    // then
+    assertEquals(1, builder.getCount());
+    assertEquals(1, string.getCount());
+    assertEquals("a", results.get(0));
+    assertEquals("a", results.get(1).toString());
+  }
+
+  /**
+   * Null services are loaded once and a failed load is retried.
+   */
+  @Test
+  void testGetExtension03() {
+    // given
+    AtomicInteger attempts = new AtomicInteger();
+    CountingExtension<Integer> nullExtension = new CountingExtension<>(c -> null);
+    CountingExtension<String> failing = new CountingExtension<>(c -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new IllegalStateException("load failed");
+      }
+      return "loaded";
+    });
+    this.cache.register(Integer.class, nullExtension);
+    this.cache.register(String.class, failing);
+
+    // when
+    // then
+    assertNull(this.cache.getExtensionOrNull(Integer.class));
+    assertNull(this.cache.getExtensionOrNull(Integer.class));
+    assertEquals(1, nullExtension.getCount());
+
+    IllegalStateException e =
+        assertThrows(IllegalStateException.class, () -> this.cache.getExtension(String.class));
+    assertEquals("load failed", e.getMessage());
+    assertEquals("loaded", this.cache.getExtension(String.class));
+    assertEquals("loaded", this.cache.getExtension(String.class));
+    assertEquals(2, failing.getCount());
+  }
+
+  /**
+   * Registering again replaces the loaded service.
+   */
+  @Test
+  void testRegister01() {
+    // given
+    this.cache.register(String.class, c -> "first");
+    assertEquals("first", this.cache.getExtension(String.class));
+
+    // when
+    this.cache.register(String.class, c -> "second");
+
+    // then
+    assertEquals("second", this.cache.getExtension(String.class));
+
+    // when
+    this.cache.deregister(String.class);
+
+    // then
+    assertNull(this.cache.getExtensionOrNull(String.class));
+  }
+
+  /**
+   * warmUp loads every registered extension once and records its load time.
+   */
+  @Test
+  void testWarmUp01() {
+    // given
+    CountingExtension<StringBuilder> builder = new CountingExtension<>(c -> new StringBuilder());
+    CountingExtension<String> string = new CountingExtension<>(c -> "a");
+    CountingExtension<Integer> first = new CountingExtension<>(c -> Integer.valueOf(1));
+    CountingExtension<Integer> second = new CountingExtension<>(c -> Integer.valueOf(2));
+    this.cache.register(StringBuilder.class, builder);
+    this.cache.register(String.class, string);
+    this.cache.register(Integer.class, first);
+    this.cache.registerAppend(Integer.class, second);
+
+    // when
+    this.cache.warmUp(StringBuilder.class, String.class, Integer.class, Long.class);
+
+    // then
+    assertEquals(1, builder.getCount());
+    assertEquals(1, string.getCount());
+    assertEquals(1, first.getCount());
+    assertEquals(1, second.getCount());
+
+    Map<Class<?>, Long> loadTimes = this.cache.getLoadTimes();
+    assertEquals(3, loadTimes.size());
+    assertTrue(loadTimes.get(StringBuilder.class).longValue() >= LOAD_MILLIS);
+
+    // when
+    this.cache.getExtension(String.class);
+    this.cache.getExtensions(Integer.class);
+
+    // then
+    assertEquals(1, string.getCount());
+    assertEquals(1, first.getCount());
+    assertEquals(1, second.getCount());
+  }
+
+  /**
+   * {@link AwsServiceExtension} that counts its loads, each load takes {@link #LOAD_MILLIS}.
+   * 
+   * @param <T> Type of Class.
+   */
+  private static final class CountingExtension<T> implements AwsServiceExtension<T> {
+
+    /** Number of loads. */
+    private final AtomicInteger count = new AtomicInteger();
+    /** Delegate {@link AwsServiceExtension}. */
+    private final AwsServiceExtension<T> delegate;
+
+    CountingExtension(final AwsServiceExtension<T> extension) {
+      this.delegate = extension;
+    }
+
+    int getCount() {
+      return this.count.get();
+    }
+
+    @Override
+    public T loadService(final AwsServiceCache awsServiceCache) {
+      this.count.incrementAndGet();
+      try {
+        Thread.sleep(LOAD_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return this.delegate.loadService(awsServiceCache);
+    }
+  }
+}
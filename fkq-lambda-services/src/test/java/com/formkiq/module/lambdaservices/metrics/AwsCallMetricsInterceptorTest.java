@@ -0,0 +1,162 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambdaservices.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.InterceptorContext;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpFullResponse;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+
+/**
+ * 
+ * Unit Test for {@link AwsCallMetricsInterceptor}.
+ *
+ */
+class AwsCallMetricsInterceptorTest {
+
+  /** {@link AwsCallMetricsInterceptor}. */
+  private AwsCallMetricsInterceptor interceptor = new AwsCallMetricsInterceptor(false);
+
+  @AfterEach
+  void afterEach() {
+    AwsCallMetrics.end();
+  }
+
+  private ExecutionAttributes createAttributes() {
+    ExecutionAttributes attributes = new ExecutionAttributes();
+    attributes.putAttribute(SdkExecutionAttribute.SERVICE_NAME, "DynamoDb");
+    attributes.putAttribute(SdkExecutionAttribute.OPERATION_NAME, "GetItem");
+    return attributes;
+  }
+
+  private InterceptorContext createContext() {
+
+    GetItemRequest request = GetItemRequest.builder().tableName("documents")
+        .key(Map.of("PK", AttributeValue.fromS("docs#1"))).build();
+    GetItemResponse response =
+        GetItemResponse.builder().item(Map.of("PK", AttributeValue.fromS("docs#1"))).build();
+
+    SdkHttpFullRequest httpRequest = SdkHttpFullRequest.builder().method(SdkHttpMethod.POST)
+        .protocol("https").host("localhost").putHeader("Content-Length", "100").build();
+    SdkHttpFullResponse httpResponse =
+        SdkHttpFullResponse.builder().statusCode(200).putHeader("Content-Length", "50").build();
+
+    return InterceptorContext.builder().request(request).httpRequest(httpRequest)
+        .httpResponse(httpResponse).response(response).build();
+  }
+
+  private void execute(final InterceptorContext context, final ExecutionAttributes attributes) {
+    this.interceptor.beforeExecution(context, attributes);
+    this.interceptor.afterExecution(context, attributes);
+  }
+
+  /**
+   * Call is recorded into the current {@link AwsCallMetrics} without a running recording.
+   */
+  @Test
+  void testAfterExecution01() {
+    // given
+    AwsCallMetrics metrics = AwsCallMetrics.start("GET /documents/{documentId}");
+    InterceptorContext context = createContext();
+
+    // when
+    execute(context, createAttributes());
+
+    // then
+    assertEquals(1, metrics.getCallCount());
+    assertEquals(150, metrics.getBytes());
+    assertEquals(Map.of("DynamoDb", Integer.valueOf(1)), metrics.getServices());
+    assertEquals(Map.of("DynamoDb.GetItem", Integer.valueOf(1)), metrics.getOperations());
+  }
+
+  /**
+   * No {@link AwsCallMetrics} started.
+   */
+  @Test
+  void testAfterExecution02() {
+    // given
+    InterceptorContext context = createContext();
+
+    // when
+    execute(context, createAttributes());
+
+    // then
+    assertNull(AwsCallMetrics.current());
+  }
+
+  /**
+   * {@link DynamoDbOperationEvent} is committed while a recording has it enabled.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  void testAfterExecution03() throws IOException {
+    // given
+    InterceptorContext context = createContext();
+    Path file = Files.createTempFile("aws-calls", ".jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable(DynamoDbOperationEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+
+      // when
+      execute(context, createAttributes());
+
+      recording.stop();
+      recording.dump(file);
+    }
+
+    // then
+    try {
+      List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+          .filter(e -> "com.formkiq.DynamoDbOperation".equals(e.getEventType().getName()))
+          .toList();
+
+      assertEquals(1, events.size());
+      assertEquals("documents", events.get(0).getString("table"));
+      assertEquals("GetItem", events.get(0).getString("operation"));
+      assertEquals(1, events.get(0).getInt("itemCount"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
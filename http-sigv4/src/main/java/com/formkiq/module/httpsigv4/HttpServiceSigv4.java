@@ -29,9 +29,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -39,12 +41,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import com.formkiq.module.http.HttpClientConfig;
 import com.formkiq.module.http.HttpHeaders;
 import com.formkiq.module.http.HttpService;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.signer.Aws4Signer;
+import software.amazon.awssdk.auth.signer.Aws4UnsignedPayloadSigner;
 import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
+import software.amazon.awssdk.http.ContentStreamProvider;
 import software.amazon.awssdk.http.SdkHttpFullRequest;
 import software.amazon.awssdk.http.SdkHttpMethod;
 import software.amazon.awssdk.regions.Region;
@@ -56,12 +63,20 @@ import software.amazon.awssdk.regions.Region;
  */
 public final class HttpServiceSigv4 implements HttpService {
 
+  /** Payload hash header. */
+  private static final String CONTENT_SHA256_HEADER = "x-amz-content-sha256";
+  /** Default Request Timeout. */
+  private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofMinutes(1);
   /** Headers that are not allowed to be added to {@link HttpClient}. */
   private static final Set<String> NOT_ALLOWED_HEADERS = Set.of("connection", "content-length",
       "date", "expect", "from", "host", "upgrade", "via", "warning");
 
   /** {@link HttpClient}. */
   private final HttpClient client;
+  /** {@link PayloadSigning}. */
+  private final PayloadSigning payloadSigning;
+  /** Request Timeout. */
+  private final Duration requestTimeout;
   /** {@link AwsCredentials}. */
   private final AwsCredentials signingCredentials;
   /** {@link Region}. */
@@ -71,12 +86,16 @@ public final class HttpServiceSigv4 implements HttpService {
    * constructor.
    * 
    * @param httpClient {@link HttpClient}
+   * @param timeout {@link Duration}
    * @param region {@link Region}
    * @param awsCredentials {@link AwsCredentials}
+   * @param signing {@link PayloadSigning}
    */
-  private HttpServiceSigv4(final HttpClient httpClient, final Region region,
-      final AwsCredentials awsCredentials) {
+  private HttpServiceSigv4(final HttpClient httpClient, final Duration timeout,
+      final Region region, final AwsCredentials awsCredentials, final PayloadSigning signing) {
     this.client = httpClient;
+    this.payloadSigning = signing;
+    this.requestTimeout = timeout != null ? timeout : DEFAULT_REQUEST_TIMEOUT;
     this.signingRegion = region;
     this.signingCredentials = awsCredentials;
 
@@ -86,13 +105,51 @@ public final class HttpServiceSigv4 implements HttpService {
   }
 
   /**
-   * constructor.
+   * constructor using the shared {@link HttpClient}.
    * 
    * @param region {@link Region}
    * @param awsCredentials {@link AwsCredentials}
    */
   public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials) {
-    this(HttpClient.newHttpClient(), region, awsCredentials);
+    this(HttpClientConfig.getSharedClient(), null, region, awsCredentials,
+        PayloadSigning.SIGNED);
+  }
+
+  /**
+   * constructor using the shared {@link HttpClient}.
+   * 
+   * @param region {@link Region}
+   * @param awsCredentials {@link AwsCredentials}
+   * @param signing {@link PayloadSigning}
+   */
+  public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials,
+      final PayloadSigning signing) {
+    this(HttpClientConfig.getSharedClient(), null, region, awsCredentials, signing);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param region {@link Region}
+   * @param awsCredentials {@link AwsCredentials}
+   * @param config {@link HttpClientConfig}
+   */
+  public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials,
+      final HttpClientConfig config) {
+    this(region, awsCredentials, config, PayloadSigning.SIGNED);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param region {@link Region}
+   * @param awsCredentials {@link AwsCredentials}
+   * @param config {@link HttpClientConfig}
+   * @param signing {@link PayloadSigning}
+   */
+  public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials,
+      final HttpClientConfig config, final PayloadSigning signing) {
+    this(config.build(), config.requestTimeout(), region, awsCredentials, signing);
   }
 
   /**
@@ -104,7 +161,7 @@ public final class HttpServiceSigv4 implements HttpService {
    */
   public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials,
       final Executor executor) {
-    this(HttpClient.newBuilder().executor(executor).build(), region, awsCredentials);
+    this(region, awsCredentials, new HttpClientConfig().executor(executor));
   }
 
   /**
@@ -114,13 +171,13 @@ public final class HttpServiceSigv4 implements HttpService {
    * @param method {@link SdkHttpMethod}
    * @param headers {@link HttpHeaders}
    * @param parameters {@link Map}
-   * @param payload {@link String}
+   * @param payload {@link RequestBodyProvider}
    * @return {@link SdkHttpFullRequest.Builder}
    * @throws IOException IOException
    */
   private SdkHttpFullRequest.Builder buildRequest(final String uri, final SdkHttpMethod method,
       final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
-      final Optional<String> payload) throws IOException {
+      final Optional<RequestBodyProvider> payload) throws IOException {
 
     SdkHttpFullRequest.Builder requestBuilder =
         SdkHttpFullRequest.builder().uri(toUri(uri)).method(method);
@@ -138,8 +195,7 @@ public final class HttpServiceSigv4 implements HttpService {
     }
 
     if (payload.isPresent()) {
-      StringContentStreamProvider provider = new StringContentStreamProvider(payload.get());
-      requestBuilder = requestBuilder.contentStreamProvider(provider);
+      requestBuilder = requestBuilder.contentStreamProvider(payload.get());
     }
 
     return requestBuilder;
@@ -155,17 +211,61 @@ public final class HttpServiceSigv4 implements HttpService {
     return execute(req);
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> deleteAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters)
+      throws IOException {
+    SdkHttpFullRequest.Builder request =
+        buildRequest(url, SdkHttpMethod.DELETE, headers, parameters, Optional.empty());
+    return this.client.sendAsync(toHttpRequest(sign(request)), BodyHandlers.ofString());
+  }
+
   /**
    * Execute {@link SdkHttpFullRequest}.
    * 
    * @param request {@link SdkHttpFullRequest}
    * @return {@link HttpResponse}
    * @throws IOException IOException
-   * @throws InterruptedException InterruptedException
    */
   private HttpResponse<String> execute(final SdkHttpFullRequest request) throws IOException {
+    try {
+      return this.client.send(toHttpRequest(request), BodyHandlers.ofString());
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Convert {@link ContentStreamProvider} to {@link BodyPublisher}.
+   * 
+   * @param provider {@link ContentStreamProvider}
+   * @return {@link BodyPublisher}
+   */
+  private BodyPublisher toBodyPublisher(final ContentStreamProvider provider) {
+    return provider instanceof RequestBodyProvider
+        ? ((RequestBodyProvider) provider).getPublisher()
+        : BodyPublishers.ofInputStream(provider::newStream);
+  }
+
+  /**
+   * Convert {@link String} payload to {@link RequestBodyProvider}.
+   * 
+   * @param payload {@link String}
+   * @return {@link Optional} {@link RequestBodyProvider}
+   */
+  private Optional<RequestBodyProvider> toPayload(final String payload) {
+    return Optional.ofNullable(payload).map(RequestBodyProvider::fromString);
+  }
+
+  /**
+   * Convert a signed {@link SdkHttpFullRequest} to a {@link HttpRequest}.
+   * 
+   * @param request {@link SdkHttpFullRequest}
+   * @return {@link HttpRequest}
+   */
+  private HttpRequest toHttpRequest(final SdkHttpFullRequest request) {
 
-    Builder builder = HttpRequest.newBuilder().uri(request.getUri()).timeout(Duration.ofMinutes(1));
+    Builder builder = HttpRequest.newBuilder().uri(request.getUri()).timeout(this.requestTimeout);
 
     Map<String, List<String>> headers = request.headers();
     for (Map.Entry<String, List<String>> e : headers.entrySet()) {
@@ -183,8 +283,9 @@ public final class HttpServiceSigv4 implements HttpService {
       case POST:
       case PUT:
       case PATCH:
-        InputStream is = request.contentStreamProvider().get().newStream();
-        builder = builder.method(request.method().name(), BodyPublishers.ofInputStream(() -> is));
+        BodyPublisher body = request.contentStreamProvider().map(this::toBodyPublisher)
+            .orElse(BodyPublishers.noBody());
+        builder = builder.method(request.method().name(), body);
         break;
       case DELETE:
         builder = builder.DELETE();
@@ -193,11 +294,7 @@ public final class HttpServiceSigv4 implements HttpService {
         builder = builder.method(request.method().name(), HttpRequest.BodyPublishers.noBody());
     }
 
-    try {
-      return this.client.send(builder.build(), BodyHandlers.ofString());
-    } catch (InterruptedException e) {
-      throw new IOException(e);
-    }
+    return builder.build();
   }
 
   @Override
@@ -209,6 +306,15 @@ public final class HttpServiceSigv4 implements HttpService {
     return execute(req);
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> getAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters)
+      throws IOException {
+    SdkHttpFullRequest.Builder request =
+        buildRequest(url, SdkHttpMethod.GET, headers, parameters, Optional.empty());
+    return this.client.sendAsync(toHttpRequest(sign(request)), BodyHandlers.ofString());
+  }
+
   @Override
   public HttpResponse<InputStream> getAsInputStream(final String url,
       final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters)
@@ -220,51 +326,100 @@ public final class HttpServiceSigv4 implements HttpService {
   public HttpResponse<String> patch(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final String payload) throws IOException {
     SdkHttpFullRequest.Builder request =
-        buildRequest(url, SdkHttpMethod.PATCH, headers, parameters, Optional.of(payload));
+        buildRequest(url, SdkHttpMethod.PATCH, headers, parameters, toPayload(payload));
     SdkHttpFullRequest req = sign(request);
     return execute(req);
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> patchAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final String payload) throws IOException {
+    SdkHttpFullRequest.Builder request =
+        buildRequest(url, SdkHttpMethod.PATCH, headers, parameters, toPayload(payload));
+    return this.client.sendAsync(toHttpRequest(sign(request)), BodyHandlers.ofString());
+  }
+
   @Override
   public HttpResponse<String> post(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final String payload) throws IOException {
     SdkHttpFullRequest.Builder request =
-        buildRequest(url, SdkHttpMethod.POST, headers, parameters, Optional.of(payload));
+        buildRequest(url, SdkHttpMethod.POST, headers, parameters, toPayload(payload));
     SdkHttpFullRequest req = sign(request);
     return execute(req);
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> postAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final String payload) throws IOException {
+    SdkHttpFullRequest.Builder request =
+        buildRequest(url, SdkHttpMethod.POST, headers, parameters, toPayload(payload));
+    return this.client.sendAsync(toHttpRequest(sign(request)), BodyHandlers.ofString());
+  }
+
   @Override
   public HttpResponse<String> put(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final Path payload) throws IOException {
-    throw new UnsupportedOperationException();
+    SdkHttpFullRequest.Builder request = buildRequest(url, SdkHttpMethod.PUT, headers,
+        parameters, Optional.of(RequestBodyProvider.fromPath(payload)));
+    SdkHttpFullRequest req = sign(request);
+    return execute(req);
   }
 
   @Override
   public HttpResponse<String> put(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final String payload) throws IOException {
     SdkHttpFullRequest.Builder request =
-        buildRequest(url, SdkHttpMethod.PUT, headers, parameters, Optional.of(payload));
+        buildRequest(url, SdkHttpMethod.PUT, headers, parameters, toPayload(payload));
     SdkHttpFullRequest req = sign(request);
     return execute(req);
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> putAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final String payload) throws IOException {
+    SdkHttpFullRequest.Builder request =
+        buildRequest(url, SdkHttpMethod.PUT, headers, parameters, toPayload(payload));
+    return this.client.sendAsync(toHttpRequest(sign(request)), BodyHandlers.ofString());
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(final String method, final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final Optional<Supplier<InputStream>> body, final BodyHandler<T> responseHandler)
+      throws IOException {
+
+    SdkHttpFullRequest.Builder request = buildRequest(url, SdkHttpMethod.fromValue(method),
+        headers, parameters, body.map(RequestBodyProvider::fromStream));
+
+    return this.client.sendAsync(toHttpRequest(sign(request)), responseHandler);
+  }
+
   /**
    * AWS Signature Version 4 signing.
    * 
    * @param request {@link SdkHttpFullRequest.Builder}
    * @return {@link SdkHttpFullRequest}
    */
-  private SdkHttpFullRequest sign(final SdkHttpFullRequest.Builder request) {
+  SdkHttpFullRequest sign(final SdkHttpFullRequest.Builder request) {
+
+    boolean unsigned =
+        PayloadSigning.UNSIGNED.equals(this.payloadSigning) && "https".equals(request.protocol());
+
+    if (unsigned) {
+      request.putHeader(CONTENT_SHA256_HEADER, "UNSIGNED-PAYLOAD");
+    }
 
     SdkHttpFullRequest req = request.build();
 
     Aws4SignerParams params = Aws4SignerParams.builder().signingName("execute-api")
         .signingRegion(this.signingRegion).awsCredentials(this.signingCredentials).build();
 
-    Aws4Signer signer = Aws4Signer.create();
-
-    req = signer.sign(req, params);
+    // Aws4Signer reads the whole payload to hash it, the unsigned signer does not read it
+    req = unsigned ? Aws4UnsignedPayloadSigner.create().sign(req, params)
+        : Aws4Signer.create().sign(req, params);
 
     return req;
   }
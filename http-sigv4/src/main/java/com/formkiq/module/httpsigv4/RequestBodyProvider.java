@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.httpsigv4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+import software.amazon.awssdk.http.ContentStreamProvider;
+
+/**
+ * 
+ * {@link ContentStreamProvider} of a request body that is read by the signer and then sent by a
+ * {@link BodyPublisher}, without holding more than one copy of the body in memory.
+ *
+ */
+final class RequestBodyProvider implements ContentStreamProvider {
+
+  /**
+   * Create from a {@link Path}, the file is streamed and never loaded into memory.
+   * 
+   * @param path {@link Path}
+   * @return {@link RequestBodyProvider}
+   * @throws IOException IOException
+   */
+  static RequestBodyProvider fromPath(final Path path) throws IOException {
+    BodyPublisher publisher = BodyPublishers.ofFile(path);
+    return new RequestBodyProvider(() -> {
+      try {
+        return Files.newInputStream(path);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, publisher);
+  }
+
+  /**
+   * Create from a {@link Supplier} that opens a new {@link InputStream} each time it is called.
+   * 
+   * @param supplier {@link Supplier}
+   * @return {@link RequestBodyProvider}
+   */
+  static RequestBodyProvider fromStream(final Supplier<InputStream> supplier) {
+    return new RequestBodyProvider(supplier, BodyPublishers.ofInputStream(supplier));
+  }
+
+  /**
+   * Create from a {@link String}, encoded once and shared by the signer and the request.
+   * 
+   * @param payload {@link String}
+   * @return {@link RequestBodyProvider}
+   */
+  static RequestBodyProvider fromString(final String payload) {
+    byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+    return new RequestBodyProvider(() -> new ByteArrayInputStream(bytes),
+        BodyPublishers.ofByteArray(bytes));
+  }
+
+  /** {@link BodyPublisher}. */
+  private final BodyPublisher publisher;
+  /** {@link Supplier} {@link InputStream}. */
+  private final Supplier<InputStream> streams;
+
+  /**
+   * constructor.
+   * 
+   * @param streamSupplier {@link Supplier}
+   * @param bodyPublisher {@link BodyPublisher}
+   */
+  private RequestBodyProvider(final Supplier<InputStream> streamSupplier,
+      final BodyPublisher bodyPublisher) {
+    this.streams = streamSupplier;
+    this.publisher = bodyPublisher;
+  }
+
+  /**
+   * Get {@link BodyPublisher} for sending the body.
+   * 
+   * @return {@link BodyPublisher}
+   */
+  BodyPublisher getPublisher() {
+    return this.publisher;
+  }
+
+  @Override
+  public InputStream newStream() {
+    return this.streams.get();
+  }
+}
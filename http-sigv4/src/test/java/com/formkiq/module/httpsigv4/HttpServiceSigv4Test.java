@@ -0,0 +1,241 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.httpsigv4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * 
+ * Unit Tests for {@link HttpServiceSigv4}.
+ *
+ */
+class HttpServiceSigv4Test {
+
+  /** Payload hash header. */
+  private static final String CONTENT_SHA256_HEADER = "x-amz-content-sha256";
+  /** 200 OK. */
+  private static final int STATUS_OK = 200;
+
+  /** {@link AwsCredentials}. */
+  private static final AwsCredentials CREDENTIALS = AwsBasicCredentials.create("ABC", "XYZ");
+  /** {@link HttpServer}. */
+  private static HttpServer server;
+  /** Server url. */
+  private static String url;
+
+  @BeforeAll
+  public static void beforeAll() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/echo", HttpServiceSigv4Test::echo);
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/echo";
+  }
+
+  @AfterAll
+  public static void afterAll() {
+    server.stop(0);
+  }
+
+  /**
+   * Respond with the request method, signature algorithm and body.
+   * 
+   * @param exchange {@link HttpExchange}
+   * @throws IOException IOException
+   */
+  private static void echo(final HttpExchange exchange) throws IOException {
+
+    String body;
+    try (InputStream is = exchange.getRequestBody()) {
+      body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+    String algorithm = authorization != null ? authorization.split(" ")[0] : null;
+
+    byte[] response = (exchange.getRequestMethod() + " " + algorithm + " " + body)
+        .getBytes(StandardCharsets.UTF_8);
+
+    exchange.sendResponseHeaders(STATUS_OK, response.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(response);
+    }
+  }
+
+  private boolean isUnsigned(final SdkHttpFullRequest request) {
+    return "UNSIGNED-PAYLOAD"
+        .equals(request.firstMatchingHeader(CONTENT_SHA256_HEADER).orElse(null));
+  }
+
+  /**
+   * Create a request with a body that counts how many times it is opened.
+   * 
+   * @param uri {@link String}
+   * @param opened {@link AtomicInteger}
+   * @return {@link SdkHttpFullRequest.Builder}
+   */
+  private SdkHttpFullRequest.Builder request(final String uri, final AtomicInteger opened) {
+    Supplier<InputStream> body = () -> {
+      opened.incrementAndGet();
+      return new ByteArrayInputStream("some body".getBytes(StandardCharsets.UTF_8));
+    };
+
+    return SdkHttpFullRequest.builder().uri(URI.create(uri)).method(SdkHttpMethod.POST)
+        .contentStreamProvider(RequestBodyProvider.fromStream(body));
+  }
+
+  /**
+   * PUT a file.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testPut01() throws Exception {
+    // given
+    HttpServiceSigv4 service = new HttpServiceSigv4(Region.US_EAST_1, CREDENTIALS);
+    Path file = Files.createTempFile("sigv4", ".txt");
+
+    try {
+
+      Files.writeString(file, "file content");
+
+      // when
+      HttpResponse<String> response =
+          service.put(url, Optional.empty(), Optional.empty(), file);
+
+      // then
+      assertEquals(STATUS_OK, response.statusCode());
+      assertEquals("PUT AWS4-HMAC-SHA256 file content", response.body());
+
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Send a streamed request body.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSendAsync01() throws Exception {
+    // given
+    HttpServiceSigv4 service =
+        new HttpServiceSigv4(Region.US_EAST_1, CREDENTIALS, PayloadSigning.UNSIGNED);
+    AtomicInteger opened = new AtomicInteger();
+
+    // when
+    HttpResponse<String> response = service.sendAsync("POST", url, Optional.empty(),
+        Optional.empty(), Optional.of(() -> {
+          opened.incrementAndGet();
+          return new ByteArrayInputStream("streamed".getBytes(StandardCharsets.UTF_8));
+        }), BodyHandlers.ofString()).get();
+
+    // then
+    assertEquals("POST AWS4-HMAC-SHA256 streamed", response.body());
+    // HTTP requests are always signed, so the body is opened to hash it and again to send it
+    assertTrue(opened.get() > 1);
+  }
+
+  /**
+   * UNSIGNED payload over HTTPS does not read the body.
+   */
+  @Test
+  void testSign01() {
+    // given
+    HttpServiceSigv4 service =
+        new HttpServiceSigv4(Region.US_EAST_1, CREDENTIALS, PayloadSigning.UNSIGNED);
+    AtomicInteger opened = new AtomicInteger();
+
+    // when
+    SdkHttpFullRequest request = service.sign(request("https://localhost/test", opened));
+
+    // then
+    assertEquals(0, opened.get());
+    assertTrue(isUnsigned(request));
+    assertTrue(request.firstMatchingHeader("Authorization").get().startsWith("AWS4-HMAC-SHA256"));
+  }
+
+  /**
+   * SIGNED payload over HTTPS reads the body to hash it.
+   */
+  @Test
+  void testSign02() {
+    // given
+    HttpServiceSigv4 service = new HttpServiceSigv4(Region.US_EAST_1, CREDENTIALS);
+    AtomicInteger opened = new AtomicInteger();
+
+    // when
+    SdkHttpFullRequest request = service.sign(request("https://localhost/test", opened));
+
+    // then
+    assertTrue(opened.get() > 0);
+    assertFalse(isUnsigned(request));
+    assertTrue(request.firstMatchingHeader("Authorization").isPresent());
+  }
+
+  /**
+   * UNSIGNED payload over HTTP is signed.
+   */
+  @Test
+  void testSign03() {
+    // given
+    HttpServiceSigv4 service =
+        new HttpServiceSigv4(Region.US_EAST_1, CREDENTIALS, PayloadSigning.UNSIGNED);
+    AtomicInteger opened = new AtomicInteger();
+
+    // when
+    SdkHttpFullRequest request = service.sign(request("http://localhost/test", opened));
+
+    // then
+    assertTrue(opened.get() > 0);
+    assertFalse(isUnsigned(request));
+    assertTrue(request.firstMatchingHeader("Authorization").isPresent());
+  }
+}
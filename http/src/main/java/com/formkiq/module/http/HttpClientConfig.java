@@ -0,0 +1,255 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.http;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 
+ * {@link HttpClient} configuration. A {@link HttpClient} keeps a connection pool, so clients
+ * should be created once and shared rather than per request.
+ *
+ */
+public class HttpClientConfig {
+
+  /** Shared {@link HttpClient} created from the default configuration. */
+  private static volatile HttpClient sharedClient;
+
+  /** Connect Timeout. */
+  private Duration connectTimeout;
+  /** {@link Executor}. */
+  private Executor executor;
+  /** {@link Redirect} policy. */
+  private Redirect redirect = Redirect.NEVER;
+  /** Use HTTP/2 when the server supports it. */
+  private boolean http2 = true;
+  /** Request Timeout. */
+  private Duration requestTimeout;
+  /** Number of threads used to complete asynchronous requests, 0 uses the default. */
+  private int threads;
+
+  /**
+   * constructor.
+   */
+  public HttpClientConfig() {
+
+  }
+
+  /**
+   * Build {@link HttpClient}.
+   * 
+   * @return {@link HttpClient}
+   */
+  public HttpClient build() {
+
+    HttpClient.Builder builder = HttpClient.newBuilder()
+        .version(this.http2 ? Version.HTTP_2 : Version.HTTP_1_1)
+        .followRedirects(this.redirect);
+
+    if (this.connectTimeout != null) {
+      builder.connectTimeout(this.connectTimeout);
+    }
+
+    if (this.executor != null) {
+      builder.executor(this.executor);
+    } else if (this.threads > 0) {
+      builder.executor(createExecutor(this.threads));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Get Connect Timeout.
+   * 
+   * @return {@link Duration}
+   */
+  public Duration connectTimeout() {
+    return this.connectTimeout;
+  }
+
+  /**
+   * Set Connect Timeout.
+   * 
+   * @param timeout {@link Duration}
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig connectTimeout(final Duration timeout) {
+    this.connectTimeout = timeout;
+    return this;
+  }
+
+  private ExecutorService createExecutor(final int count) {
+    return Executors.newFixedThreadPool(count, r -> {
+      Thread thread = new Thread(r, "http-client");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Get {@link Executor}.
+   * 
+   * @return {@link Executor}
+   */
+  public Executor executor() {
+    return this.executor;
+  }
+
+  /**
+   * Set {@link Executor} used to complete asynchronous requests.
+   * 
+   * @param clientExecutor {@link Executor}
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig executor(final Executor clientExecutor) {
+    this.executor = clientExecutor;
+    return this;
+  }
+
+  /**
+   * Is Follow Redirects.
+   * 
+   * @return boolean
+   */
+  public boolean followRedirects() {
+    return !Redirect.NEVER.equals(this.redirect);
+  }
+
+  /**
+   * Set Follow Redirects, redirects from HTTPS to HTTP are never followed.
+   * 
+   * @param follow boolean
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig followRedirects(final boolean follow) {
+    return redirect(follow ? Redirect.NORMAL : Redirect.NEVER);
+  }
+
+  /**
+   * Get the shared {@link HttpClient} using the default configuration.
+   * 
+   * @return {@link HttpClient}
+   */
+  public static HttpClient getSharedClient() {
+    HttpClient client = sharedClient;
+    if (client == null) {
+      synchronized (HttpClientConfig.class) {
+        client = sharedClient;
+        if (client == null) {
+          client = new HttpClientConfig().build();
+          sharedClient = client;
+        }
+      }
+    }
+    return client;
+  }
+
+  /**
+   * Is HTTP/2 enabled.
+   * 
+   * @return boolean
+   */
+  public boolean http2() {
+    return this.http2;
+  }
+
+  /**
+   * Set HTTP/2 enabled, falls back to HTTP/1.1 when the server does not support it.
+   * 
+   * @param enabled boolean
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig http2(final boolean enabled) {
+    this.http2 = enabled;
+    return this;
+  }
+
+  /**
+   * Get {@link Redirect} policy.
+   * 
+   * @return {@link Redirect}
+   */
+  public Redirect redirect() {
+    return this.redirect;
+  }
+
+  /**
+   * Set {@link Redirect} policy.
+   * 
+   * @param policy {@link Redirect}
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig redirect(final Redirect policy) {
+    this.redirect = policy;
+    return this;
+  }
+
+  /**
+   * Get Request Timeout.
+   * 
+   * @return {@link Duration}
+   */
+  public Duration requestTimeout() {
+    return this.requestTimeout;
+  }
+
+  /**
+   * Set Request Timeout, the time to wait for the response headers.
+   * 
+   * @param timeout {@link Duration}
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig requestTimeout(final Duration timeout) {
+    this.requestTimeout = timeout;
+    return this;
+  }
+
+  /**
+   * Get number of threads.
+   * 
+   * @return int
+   */
+  public int threads() {
+    return this.threads;
+  }
+
+  /**
+   * Set number of threads used to complete asynchronous requests, ignored if an
+   * {@link Executor} is set.
+   * 
+   * @param count int
+   * @return {@link HttpClientConfig}
+   */
+  public HttpClientConfig threads(final int count) {
+    this.threads = count;
+    return this;
+  }
+}
@@ -26,9 +26,12 @@ package com.formkiq.module.http;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * 
@@ -49,6 +52,18 @@ public interface HttpService {
   HttpResponse<String> delete(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters) throws IOException;
 
+  /**
+   * Send DELETE request asynchronously.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  CompletableFuture<HttpResponse<String>> deleteAsync(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters) throws IOException;
+
   /**
    * GET HTTP Request and return a {@link HttpResponse} {@link String}.
    *
@@ -73,6 +88,18 @@ public interface HttpService {
   HttpResponse<InputStream> getAsInputStream(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters) throws IOException;
 
+  /**
+   * Send GET request asynchronously.
+   *
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  CompletableFuture<HttpResponse<String>> getAsync(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters) throws IOException;
+
   /**
    * Patch HTTP Request and return a {@link HttpResponse}.
    * 
@@ -86,6 +113,19 @@ public interface HttpService {
   HttpResponse<String> patch(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters, String payload) throws IOException;
 
+  /**
+   * Send PATCH request asynchronously.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param payload {@link String}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  CompletableFuture<HttpResponse<String>> patchAsync(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters, String payload) throws IOException;
+
   /**
    * Post HTTP Request and return a {@link HttpResponse}.
    * 
@@ -99,6 +139,19 @@ public interface HttpService {
   HttpResponse<String> post(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters, String payload) throws IOException;
 
+  /**
+   * Send POST request asynchronously.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param payload {@link String}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  CompletableFuture<HttpResponse<String>> postAsync(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters, String payload) throws IOException;
+
   /**
    * Put HTTP Request and return a {@link HttpResponse}.
    * 
@@ -124,4 +177,36 @@ public interface HttpService {
    */
   HttpResponse<String> put(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters, String payload) throws IOException;
+
+  /**
+   * Send PUT request asynchronously.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param payload {@link String}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  CompletableFuture<HttpResponse<String>> putAsync(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters, String payload) throws IOException;
+
+  /**
+   * Send request asynchronously, streaming the request body from an {@link InputStream} and the
+   * response body to a {@link BodyHandler}.
+   * 
+   * @param <T> Type of response body
+   * @param method {@link String}
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param body {@link Supplier} that opens a new {@link InputStream} of the request body each
+   *        time it is called
+   * @param responseHandler {@link BodyHandler}
+   * @return {@link CompletableFuture} {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  <T> CompletableFuture<HttpResponse<T>> sendAsync(String method, String url,
+      Optional<HttpHeaders> headers, Optional<Map<String, String>> parameters,
+      Optional<Supplier<InputStream>> body, BodyHandler<T> responseHandler) throws IOException;
 }
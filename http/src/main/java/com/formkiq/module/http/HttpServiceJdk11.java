@@ -34,11 +34,15 @@ import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -49,13 +53,16 @@ import java.util.stream.Collectors;
 public class HttpServiceJdk11 implements HttpService {
 
   /** {@link HttpClient}. */
-  private HttpClient client;
+  private final HttpClient client;
+  /** Request Timeout. */
+  private final Duration requestTimeout;
 
   /**
-   * constructor.
+   * constructor using the shared {@link HttpClient}.
    */
   public HttpServiceJdk11() {
-    this.client = HttpClient.newHttpClient();
+    this.client = HttpClientConfig.getSharedClient();
+    this.requestTimeout = null;
   }
 
   /**
@@ -64,7 +71,17 @@ public class HttpServiceJdk11 implements HttpService {
    * @param executor {@link Executor}
    */
   public HttpServiceJdk11(final Executor executor) {
-    this.client = HttpClient.newBuilder().executor(executor).build();
+    this(new HttpClientConfig().executor(executor));
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param config {@link HttpClientConfig}
+   */
+  public HttpServiceJdk11(final HttpClientConfig config) {
+    this.client = config.build();
+    this.requestTimeout = config.requestTimeout();
   }
 
   /**
@@ -89,6 +106,10 @@ public class HttpServiceJdk11 implements HttpService {
 
     Builder builder = HttpRequest.newBuilder().uri(toUri(u));
 
+    if (this.requestTimeout != null) {
+      builder.timeout(this.requestTimeout);
+    }
+
     if (headers.isPresent()) {
       for (Map.Entry<String, String> e : headers.get().getAll().entrySet()) {
         builder.headers(e.getKey(), e.getValue());
@@ -102,6 +123,10 @@ public class HttpServiceJdk11 implements HttpService {
     return URLEncoder.encode(s, StandardCharsets.UTF_8);
   }
 
+  private BodyPublisher toBody(final String payload) {
+    return payload != null ? BodyPublishers.ofString(payload) : BodyPublishers.noBody();
+  }
+
   @Override
   public HttpResponse<String> delete(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters) throws IOException {
@@ -113,6 +138,14 @@ public class HttpServiceJdk11 implements HttpService {
     }
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> deleteAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters)
+      throws IOException {
+    HttpRequest request = build(url, headers, parameters).DELETE().build();
+    return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+  }
+
   @Override
   public HttpResponse<String> get(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters) throws IOException {
@@ -136,6 +169,14 @@ public class HttpServiceJdk11 implements HttpService {
     }
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> getAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters)
+      throws IOException {
+    HttpRequest request = build(url, headers, parameters).GET().build();
+    return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+  }
+
   @Override
   public HttpResponse<String> patch(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final String payload) throws IOException {
@@ -152,6 +193,14 @@ public class HttpServiceJdk11 implements HttpService {
     }
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> patchAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final String payload) throws IOException {
+    HttpRequest request =
+        build(url, headers, parameters).method("PATCH", toBody(payload)).build();
+    return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+  }
 
   @Override
   public HttpResponse<String> post(final String url, final Optional<HttpHeaders> headers,
@@ -167,6 +216,13 @@ public class HttpServiceJdk11 implements HttpService {
     }
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> postAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final String payload) throws IOException {
+    HttpRequest request = build(url, headers, parameters).POST(toBody(payload)).build();
+    return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+  }
 
   @Override
   public HttpResponse<String> put(final String url, final Optional<HttpHeaders> headers,
@@ -199,6 +255,26 @@ public class HttpServiceJdk11 implements HttpService {
     }
   }
 
+  @Override
+  public CompletableFuture<HttpResponse<String>> putAsync(final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final String payload) throws IOException {
+    HttpRequest request = build(url, headers, parameters).PUT(toBody(payload)).build();
+    return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(final String method, final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final Optional<Supplier<InputStream>> body, final BodyHandler<T> responseHandler)
+      throws IOException {
+
+    BodyPublisher publisher =
+        body.map(BodyPublishers::ofInputStream).orElse(BodyPublishers.noBody());
+
+    HttpRequest request = build(url, headers, parameters).method(method, publisher).build();
+    return this.client.sendAsync(request, responseHandler);
+  }
 
   /**
    * Convert {@link String} to {@link URI}.
@@ -0,0 +1,131 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Tests for {@link HttpClientConfig}.
+ *
+ */
+class HttpClientConfigTest {
+
+  /**
+   * Build default {@link HttpClient}.
+   */
+  @Test
+  void testBuild01() {
+    // given
+    HttpClientConfig config = new HttpClientConfig();
+
+    // when
+    HttpClient client = config.build();
+
+    // then
+    assertEquals(Version.HTTP_2, client.version());
+    assertEquals(Redirect.NEVER, client.followRedirects());
+    assertFalse(client.connectTimeout().isPresent());
+    assertFalse(client.executor().isPresent());
+    assertFalse(config.followRedirects());
+  }
+
+  /**
+   * Build configured {@link HttpClient}.
+   */
+  @Test
+  void testBuild02() {
+    // given
+    Duration timeout = Duration.ofSeconds(2);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+
+      HttpClientConfig config = new HttpClientConfig().http2(false).connectTimeout(timeout)
+          .requestTimeout(timeout).redirect(Redirect.ALWAYS).executor(executor).threads(2);
+
+      // when
+      HttpClient client = config.build();
+
+      // then
+      assertEquals(Version.HTTP_1_1, client.version());
+      assertEquals(Redirect.ALWAYS, client.followRedirects());
+      assertEquals(timeout, client.connectTimeout().get());
+      assertSame(executor, client.executor().get());
+      assertEquals(timeout, config.requestTimeout());
+      assertTrue(config.followRedirects());
+
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Build {@link HttpClient} with threads and following redirects.
+   */
+  @Test
+  void testBuild03() {
+    // given
+    HttpClientConfig config = new HttpClientConfig().threads(2).followRedirects(true);
+
+    // when
+    HttpClient client = config.build();
+
+    // then
+    assertEquals(Redirect.NORMAL, client.followRedirects());
+    assertTrue(client.executor().isPresent());
+    assertTrue(config.followRedirects());
+
+    // when
+    config.followRedirects(false);
+
+    // then
+    assertEquals(Redirect.NEVER, config.redirect());
+  }
+
+  /**
+   * Shared {@link HttpClient} is created once.
+   */
+  @Test
+  void testGetSharedClient01() {
+    // given
+    // when
+    HttpClient client = HttpClientConfig.getSharedClient();
+
+    // then
+    assertSame(client, HttpClientConfig.getSharedClient());
+    assertEquals(Redirect.NEVER, client.followRedirects());
+    assertFalse(client.executor().isPresent());
+  }
+}
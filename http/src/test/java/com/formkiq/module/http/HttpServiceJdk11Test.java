@@ -0,0 +1,241 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 
+ * Unit Tests for {@link HttpServiceJdk11}.
+ *
+ */
+class HttpServiceJdk11Test {
+
+  /** 200 OK. */
+  private static final int STATUS_OK = 200;
+  /** 302 Found. */
+  private static final int STATUS_FOUND = 302;
+  /** Slow response delay. */
+  private static final long SLOW_MILLIS = 2000;
+
+  /** {@link ExecutorService} handling server requests. */
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+  /** {@link HttpServer}. */
+  private static HttpServer server;
+  /** Server url. */
+  private static String url;
+
+  @BeforeAll
+  public static void beforeAll() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/echo", HttpServiceJdk11Test::echo);
+    server.createContext("/redirect", e -> {
+      e.getResponseHeaders().add("Location", "/echo");
+      e.sendResponseHeaders(STATUS_FOUND, -1);
+      e.close();
+    });
+    server.createContext("/slow", e -> {
+      sleep(SLOW_MILLIS);
+      echo(e);
+    });
+    server.setExecutor(EXECUTOR);
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @AfterAll
+  public static void afterAll() {
+    server.stop(0);
+    EXECUTOR.shutdownNow();
+  }
+
+  /**
+   * Respond with the request method, query and body.
+   * 
+   * @param exchange {@link HttpExchange}
+   * @throws IOException IOException
+   */
+  private static void echo(final HttpExchange exchange) throws IOException {
+
+    String body;
+    try (InputStream is = exchange.getRequestBody()) {
+      body = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    String query = exchange.getRequestURI().getQuery();
+    byte[] response = (exchange.getRequestMethod() + " " + query + " " + body)
+        .getBytes(StandardCharsets.UTF_8);
+
+    exchange.sendResponseHeaders(STATUS_OK, response.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(response);
+    }
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Async requests.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAsync01() throws Exception {
+    // given
+    HttpService service = new HttpServiceJdk11();
+    Optional<Map<String, String>> parameters = Optional.of(Map.of("a", "b"));
+
+    // when
+    HttpResponse<String> get = service.getAsync(url + "/echo", Optional.empty(), parameters).get();
+    HttpResponse<String> post =
+        service.postAsync(url + "/echo", Optional.empty(), parameters, "post body").get();
+    HttpResponse<String> put =
+        service.putAsync(url + "/echo", Optional.empty(), parameters, "put body").get();
+    HttpResponse<String> patch =
+        service.patchAsync(url + "/echo", Optional.empty(), parameters, null).get();
+    HttpResponse<String> delete =
+        service.deleteAsync(url + "/echo", Optional.empty(), Optional.empty()).get();
+
+    // then
+    assertEquals("GET a=b ", get.body());
+    assertEquals("POST a=b post body", post.body());
+    assertEquals("PUT a=b put body", put.body());
+    assertEquals("PATCH a=b ", patch.body());
+    assertEquals("DELETE null ", delete.body());
+  }
+
+  /**
+   * Send streaming request body and response body.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSendAsync01() throws Exception {
+    // given
+    HttpService service = new HttpServiceJdk11(new HttpClientConfig().http2(false));
+    byte[] data = "streamed body".getBytes(StandardCharsets.UTF_8);
+    AtomicInteger opened = new AtomicInteger();
+
+    // when
+    HttpResponse<InputStream> response = service.sendAsync("PUT", url + "/echo",
+        Optional.of(new HttpHeaders().add("Content-Type", "text/plain")), Optional.empty(),
+        Optional.of(() -> {
+          opened.incrementAndGet();
+          return new ByteArrayInputStream(data);
+        }), BodyHandlers.ofInputStream()).get();
+
+    // then
+    assertEquals(STATUS_OK, response.statusCode());
+    try (InputStream is = response.body()) {
+      assertEquals("PUT null streamed body", new String(is.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    assertTrue(opened.get() > 0);
+  }
+
+  /**
+   * Send request without a body.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSendAsync02() throws Exception {
+    // given
+    HttpService service = new HttpServiceJdk11();
+
+    // when
+    HttpResponse<String> response = service.sendAsync("GET", url + "/echo", Optional.empty(),
+        Optional.empty(), Optional.empty(), BodyHandlers.ofString()).get();
+
+    // then
+    assertEquals("GET null ", response.body());
+  }
+
+  /**
+   * Request Timeout completes the future exceptionally.
+   */
+  @Test
+  void testRequestTimeout01() {
+    // given
+    HttpService service = new HttpServiceJdk11(
+        new HttpClientConfig().requestTimeout(Duration.ofMillis(SLOW_MILLIS / 10)));
+
+    // when
+    ExecutionException e = assertThrows(ExecutionException.class,
+        () -> service.getAsync(url + "/slow", Optional.empty(), Optional.empty()).get());
+
+    // then
+    assertTrue(e.getCause() instanceof HttpTimeoutException);
+  }
+
+  /**
+   * Redirects are only followed when configured.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testRedirect01() throws Exception {
+    // given
+    HttpService never = new HttpServiceJdk11();
+    HttpService follow = new HttpServiceJdk11(new HttpClientConfig().followRedirects(true));
+
+    // when
+    HttpResponse<String> r0 = never.get(url + "/redirect", Optional.empty(), Optional.empty());
+    HttpResponse<String> r1 =
+        follow.getAsync(url + "/redirect", Optional.empty(), Optional.empty()).get();
+
+    // then
+    assertEquals(STATUS_FOUND, r0.statusCode());
+    assertEquals(STATUS_OK, r1.statusCode());
+    assertEquals("GET null ", r1.body());
+  }
+}
@@ -99,6 +99,9 @@ import com.formkiq.stacks.api.handler.PrivateWebhooksRequestHandler;
 import com.formkiq.stacks.api.handler.PublicDocumentsRequestHandler;
 import com.formkiq.stacks.api.handler.PublicWebhooksRequestHandler;
 import com.formkiq.stacks.api.handler.ReindexDocumentsRequestHandler;
+import com.formkiq.stacks.api.handler.SearchExportIdRequestHandler;
+import com.formkiq.stacks.api.handler.SearchExportRequestHandler;
+import com.formkiq.stacks.api.handler.SearchFacetsRequestHandler;
 import com.formkiq.stacks.api.handler.SearchRequestHandler;
 import com.formkiq.stacks.api.handler.SitesClassificationAllowedValuesRequestHandler;
 import com.formkiq.stacks.api.handler.SitesClassificationIdRequestHandler;
@@ -133,10 +136,14 @@ import com.formkiq.stacks.dynamodb.FolderIndexProcessor;
 import com.formkiq.stacks.dynamodb.FolderIndexProcessorExtension;
 import com.formkiq.stacks.dynamodb.WebhooksService;
 import com.formkiq.stacks.dynamodb.WebhooksServiceExtension;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetServiceExtension;
 import com.formkiq.stacks.dynamodb.attributes.AttributeService;
 import com.formkiq.stacks.dynamodb.attributes.AttributeServiceExtension;
 import com.formkiq.stacks.dynamodb.attributes.AttributeValidator;
 import com.formkiq.stacks.dynamodb.attributes.AttributeValidatorExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
+import com.formkiq.stacks.dynamodb.cache.SearchEpochExtension;
 import com.formkiq.stacks.dynamodb.mappings.MappingService;
 import com.formkiq.stacks.dynamodb.mappings.MappingServiceExtension;
 import com.formkiq.stacks.dynamodb.schemas.SchemaService;
@@ -194,6 +201,7 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
     serviceCache.register(S3PresignerService.class, new S3PresignerServiceExtension());
     serviceCache.register(SqsService.class, new SqsServiceExtension());
     serviceCache.register(CacheService.class, new CacheServiceExtension());
+    serviceCache.register(SearchEpoch.class, new SearchEpochExtension());
     serviceCache.register(DocumentService.class, new DocumentServiceExtension());
     serviceCache.register(DocumentSearchService.class, new DocumentSearchServiceExtension());
     serviceCache.register(DocumentCountService.class, new DocumentCountServiceExtension());
@@ -205,6 +213,7 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
     serviceCache.register(DynamoDbService.class, new DynamoDbServiceExtension());
     serviceCache.register(WebhooksService.class, new WebhooksServiceExtension());
     serviceCache.register(AttributeService.class, new AttributeServiceExtension());
+    serviceCache.register(AttributeFacetService.class, new AttributeFacetServiceExtension());
     serviceCache.register(AttributeValidator.class, new AttributeValidatorExtension());
     serviceCache.register(SchemaService.class, new SchemaServiceExtension());
     serviceCache.register(MappingService.class, new MappingServiceExtension());
@@ -241,6 +250,9 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
     addRequestHandler(new DocumentIdContentRequestHandler());
     addRequestHandler(new PublicationsDocumentIdRequestHandler());
     addRequestHandler(new SearchRequestHandler());
+    addRequestHandler(new SearchFacetsRequestHandler());
+    addRequestHandler(new SearchExportRequestHandler());
+    addRequestHandler(new SearchExportIdRequestHandler());
     addRequestHandler(new DocumentsFulltextRequestTagsKeyHandler());
     addRequestHandler(new DocumentsFulltextRequestTagsKeyValueHandler());
     addRequestHandler(new DocumentsUploadRequestHandler());
@@ -25,13 +25,21 @@ package com.formkiq.stacks.api;
 
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.cache.CacheService;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3PresignerService;
+import com.formkiq.aws.s3.S3Service;
+import com.formkiq.aws.services.lambda.LambdaPrimer;
 import com.formkiq.aws.sns.SnsAwsServiceRegistry;
 import com.formkiq.aws.sqs.SqsAwsServiceRegistry;
 import com.formkiq.aws.ssm.SsmAwsServiceRegistry;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.stacks.dynamodb.ConfigService;
+import com.formkiq.stacks.dynamodb.DocumentSearchService;
+import com.formkiq.stacks.dynamodb.DocumentService;
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
 
 import java.util.Map;
@@ -51,7 +59,11 @@ public class CoreRequestHandler extends AbstractCoreRequestHandler {
             new SnsAwsServiceRegistry(), new SqsAwsServiceRegistry(), new SsmAwsServiceRegistry())
         .build();
 
-    initialize(serviceCache);
+    new LambdaPrimer().addRequired("initialize", AbstractCoreRequestHandler::initialize)
+        .addServices(DynamoDbService.class, CacheService.class, ConfigService.class,
+            DocumentService.class, DocumentSearchService.class, S3Service.class,
+            S3PresignerService.class)
+        .addGson().run(serviceCache);
   }
 
   @Override
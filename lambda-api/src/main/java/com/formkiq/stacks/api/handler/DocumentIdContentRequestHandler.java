@@ -28,6 +28,7 @@ import static com.formkiq.aws.dynamodb.objects.Objects.throwIfNull;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_OK;
 import java.net.URL;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
@@ -42,6 +43,7 @@ import com.formkiq.aws.services.lambda.ApiGatewayRequestHandler;
 import com.formkiq.aws.services.lambda.ApiMapResponse;
 import com.formkiq.aws.services.lambda.ApiRequestHandlerResponse;
 import com.formkiq.aws.services.lambda.ApiResponse;
+import com.formkiq.aws.services.lambda.ConditionalGet;
 import com.formkiq.aws.services.lambda.exceptions.BadException;
 import com.formkiq.aws.services.lambda.exceptions.DocumentNotFoundException;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
@@ -98,6 +100,33 @@ public class DocumentIdContentRequestHandler
     return new ApiRequestHandlerResponse(SC_OK, response);
   }
 
+  @Override
+  public String getEtag(final LambdaLogger logger, final ApiGatewayRequestEvent event,
+      final ApiAuthorization authorization, final AwsServiceCache awsservice) {
+
+    String etag = null;
+    String versionKey = event.getQueryStringParameter("versionKey");
+
+    if (versionKey == null) {
+
+      String siteId = authorization.getSiteId();
+      String documentId = event.getPathParameter("documentId");
+
+      DocumentService service = awsservice.getExtension(DocumentService.class);
+      Map<String, String> fields = service.findDocumentFields(siteId, documentId,
+          List.of("lastModifiedDate", "checksum", "contentType"));
+
+      // only plain text content is returned in the body, other content types return an expiring
+      // presigned url
+      if (MimeType.isPlainText(fields.get("contentType"))) {
+        etag = ConditionalGet.createEtag(siteId, documentId, fields.get("lastModifiedDate"),
+            fields.get("checksum"));
+      }
+    }
+
+    return etag;
+  }
+
   private ApiResponse getApiResponse(final AwsServiceCache awsservice, final DocumentItem item,
       final String s3key, final String versionId) {
     String contentType =
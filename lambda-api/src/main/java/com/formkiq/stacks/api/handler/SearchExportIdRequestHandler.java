@@ -0,0 +1,104 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.api.handler;
+
+import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_OK;
+import java.net.URL;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.formkiq.aws.dynamodb.ApiAuthorization;
+import com.formkiq.aws.dynamodb.ApiPermission;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.s3.PresignGetUrlConfig;
+import com.formkiq.aws.s3.S3PresignerService;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEventUtil;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestHandler;
+import com.formkiq.aws.services.lambda.ApiMapResponse;
+import com.formkiq.aws.services.lambda.ApiRequestHandlerResponse;
+import com.formkiq.aws.services.lambda.exceptions.NotFoundException;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.stacks.dynamodb.documents.SearchExportRecord;
+
+/** {@link ApiGatewayRequestHandler} for "/search/export/{exportId}". */
+public class SearchExportIdRequestHandler
+    implements ApiGatewayRequestHandler, ApiGatewayRequestEventUtil {
+
+  /**
+   * constructor.
+   *
+   */
+  public SearchExportIdRequestHandler() {}
+
+  @Override
+  public ApiRequestHandlerResponse get(final LambdaLogger logger,
+      final ApiGatewayRequestEvent event, final ApiAuthorization authorization,
+      final AwsServiceCache awsServices) throws Exception {
+
+    String siteId = authorization.getSiteId();
+    String exportId = event.getPathParameters().get("exportId");
+
+    SearchExportRecord r = new SearchExportRecord().setExportId(exportId);
+    DynamoDbService db = awsServices.getExtension(DynamoDbService.class);
+    r = r.getFromAttributes(siteId, db.get(r.fromS(r.pk(siteId)), r.fromS(r.sk())));
+
+    if (r == null) {
+      throw new NotFoundException("Export '" + exportId + "' not found");
+    }
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("exportId", r.getExportId());
+    map.put("status", r.getStatus());
+    map.put("documentCount", Long.valueOf(r.getDocumentCount()));
+    map.put("userId", r.getUserId());
+    map.put("insertedDate", r.getInsertedDate());
+
+    if (SearchExportRecord.STATUS_COMPLETE.equals(r.getStatus())) {
+      S3PresignerService s3 = awsServices.getExtension(S3PresignerService.class);
+      String stagingBucket = awsServices.environment("STAGE_DOCUMENTS_S3_BUCKET");
+
+      PresignGetUrlConfig config = new PresignGetUrlConfig()
+          .contentDispositionByPath(r.getS3Key(), false).contentType("application/x-ndjson");
+      URL url = s3.presignGetUrl(stagingBucket, r.getS3Key(), Duration.ofHours(1), null, config);
+      map.put("downloadUrl", url.toString());
+    }
+
+    return new ApiRequestHandlerResponse(SC_OK, new ApiMapResponse(map));
+  }
+
+  @Override
+  public String getRequestUrl() {
+    return "/search/export/{exportId}";
+  }
+
+  @Override
+  public Optional<Boolean> isAuthorized(final AwsServiceCache awsservice, final String method,
+      final ApiGatewayRequestEvent event, final ApiAuthorization authorization) {
+    boolean access = authorization.getPermissions().contains(ApiPermission.READ);
+    return Optional.of(access);
+  }
+}
@@ -0,0 +1,151 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.api.handler;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createS3Key;
+import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_CREATED;
+import static software.amazon.awssdk.utils.StringUtils.isEmpty;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.formkiq.aws.dynamodb.ApiAuthorization;
+import com.formkiq.aws.dynamodb.ApiPermission;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.aws.dynamodb.model.QueryRequest;
+import com.formkiq.aws.dynamodb.objects.DateUtil;
+import com.formkiq.aws.s3.S3Service;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEventUtil;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestHandler;
+import com.formkiq.aws.services.lambda.ApiMapResponse;
+import com.formkiq.aws.services.lambda.ApiRequestHandlerResponse;
+import com.formkiq.aws.services.lambda.exceptions.BadException;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.stacks.api.QueryRequestValidator;
+import com.formkiq.stacks.dynamodb.documents.SearchExportRecord;
+import com.formkiq.validation.ValidationError;
+import com.formkiq.validation.ValidationException;
+
+/**
+ * {@link ApiGatewayRequestHandler} for "/search/export". Creates a task object in the staging
+ * bucket that is processed by the StagingS3Create lambda, which writes every matching document as
+ * NDJSON to S3.
+ */
+public class SearchExportRequestHandler
+    implements ApiGatewayRequestHandler, ApiGatewayRequestEventUtil {
+
+  /** Number of days to keep the export record. */
+  private static final int EXPORT_RECORD_DAYS = 7;
+
+  /**
+   * constructor.
+   *
+   */
+  public SearchExportRequestHandler() {}
+
+  @Override
+  public String getRequestUrl() {
+    return "/search/export";
+  }
+
+  /**
+   * Get Export Task S3 Key.
+   * 
+   * @param siteId {@link String}
+   * @param exportId {@link String}
+   * @param extension {@link String}
+   * @return {@link String}
+   */
+  private String getS3Key(final String siteId, final String exportId, final String extension) {
+    return String.format("tempfiles/%s", createS3Key(siteId, exportId)) + extension;
+  }
+
+  @Override
+  public Optional<Boolean> isAuthorized(final AwsServiceCache awsservice, final String method,
+      final ApiGatewayRequestEvent event, final ApiAuthorization authorization) {
+    boolean access = authorization.getPermissions().contains(ApiPermission.READ);
+    return Optional.of(access);
+  }
+
+  @Override
+  public ApiRequestHandlerResponse post(final LambdaLogger logger,
+      final ApiGatewayRequestEvent event, final ApiAuthorization authorization,
+      final AwsServiceCache awsServices) throws Exception {
+
+    QueryRequest q = fromBodyToObject(event, QueryRequest.class);
+    validatePost(q);
+
+    String siteId = authorization.getSiteId();
+    String exportId = ID.uuid();
+
+    long ttl = Instant.now().plus(Duration.ofDays(EXPORT_RECORD_DAYS)).getEpochSecond();
+
+    SearchExportRecord r = new SearchExportRecord().setExportId(exportId)
+        .setStatus(SearchExportRecord.STATUS_PENDING).setUserId(authorization.getUsername())
+        .setS3Key(getS3Key(siteId, exportId, ".ndjson"))
+        .setInsertedDate(DateUtil.getIsoDateFormatter().format(new Date()))
+        .setTimeToLive(String.valueOf(ttl));
+
+    DynamoDbService db = awsServices.getExtension(DynamoDbService.class);
+    db.putItem(r.getAttributes(siteId));
+
+    Map<String, Object> task = new HashMap<>();
+    task.put("exportId", exportId);
+    task.put("siteId", siteId != null ? siteId : DEFAULT_SITE_ID);
+    task.put("query", q.query());
+    task.put("responseFields", q.responseFields());
+
+    S3Service s3 = awsServices.getExtension(S3Service.class);
+    String stagingBucket = awsServices.environment("STAGE_DOCUMENTS_S3_BUCKET");
+    s3.putObject(stagingBucket, getS3Key(siteId, exportId, ".json"),
+        GSON.toJson(task).getBytes(StandardCharsets.UTF_8), "application/json");
+
+    ApiMapResponse response = new ApiMapResponse(Map.of("exportId", exportId));
+    return new ApiRequestHandlerResponse(SC_CREATED, response);
+  }
+
+  private void validatePost(final QueryRequest q) throws ValidationException, BadException {
+    QueryRequestValidator validator = new QueryRequestValidator();
+    Collection<ValidationError> errors = validator.validation(q);
+    if (!errors.isEmpty()) {
+      throw new ValidationException(errors);
+    }
+
+    if (!isEmpty(q.query().getText())) {
+      throw new BadException("Fulltext search is not supported by export");
+    }
+
+    if (q.query().getTags() != null && q.query().getTags().size() == 1) {
+      q.query().tag(q.query().getTags().get(0));
+    }
+  }
+}
@@ -25,7 +25,7 @@ package com.formkiq.stacks.api.handler;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createS3Key;
 import static com.formkiq.aws.services.lambda.ApiResponseStatus.SC_OK;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
@@ -79,8 +79,9 @@ public class UpdateDocumentMatchingRequestHandler
 
     S3Service s3 = awsservice.getExtension(S3Service.class);
 
-    String body = ApiGatewayRequestEventUtil.getBodyAsString(event);
-    s3.putObject(stageS3Bucket, key, body.getBytes(StandardCharsets.UTF_8), "application/json");
+    try (InputStream is = getBodyAsInputStream(event)) {
+      s3.putObject(stageS3Bucket, key, is, getBodyContentLength(event), "application/json");
+    }
     s3.setObjectTag(stageS3Bucket, key, "userId", authorization.getUsername());
 
     ApiMapResponse resp = new ApiMapResponse(Map.of("message", "received update tags request"));
@@ -0,0 +1,227 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.api;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createS3Key;
+import static com.formkiq.testutils.aws.TestServices.STAGE_BUCKET_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.DynamicObject;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.stacks.dynamodb.documents.SearchExportRecord;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.LocalStackExtension;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/** Unit Tests for request POST /search/export and GET /search/export/{exportId}. */
+@ExtendWith(LocalStackExtension.class)
+@ExtendWith(DynamoDbExtension.class)
+public class SearchExportRequestTest extends AbstractRequestHandler {
+
+  /**
+   * Create GET /search/export/{exportId} request.
+   * 
+   * @param siteId {@link String}
+   * @param exportId {@link String}
+   * @return {@link ApiGatewayRequestEvent}
+   * @throws Exception Exception
+   */
+  private ApiGatewayRequestEvent createGetRequest(final String siteId, final String exportId)
+      throws Exception {
+    ApiGatewayRequestEvent event = toRequestEvent("/request-post-indices-search01.json");
+    event.setHttpMethod("GET");
+    event.setResource("/search/export/{exportId}");
+    event.setPath("/search/export/" + exportId);
+    event.setBody(null);
+    event.setIsBase64Encoded(Boolean.FALSE);
+    setPathParameter(event, "exportId", exportId);
+    addParameter(event, "siteId", siteId);
+    return event;
+  }
+
+  /**
+   * Create POST /search/export request.
+   * 
+   * @param siteId {@link String}
+   * @param body {@link String}
+   * @return {@link ApiGatewayRequestEvent}
+   * @throws Exception Exception
+   */
+  private ApiGatewayRequestEvent createPostRequest(final String siteId, final String body)
+      throws Exception {
+    ApiGatewayRequestEvent event = toRequestEvent("/request-post-indices-search01.json");
+    event.setHttpMethod("POST");
+    event.setResource("/search/export");
+    event.setPath("/search/export");
+    event.setBody(body);
+    event.setIsBase64Encoded(Boolean.FALSE);
+    addParameter(event, "siteId", siteId);
+    return event;
+  }
+
+  /**
+   * Get Export.
+   * 
+   * @param siteId {@link String}
+   * @param exportId {@link String}
+   * @return {@link DynamicObject}
+   * @throws Exception Exception
+   */
+  @SuppressWarnings("unchecked")
+  private DynamicObject getExport(final String siteId, final String exportId) throws Exception {
+    String response = handleRequest(createGetRequest(siteId, exportId));
+    Map<String, String> m = fromJson(response, Map.class);
+    assertEquals("200.0", String.valueOf(m.get("statusCode")));
+    return new DynamicObject(fromJson(m.get("body"), Map.class));
+  }
+
+  /**
+   * Post Export.
+   * 
+   * @param siteId {@link String}
+   * @return {@link String}
+   * @throws Exception Exception
+   */
+  @SuppressWarnings("unchecked")
+  private String postExport(final String siteId) throws Exception {
+    String response =
+        handleRequest(createPostRequest(siteId, "{\"query\":{\"tag\":{\"key\":\"status\"}}}"));
+    Map<String, String> m = fromJson(response, Map.class);
+    assertEquals("201.0", String.valueOf(m.get("statusCode")));
+    return new DynamicObject(fromJson(m.get("body"), Map.class)).getString("exportId");
+  }
+
+  /**
+   * POST /search/export creates a PENDING export and its task object.
+   *
+   * @throws Exception an error has occurred
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandlePostSearchExport01() throws Exception {
+
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+      // given
+      // when
+      String exportId = postExport(siteId);
+
+      // then
+      assertNotNull(exportId);
+
+      String taskKey = "tempfiles/" + createS3Key(siteId, exportId) + ".json";
+      Map<String, Object> task =
+          fromJson(getS3().getContentAsString(STAGE_BUCKET_NAME, taskKey, null), Map.class);
+      assertEquals(exportId, task.get("exportId"));
+      assertEquals(siteId != null ? siteId : "default", task.get("siteId"));
+      assertEquals("status", ((Map<String, Object>) ((Map<String, Object>) task.get("query"))
+          .get("tag")).get("key"));
+
+      DynamicObject export = getExport(siteId, exportId);
+      assertEquals(exportId, export.getString("exportId"));
+      assertEquals(SearchExportRecord.STATUS_PENDING, export.getString("status"));
+      assertEquals("0.0", String.valueOf(export.get("documentCount")));
+      assertNotNull(export.getString("insertedDate"));
+      assertFalse(export.containsKey("downloadUrl"));
+    }
+  }
+
+  /**
+   * POST /search/export with a fulltext search.
+   *
+   * @throws Exception an error has occurred
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandlePostSearchExport02() throws Exception {
+    // given
+    ApiGatewayRequestEvent event = createPostRequest(null, "{\"query\":{\"text\":\"abc\"}}");
+
+    // when
+    String response = handleRequest(event);
+
+    // then
+    Map<String, String> m = fromJson(response, Map.class);
+    assertEquals("400.0", String.valueOf(m.get("statusCode")));
+    assertEquals("{\"message\":\"Fulltext search is not supported by export\"}", m.get("body"));
+  }
+
+  /**
+   * GET /search/export/{exportId} for a missing export.
+   *
+   * @throws Exception an error has occurred
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandleGetSearchExport01() throws Exception {
+    // given
+    String exportId = ID.uuid();
+    ApiGatewayRequestEvent event = createGetRequest(null, exportId);
+
+    // when
+    String response = handleRequest(event);
+
+    // then
+    Map<String, String> m = fromJson(response, Map.class);
+    assertEquals("404.0", String.valueOf(m.get("statusCode")));
+    assertEquals("{\"message\":\"Export '" + exportId + "' not found\"}", m.get("body"));
+  }
+
+  /**
+   * GET /search/export/{exportId} for a COMPLETE export has a download url.
+   *
+   * @throws Exception an error has occurred
+   */
+  @Test
+  public void testHandleGetSearchExport02() throws Exception {
+
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+      // given
+      String exportId = postExport(siteId);
+
+      SearchExportRecord r = new SearchExportRecord().setExportId(exportId);
+      DynamoDbService db = getAwsServices().getExtension(DynamoDbService.class);
+      db.updateValues(r.fromS(r.pk(siteId)), r.fromS(r.sk()),
+          Map.of("status", AttributeValue.fromS(SearchExportRecord.STATUS_COMPLETE),
+              "documentCount", AttributeValue.fromN("10")));
+
+      // when
+      DynamicObject export = getExport(siteId, exportId);
+
+      // then
+      assertEquals(SearchExportRecord.STATUS_COMPLETE, export.getString("status"));
+      assertEquals("10.0", String.valueOf(export.get("documentCount")));
+
+      String downloadUrl = export.getString("downloadUrl");
+      assertTrue(downloadUrl.contains(createS3Key(siteId, exportId) + ".ndjson"));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.DynamicObject;
+import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetServiceExtension;
+import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeRecord;
+import com.formkiq.stacks.dynamodb.attributes.DocumentAttributeValueType;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.LocalStackExtension;
+
+/** Unit Tests for request GET /search/facets/{key}. */
+@ExtendWith(LocalStackExtension.class)
+@ExtendWith(DynamoDbExtension.class)
+public class SearchFacetsRequestTest extends AbstractRequestHandler {
+
+  /**
+   * Create String {@link DocumentAttributeRecord}.
+   * 
+   * @param key {@link String}
+   * @param value {@link String}
+   * @return {@link DocumentAttributeRecord}
+   */
+  private DocumentAttributeRecord createStringAttribute(final String key, final String value) {
+    return new DocumentAttributeRecord().setDocumentId(ID.uuid()).setKey(key)
+        .setStringValue(value).setValueType(DocumentAttributeValueType.STRING);
+  }
+
+  /**
+   * Create GET /search/facets/{key} request.
+   * 
+   * @param siteId {@link String}
+   * @param key {@link String}
+   * @return {@link ApiGatewayRequestEvent}
+   * @throws Exception Exception
+   */
+  private ApiGatewayRequestEvent createFacetsRequest(final String siteId, final String key)
+      throws Exception {
+    ApiGatewayRequestEvent event = toRequestEvent("/request-post-indices-search01.json");
+    event.setHttpMethod("GET");
+    event.setResource("/search/facets/{key}");
+    event.setPath("/search/facets/" + key);
+    event.setBody(null);
+    event.setIsBase64Encoded(Boolean.FALSE);
+    setPathParameter(event, "key", key);
+    addParameter(event, "siteId", siteId);
+    return event;
+  }
+
+  /**
+   * GET /search/facets/{key} with counts.
+   *
+   * @throws Exception an error has occurred
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandleGetFacets01() throws Exception {
+
+    AttributeFacetService service = getAwsServices().getExtension(AttributeFacetService.class);
+
+    for (String siteId : Arrays.asList(null, ID.uuid())) {
+      // given
+      String key = "status" + ID.uuid();
+      service.updateFacets(siteId, List.of(createStringAttribute(key, "PENDING"),
+          createStringAttribute(key, "PENDING"), createStringAttribute(key, "COMPLETE")), null);
+
+      ApiGatewayRequestEvent event = createFacetsRequest(siteId, key);
+
+      // when
+      String response = handleRequest(event);
+
+      // then
+      Map<String, String> m = fromJson(response, Map.class);
+      assertEquals("200.0", String.valueOf(m.get("statusCode")));
+      DynamicObject resp = new DynamicObject(fromJson(m.get("body"), Map.class));
+
+      assertEquals(key, resp.getString("key"));
+      List<DynamicObject> facets = resp.getList("facets");
+      assertEquals(2, facets.size());
+      assertEquals("COMPLETE", facets.get(0).getString("value"));
+      assertEquals("1.0", String.valueOf(facets.get(0).get("count")));
+      assertEquals("PENDING", facets.get(1).getString("value"));
+      assertEquals("2.0", String.valueOf(facets.get(1).get("count")));
+    }
+  }
+
+  /**
+   * GET /search/facets/{key} for an attribute key without values.
+   *
+   * @throws Exception an error has occurred
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandleGetFacets02() throws Exception {
+    // given
+    String key = "unknown" + ID.uuid();
+    ApiGatewayRequestEvent event = createFacetsRequest(null, key);
+
+    // when
+    String response = handleRequest(event);
+
+    // then
+    Map<String, String> m = fromJson(response, Map.class);
+    assertEquals("200.0", String.valueOf(m.get("statusCode")));
+    DynamicObject resp = new DynamicObject(fromJson(m.get("body"), Map.class));
+    assertEquals(0, resp.getList("facets").size());
+  }
+
+  /**
+   * GET /search/facets/{key} when facet counters are not enabled.
+   *
+   * @throws Exception an error has occurred
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandleGetFacets03() throws Exception {
+    // given
+    AwsServiceCache awsServices = getAwsServices();
+    awsServices.deregister(AttributeFacetService.class);
+
+    try {
+      ApiGatewayRequestEvent event = createFacetsRequest(null, "status");
+
+      // when
+      String response = handleRequest(event);
+
+      // then
+      Map<String, String> m = fromJson(response, Map.class);
+      assertEquals("400.0", String.valueOf(m.get("statusCode")));
+      assertEquals("{\"message\":\"attribute facets are not enabled\"}", m.get("body"));
+    } finally {
+      awsServices.register(AttributeFacetService.class, new AttributeFacetServiceExtension());
+    }
+  }
+}
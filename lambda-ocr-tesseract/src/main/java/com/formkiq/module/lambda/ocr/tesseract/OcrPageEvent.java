@@ -0,0 +1,80 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambda.ocr.tesseract;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 
+ * Java Flight Recorder event of the Tesseract OCR of a single page.
+ *
+ */
+@Name("com.formkiq.OcrPage")
+@Label("OCR Page")
+@Category({"FormKiQ", "OCR"})
+@Description("Tesseract OCR of a page")
+@Threshold("100 ms")
+@StackTrace(false)
+public class OcrPageEvent extends Event {
+
+  /** Number of characters recognized. */
+  @Label("Characters")
+  private int characters;
+  /** Mime Type. */
+  @Label("Mime Type")
+  private String mimeType;
+  /** Page number, -1 when the whole file is processed. */
+  @Label("Page")
+  private int page;
+
+  /**
+   * constructor.
+   * 
+   * @param contentType {@link String}
+   * @param pageNumber int
+   */
+  public OcrPageEvent(final String contentType, final int pageNumber) {
+    this.mimeType = contentType;
+    this.page = pageNumber;
+  }
+
+  /**
+   * Set the recognized text and commit the event, if it exceeds the threshold.
+   * 
+   * @param text {@link String}
+   */
+  public void complete(final String text) {
+    end();
+    if (shouldCommit()) {
+      this.characters = text != null ? text.length() : 0;
+      commit();
+    }
+  }
+}
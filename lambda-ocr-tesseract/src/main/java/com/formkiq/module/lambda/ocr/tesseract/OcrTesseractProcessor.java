@@ -29,7 +29,6 @@ import static com.formkiq.aws.dynamodb.objects.Objects.notNull;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -45,6 +44,8 @@ import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.objects.MimeType;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3ParallelDownloader;
+import com.formkiq.aws.s3.S3ParallelDownloaderExtension;
 import com.formkiq.aws.s3.S3PresignerService;
 import com.formkiq.aws.s3.S3PresignerServiceExtension;
 import com.formkiq.aws.s3.S3Service;
@@ -78,6 +79,8 @@ import com.formkiq.module.ocr.FormatConverterResult;
 import com.formkiq.module.ocr.OcrScanStatus;
 import com.formkiq.module.ocr.OcrSqsMessage;
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.utils.IoUtils;
 
 /** {@link RequestHandler} for handling DynamoDb to Tesseract OCR Processor. */
@@ -109,6 +112,7 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
    */
   protected static void initialize(final AwsServiceCache awsServiceCache) {
     awsServiceCache.register(S3Service.class, new S3ServiceExtension());
+    awsServiceCache.register(S3ParallelDownloader.class, new S3ParallelDownloaderExtension());
     awsServiceCache.register(DocumentOcrService.class, new DocumentOcrServiceExtension());
     awsServiceCache.register(ActionsService.class, new ActionsServiceExtension());
 
@@ -213,7 +217,7 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
   protected File loadFile(final AwsServiceCache awsServices, final OcrSqsMessage sqsMessage,
       final MimeType mt) throws IOException {
 
-    S3Service s3Service = serviceCache.getExtension(S3Service.class);
+    S3ParallelDownloader downloader = serviceCache.getExtension(S3ParallelDownloader.class);
 
     String siteId = sqsMessage.siteId();
     String documentId = sqsMessage.documentId();
@@ -226,10 +230,21 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
 
     String documentsBucket = awsServices.environment("DOCUMENTS_S3_BUCKET");
 
-    try (InputStream is = s3Service.getContentAsInputStream(documentsBucket, documentS3Key)) {
+    S3Service s3Service = serviceCache.getExtension(S3Service.class);
+
+    // objects that fit in one part are read with a single GET instead of HEAD + ranged GETs
+    try (ResponseInputStream<GetObjectResponse> is =
+        s3Service.getContentAsInputStream(documentsBucket, documentS3Key)) {
+
+      if (is.response().contentLength().longValue() <= downloader.getPartSize()) {
+
+        try (OutputStream fileOs = new FileOutputStream(file)) {
+          IoUtils.copy(is, fileOs);
+        }
 
-      try (OutputStream fileOs = new FileOutputStream(file)) {
-        IoUtils.copy(is, fileOs);
+      } else {
+        is.abort();
+        downloader.downloadToFile(documentsBucket, documentS3Key, null, file.toPath());
       }
     }
 
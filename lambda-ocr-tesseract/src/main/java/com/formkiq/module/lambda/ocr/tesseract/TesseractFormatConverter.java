@@ -90,13 +90,16 @@ public class TesseractFormatConverter implements FormatConverter {
 
       } else {
 
-        text = getTiffText(file, numberOfPages);
+        text = getTiffText(file, mimeType, numberOfPages);
       }
 
     } else {
 
       try {
+        OcrPageEvent event = new OcrPageEvent(String.valueOf(mimeType), -1);
+        event.begin();
         text = this.tesseract.doOcr(file);
+        event.complete(text);
       } catch (TesseractException e) {
         throw new IOException(e);
       }
@@ -115,7 +118,8 @@ public class TesseractFormatConverter implements FormatConverter {
     }
   }
 
-  private String getTiffText(final File file, final int numberOfPages) throws IOException {
+  private String getTiffText(final File file, final MimeType mimeType, final int numberOfPages)
+      throws IOException {
 
     try (ImageInputStream iis = ImageIO.createImageInputStream(file)) {
 
@@ -133,7 +137,13 @@ public class TesseractFormatConverter implements FormatConverter {
         List<String> texts = new ArrayList<>();
         for (int i = 0; i < numberOfPages; i++) {
           BufferedImage image = reader.read(i);
-          texts.add(this.tesseract.doOcr(image));
+
+          OcrPageEvent event = new OcrPageEvent(String.valueOf(mimeType), i + 1);
+          event.begin();
+          String text = this.tesseract.doOcr(image);
+          event.complete(text);
+
+          texts.add(text);
         }
 
         return String.join("\n", texts);
@@ -0,0 +1,81 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 
+ * Java Flight Recorder event of a Document Action execution by {@link DocumentActionsProcessor}.
+ *
+ */
+@Name("com.formkiq.ActionExecution")
+@Label("Document Action Execution")
+@Category({"FormKiQ", "Actions"})
+@Description("Document Action execution")
+@Threshold("10 ms")
+@StackTrace(false)
+public class ActionExecutionEvent extends Event {
+
+  /** Action Type. */
+  @Label("Action Type")
+  private String actionType;
+  /** Document Id. */
+  @Label("Document Id")
+  private String documentId;
+  /** Site Id. */
+  @Label("Site Id")
+  private String siteId;
+  /** Action Status after execution. */
+  @Label("Status")
+  private String status;
+
+  /**
+   * constructor.
+   * 
+   * @param site {@link String}
+   * @param document {@link String}
+   * @param type {@link String}
+   */
+  public ActionExecutionEvent(final String site, final String document, final String type) {
+    this.siteId = site;
+    this.documentId = document;
+    this.actionType = type;
+  }
+
+  /**
+   * Set Action Status.
+   * 
+   * @param actionStatus {@link String}
+   */
+  public void setStatus(final String actionStatus) {
+    this.status = actionStatus;
+  }
+}
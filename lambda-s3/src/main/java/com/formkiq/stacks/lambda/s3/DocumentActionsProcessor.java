@@ -40,6 +40,7 @@ import com.formkiq.aws.s3.S3PresignerService;
 import com.formkiq.aws.s3.S3PresignerServiceExtension;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
+import com.formkiq.aws.services.lambda.LambdaPrimer;
 import com.formkiq.aws.ses.SesAwsServiceRegistry;
 import com.formkiq.aws.ses.SesService;
 import com.formkiq.aws.ses.SesServiceExtension;
@@ -59,7 +60,10 @@ import com.formkiq.module.actions.services.ActionsServiceExtension;
 import com.formkiq.module.events.EventService;
 import com.formkiq.module.events.EventServiceSnsExtension;
 import com.formkiq.module.events.document.DocumentEvent;
+import com.formkiq.module.events.document.DocumentEventTypeAdapter;
+import com.formkiq.module.http.HttpClientConfig;
 import com.formkiq.module.http.HttpService;
+import com.formkiq.module.http.HttpServiceJdk11;
 import com.formkiq.module.httpsigv4.HttpServiceSigv4;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
@@ -72,8 +76,12 @@ import com.formkiq.stacks.dynamodb.DocumentService;
 import com.formkiq.stacks.dynamodb.DocumentServiceExtension;
 import com.formkiq.stacks.dynamodb.DocumentVersionService;
 import com.formkiq.stacks.dynamodb.DocumentVersionServiceExtension;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetServiceExtension;
 import com.formkiq.stacks.dynamodb.attributes.AttributeService;
 import com.formkiq.stacks.dynamodb.attributes.AttributeServiceExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
+import com.formkiq.stacks.dynamodb.cache.SearchEpochExtension;
 import com.formkiq.stacks.dynamodb.mappings.MappingService;
 import com.formkiq.stacks.dynamodb.mappings.MappingServiceExtension;
 import com.formkiq.stacks.lambda.s3.actions.AddOcrAction;
@@ -94,11 +102,7 @@ import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsPro
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.http.HttpClient;
 import java.net.http.HttpClient.Redirect;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.List;
@@ -114,6 +118,10 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
   /** {@link AwsServiceCache}. */
   private static AwsServiceCache serviceCache;
+  /** {@link HttpService} for sending webhooks, shared so connections are reused. */
+  private static final HttpService WEBHOOK_HTTP =
+      new HttpServiceJdk11(new HttpClientConfig().redirect(Redirect.ALWAYS)
+          .connectTimeout(Duration.ofMinutes(1)).requestTimeout(Duration.ofMinutes(1)));
 
   static {
 
@@ -125,7 +133,12 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
               new EventBridgeAwsServiceRegistry())
           .build();
 
-      initialize(serviceCache);
+      new LambdaPrimer().addRequired("initialize", DocumentActionsProcessor::initialize)
+          .addServices(DynamoDbService.class, S3Service.class, S3PresignerService.class,
+              DocumentService.class, DocumentVersionService.class, ConfigService.class,
+              ActionsService.class, ActionsNotificationService.class, AttributeService.class,
+              MappingService.class)
+          .run(serviceCache);
     }
   }
 
@@ -142,7 +155,10 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     awsServiceCache.register(S3Service.class, new S3ServiceExtension());
     awsServiceCache.register(S3PresignerService.class, new S3PresignerServiceExtension());
     awsServiceCache.register(DocumentVersionService.class, new DocumentVersionServiceExtension());
+    awsServiceCache.register(SearchEpoch.class, new SearchEpochExtension());
     awsServiceCache.register(DocumentService.class, new DocumentServiceExtension());
+    awsServiceCache.register(AttributeFacetService.class,
+        new AttributeFacetServiceExtension());
     awsServiceCache.register(ConfigService.class, new ConfigServiceExtension());
     awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
     awsServiceCache.register(ActionsService.class, new ActionsServiceExtension());
@@ -177,7 +193,8 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
   }
 
   /** {@link Gson}. */
-  private final Gson gson = new GsonBuilder().create();
+  private final Gson gson = new GsonBuilder()
+      .registerTypeAdapter(DocumentEvent.class, new DocumentEventTypeAdapter()).create();
 
   /**
    * constructor.
@@ -377,6 +394,10 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
         actionsService.updateActionStatus(siteId, documentId, action);
 
+        ActionExecutionEvent actionEvent =
+            new ActionExecutionEvent(siteId, documentId, String.valueOf(action.type()));
+        actionEvent.begin();
+
         try {
 
           processAction(logger, siteId, documentId, actions, action);
@@ -400,6 +421,14 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
           logger.log(String.format("Updating Action Status to %s", action.status()));
 
           actionsService.updateActionStatus(siteId, documentId, action);
+
+        } finally {
+
+          actionEvent.end();
+          if (actionEvent.shouldCommit()) {
+            actionEvent.setStatus(String.valueOf(action.status()));
+            actionEvent.commit();
+          }
         }
 
       } else {
@@ -466,29 +495,19 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
     String body = new DocumentExternalSystemExport(serviceCache).apply(siteId, documentId, actions);
 
-    try {
-
-      HttpRequest request = HttpRequest.newBuilder().uri(new URI(url))
-          .timeout(Duration.ofMinutes(1)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    HttpResponse<String> response =
+        WEBHOOK_HTTP.post(url, Optional.empty(), Optional.empty(), body);
 
-      HttpClient client = HttpClient.newBuilder().followRedirects(Redirect.ALWAYS)
-          .connectTimeout(Duration.ofMinutes(1)).build();
-      HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    int statusCode = response.statusCode();
+    final int statusOk = 200;
+    final int statusRedirect = 300;
 
-      int statusCode = response.statusCode();
-      final int statusOk = 200;
-      final int statusRedirect = 300;
+    if (statusCode >= statusOk && statusCode < statusRedirect) {
 
-      if (statusCode >= statusOk && statusCode < statusRedirect) {
+      updateComplete(logger, siteId, documentId, actions, action, ActionStatus.COMPLETE);
 
-        updateComplete(logger, siteId, documentId, actions, action, ActionStatus.COMPLETE);
-
-      } else {
-        throw new IOException(url + " response status code " + statusCode);
-      }
-
-    } catch (URISyntaxException e) {
-      throw new IOException(e);
+    } else {
+      throw new IOException(url + " response status code " + statusCode);
     }
   }
 
@@ -27,8 +27,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
@@ -47,6 +45,8 @@ public class DocumentCompressor {
    * Used to determine whether to use S3 multipart upload.
    */
   private static final long MAX_IN_MEMORY_CHUNK_SIZE = 64 * 1024 * 1024;
+  /** Size of the buffer used to copy S3 Object content into the zip. */
+  private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
   /**
    * To get documents S3 object keys.
    */
@@ -70,20 +70,33 @@ public class DocumentCompressor {
    * @param serviceCache {@link AwsServiceCache}
    */
   public DocumentCompressor(final AwsServiceCache serviceCache) {
+    this(serviceCache,
+        new S3MultipartUploader(serviceCache.getExtension(S3ConnectionBuilder.class)),
+        MAX_IN_MEMORY_CHUNK_SIZE);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param serviceCache {@link AwsServiceCache}
+   * @param uploader {@link S3MultipartUploader}
+   * @param maxInMemorySize long, total content size above which S3 multipart upload is used
+   */
+  DocumentCompressor(final AwsServiceCache serviceCache, final S3MultipartUploader uploader,
+      final long maxInMemorySize) {
 
     this.s3 = serviceCache.getExtension(S3Service.class);
-    this.multipartUploader =
-        new S3MultipartUploader(serviceCache.getExtension(S3ConnectionBuilder.class));
+    this.multipartUploader = uploader;
     this.documentService = serviceCache.getExtension(DocumentService.class);
-    this.maxInMemoryChunkSize = MAX_IN_MEMORY_CHUNK_SIZE;
+    this.maxInMemoryChunkSize = maxInMemorySize;
   }
 
   private void archiveS3Objects(final String siteId, final String docsBucket,
-      final String archiveBucket, final String archiveKey,
-      final Map<DocumentItem, Long> documentSizeMap) throws IOException {
+      final String archiveBucket, final String archiveKey, final List<DocumentItem> documents)
+      throws IOException {
 
-    Long totalFilesSize = documentSizeMap.values().stream().reduce(Long.valueOf(0), Long::sum);
-    boolean isMultiPartUpload = totalFilesSize.longValue() > this.maxInMemoryChunkSize;
+    long totalFilesSize = getTotalContentLength(siteId, docsBucket, documents);
+    boolean isMultiPartUpload = totalFilesSize > this.maxInMemoryChunkSize;
 
     ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
@@ -93,9 +106,7 @@ public class DocumentCompressor {
 
     ZipOutputStream zipOutputStream = new ZipOutputStream(byteArrayOutputStream);
 
-    for (Map.Entry<DocumentItem, Long> docSizePair : documentSizeMap.entrySet()) {
-      DocumentItem document = docSizePair.getKey();
-      Long objectSize = docSizePair.getValue();
+    for (DocumentItem document : documents) {
       String s3Key = SiteIdKeyGenerator.createS3Key(siteId, document.getDocumentId());
       ZipEntry zipEntry = new ZipEntry(document.getPath());
 
@@ -103,7 +114,7 @@ public class DocumentCompressor {
 
       if (isMultiPartUpload) {
         transferObjectToZipInChunks(zipOutputStream, docsBucket, s3Key, byteArrayOutputStream,
-            multipartUploadId, objectSize);
+            multipartUploadId);
       } else {
         transferObjectToZip(zipOutputStream, docsBucket, s3Key);
       }
@@ -137,21 +148,18 @@ public class DocumentCompressor {
       final String archiveBucket, final String archiveKey, final List<String> documentIds)
       throws IOException {
 
-    Map<DocumentItem, Long> documentContentSize =
-        getDocumentContentSizeMap(siteId, docsBucket, documentIds);
-
-    archiveS3Objects(siteId, docsBucket, archiveBucket, archiveKey, documentContentSize);
+    List<DocumentItem> documents = this.documentService.findDocuments(siteId, documentIds);
+    archiveS3Objects(siteId, docsBucket, archiveBucket, archiveKey, documents);
   }
 
-  private Map<DocumentItem, Long> getDocumentContentSizeMap(final String siteId,
-      final String bucket, final List<String> documentIds) {
+  private long getTotalContentLength(final String siteId, final String bucket,
+      final List<DocumentItem> documents) {
 
-    List<DocumentItem> documents = this.documentService.findDocuments(siteId, documentIds);
-
-    return documents.stream().collect(Collectors.toMap(item -> item,
-        item -> this.s3.getObjectMetadata(bucket,
+    return documents.stream()
+        .mapToLong(item -> this.s3.getObjectMetadata(bucket,
             SiteIdKeyGenerator.createS3Key(siteId, item.getDocumentId()), null)
-            .getContentLength()));
+            .getContentLength().longValue())
+        .sum();
   }
 
   private void transferObjectToZip(final ZipOutputStream outputStream, final String bucket,
@@ -163,29 +171,24 @@ public class DocumentCompressor {
 
   private void transferObjectToZipInChunks(final ZipOutputStream zipOutputStream,
       final String bucket, final String key, final ByteArrayOutputStream byteOutputStream,
-      final String uploadId, final Long objectSize) throws IOException {
-
-    final long maxChunkSize = this.maxInMemoryChunkSize;
-    final long lastByte = objectSize.longValue() - 1;
-    long start = 0L;
-    long end = Math.min(start + maxChunkSize, lastByte);
-    for (; start <= lastByte; start += maxChunkSize + 1, end =
-        Math.min(start + maxChunkSize, lastByte)) {
-
-      String rangeHeader = String.format("bytes=%d-%d", Long.valueOf(start), Long.valueOf(end));
-
-      try (InputStream chunk = this.s3.getContentPartAsInputStream(bucket, key, rangeHeader)) {
-
-        try {
-          chunk.transferTo(zipOutputStream);
-          zipOutputStream.flush();
-          this.uploadChunkIfNeeded(uploadId, byteOutputStream, false);
-        } catch (IOException e) {
-          this.multipartUploader.abortMultipartUpload(uploadId);
-          chunk.close();
-          throw e;
-        }
+      final String uploadId) throws IOException {
+
+    byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+
+    try (InputStream content = this.s3.getContentAsInputStream(bucket, key)) {
+
+      int len = content.read(buffer);
+      while (len != -1) {
+        zipOutputStream.write(buffer, 0, len);
+        this.uploadChunkIfNeeded(uploadId, byteOutputStream, false);
+        len = content.read(buffer);
       }
+
+      zipOutputStream.flush();
+
+    } catch (IOException e) {
+      this.multipartUploader.abortMultipartUpload(uploadId);
+      throw e;
     }
   }
 
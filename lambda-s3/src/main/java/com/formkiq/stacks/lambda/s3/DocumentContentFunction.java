@@ -24,18 +24,16 @@
 package com.formkiq.stacks.lambda.s3;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandlers;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
@@ -43,7 +41,9 @@ import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.objects.MimeType;
 import com.formkiq.aws.s3.PresignGetUrlConfig;
 import com.formkiq.aws.s3.S3PresignerService;
+import com.formkiq.module.http.HttpClientConfig;
 import com.formkiq.module.http.HttpService;
+import com.formkiq.module.http.HttpServiceJdk11;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -55,6 +55,10 @@ import com.google.gson.GsonBuilder;
  */
 public class DocumentContentFunction {
 
+  /** {@link HttpService} for fetching content urls, shared so connections are reused. */
+  private static final HttpService CONTENT_HTTP =
+      new HttpServiceJdk11(new HttpClientConfig().requestTimeout(Duration.ofMinutes(1)));
+
   /** S3 Documents Bucket. */
   private final String documentsBucket;
   /** {@link Gson}. */
@@ -171,18 +175,23 @@ public class DocumentContentFunction {
    */
   public StringBuilder getContentUrls(final List<String> contentUrls) throws IOException {
 
+    // fetch all urls concurrently, then append in order
+    List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+    for (String contentUrl : contentUrls) {
+      responses.add(CONTENT_HTTP.getAsync(contentUrl, Optional.empty(), Optional.empty()));
+    }
+
     StringBuilder sb = new StringBuilder();
 
     try {
-      for (String contentUrl : contentUrls) {
-        HttpRequest req =
-            HttpRequest.newBuilder(new URI(contentUrl)).timeout(Duration.ofMinutes(1)).build();
-        HttpResponse<String> response =
-            HttpClient.newBuilder().build().send(req, BodyHandlers.ofString());
-        sb.append(response.body());
+      for (CompletableFuture<HttpResponse<String>> response : responses) {
+        sb.append(response.get().body());
       }
-    } catch (URISyntaxException | InterruptedException e) {
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
     }
 
     return sb;
@@ -60,6 +60,7 @@ import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
 import com.formkiq.aws.s3.S3ServiceInterceptor;
+import com.formkiq.aws.services.lambda.LambdaPrimer;
 import com.formkiq.aws.sns.SnsAwsServiceRegistry;
 import com.formkiq.aws.ssm.SsmAwsServiceRegistry;
 import com.formkiq.aws.ssm.SsmService;
@@ -83,6 +84,10 @@ import com.formkiq.stacks.dynamodb.DocumentService;
 import com.formkiq.stacks.dynamodb.DocumentServiceExtension;
 import com.formkiq.stacks.dynamodb.DocumentVersionService;
 import com.formkiq.stacks.dynamodb.DocumentVersionServiceExtension;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetServiceExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
+import com.formkiq.stacks.dynamodb.cache.SearchEpochExtension;
 import com.formkiq.stacks.dynamodb.s3.S3ServiceInterceptorExtension;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -133,7 +138,8 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
               new SnsAwsServiceRegistry(), new SsmAwsServiceRegistry())
           .build();
 
-      initialize(serviceCache);
+      new LambdaPrimer().addRequired("initialize", DocumentsS3Update::initialize)
+          .addServices(DocumentVersionService.class).run(serviceCache);
     }
   }
 
@@ -185,7 +191,10 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     awsServiceCache.register(S3Service.class, new S3ServiceExtension());
     awsServiceCache.register(ActionsService.class, new ActionsServiceExtension());
     awsServiceCache.register(SsmService.class, new SsmServiceExtension());
+    awsServiceCache.register(SearchEpoch.class, new SearchEpochExtension());
     awsServiceCache.register(DocumentService.class, new DocumentServiceExtension());
+    awsServiceCache.register(AttributeFacetService.class,
+        new AttributeFacetServiceExtension());
     awsServiceCache.register(DocumentVersionService.class, new DocumentVersionServiceExtension());
     awsServiceCache.register(EventService.class, new EventServiceSnsExtension());
     awsServiceCache.register(ActionsNotificationService.class,
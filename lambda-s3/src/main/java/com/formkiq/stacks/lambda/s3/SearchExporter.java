@@ -0,0 +1,257 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.PaginationMapToken;
+import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
+import com.formkiq.aws.dynamodb.model.SearchQuery;
+import com.formkiq.aws.dynamodb.model.SearchResponseFields;
+import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3MultipartOutputStream;
+import com.formkiq.aws.s3.S3MultipartUploader;
+import com.formkiq.aws.s3.S3Service;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.stacks.dynamodb.DocumentSearchService;
+import com.formkiq.stacks.dynamodb.documents.SearchExportRecord;
+import com.formkiq.validation.ValidationException;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Exports all Documents matching a search to an NDJSON S3 Object, one document per line.
+ * 
+ * An export that runs out of time saves a checkpoint in its {@link SearchExportRecord}: the
+ * search cursor, the S3 multipart upload id and, in a separate S3 Object, the data that is smaller
+ * than an upload part. The caller then re-invokes the export with the new checkpoint number to
+ * continue where it stopped.
+ */
+public class SearchExporter {
+
+  /** Number of documents between progress updates. */
+  private static final long PROGRESS_INTERVAL = 1000;
+
+  /** {@link DynamoDbService}. */
+  private final DynamoDbService db;
+  /** {@link Gson}. */
+  private final Gson gson = GsonUtil.getInstance();
+  /** Whether there is time to export another page. */
+  private final BooleanSupplier hasTime;
+  /** {@link S3MultipartUploader}. */
+  private final S3MultipartUploader multipartUploader;
+  /** {@link S3Service}. */
+  private final S3Service s3;
+  /** {@link DocumentSearchService}. */
+  private final DocumentSearchService searchService;
+
+  /**
+   * constructor.
+   * 
+   * @param serviceCache {@link AwsServiceCache}
+   * @param hasTimeRemaining {@link BooleanSupplier} whether there is time to export another page
+   */
+  public SearchExporter(final AwsServiceCache serviceCache,
+      final BooleanSupplier hasTimeRemaining) {
+    this.db = serviceCache.getExtension(DynamoDbService.class);
+    this.s3 = serviceCache.getExtension(S3Service.class);
+    this.searchService = serviceCache.getExtension(DocumentSearchService.class);
+    this.multipartUploader =
+        new S3MultipartUploader(serviceCache.getExtension(S3ConnectionBuilder.class));
+    this.hasTime = hasTimeRemaining;
+  }
+
+  /**
+   * Export Documents, starting from the export's last checkpoint.
+   * 
+   * @param siteId {@link String}
+   * @param exportId {@link String}
+   * @param checkpoint long, the checkpoint the export is continued from
+   * @param query {@link SearchQuery}
+   * @param responseFields {@link SearchResponseFields}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @return {@link SearchExportRecord}, status is IN_PROGRESS if the export must be continued,
+   *         null if the export is finished or the checkpoint is not the latest
+   * @throws IOException IOException
+   * @throws ValidationException ValidationException
+   */
+  public SearchExportRecord export(final String siteId, final String exportId,
+      final long checkpoint, final SearchQuery query, final SearchResponseFields responseFields,
+      final String bucket, final String key) throws IOException, ValidationException {
+
+    SearchExportRecord r = new SearchExportRecord().setExportId(exportId);
+    r = r.getFromAttributes(siteId, this.db.get(r.fromS(r.pk(siteId)), r.fromS(r.sk())));
+
+    if (r == null || isFinished(r) || r.getCheckpoint() != checkpoint) {
+      return null;
+    }
+
+    SearchExportRecord record = r;
+    long[] written = {r.getDocumentCount()};
+    S3MultipartOutputStream os = null;
+
+    try {
+
+      os = openStream(r, bucket, key);
+      Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+
+      updateStatus(siteId, r.setStatus(SearchExportRecord.STATUS_IN_PROGRESS));
+
+      PaginationMapToken next = this.searchService.export(siteId, query, responseFields,
+          toToken(r.getCursor()), page -> {
+            writePage(writer, page);
+
+            long previous = written[0];
+            written[0] += page.size();
+
+            if (previous / PROGRESS_INTERVAL != written[0] / PROGRESS_INTERVAL) {
+              updateStatus(siteId, record.setDocumentCount(written[0]));
+            }
+
+            return this.hasTime.getAsBoolean();
+          });
+
+      r.setDocumentCount(written[0]);
+
+      if (next != null) {
+        writer.flush();
+        saveCheckpoint(siteId, r, os, next, bucket, key);
+      } else {
+        writer.close();
+        this.s3.deleteObject(bucket, getPendingKey(key), null);
+        updateStatus(siteId, r.setStatus(SearchExportRecord.STATUS_COMPLETE));
+      }
+
+    } catch (IOException | ValidationException | RuntimeException e) {
+      if (os != null) {
+        os.abort();
+      }
+      this.s3.deleteObject(bucket, getPendingKey(key), null);
+      updateStatus(siteId, r.setStatus(SearchExportRecord.STATUS_FAILED).setDocumentCount(0));
+      throw e;
+    }
+
+    return r;
+  }
+
+  /**
+   * Get the S3 Key of the data not yet uploaded when the export was suspended.
+   * 
+   * @param key {@link String}
+   * @return {@link String}
+   */
+  private String getPendingKey(final String key) {
+    return key + ".part";
+  }
+
+  private boolean isFinished(final SearchExportRecord r) {
+    return SearchExportRecord.STATUS_COMPLETE.equals(r.getStatus())
+        || SearchExportRecord.STATUS_FAILED.equals(r.getStatus());
+  }
+
+  /**
+   * Start a new multipart upload or resume the upload of the last checkpoint.
+   * 
+   * @param r {@link SearchExportRecord}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @return {@link S3MultipartOutputStream}
+   */
+  private S3MultipartOutputStream openStream(final SearchExportRecord r, final String bucket,
+      final String key) {
+
+    S3MultipartOutputStream os;
+
+    if (r.getUploadId() != null) {
+      byte[] pending = this.s3.getContentAsBytes(bucket, getPendingKey(key));
+      os = S3MultipartOutputStream.resume(this.multipartUploader, bucket, key, r.getUploadId(),
+          pending);
+    } else {
+      os = new S3MultipartOutputStream(this.multipartUploader, bucket, key);
+    }
+
+    return os;
+  }
+
+  /**
+   * Suspend the upload and save the export checkpoint.
+   * 
+   * @param siteId {@link String}
+   * @param r {@link SearchExportRecord}
+   * @param os {@link S3MultipartOutputStream}
+   * @param next {@link PaginationMapToken}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @throws IOException IOException
+   */
+  private void saveCheckpoint(final String siteId, final SearchExportRecord r,
+      final S3MultipartOutputStream os, final PaginationMapToken next, final String bucket,
+      final String key) throws IOException {
+
+    byte[] pending = os.suspend();
+    this.s3.putObject(bucket, getPendingKey(key), pending, null);
+
+    r.setCursor(this.gson.toJson(next.getAttributeMap())).setUploadId(os.getUploadId())
+        .setCheckpoint(r.getCheckpoint() + 1);
+
+    this.db.updateValues(r.fromS(r.pk(siteId)), r.fromS(r.sk()),
+        Map.of("status", AttributeValue.fromS(r.getStatus()), "documentCount",
+            AttributeValue.fromN(String.valueOf(r.getDocumentCount())), "cursor",
+            AttributeValue.fromS(r.getCursor()), "uploadId", AttributeValue.fromS(r.getUploadId()),
+            "checkpoint", AttributeValue.fromN(String.valueOf(r.getCheckpoint()))));
+  }
+
+  private PaginationMapToken toToken(final String cursor) {
+    Type mapStringObject = new TypeToken<Map<String, Object>>() {}.getType();
+    return cursor != null ? new PaginationMapToken(this.gson.fromJson(cursor, mapStringObject))
+        : null;
+  }
+
+  private void updateStatus(final String siteId, final SearchExportRecord r) {
+    this.db.updateValues(r.fromS(r.pk(siteId)), r.fromS(r.sk()),
+        Map.of("status", AttributeValue.fromS(r.getStatus()), "documentCount",
+            AttributeValue.fromN(String.valueOf(r.getDocumentCount()))));
+  }
+
+  private void writePage(final Writer writer, final List<DynamicDocumentItem> page) {
+    try {
+      for (DynamicDocumentItem doc : page) {
+        this.gson.toJson(doc, writer);
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
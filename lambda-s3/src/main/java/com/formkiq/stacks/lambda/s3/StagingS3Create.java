@@ -39,6 +39,8 @@ import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
+import com.formkiq.aws.dynamodb.model.SearchQuery;
+import com.formkiq.aws.dynamodb.model.SearchResponseFields;
 import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
 import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.aws.dynamodb.objects.Strings;
@@ -46,6 +48,7 @@ import com.formkiq.aws.s3.S3AwsServiceRegistry;
 import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
+import com.formkiq.aws.services.lambda.LambdaPrimer;
 import com.formkiq.aws.sns.SnsAwsServiceRegistry;
 import com.formkiq.aws.ssm.SsmAwsServiceRegistry;
 import com.formkiq.aws.ssm.SsmService;
@@ -80,8 +83,13 @@ import com.formkiq.stacks.dynamodb.FolderIndexProcessor;
 import com.formkiq.stacks.dynamodb.FolderIndexProcessorExtension;
 import com.formkiq.stacks.dynamodb.apimodels.MatchDocumentTag;
 import com.formkiq.stacks.dynamodb.apimodels.UpdateMatchingDocumentTagsRequest;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetService;
+import com.formkiq.stacks.dynamodb.attributes.AttributeFacetServiceExtension;
 import com.formkiq.stacks.dynamodb.attributes.AttributeService;
 import com.formkiq.stacks.dynamodb.attributes.AttributeServiceExtension;
+import com.formkiq.stacks.dynamodb.cache.SearchEpoch;
+import com.formkiq.stacks.dynamodb.cache.SearchEpochExtension;
+import com.formkiq.stacks.dynamodb.documents.SearchExportRecord;
 import com.formkiq.validation.ValidationException;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -126,6 +134,8 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
 
   /** Extension for FormKiQ config file. */
   public static final String FORMKIQ_B64_EXT = ".fkb64";
+  /** Remaining time in milliseconds at which a search export saves a checkpoint. */
+  private static final int EXPORT_CHECKPOINT_REMAINING_MILLIS = 10000;
   /** {@link ActionsNotificationService}. */
   private static ActionsNotificationService notificationService;
   /** {@link S3Service}. */
@@ -147,7 +157,10 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
               new SnsAwsServiceRegistry(), new SsmAwsServiceRegistry())
           .build();
 
-      initialize(serviceCache);
+      new LambdaPrimer().addRequired("initialize", StagingS3Create::initialize)
+          .addServices(DynamoDbService.class, DocumentSearchService.class,
+              DocumentVersionService.class, AttributeService.class)
+          .run(serviceCache);
     }
   }
 
@@ -190,7 +203,10 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
 
     awsServiceCache.register(S3Service.class, new S3ServiceExtension());
     awsServiceCache.register(SsmService.class, new SsmServiceExtension());
+    awsServiceCache.register(SearchEpoch.class, new SearchEpochExtension());
     awsServiceCache.register(DocumentService.class, new DocumentServiceExtension());
+    awsServiceCache.register(AttributeFacetService.class,
+        new AttributeFacetServiceExtension());
     awsServiceCache.register(DocumentSearchService.class, new DocumentSearchServiceExtension());
     awsServiceCache.register(DocumentVersionService.class, new DocumentVersionServiceExtension());
     awsServiceCache.register(DocumentSyncService.class, new DocumentSyncServiceExtension());
@@ -402,14 +418,12 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
    * @param logger {@link LambdaLogger}
    * @param bucket {@link String}
    * @param key {@link String}
+   * @param content {@link Map}
    * @throws IOException IOException
    */
   private void handleCompressionRequest(final LambdaLogger logger, final String bucket,
-      final String key) throws IOException {
+      final String key, final Map<String, Object> content) throws IOException {
 
-    final String contentString = s3.getContentAsString(bucket, key, null);
-    Type mapStringObject = new TypeToken<Map<String, Object>>() {}.getType();
-    final Map<String, Object> content = this.gson.fromJson(contentString, mapStringObject);
     final String siteId = content.get("siteId").toString();
     final String archiveKey = key.replace(".json", ".zip");
     Type jsonStringList = new TypeToken<List<String>>() {}.getType();
@@ -420,6 +434,82 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     documentCompressor.compressDocuments(siteId, documentsBucket, bucket, archiveKey, documentIds);
   }
 
+  /**
+   * Handle Search Export Request. An export that runs out of time is continued by writing the
+   * task object again with the export's new checkpoint, which invokes this function again.
+   * 
+   * @param context {@link Context}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param content {@link Map}
+   * @throws IOException IOException
+   * @throws ValidationException ValidationException
+   */
+  private void handleSearchExportRequest(final Context context, final String bucket,
+      final String key, final Map<String, Object> content)
+      throws IOException, ValidationException {
+
+    LambdaLogger logger = context.getLogger();
+    String siteId = content.get("siteId").toString();
+    String exportId = content.get("exportId").toString();
+    long checkpoint = content.containsKey("checkpoint")
+        ? ((Number) content.get("checkpoint")).longValue()
+        : 0;
+    SearchQuery query =
+        this.gson.fromJson(this.gson.toJson(content.get("query")), SearchQuery.class);
+    SearchResponseFields responseFields = this.gson
+        .fromJson(this.gson.toJson(content.get("responseFields")), SearchResponseFields.class);
+
+    String exportKey = key.replace(".json", ".ndjson");
+
+    SearchExporter exporter = new SearchExporter(serviceCache,
+        () -> context.getRemainingTimeInMillis() > EXPORT_CHECKPOINT_REMAINING_MILLIS);
+    SearchExportRecord r =
+        exporter.export(siteId, exportId, checkpoint, query, responseFields, bucket, exportKey);
+
+    if (r == null) {
+      logger.log(String.format("skipping export %s checkpoint %d", exportId,
+          Long.valueOf(checkpoint)));
+
+    } else if (SearchExportRecord.STATUS_IN_PROGRESS.equals(r.getStatus())) {
+
+      Map<String, Object> task = new HashMap<>(content);
+      task.put("checkpoint", Long.valueOf(r.getCheckpoint()));
+      s3.putObject(bucket, key, this.gson.toJson(task).getBytes(StandardCharsets.UTF_8),
+          "application/json");
+
+      logger.log(String.format("exported %d documents to %s, continuing from checkpoint %d",
+          Long.valueOf(r.getDocumentCount()), exportKey, Long.valueOf(r.getCheckpoint())));
+
+    } else {
+      logger.log(String.format("exported %d documents to %s", Long.valueOf(r.getDocumentCount()),
+          exportKey));
+    }
+  }
+
+  /**
+   * Handle "tempfiles/" task requests.
+   * 
+   * @param context {@link Context}
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @throws IOException IOException
+   * @throws ValidationException ValidationException
+   */
+  private void handleTempFileRequest(final Context context, final String bucket,
+      final String key) throws IOException, ValidationException {
+
+    final String contentString = s3.getContentAsString(bucket, key, null);
+    Type mapStringObject = new TypeToken<Map<String, Object>>() {}.getType();
+    final Map<String, Object> content = this.gson.fromJson(contentString, mapStringObject);
+
+    if (content.containsKey("exportId")) {
+      handleSearchExportRequest(context, bucket, key, content);
+    } else {
+      handleCompressionRequest(context.getLogger(), bucket, key, content);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public Void handleRequest(final Map<String, Object> map, final Context context) {
@@ -435,7 +525,7 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     }
 
     List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
-    processRecords(logger, date, records);
+    processRecords(context, date, records);
 
     return null;
   }
@@ -585,15 +675,17 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
   /**
    * Process S3 Event.
    *
-   * @param logger {@link LambdaLogger}
+   * @param context {@link Context}
    * @param date {@link Date}
    * @param event {@link Map}
    * @throws InterruptedException InterruptedException
    * @throws IOException IOException
    */
-  private void processEvent(final LambdaLogger logger, final Date date,
+  private void processEvent(final Context context, final Date date,
       final Map<String, Object> event) throws Exception {
 
+    LambdaLogger logger = context.getLogger();
+
     String eventName = event.get("eventName").toString();
     boolean objectCreated = eventName.contains("ObjectCreated");
 
@@ -610,7 +702,7 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     final String tempFolder = "tempfiles/";
     if (objectCreated && key.startsWith(tempFolder)) {
       if (Strings.getExtension(key).equals("json")) {
-        this.handleCompressionRequest(logger, bucket, key);
+        this.handleTempFileRequest(context, bucket, key);
       } else {
         logger.log(String.format("skipping event for key %s", key));
       }
@@ -665,14 +757,16 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
   /**
    * Process Event Records.
    *
-   * @param logger {@link LambdaLogger}
+   * @param context {@link Context}
    * @param date {@link Date}
    * @param records {@link List} {@link Map}
    */
   @SuppressWarnings("unchecked")
-  private void processRecords(final LambdaLogger logger, final Date date,
+  private void processRecords(final Context context, final Date date,
       final List<Map<String, Object>> records) {
 
+    LambdaLogger logger = context.getLogger();
+
     for (Map<String, Object> event : Objects.notNull(records)) {
 
       if (event.containsKey("body")) {
@@ -680,13 +774,13 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
         String body = event.get("body").toString();
 
         Map<String, Object> map = this.gson.fromJson(body, Map.class);
-        processRecords(logger, date, (List<Map<String, Object>>) map.get("Records"));
+        processRecords(context, date, (List<Map<String, Object>>) map.get("Records"));
 
       } else {
         logger.log("handling " + records.size() + " record(s).");
 
         try {
-          processEvent(logger, date, event);
+          processEvent(context, date, event);
         } catch (Exception e) {
           e.printStackTrace();
         }
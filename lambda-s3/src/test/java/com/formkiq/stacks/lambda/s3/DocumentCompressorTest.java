@@ -30,7 +30,10 @@ import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
 import static com.formkiq.testutils.aws.TestServices.BUCKET_NAME;
 import static com.formkiq.testutils.aws.TestServices.STAGE_BUCKET_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -39,6 +42,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -52,6 +56,7 @@ import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilderExtension;
 import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3MultipartUploader;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
@@ -68,6 +73,8 @@ import com.formkiq.testutils.aws.DynamoDbTestServices;
 import com.formkiq.testutils.aws.LocalStackExtension;
 import com.formkiq.testutils.aws.TestServices;
 import com.formkiq.validation.ValidationException;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 
 /**
  * Unit Test for {@link DocumentCompressor}.
@@ -75,8 +82,93 @@ import com.formkiq.validation.ValidationException;
 @ExtendWith(LocalStackExtension.class)
 @ExtendWith(DynamoDbExtension.class)
 public class DocumentCompressorTest {
-  /** {@link S3ConnectionBuilder}. */
-  // private static S3ConnectionBuilder s3Builder;
+
+  /**
+   * {@link InputStream} that fails after a number of bytes have been read.
+   */
+  private static final class FailingInputStream extends FilterInputStream {
+
+    /** Remaining bytes before failing. */
+    private long remaining;
+
+    FailingInputStream(final InputStream in, final long failAfter) {
+      super(in);
+      this.remaining = failAfter;
+    }
+
+    @Override
+    public int read() throws IOException {
+      checkRemaining();
+      this.remaining--;
+      return super.read();
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      checkRemaining();
+      int n = super.read(b, off, (int) Math.min(len, this.remaining));
+      this.remaining -= Math.max(n, 0);
+      return n;
+    }
+
+    private void checkRemaining() throws IOException {
+      if (this.remaining <= 0) {
+        throw new IOException("connection reset");
+      }
+    }
+  }
+
+  /**
+   * {@link S3Service} whose content streams fail after a number of bytes.
+   */
+  private static final class FailingS3Service extends S3Service {
+
+    /** Bytes read before failing. */
+    private final long failAfter;
+
+    FailingS3Service(final S3ConnectionBuilder builder, final long failAfterBytes) {
+      super(builder);
+      this.failAfter = failAfterBytes;
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getContentAsInputStream(final String bucket,
+        final String key) {
+      ResponseInputStream<GetObjectResponse> content = super.getContentAsInputStream(bucket, key);
+      return new ResponseInputStream<>(content.response(),
+          new FailingInputStream(content, this.failAfter));
+    }
+  }
+
+  /**
+   * {@link S3MultipartUploader} that records the part sizes and aborted uploads.
+   */
+  private static final class RecordingS3MultipartUploader extends S3MultipartUploader {
+
+    /** Aborted upload ids. */
+    private final List<String> aborted = new ArrayList<>();
+    /** Uploaded part sizes. */
+    private final List<Integer> partSizes = new ArrayList<>();
+
+    RecordingS3MultipartUploader(final S3ConnectionBuilder builder) {
+      super(builder);
+    }
+
+    @Override
+    public void abortMultipartUpload(final String uploadId) {
+      super.abortMultipartUpload(uploadId);
+      this.aborted.add(uploadId);
+    }
+
+    @Override
+    public void uploadChunk(final String uploadId, final byte[] chunk) {
+      super.uploadChunk(uploadId, chunk);
+      this.partSizes.add(Integer.valueOf(chunk.length));
+    }
+  }
+
+  /** Minimum S3 multipart upload part size. */
+  private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
   /** {@link DynamoDbConnectionBuilder}. */
   private static DynamoDbConnectionBuilder dbBuilder;
   /** {@link DynamoDbHelper}. */
@@ -89,6 +181,8 @@ public class DocumentCompressorTest {
   private DocumentCompressor compressor;
   /** {@link AwsServiceCache}. */
   private static AwsServiceCache serviceCache;
+  /** {@link S3ConnectionBuilder}. */
+  private static S3ConnectionBuilder s3Builder;
 
   /**
    * Before Each Test.
@@ -114,7 +208,7 @@ public class DocumentCompressorTest {
     env.put("DOCUMENTS_TABLE", DOCUMENTS_TABLE);
     env.put("DOCUMENT_VERSIONS_PLUGIN", DocumentVersionServiceNoVersioning.class.getName());
 
-    S3ConnectionBuilder s3Builder = TestServices.getS3Connection(null);
+    s3Builder = TestServices.getS3Connection(null);
     dbBuilder = DynamoDbTestServices.getDynamoDbConnection();
 
     dbHelper = DynamoDbTestServices.getDynamoDbHelper();
@@ -178,6 +272,75 @@ public class DocumentCompressorTest {
     }
   }
 
+  /**
+   * Multipart archive uploads a part each time the zip output passes the minimum part size.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDocumentsCompressMultipartParts() throws Exception {
+    // given
+    final int fileSize = 6 * 1024 * 1024;
+    final Map<String, Long> fileChecksums = new HashMap<>();
+    for (int i = 0; i < 2; i++) {
+      byte[] content = createData(fileSize);
+      fileChecksums.put(this.createDocument(null, "JaneDoe", content), getContentChecksum(content));
+    }
+    final String archiveKey = "tempfiles/" + ID.uuid() + ".zip";
+    RecordingS3MultipartUploader uploader = new RecordingS3MultipartUploader(s3Builder);
+
+    // when
+    new DocumentCompressor(serviceCache, uploader, 0).compressDocuments(DEFAULT_SITE_ID,
+        BUCKET_NAME, STAGE_BUCKET_NAME, archiveKey, new ArrayList<>(fileChecksums.keySet()));
+
+    // then
+    List<Integer> parts = uploader.partSizes;
+    assertTrue(parts.size() > 1);
+    parts.subList(0, parts.size() - 1).forEach(size -> assertTrue(size > MIN_PART_SIZE));
+    assertTrue(uploader.aborted.isEmpty());
+
+    try (InputStream zipContent = s3.getContentAsInputStream(STAGE_BUCKET_NAME, archiveKey)) {
+      validateZipContent(zipContent, fileChecksums);
+    }
+  }
+
+  /**
+   * Multipart archive is aborted when reading a document's content fails.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDocumentsCompressMultipartAbort() throws Exception {
+    // given
+    final int fileSize = 8 * 1024 * 1024;
+    String documentId = this.createDocument(null, "JaneDoe", createData(fileSize));
+    final String archiveKey = "tempfiles/" + ID.uuid() + ".zip";
+
+    AwsServiceCache cache = new AwsServiceCache().environment(Map.of());
+    final long failAfter = MIN_PART_SIZE + 1024 * 1024;
+    cache.register(S3Service.class,
+        new ClassServiceExtension<S3Service>(new FailingS3Service(s3Builder, failAfter)));
+    cache.register(DocumentService.class,
+        new ClassServiceExtension<DocumentService>(documentService));
+    RecordingS3MultipartUploader uploader = new RecordingS3MultipartUploader(s3Builder);
+    DocumentCompressor documentCompressor = new DocumentCompressor(cache, uploader, 0);
+
+    // when
+    assertThrows(IOException.class, () -> documentCompressor.compressDocuments(DEFAULT_SITE_ID,
+        BUCKET_NAME, STAGE_BUCKET_NAME, archiveKey, List.of(documentId)));
+
+    // then
+    assertEquals(1, uploader.partSizes.size());
+    assertEquals(1, uploader.aborted.size());
+    assertFalse(s3.getObjectMetadata(STAGE_BUCKET_NAME, archiveKey, null).isObjectExists());
+  }
+
+  private static byte[] createData(final int length) {
+    byte[] data = new byte[length];
+    new Random().nextBytes(data);
+    return data;
+  }
+
   private String createDocument(final String siteId, final String userId, final byte[] content)
       throws ValidationException {
     final DynamicDocumentItem item = new DynamicDocumentItem(new HashMap<>());
@@ -0,0 +1,319 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
+import static com.formkiq.testutils.aws.TestServices.STAGE_BUCKET_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilderExtension;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.DynamoDbServiceExtension;
+import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.aws.dynamodb.model.DocumentTag;
+import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
+import com.formkiq.aws.dynamodb.model.SearchQuery;
+import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
+import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3Service;
+import com.formkiq.aws.s3.S3ServiceExtension;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.ClassServiceExtension;
+import com.formkiq.stacks.dynamodb.DocumentSearchService;
+import com.formkiq.stacks.dynamodb.DocumentSearchServiceExtension;
+import com.formkiq.stacks.dynamodb.DocumentService;
+import com.formkiq.stacks.dynamodb.DocumentServiceExtension;
+import com.formkiq.stacks.dynamodb.DocumentVersionService;
+import com.formkiq.stacks.dynamodb.DocumentVersionServiceExtension;
+import com.formkiq.stacks.dynamodb.DocumentVersionServiceNoVersioning;
+import com.formkiq.stacks.dynamodb.documents.SearchExportRecord;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbHelper;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+import com.formkiq.testutils.aws.LocalStackExtension;
+import com.formkiq.testutils.aws.TestServices;
+import com.formkiq.validation.ValidationException;
+import com.google.gson.Gson;
+
+/**
+ * Unit Test for {@link SearchExporter}.
+ */
+@ExtendWith(LocalStackExtension.class)
+@ExtendWith(DynamoDbExtension.class)
+public class SearchExporterTest {
+
+  /** Number of Documents, more than one export page. */
+  private static final int DOCUMENT_COUNT = 150;
+  /** Export Page Size. */
+  private static final int PAGE_SIZE = 100;
+  /** {@link DynamoDbService}. */
+  private static DynamoDbService db;
+  /** {@link DynamoDbHelper}. */
+  private static DynamoDbHelper dbHelper;
+  /** {@link DocumentService}. */
+  private static DocumentService documentService;
+  /** {@link Gson}. */
+  private static final Gson GSON = GsonUtil.getInstance();
+  /** {@link S3Service}. */
+  private static S3Service s3;
+  /** {@link AwsServiceCache}. */
+  private static AwsServiceCache serviceCache;
+
+  /**
+   * Before All Tests.
+   * 
+   * @throws Exception Exception
+   */
+  @BeforeAll
+  public static void beforeClass() throws Exception {
+
+    Map<String, String> env = new HashMap<>();
+    env.put("DOCUMENTS_TABLE", DOCUMENTS_TABLE);
+    env.put("DOCUMENT_VERSIONS_PLUGIN", DocumentVersionServiceNoVersioning.class.getName());
+
+    S3ConnectionBuilder s3Builder = TestServices.getS3Connection(null);
+    DynamoDbConnectionBuilder dbBuilder = DynamoDbTestServices.getDynamoDbConnection();
+    dbHelper = DynamoDbTestServices.getDynamoDbHelper();
+
+    serviceCache = new AwsServiceCache().environment(env);
+    serviceCache.register(S3ConnectionBuilder.class,
+        new ClassServiceExtension<S3ConnectionBuilder>(s3Builder));
+    serviceCache.register(DynamoDbConnectionBuilder.class,
+        new DynamoDbConnectionBuilderExtension(dbBuilder));
+    serviceCache.register(DynamoDbService.class, new DynamoDbServiceExtension());
+    serviceCache.register(DocumentService.class, new DocumentServiceExtension());
+    serviceCache.register(DocumentSearchService.class, new DocumentSearchServiceExtension());
+    serviceCache.register(S3Service.class, new S3ServiceExtension());
+    serviceCache.register(DocumentVersionService.class, new DocumentVersionServiceExtension());
+
+    db = serviceCache.getExtension(DynamoDbService.class);
+    s3 = serviceCache.getExtension(S3Service.class);
+    documentService = serviceCache.getExtension(DocumentService.class);
+  }
+
+  /**
+   * Before Each Test.
+   */
+  @BeforeEach
+  public void before() {
+    dbHelper.truncateTable(DOCUMENTS_TABLE);
+    s3.deleteAllFiles(STAGE_BUCKET_NAME);
+  }
+
+  private Set<String> createDocuments(final int count) throws ValidationException {
+
+    Set<String> documentIds = new HashSet<>();
+
+    for (int i = 0; i < count; i++) {
+      DynamicDocumentItem item = new DynamicDocumentItem(new HashMap<>());
+      item.setDocumentId(ID.uuid());
+      item.setUserId("joe");
+      item.setInsertedDate(new Date());
+
+      List<DocumentTag> tags =
+          List.of(new DocumentTag(item.getDocumentId(), "status", "active", new Date(), "joe"));
+      documentService.saveDocument(DEFAULT_SITE_ID, item, tags);
+      documentIds.add(item.getDocumentId());
+    }
+
+    return documentIds;
+  }
+
+  private String createExport() {
+    String exportId = ID.uuid();
+    SearchExportRecord r = new SearchExportRecord().setExportId(exportId)
+        .setStatus(SearchExportRecord.STATUS_PENDING).setUserId("joe")
+        .setS3Key(getKey(exportId)).setInsertedDate(new Date().toString());
+    db.putItem(r.getAttributes(DEFAULT_SITE_ID));
+    return exportId;
+  }
+
+  private SearchExportRecord findExport(final String exportId) {
+    SearchExportRecord r = new SearchExportRecord().setExportId(exportId);
+    return r.getFromAttributes(DEFAULT_SITE_ID,
+        db.get(r.fromS(r.pk(DEFAULT_SITE_ID)), r.fromS(r.sk())));
+  }
+
+  private String getKey(final String exportId) {
+    return "tempfiles/" + exportId + ".ndjson";
+  }
+
+  private SearchQuery getQuery() {
+    return new SearchQuery().tag(new SearchTagCriteria("status"));
+  }
+
+  /**
+   * Read the document ids of the export, failing on duplicates.
+   * 
+   * @param exportId {@link String}
+   * @return {@link Set}
+   */
+  private Set<String> readExport(final String exportId) {
+    Set<String> documentIds = new HashSet<>();
+    String content = s3.getContentAsString(STAGE_BUCKET_NAME, getKey(exportId), null);
+
+    for (String line : content.split("\n")) {
+      Map<?, ?> doc = GSON.fromJson(line, Map.class);
+      String documentId = doc.get("documentId").toString();
+      assertFalse(documentIds.contains(documentId), "duplicate " + documentId);
+      documentIds.add(documentId);
+    }
+
+    return documentIds;
+  }
+
+  /**
+   * Export all documents in one invocation, PENDING to COMPLETE.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testExport01() throws Exception {
+    // given
+    Set<String> documentIds = createDocuments(DOCUMENT_COUNT);
+    String exportId = createExport();
+    SearchExporter exporter = new SearchExporter(serviceCache, () -> true);
+
+    // when
+    SearchExportRecord r = exporter.export(DEFAULT_SITE_ID, exportId, 0, getQuery(), null,
+        STAGE_BUCKET_NAME, getKey(exportId));
+
+    // then
+    assertNotNull(r);
+    assertEquals(SearchExportRecord.STATUS_COMPLETE, r.getStatus());
+
+    SearchExportRecord saved = findExport(exportId);
+    assertEquals(SearchExportRecord.STATUS_COMPLETE, saved.getStatus());
+    assertEquals(DOCUMENT_COUNT, saved.getDocumentCount());
+    assertEquals(0, saved.getCheckpoint());
+    assertEquals(documentIds, readExport(exportId));
+
+    // when - export again
+    r = exporter.export(DEFAULT_SITE_ID, exportId, 0, getQuery(), null, STAGE_BUCKET_NAME,
+        getKey(exportId));
+
+    // then
+    assertNull(r);
+  }
+
+  /**
+   * Export that runs out of time saves a checkpoint and is continued.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testExport02() throws Exception {
+    // given
+    Set<String> documentIds = createDocuments(DOCUMENT_COUNT);
+    String exportId = createExport();
+    String key = getKey(exportId);
+
+    // when
+    SearchExportRecord r = new SearchExporter(serviceCache, () -> false).export(DEFAULT_SITE_ID,
+        exportId, 0, getQuery(), null, STAGE_BUCKET_NAME, key);
+
+    // then
+    assertEquals(SearchExportRecord.STATUS_IN_PROGRESS, r.getStatus());
+
+    SearchExportRecord saved = findExport(exportId);
+    assertEquals(SearchExportRecord.STATUS_IN_PROGRESS, saved.getStatus());
+    assertEquals(PAGE_SIZE, saved.getDocumentCount());
+    assertEquals(1, saved.getCheckpoint());
+    assertNotNull(saved.getCursor());
+    assertNotNull(saved.getUploadId());
+    assertFalse(s3.getObjectMetadata(STAGE_BUCKET_NAME, key, null).isObjectExists());
+    assertTrue(s3.getObjectMetadata(STAGE_BUCKET_NAME, key + ".part", null).isObjectExists());
+
+    // when - stale checkpoint
+    r = new SearchExporter(serviceCache, () -> true).export(DEFAULT_SITE_ID, exportId, 0,
+        getQuery(), null, STAGE_BUCKET_NAME, key);
+
+    // then
+    assertNull(r);
+
+    // when - continue
+    r = new SearchExporter(serviceCache, () -> true).export(DEFAULT_SITE_ID, exportId, 1,
+        getQuery(), null, STAGE_BUCKET_NAME, key);
+
+    // then
+    assertEquals(SearchExportRecord.STATUS_COMPLETE, r.getStatus());
+
+    saved = findExport(exportId);
+    assertEquals(SearchExportRecord.STATUS_COMPLETE, saved.getStatus());
+    assertEquals(DOCUMENT_COUNT, saved.getDocumentCount());
+    assertEquals(documentIds, readExport(exportId));
+    assertFalse(s3.getObjectMetadata(STAGE_BUCKET_NAME, key + ".part", null).isObjectExists());
+  }
+
+  /**
+   * Export failure aborts the upload and marks the export FAILED.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testExport03() throws Exception {
+    // given
+    createDocuments(DOCUMENT_COUNT);
+    String exportId = createExport();
+    String key = getKey(exportId);
+    SearchExporter exporter = new SearchExporter(serviceCache, () -> {
+      throw new IllegalStateException("export failed");
+    });
+
+    // when
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> exporter
+        .export(DEFAULT_SITE_ID, exportId, 0, getQuery(), null, STAGE_BUCKET_NAME, key));
+
+    // then
+    assertEquals("export failed", e.getMessage());
+
+    SearchExportRecord saved = findExport(exportId);
+    assertEquals(SearchExportRecord.STATUS_FAILED, saved.getStatus());
+    assertEquals(0, saved.getDocumentCount());
+    assertFalse(s3.getObjectMetadata(STAGE_BUCKET_NAME, key, null).isObjectExists());
+
+    // when - failed export is not retried
+    SearchExportRecord r = new SearchExporter(serviceCache, () -> true).export(DEFAULT_SITE_ID,
+        exportId, 0, getQuery(), null, STAGE_BUCKET_NAME, key);
+
+    // then
+    assertNull(r);
+  }
+}
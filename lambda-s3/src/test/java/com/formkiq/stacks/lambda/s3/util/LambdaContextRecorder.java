@@ -35,8 +35,13 @@ import com.amazonaws.services.lambda.runtime.LambdaLogger;
  */
 public class LambdaContextRecorder implements Context {
 
+  /** Default Remaining time, the Lambda maximum of 15 minutes. */
+  private static final int DEFAULT_REMAINING_TIME_IN_MILLIS = 900000;
+
   /** {@link LambdaLoggerRecorder}. */
   private final LambdaLoggerRecorder loggerRecorder = new LambdaLoggerRecorder();
+  /** Remaining time in milliseconds. */
+  private int remainingTimeInMillis = DEFAULT_REMAINING_TIME_IN_MILLIS;
 
   @Override
   public String getAwsRequestId() {
@@ -80,7 +85,7 @@ public class LambdaContextRecorder implements Context {
 
   @Override
   public int getRemainingTimeInMillis() {
-    throw new UnsupportedOperationException("Method is not implemented.");
+    return this.remainingTimeInMillis;
   }
 
   @Override
@@ -93,4 +98,15 @@ public class LambdaContextRecorder implements Context {
     return this.loggerRecorder;
   }
 
+  /**
+   * Set Remaining time in milliseconds.
+   * 
+   * @param millis int
+   * @return {@link LambdaContextRecorder}
+   */
+  public LambdaContextRecorder setRemainingTimeInMillis(final int millis) {
+    this.remainingTimeInMillis = millis;
+    return this;
+  }
+
 }
@@ -32,8 +32,12 @@ import static com.formkiq.aws.dynamodb.DbKeys.SK;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.getSiteId;
 import static com.formkiq.module.http.HttpResponseStatus.is2XX;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -41,12 +45,15 @@ import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
 import com.formkiq.aws.dynamodb.model.DocumentMapToDocument;
+import com.formkiq.aws.dynamodb.model.DocumentSync;
+import com.formkiq.aws.dynamodb.model.DocumentSyncMap;
 import com.formkiq.aws.dynamodb.model.DocumentSyncServiceType;
 import com.formkiq.aws.dynamodb.model.DocumentSyncStatus;
 import com.formkiq.aws.dynamodb.model.DocumentSyncType;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.module.typesense.TypeSenseImportStatus;
 import com.formkiq.module.typesense.TypeSenseService;
 import com.formkiq.module.typesense.TypeSenseServiceExtension;
 import com.formkiq.stacks.dynamodb.DocumentSyncService;
@@ -103,24 +110,6 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     initialize(awsServices);
   }
 
-  private void addDocumentSync(final HttpResponse<String> response, final String siteId,
-      final String documentId, final String userId, final boolean s3VersionChanged,
-      final boolean added) {
-
-    DocumentSyncStatus status =
-        is2XX(response) ? DocumentSyncStatus.COMPLETE : DocumentSyncStatus.FAILED;
-
-    DocumentSyncType syncType =
-        s3VersionChanged ? DocumentSyncType.CONTENT : DocumentSyncType.METADATA;
-
-    String message = added ? DocumentSyncService.MESSAGE_ADDED_METADATA
-        : DocumentSyncService.MESSAGE_UPDATED_METADATA;
-
-    DocumentSyncService syncService = serviceCache.getExtension(DocumentSyncService.class);
-    syncService.saveSync(siteId, documentId, DocumentSyncServiceType.TYPESENSE, status, syncType,
-        userId, message);
-  }
-
   /**
    * Add or Update Document.
    *
@@ -140,16 +129,86 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
 
     HttpResponse<String> response = typeSenseService.addOrUpdateDocument(siteId, documentId, data);
 
-    if (is2XX(response)) {
+    boolean added = !is2XX(response) || "POST".equals(response.request().method());
+    DocumentSync sync =
+        createDocumentSync(is2XX(response), documentId, userId, s3VersionChanged, added);
 
-      boolean added = "POST".equals(response.request().method());
-      addDocumentSync(response, siteId, documentId, userId, s3VersionChanged, added);
+    DocumentSyncService syncService = serviceCache.getExtension(DocumentSyncService.class);
+    syncService.saveSyncs(siteId, List.of(sync));
 
-    } else {
-      addDocumentSync(response, siteId, documentId, userId, s3VersionChanged, true);
+    return response;
+  }
+
+  /**
+   * Add Data to the Documents waiting to be written to the Typesense Index.
+   * 
+   * @param logger {@link LambdaLogger}
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param data {@link Map}
+   * @param userId {@link String}
+   * @param s3VersionChanged boolean
+   * @param pending {@link Map} of Documents waiting to be written to the index
+   */
+  private void addToIndex(final LambdaLogger logger, final String siteId, final String documentId,
+      final Map<String, Object> data, final String userId, final boolean s3VersionChanged,
+      final Map<String, Map<String, PendingDocument>> pending) {
+
+    boolean isDocument = isDocumentSk(data);
+
+    removeDynamodbKeys(data);
+
+    if (isDocument) {
+
+      if (serviceCache.debug()) {
+        logger.log("writing to index: " + data);
+      }
+
+      Map<String, Object> document = new DocumentMapToDocument().apply(data);
+
+      // the newest image replaces older ones, but a content change must still be recorded
+      Map<String, PendingDocument> documents =
+          pending.computeIfAbsent(siteId, s -> new LinkedHashMap<>());
+      PendingDocument previous = documents.get(documentId);
+      boolean changed = s3VersionChanged || (previous != null && previous.s3VersionChanged);
+
+      documents.put(documentId, new PendingDocument(document, userId, changed));
+
+    } else if (serviceCache.debug()) {
+      logger.log("skipping dynamodb record");
     }
+  }
 
-    return response;
+  /**
+   * Create {@link DocumentSync}.
+   * 
+   * @param success boolean
+   * @param documentId {@link String}
+   * @param userId {@link String}
+   * @param s3VersionChanged boolean
+   * @param added boolean
+   * @return {@link DocumentSync}
+   */
+  private DocumentSync createDocumentSync(final boolean success, final String documentId,
+      final String userId, final boolean s3VersionChanged, final boolean added) {
+
+    DocumentSyncStatus status = success ? DocumentSyncStatus.COMPLETE : DocumentSyncStatus.FAILED;
+
+    DocumentSyncType syncType =
+        s3VersionChanged ? DocumentSyncType.CONTENT : DocumentSyncType.METADATA;
+
+    String message = added ? DocumentSyncService.MESSAGE_ADDED_METADATA
+        : DocumentSyncService.MESSAGE_UPDATED_METADATA;
+
+    DocumentSync sync = new DocumentSyncMap(new HashMap<>());
+    sync.setDocumentId(documentId);
+    sync.setService(DocumentSyncServiceType.TYPESENSE);
+    sync.setStatus(status);
+    sync.setType(syncType);
+    sync.setUserId(userId);
+    sync.setMessage(message);
+    return sync;
   }
 
   /**
@@ -250,8 +309,10 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
    * @param logger {@link LambdaLogger}
    * 
    * @param record {@link Map}
+   * @param pending {@link Map} of Documents waiting to be written to the index
    */
-  private void processRecord(final LambdaLogger logger, final Map<String, Object> record) {
+  private void processRecord(final LambdaLogger logger, final Map<String, Object> record,
+      final Map<String, Map<String, PendingDocument>> pending) {
 
     String eventName = record.get("eventName").toString();
     Map<String, Object> dynamodb = toMap(record.get("dynamodb"));
@@ -279,10 +340,12 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
           boolean s3VersionChanged = isS3VersionChanged(eventName, oldImage, newImage);
 
           String userId = getUserId(newImage, oldImage);
-          writeToIndex(logger, siteId, documentId, newImage, userId, s3VersionChanged);
+          addToIndex(logger, siteId, documentId, newImage, userId, s3VersionChanged, pending);
 
         } else if ("REMOVE".equalsIgnoreCase(eventName)) {
 
+          // keep stream ordering, earlier writes must not be applied after the remove
+          writeToIndex(logger, pending);
           removeDocument(siteId, documentId, oldImage);
 
         } else {
@@ -290,7 +353,8 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
         }
 
       } catch (IOException e) {
-        e.printStackTrace();
+        logger.log("unable to process event " + eventName + " for document " + siteId + " "
+            + documentId + ": " + e.getMessage());
       }
 
     } else {
@@ -305,12 +369,17 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
    * @param records {@link List} {@link Map}
    */
   private void processRecords(final LambdaLogger logger, final List<Map<String, Object>> records) {
+
+    Map<String, Map<String, PendingDocument>> pending = new LinkedHashMap<>();
+
     for (Map<String, Object> record : records) {
 
       if (record.containsKey("eventName")) {
-        processRecord(logger, record);
+        processRecord(logger, record, pending);
       }
     }
+
+    writeToIndex(logger, pending);
   }
 
   /**
@@ -351,35 +420,90 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
   }
 
   /**
-   * Write Data to Typesense Index.
+   * Write pending Documents to the Typesense Index, one bulk import per site.
    * 
-   * @param logger {@link LambdaLogger}
+   * A failed import records a FAILED {@link DocumentSync} for every Document of the site and
+   * throws {@link UncheckedIOException}.
    * 
-   * @param siteId {@link String}
-   * @param documentId {@link String}
-   * @param data {@link Map}
-   * @param userId {@link String}
-   * @param s3VersionChanged boolean
-   * @throws IOException IOException
+   * @param logger {@link LambdaLogger}
+   * @param pending {@link Map} of Documents waiting to be written to the index
    */
-  private void writeToIndex(final LambdaLogger logger, final String siteId, final String documentId,
-      final Map<String, Object> data, final String userId, final boolean s3VersionChanged)
-      throws IOException {
+  private void writeToIndex(final LambdaLogger logger,
+      final Map<String, Map<String, PendingDocument>> pending) {
 
-    boolean isDocument = isDocumentSk(data);
+    TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
+    DocumentSyncService syncService = serviceCache.getExtension(DocumentSyncService.class);
 
-    removeDynamodbKeys(data);
+    for (Map.Entry<String, Map<String, PendingDocument>> e : pending.entrySet()) {
 
-    if (isDocument) {
+      String siteId = e.getKey();
+      Map<String, Map<String, Object>> documents = new LinkedHashMap<>();
+      e.getValue().forEach((documentId, document) -> documents.put(documentId, document.data));
 
       if (serviceCache.debug()) {
-        logger.log("writing to index: " + data);
+        logger.log("writing " + documents.size() + " documents to index for site " + siteId);
       }
 
-      Map<String, Object> document = new DocumentMapToDocument().apply(data);
-      addOrUpdate(siteId, documentId, document, userId, s3VersionChanged);
-    } else if (serviceCache.debug()) {
-      logger.log("skipping dynamodb record");
+      try {
+
+        Map<String, TypeSenseImportStatus> results =
+            typeSenseService.addOrUpdateDocuments(siteId, documents);
+
+        List<DocumentSync> syncs = new ArrayList<>();
+
+        for (Map.Entry<String, PendingDocument> doc : e.getValue().entrySet()) {
+
+          TypeSenseImportStatus status =
+              results.getOrDefault(doc.getKey(), TypeSenseImportStatus.FAILED);
+
+          syncs.add(createDocumentSync(!TypeSenseImportStatus.FAILED.equals(status), doc.getKey(),
+              doc.getValue().userId, doc.getValue().s3VersionChanged,
+              !TypeSenseImportStatus.UPDATED.equals(status)));
+        }
+
+        // one batch write of sync statuses per site instead of one write per document
+        syncService.saveSyncs(siteId, syncs);
+
+      } catch (IOException ex) {
+
+        // record the failure and fail the batch so the stream retries it
+        List<DocumentSync> syncs = new ArrayList<>();
+        e.getValue().forEach((documentId, document) -> syncs.add(createDocumentSync(false,
+            documentId, document.userId, document.s3VersionChanged, true)));
+        syncService.saveSyncs(siteId, syncs);
+
+        logger.log("unable to write " + documents.size() + " documents to index for site "
+            + siteId + ": " + ex.getMessage());
+        throw new UncheckedIOException(ex);
+      }
+    }
+
+    pending.clear();
+  }
+
+  /**
+   * Document waiting to be written to the Typesense Index.
+   */
+  private static final class PendingDocument {
+    /** Document data. */
+    private final Map<String, Object> data;
+    /** Whether the S3 version changed. */
+    private final boolean s3VersionChanged;
+    /** User Id. */
+    private final String userId;
+
+    /**
+     * constructor.
+     * 
+     * @param documentData {@link Map}
+     * @param user {@link String}
+     * @param versionChanged boolean
+     */
+    PendingDocument(final Map<String, Object> documentData, final String user,
+        final boolean versionChanged) {
+      this.data = documentData;
+      this.userId = user;
+      this.s3VersionChanged = versionChanged;
     }
   }
 }
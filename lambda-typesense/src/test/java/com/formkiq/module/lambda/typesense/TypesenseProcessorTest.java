@@ -27,8 +27,10 @@ import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENT_SYNCS_TABLE;
 import static com.formkiq.testutils.aws.TypesenseExtension.API_KEY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
 import java.util.Arrays;
 import java.util.List;
@@ -85,6 +87,8 @@ class TypesenseProcessorTest {
   private static final int MAX = 10;
   /** {@link TypesenseProcessor}. */
   private static TypesenseProcessor processor;
+  /** {@link AwsServiceCache}. */
+  private static AwsServiceCache serviceCache;
   /** {@link TypeSenseService}. */
   private static TypeSenseService service;
   /** {@link DocumentSyncService}. */
@@ -103,7 +107,7 @@ class TypesenseProcessorTest {
     AwsCredentials creds = AwsBasicCredentials.create("aaa", "bbb");
     StaticCredentialsProvider credentialsProvider = StaticCredentialsProvider.create(creds);
 
-    AwsServiceCache serviceCache =
+    serviceCache =
         new AwsServiceCacheBuilder(map, TestServices.getEndpointMap(), credentialsProvider)
             .addService(new DynamoDbAwsServiceRegistry()).build();
 
@@ -119,6 +123,29 @@ class TypesenseProcessorTest {
   /** {@link Context}. */
   private Context context = new LambdaContextRecorder();
 
+  /**
+   * Add then update a Document.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAddOrUpdate01() throws Exception {
+    // given
+    String siteId = null;
+    String documentId = ID.uuid();
+
+    // when
+    processor.addOrUpdate(siteId, documentId, Map.of("path", "a.pdf"), "joe", false);
+    processor.addOrUpdate(siteId, documentId, Map.of("path", "b.pdf"), "joe", false);
+
+    // then
+    List<DocumentSync> syncs = syncService.getSyncs(siteId, documentId, null, MAX).getResults();
+    assertEquals(2, syncs.size());
+    assertEquals(DocumentSyncService.MESSAGE_UPDATED_METADATA, syncs.get(0).getMessage());
+    assertEquals(DocumentSyncService.MESSAGE_ADDED_METADATA, syncs.get(1).getMessage());
+    assertEquals(DocumentSyncStatus.COMPLETE, syncs.get(0).getStatus());
+  }
+
   /**
    * Load Request File.
    * 
@@ -489,4 +516,43 @@ class TypesenseProcessorTest {
     Map<String, Object> data = GSON.fromJson(response.body(), Map.class);
     assertEquals("/somewhere/else/test.pdf", data.get("deepLinkPath"));
   }
+
+  /**
+   * Insert record when Typesense is unavailable.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testHandleRequest11() throws Exception {
+    // given
+    String siteId = null;
+    String oldDocumentId = "acd4be1b-9466-4dcd-b8b8-e5b19135b460";
+    String documentId = ID.uuid();
+
+    Map<String, String> map = Map.of("AWS_REGION", "us-east-1", "DOCUMENT_SYNC_TABLE",
+        DOCUMENT_SYNCS_TABLE, "TYPESENSE_HOST", "http://localhost:1", "TYPESENSE_API_KEY", API_KEY);
+
+    AwsServiceCache unavailable = new AwsServiceCacheBuilder(map, TestServices.getEndpointMap(),
+        StaticCredentialsProvider.create(AwsBasicCredentials.create("aaa", "bbb")))
+        .addService(new DynamoDbAwsServiceRegistry()).build();
+
+    Map<String, Object> request = loadRequest("/insert.json", oldDocumentId, documentId);
+
+    try {
+
+      // when
+      TypesenseProcessor p = new TypesenseProcessor(unavailable);
+      assertThrows(UncheckedIOException.class, () -> p.handleRequest(request, this.context));
+
+    } finally {
+      TypesenseProcessor.initialize(serviceCache);
+    }
+
+    // then
+    PaginationResults<DocumentSync> syncs = syncService.getSyncs(siteId, documentId, null, MAX);
+    assertEquals(1, syncs.getResults().size());
+    assertEquals(documentId, syncs.getResults().get(0).getDocumentId());
+    assertEquals(DocumentSyncStatus.FAILED, syncs.getResults().get(0).getStatus());
+    assertEquals(DocumentSyncType.METADATA, syncs.getResults().get(0).getType());
+  }
 }
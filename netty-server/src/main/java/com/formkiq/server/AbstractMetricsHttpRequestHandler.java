@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.io.IOException;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+/**
+ * Base 'GET /internal/metrics/*' {@link HttpRequestHandler}, the metrics are only returned to
+ * requests that send the server's API Key in the Authorization header.
+ */
+public abstract class AbstractMetricsHttpRequestHandler implements HttpRequestHandler {
+
+  /** API Key. */
+  private final String apiKey;
+  /** {@link Gson}. */
+  private final Gson gson = new GsonBuilder().create();
+  /** Metrics Path. */
+  private final String path;
+
+  /**
+   * constructor.
+   * 
+   * @param metricsPath {@link String}
+   * @param requestApiKey {@link String}
+   */
+  protected AbstractMetricsHttpRequestHandler(final String metricsPath,
+      final String requestApiKey) {
+    this.path = metricsPath;
+    this.apiKey = requestApiKey;
+  }
+
+  /**
+   * Get Metrics to return.
+   * 
+   * @return {@link Object}
+   */
+  protected abstract Object getMetrics();
+
+  @Override
+  public void handle(final ChannelHandlerContext ctx, final FullHttpRequest request)
+      throws IOException {
+
+    if (this.apiKey != null && this.apiKey.equals(request.headers().get("Authorization"))) {
+
+      String body = this.gson.toJson(getMetrics());
+      DefaultFullHttpResponse response = buildResponse(ctx, HttpResponseStatus.OK, body);
+
+      response.headers().set("Content-Type", "application/json");
+      HttpUtil.setContentLength(response, response.content().readableBytes());
+
+      ctx.writeAndFlush(response);
+
+    } else {
+      sendResponse(ctx, HttpResponseStatus.FORBIDDEN,
+          "{\"message\":\"access denied, invalid API_KEY\"}");
+    }
+  }
+
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
+
+  @Override
+  public boolean isSupported(final FullHttpRequest request) {
+    return HttpMethod.GET.equals(request.method())
+        && this.path.equals(new QueryStringDecoder(request.uri()).path());
+  }
+}
@@ -0,0 +1,219 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import com.formkiq.server.AdmissionController.Admission;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * 
+ * Applies {@link AdmissionController} to every request on a channel, before any content is read
+ * or any handler runs. Rejected requests get an immediate 429 or 503 response with a Retry-After
+ * header and their content is discarded. The admission of an accepted request is completed when
+ * its response has been written, its latency is the time to the response headers so streamed
+ * bodies do not count as slow requests.
+ * 
+ * Requests are rate limited per client: requests carrying the server API key share the API key's
+ * bucket, all other requests are limited by their remote address, so unauthenticated clients
+ * cannot create buckets by sending arbitrary Authorization headers.
+ *
+ */
+public class AdmissionControlHandler extends ChannelDuplexHandler {
+
+  /** Rate limit key of requests with the server API key. */
+  private static final String API_KEY_IDENTITY = "api-key";
+
+  /**
+   * Is the request exempt from admission control. CORS preflight, internal metrics and MinIO
+   * event notifications are never shed.
+   * 
+   * @param request {@link HttpRequest}
+   * @return boolean
+   */
+  private static boolean isExempt(final HttpRequest request) {
+    String uri = request.uri();
+    return HttpMethod.OPTIONS.equals(request.method()) || uri.startsWith("/internal/")
+        || uri.contains("/minio/s3/");
+  }
+
+  /**
+   * Route of a request, the method and the first path segment, ie: "GET /documents".
+   * 
+   * @param request {@link HttpRequest}
+   * @return {@link String}
+   */
+  private static String toRoute(final HttpRequest request) {
+    String path = new QueryStringDecoder(request.uri()).path();
+    int pos = path.indexOf('/', 1);
+    return request.method().name() + " " + (pos > 0 ? path.substring(0, pos) : path);
+  }
+
+  /** API Key. */
+  private final String apiKey;
+  /** Admissions waiting for their response, in request order. */
+  private final Deque<Admission> admissions = new ArrayDeque<>();
+  /** {@link AdmissionController}. */
+  private final AdmissionController controller;
+  /** Discard request content. */
+  private boolean discard;
+  /** Status of the response being written. */
+  private HttpResponseStatus responseStatus;
+
+  /**
+   * constructor.
+   * 
+   * @param admissionController {@link AdmissionController}
+   * @param requestApiKey {@link String}
+   */
+  public AdmissionControlHandler(final AdmissionController admissionController,
+      final String requestApiKey) {
+    this.controller = admissionController;
+    this.apiKey = requestApiKey;
+  }
+
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    while (!this.admissions.isEmpty()) {
+      this.admissions.poll().complete(true);
+    }
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+
+    if (msg instanceof HttpRequest request && !isExempt(request)) {
+
+      Admission admission = this.controller.admit(getIdentity(ctx, request), toRoute(request));
+
+      if (admission.isAdmitted()) {
+        this.admissions.add(admission);
+        ctx.fireChannelRead(msg);
+      } else {
+        this.discard = !(msg instanceof LastHttpContent);
+        ReferenceCountUtil.release(msg);
+        reject(ctx, request, admission);
+      }
+
+    } else if (msg instanceof HttpContent && this.discard) {
+
+      this.discard = !(msg instanceof LastHttpContent);
+      ReferenceCountUtil.release(msg);
+
+    } else {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  /**
+   * Rate limit key of the request, the validated API key or the client's remote address.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param request {@link HttpRequest}
+   * @return {@link String}
+   */
+  private String getIdentity(final ChannelHandlerContext ctx, final HttpRequest request) {
+
+    String identity;
+
+    if (this.apiKey != null
+        && this.apiKey.equals(request.headers().get(HttpHeaderNames.AUTHORIZATION))) {
+      identity = API_KEY_IDENTITY;
+    } else {
+      SocketAddress address = ctx.channel().remoteAddress();
+      identity = address instanceof InetSocketAddress inet && inet.getAddress() != null
+          ? inet.getAddress().getHostAddress()
+          : String.valueOf(address);
+    }
+
+    return identity;
+  }
+
+  private void reject(final ChannelHandlerContext ctx, final HttpRequest request,
+      final Admission admission) {
+
+    boolean keepAlive = HttpUtil.isKeepAlive(request) && !HttpUtil.is100ContinueExpected(request);
+
+    FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+        admission.getStatus(), ByteBufUtil.writeUtf8(ctx.alloc(),
+            "{\"message\":\"" + admission.getStatus().reasonPhrase() + "\"}"));
+    response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+    response.headers().set(HttpHeaderNames.RETRY_AFTER, admission.getRetryAfter());
+    HttpUtil.setContentLength(response, response.content().readableBytes());
+    HttpUtil.setKeepAlive(response, keepAlive);
+
+    // written from this context, so the response is not counted against another admission
+    if (keepAlive) {
+      ctx.writeAndFlush(response);
+    } else {
+      ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg,
+      final ChannelPromise promise) throws Exception {
+
+    if (msg instanceof HttpResponse response) {
+      this.responseStatus = response.status();
+    }
+
+    boolean informational = this.responseStatus != null
+        && HttpStatusClass.INFORMATIONAL.equals(this.responseStatus.codeClass());
+
+    if (msg instanceof HttpResponse && !informational && !this.admissions.isEmpty()) {
+      this.admissions.peek().responseStarted();
+    }
+
+    if (msg instanceof LastHttpContent && !informational && !this.admissions.isEmpty()) {
+      boolean dropped = HttpResponseStatus.SERVICE_UNAVAILABLE.equals(this.responseStatus)
+          || HttpResponseStatus.GATEWAY_TIMEOUT.equals(this.responseStatus);
+      this.admissions.poll().complete(dropped);
+    }
+
+    super.write(ctx, msg, promise);
+  }
+}
@@ -0,0 +1,252 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/**
+ * 
+ * Admission control for the Http Server. Requests are admitted when the client is within its
+ * rate limit and both the global and the per-route adaptive concurrency limits have capacity,
+ * otherwise they are rejected straight away so a spike is shed instead of queued.
+ *
+ */
+public class AdmissionController {
+
+  /**
+   * Result of an admission decision. An admitted request must be completed exactly once.
+   */
+  public static final class Admission {
+
+    /** Is completed. */
+    private boolean completed;
+    /** Time the response started in nanoseconds, 0 until then. */
+    private long firstByte;
+    /** {@link AimdConcurrencyLimit} global limit. */
+    private final AimdConcurrencyLimit globalLimit;
+    /** Retry after seconds. */
+    private final long retryAfter;
+    /** {@link AimdConcurrencyLimit} route limit. */
+    private final AimdConcurrencyLimit routeLimit;
+    /** Start time in nanoseconds. */
+    private final long start;
+    /** Rejected {@link HttpResponseStatus}. */
+    private final HttpResponseStatus status;
+
+    private Admission(final AimdConcurrencyLimit global, final AimdConcurrencyLimit route) {
+      this.globalLimit = global;
+      this.routeLimit = route;
+      this.status = null;
+      this.retryAfter = 0;
+      this.start = System.nanoTime();
+    }
+
+    private Admission(final HttpResponseStatus rejectedStatus, final long retryAfterSeconds) {
+      this.globalLimit = null;
+      this.routeLimit = null;
+      this.status = rejectedStatus;
+      this.retryAfter = retryAfterSeconds;
+      this.start = 0;
+    }
+
+    /**
+     * Complete an admitted request, releasing its concurrency permits.
+     * 
+     * @param dropped boolean whether the request was dropped
+     */
+    public synchronized void complete(final boolean dropped) {
+      if (isAdmitted() && !this.completed) {
+        this.completed = true;
+        long end = this.firstByte != 0 ? this.firstByte : System.nanoTime();
+        long latency = end - this.start;
+        this.routeLimit.release(latency, dropped);
+        this.globalLimit.release(latency, dropped);
+      }
+    }
+
+    /**
+     * Get seconds the client should wait before retrying a rejected request.
+     * 
+     * @return long
+     */
+    public long getRetryAfter() {
+      return this.retryAfter;
+    }
+
+    /**
+     * Get the {@link HttpResponseStatus} of a rejected request.
+     * 
+     * @return {@link HttpResponseStatus}
+     */
+    public HttpResponseStatus getStatus() {
+      return this.status;
+    }
+
+    /**
+     * Is the request admitted.
+     * 
+     * @return boolean
+     */
+    public boolean isAdmitted() {
+      return this.status == null;
+    }
+
+    /**
+     * Mark the start of the response, the latency of the request is measured up to the first
+     * response so the time spent streaming a large body does not lower the limits.
+     */
+    public synchronized void responseStarted() {
+      if (this.firstByte == 0) {
+        this.firstByte = System.nanoTime();
+      }
+    }
+  }
+
+  /** Maximum number of tracked routes, further routes share a limit. */
+  private static final int MAX_ROUTES = 256;
+  /** Nanoseconds per second. */
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  /** Minimum concurrency limit. */
+  private static final int MIN_LIMIT = 4;
+  /** Route used once 'MAX_ROUTES' is reached. */
+  private static final String OTHER_ROUTE = "other";
+
+  /** Number of admitted requests. */
+  private final LongAdder admitted = new LongAdder();
+  /** Global {@link AimdConcurrencyLimit}. */
+  private final AimdConcurrencyLimit globalLimit;
+  /** Latency threshold in nanoseconds. */
+  private final long latencyThreshold;
+  /** {@link TokenBucketRateLimiter}, null when rate limiting is disabled. */
+  private final TokenBucketRateLimiter rateLimiter;
+  /** Number of requests rejected by the concurrency limits. */
+  private final LongAdder rejectedConcurrency = new LongAdder();
+  /** Number of requests rejected by the rate limit. */
+  private final LongAdder rejectedRateLimit = new LongAdder();
+  /** Per route maximum concurrency. */
+  private final int routeMaxConcurrency;
+  /** Per route {@link AimdConcurrencyLimit}. */
+  private final Map<String, AimdConcurrencyLimit> routes = new ConcurrentHashMap<>();
+
+  /**
+   * constructor.
+   * 
+   * @param maxConcurrency int maximum global concurrency
+   * @param routeConcurrency int maximum per route concurrency
+   * @param latencyThresholdMillis long latency above which the limits are decreased
+   * @param clientRateLimiter {@link TokenBucketRateLimiter}, null to disable rate limiting
+   */
+  public AdmissionController(final int maxConcurrency, final int routeConcurrency,
+      final long latencyThresholdMillis, final TokenBucketRateLimiter clientRateLimiter) {
+    this.latencyThreshold = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+    this.globalLimit = createLimit(maxConcurrency);
+    this.routeMaxConcurrency = routeConcurrency;
+    this.rateLimiter = clientRateLimiter;
+  }
+
+  /**
+   * Admit a request.
+   * 
+   * @param identity {@link String} rate limit key of the client
+   * @param route {@link String}
+   * @return {@link Admission}
+   */
+  public Admission admit(final String identity, final String route) {
+
+    long wait = this.rateLimiter != null ? this.rateLimiter.tryAcquire(identity) : 0;
+    Admission admission;
+
+    if (wait > 0) {
+
+      this.rejectedRateLimit.increment();
+      long seconds = (wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+      admission = new Admission(HttpResponseStatus.TOO_MANY_REQUESTS, seconds);
+
+    } else {
+
+      AimdConcurrencyLimit routeLimit = getRouteLimit(route);
+
+      if (this.globalLimit.tryAcquire()) {
+
+        if (routeLimit.tryAcquire()) {
+          this.admitted.increment();
+          admission = new Admission(this.globalLimit, routeLimit);
+        } else {
+          this.globalLimit.releaseUnused();
+          admission = rejectConcurrency();
+        }
+
+      } else {
+        admission = rejectConcurrency();
+      }
+    }
+
+    return admission;
+  }
+
+  private AimdConcurrencyLimit createLimit(final int maxConcurrency) {
+    // start at the maximum, the limit only comes down once latency or drops show overload
+    return new AimdConcurrencyLimit(maxConcurrency, Math.min(MIN_LIMIT, maxConcurrency),
+        maxConcurrency, this.latencyThreshold);
+  }
+
+  private AimdConcurrencyLimit getRouteLimit(final String route) {
+    String key = this.routes.containsKey(route) || this.routes.size() < MAX_ROUTES ? route
+        : OTHER_ROUTE;
+    return this.routes.computeIfAbsent(key, k -> createLimit(this.routeMaxConcurrency));
+  }
+
+  /**
+   * Get admission statistics.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Object> getStats() {
+
+    Map<String, Object> routeStats = new TreeMap<>();
+    this.routes.forEach((route, limit) -> routeStats.put(route,
+        Map.of("limit", Integer.valueOf(limit.getLimit()), "inFlight",
+            Integer.valueOf(limit.getInFlight()))));
+
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("limit", Integer.valueOf(this.globalLimit.getLimit()));
+    stats.put("inFlight", Integer.valueOf(this.globalLimit.getInFlight()));
+    stats.put("admitted", Long.valueOf(this.admitted.sum()));
+    stats.put("rejectedConcurrency", Long.valueOf(this.rejectedConcurrency.sum()));
+    stats.put("rejectedRateLimit", Long.valueOf(this.rejectedRateLimit.sum()));
+    stats.put("routes", routeStats);
+    return stats;
+  }
+
+  private Admission rejectConcurrency() {
+    this.rejectedConcurrency.increment();
+    return new Admission(HttpResponseStatus.SERVICE_UNAVAILABLE, 1);
+  }
+}
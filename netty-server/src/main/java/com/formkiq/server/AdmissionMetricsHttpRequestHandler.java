@@ -0,0 +1,64 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Http Method 'GET /internal/metrics/admission' {@link HttpRequestHandler}, returns the
+ * {@link AdmissionController} limits and rejection counts together with the number of requests
+ * queued in the {@link HandlerExecutor}.
+ */
+public class AdmissionMetricsHttpRequestHandler extends AbstractMetricsHttpRequestHandler {
+
+  /** Metrics Path. */
+  private static final String PATH = "/internal/metrics/admission";
+
+  /** {@link AdmissionController}. */
+  private final AdmissionController controller;
+  /** {@link HandlerExecutor}. */
+  private final HandlerExecutor executor;
+
+  /**
+   * constructor.
+   * 
+   * @param admissionController {@link AdmissionController}
+   * @param handlerExecutor {@link HandlerExecutor}
+   * @param requestApiKey {@link String}
+   */
+  public AdmissionMetricsHttpRequestHandler(final AdmissionController admissionController,
+      final HandlerExecutor handlerExecutor, final String requestApiKey) {
+    super(PATH, requestApiKey);
+    this.controller = admissionController;
+    this.executor = handlerExecutor;
+  }
+
+  @Override
+  protected Object getMetrics() {
+    Map<String, Object> stats = new LinkedHashMap<>(this.controller.getStats());
+    stats.put("queued", this.executor.getStats().get("queued"));
+    return stats;
+  }
+}
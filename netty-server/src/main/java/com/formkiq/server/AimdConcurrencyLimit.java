@@ -0,0 +1,122 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+/**
+ * 
+ * Adaptive concurrency limit using Additive Increase / Multiplicative Decrease.
+ * 
+ * The limit grows by one for every successful request completed while at least half of the limit
+ * is in use and is multiplied by the backoff ratio whenever a request is dropped or its latency
+ * exceeds the latency threshold, so the limit settles just below the point where latency starts
+ * to climb.
+ *
+ */
+public class AimdConcurrencyLimit {
+
+  /** Multiplicative decrease ratio. */
+  private static final double BACKOFF_RATIO = 0.9;
+
+  /** Number of in flight requests. */
+  private int inFlight;
+  /** Latency threshold in nanoseconds. */
+  private final long latencyThresholdNanos;
+  /** Current limit. */
+  private double limit;
+  /** Maximum limit. */
+  private final int maxLimit;
+  /** Minimum limit. */
+  private final int minLimit;
+
+  /**
+   * constructor.
+   * 
+   * @param initialLimit int
+   * @param minimumLimit int
+   * @param maximumLimit int
+   * @param latencyThreshold long latency threshold in nanoseconds
+   */
+  public AimdConcurrencyLimit(final int initialLimit, final int minimumLimit,
+      final int maximumLimit, final long latencyThreshold) {
+    this.minLimit = minimumLimit;
+    this.maxLimit = maximumLimit;
+    this.limit = Math.max(minimumLimit, Math.min(maximumLimit, initialLimit));
+    this.latencyThresholdNanos = latencyThreshold;
+  }
+
+  /**
+   * Get number of in flight requests.
+   * 
+   * @return int
+   */
+  public synchronized int getInFlight() {
+    return this.inFlight;
+  }
+
+  /**
+   * Get current limit.
+   * 
+   * @return int
+   */
+  public synchronized int getLimit() {
+    return (int) this.limit;
+  }
+
+  /**
+   * Release a permit acquired by {@link #tryAcquire()} and adjust the limit.
+   * 
+   * @param latencyNanos long request latency
+   * @param dropped boolean whether the request was dropped (rejected downstream or not completed)
+   */
+  public synchronized void release(final long latencyNanos, final boolean dropped) {
+
+    this.inFlight = Math.max(0, this.inFlight - 1);
+
+    if (dropped || latencyNanos > this.latencyThresholdNanos) {
+      this.limit = Math.max(this.minLimit, this.limit * BACKOFF_RATIO);
+    } else if (this.inFlight * 2 >= this.limit) {
+      this.limit = Math.min(this.maxLimit, this.limit + 1);
+    }
+  }
+
+  /**
+   * Release a permit without adjusting the limit.
+   */
+  public synchronized void releaseUnused() {
+    this.inFlight = Math.max(0, this.inFlight - 1);
+  }
+
+  /**
+   * Acquire a permit if the number of in flight requests is below the limit.
+   * 
+   * @return boolean
+   */
+  public synchronized boolean tryAcquire() {
+    boolean acquired = this.inFlight < (int) this.limit;
+    if (acquired) {
+      this.inFlight++;
+    }
+    return acquired;
+  }
+}
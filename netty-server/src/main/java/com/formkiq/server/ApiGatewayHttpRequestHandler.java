@@ -23,26 +23,30 @@
  */
 package com.formkiq.server;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.ID;
-import com.formkiq.aws.dynamodb.objects.Strings;
+import com.formkiq.aws.dynamodb.objects.UrlRouteMatch;
+import com.formkiq.aws.dynamodb.objects.UrlRouteTrie;
+import com.formkiq.aws.services.lambda.AbstractRestApiRequestHandler;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestContext;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.aws.services.lambda.GsonUtil;
 import com.formkiq.lambda.runtime.graalvm.LambdaContext;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
@@ -61,62 +65,70 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
   /** API Key. */
   private String apiKey = null;
   /** {@link Gson}. */
-  private Gson gson = new GsonBuilder().create();
-  /** {@link NettyRequestHandler}. */
-  private NettyRequestHandler handler;
+  private Gson gson = GsonUtil.getInstance();
+  /** {@link AbstractRestApiRequestHandler}. */
+  private AbstractRestApiRequestHandler handler;
   /** {@link NettyRequestHandler} Urls. */
-  private Collection<String> urls;
+  private final UrlRouteTrie<String> routes = new UrlRouteTrie<>();
 
   /**
    * constructor.
    * 
-   * @param reqestHandler {@link NettyRequestHandler}
+   * @param reqestHandler {@link AbstractRestApiRequestHandler}
    * @param requestApiKey {@link String}
    * @param handlerUrls {@link Collection} {@link String}
    * 
    */
-  public ApiGatewayHttpRequestHandler(final NettyRequestHandler reqestHandler,
+  public ApiGatewayHttpRequestHandler(final AbstractRestApiRequestHandler reqestHandler,
       final String requestApiKey, final Collection<String> handlerUrls) {
     this.apiKey = requestApiKey;
     this.handler = reqestHandler;
-    this.urls = handlerUrls;
+    handlerUrls.forEach(url -> this.routes.add(url, url));
   }
 
-  @SuppressWarnings("unchecked")
-  private DefaultFullHttpResponse buildResponse(final ByteArrayOutputStream os) {
+  /**
+   * Build {@link DefaultFullHttpResponse}, the body is serialized straight into a pooled
+   * {@link ByteBuf}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param statusCode int
+   * @param headers {@link Map}
+   * @param body {@link Object}
+   * @return {@link DefaultFullHttpResponse}
+   * @throws IOException IOException
+   */
+  private DefaultFullHttpResponse buildResponse(final ChannelHandlerContext ctx,
+      final int statusCode, final Map<String, String> headers, final Object body)
+      throws IOException {
 
-    String output = new String(os.toByteArray(), StandardCharsets.UTF_8);
-    Map<String, Object> map = this.gson.fromJson(output, Map.class);
-    String body = map.getOrDefault("body", "").toString();
-    String statusCode = map.getOrDefault("statusCode", "404").toString().replaceAll("\\.0", "");
+    ByteBuf content = ctx.alloc().buffer();
 
-    DefaultFullHttpResponse response =
-        new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.parseLine(statusCode),
-            Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+    if (body != null) {
+      try (Writer writer =
+          new OutputStreamWriter(new ByteBufOutputStream(content), StandardCharsets.UTF_8)) {
+        this.gson.toJson(body, writer);
+      } catch (IOException | RuntimeException e) {
+        content.release();
+        throw e;
+      }
+    }
+
+    DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+        HttpResponseStatus.valueOf(statusCode), content);
 
-    Map<String, String> headers = (Map<String, String>) map.get("headers");
     for (Map.Entry<String, String> e : headers.entrySet()) {
       response.headers().add(e.getKey(), e.getValue());
     }
 
+    HttpUtil.setContentLength(response, content.readableBytes());
     return response;
   }
 
-  private Map<String, String> createPathParameters(final String resource, final String uri) {
-
+  private Map<String, String> createHeaders(final FullHttpRequest request) {
     Map<String, String> map = new HashMap<>();
-
-    if (resource != null && uri != null) {
-      String[] s0 = resource.split("/");
-      String[] s1 = uri.split("/");
-
-      for (int i = 0; i < s0.length; i++) {
-        if (s0[i].startsWith("{") && s0[i].endsWith("}")) {
-          map.put(s0[i].substring(1, s0[i].length() - 1), s1[i]);
-        }
-      }
+    for (Entry<String, String> e : request.headers()) {
+      map.putIfAbsent(e.getKey(), e.getValue());
     }
-
     return map;
   }
 
@@ -161,8 +173,9 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
       final FullHttpRequest request) throws IOException {
     String uri = getUri(request);
 
-    String resource = Strings.findUrlMatch(this.urls, uri);
-    Map<String, String> pathParams = createPathParameters(resource, uri);
+    UrlRouteMatch<String> route = this.routes.match(uri);
+    String resource = route != null ? route.getRoute() : null;
+    Map<String, String> pathParams = route != null ? route.getPathParameters() : new HashMap<>();
     Map<String, String> queryParameters = createQueryParameters(request);
 
     ApiGatewayRequestEvent apiEvent = new ApiGatewayRequestEvent();
@@ -171,6 +184,7 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
     apiEvent.setHttpMethod(request.method().name());
     apiEvent.setPathParameters(pathParams);
     apiEvent.setQueryStringParameters(queryParameters);
+    apiEvent.setHeaders(createHeaders(request));
 
     String group = DEFAULT_SITE_ID;
     ApiGatewayRequestContext requestContext = new ApiGatewayRequestContext();
@@ -178,21 +192,12 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
         Map.of("claims", Map.of("cognito:username", "admin", "cognito:groups", "[" + group + "]")));
     apiEvent.setRequestContext(requestContext);
 
-    String body = getBody(request.content());
-    apiEvent.setBody(body);
+    setBody(apiEvent, request.content());
 
-    String event = this.gson.toJson(apiEvent);
+    LambdaLogger logger = new LambdaContext(ID.uuid()).getLogger();
 
-    InputStream is = new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8));
-    ByteArrayOutputStream os = new ByteArrayOutputStream();
-    Context context = new LambdaContext(ID.uuid());
-
-    this.handler.handleRequest(is, os, context);
-
-    DefaultFullHttpResponse response = buildResponse(os);
-    HttpUtil.setContentLength(response, response.content().readableBytes());
-
-    ctx.writeAndFlush(response);
+    this.handler.handleRequest(logger, apiEvent, (statusCode, headers, responseBody) -> ctx
+        .writeAndFlush(buildResponse(ctx, statusCode, headers, responseBody)));
   }
 
   @Override
@@ -200,6 +205,25 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
     return this.apiKey.equals(request.headers().get("Authorization"));
   }
 
+  /**
+   * Set the {@link ApiGatewayRequestEvent} body, content that is not valid UTF-8 is passed base64
+   * encoded, the same way API Gateway passes binary media types.
+   * 
+   * @param apiEvent {@link ApiGatewayRequestEvent}
+   * @param content {@link ByteBuf}
+   * @throws IOException IOException
+   */
+  private void setBody(final ApiGatewayRequestEvent apiEvent, final ByteBuf content)
+      throws IOException {
+
+    if (ByteBufUtil.isText(content, StandardCharsets.UTF_8)) {
+      apiEvent.setBody(getBody(content));
+    } else {
+      apiEvent.setBody(Base64.getEncoder().encodeToString(ByteBufUtil.getBytes(content)));
+      apiEvent.setIsBase64Encoded(Boolean.TRUE);
+    }
+  }
+
   /**
    * Validate Authorization {@link FullHttpRequest}.
    * 
@@ -89,7 +89,7 @@ public class AuthenticationLoginHttpRequestHandler implements HttpRequestHandler
       responseBody = this.gson.toJson(results);
     }
 
-    DefaultFullHttpResponse response = buildResponse(status, responseBody);
+    DefaultFullHttpResponse response = buildResponse(ctx, status, responseBody);
 
     setCorsHeaders(response);
     HttpUtil.setContentLength(response, response.content().readableBytes());
@@ -0,0 +1,64 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import com.formkiq.aws.dynamodb.cache.CacheService;
+
+/**
+ * 
+ * {@link ShardCheckpointStore} backed by the DynamoDb {@link CacheService}. Stream records are
+ * retained for 24 hours, so checkpoints only need to outlive that.
+ *
+ */
+public class CacheShardCheckpointStore implements ShardCheckpointStore {
+
+  /** Checkpoint retention in days. */
+  private static final int CHECKPOINT_DAYS = 2;
+
+  /** {@link CacheService}. */
+  private final CacheService cache;
+  /** Key prefix. */
+  private final String prefix;
+
+  /**
+   * constructor.
+   * 
+   * @param cacheService {@link CacheService}
+   * @param streamArn {@link String}
+   */
+  public CacheShardCheckpointStore(final CacheService cacheService, final String streamArn) {
+    this.cache = cacheService;
+    this.prefix = "streamCheckpoint#" + streamArn + "#";
+  }
+
+  @Override
+  public String get(final String shardId) {
+    return this.cache.read(this.prefix + shardId);
+  }
+
+  @Override
+  public void put(final String shardId, final String checkpoint) {
+    this.cache.write(this.prefix + shardId, checkpoint, CHECKPOINT_DAYS);
+  }
+}
@@ -0,0 +1,653 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createS3Key;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.formkiq.aws.dynamodb.model.DocumentItem;
+import com.formkiq.aws.dynamodb.objects.MimeType;
+import com.formkiq.aws.s3.S3MultipartOutputStream;
+import com.formkiq.aws.s3.S3MultipartUploader;
+import com.formkiq.aws.s3.S3Service;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.plugins.useractivity.UserActivityPlugin;
+import com.formkiq.stacks.dynamodb.DocumentService;
+import com.formkiq.stacks.dynamodb.DocumentVersionService;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.ReferenceCountUtil;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * 
+ * Streams document content without aggregating the request in memory. It is placed before the
+ * {@link HttpObjectAggregator}, so only the remaining (JSON) requests are aggregated.
+ * 
+ * 'PUT /documents/{documentId}/content' pipes the request body into a S3 multipart upload, reads
+ * from the channel pause while more than two parts are waiting to be uploaded.
+ * 
+ * 'GET /documents/{documentId}/content' streams the S3 object back when the document content is
+ * binary or the request has 'Accept: application/octet-stream'. Plain text documents requested
+ * without that Accept header are passed on to the API handler, which returns the content as JSON.
+ * 
+ * S3 is only read and written on the {@link HandlerExecutor}, never on the event loop. Downloads
+ * are written a chunk at a time and wait for the channel to drain whenever it is not writable, so
+ * memory use is bounded by the S3 part size regardless of the size of the document.
+ * 
+ * Requests are authorized with the same API key check as {@link ApiGatewayHttpRequestHandler} and
+ * the document (and its 'versionKey') is resolved through the {@link DocumentVersionService} like
+ * the DocumentIdContentRequestHandler, so missing or deleted documents return 404 and views are
+ * recorded by the {@link UserActivityPlugin}.
+ *
+ */
+public class DocumentContentStreamingHandler extends ChannelInboundHandlerAdapter {
+
+  /** Marks the end of an aborted upload. */
+  private static final Object ABORT = new Object();
+  /** Read chunk size. */
+  private static final int CHUNK_SIZE = 64 * 1024;
+  /** Document Content path. */
+  private static final Pattern CONTENT_PATH = Pattern.compile("^/documents/([^/]+)/content$");
+  /** Stop reading when more than this number of bytes are waiting to be uploaded. */
+  private static final long HIGH_WATER_MARK = 2L * S3MultipartOutputStream.MIN_PART_SIZE;
+  /** {@link Logger}. */
+  private static final Logger LOGGER =
+      Logger.getLogger(DocumentContentStreamingHandler.class.getName());
+  /** Resume reading when less than this number of bytes are waiting to be uploaded. */
+  private static final long LOW_WATER_MARK = S3MultipartOutputStream.MIN_PART_SIZE;
+  /** Octet Stream Content Type. */
+  private static final String OCTET_STREAM = "application/octet-stream";
+
+  /** API Key. */
+  private final String apiKey;
+  /** {@link AwsServiceCache}. */
+  private final AwsServiceCache awsServices;
+  /** Whether the content of the current request is being discarded. */
+  private boolean discard;
+  /** {@link HandlerExecutor}. */
+  private final HandlerExecutor executor;
+  /** Current {@link Upload}. */
+  private Upload upload;
+  /** {@link S3MultipartUploader}. */
+  private final S3MultipartUploader uploader;
+
+  /**
+   * constructor.
+   * 
+   * @param serviceCache {@link AwsServiceCache}
+   * @param requestApiKey {@link String}
+   * @param handlerExecutor {@link HandlerExecutor}
+   * @param multipartUploader {@link S3MultipartUploader}
+   */
+  public DocumentContentStreamingHandler(final AwsServiceCache serviceCache,
+      final String requestApiKey, final HandlerExecutor handlerExecutor,
+      final S3MultipartUploader multipartUploader) {
+    this.awsServices = serviceCache;
+    this.apiKey = requestApiKey;
+    this.executor = handlerExecutor;
+    this.uploader = multipartUploader;
+  }
+
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    if (this.upload != null) {
+      this.upload.queue.add(ABORT);
+      this.upload = null;
+    }
+
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+
+    if (msg instanceof HttpRequest request && isSupported(request)) {
+
+      this.discard = !(msg instanceof LastHttpContent);
+      startRequest(ctx, request);
+      ReferenceCountUtil.release(msg);
+
+    } else if (msg instanceof HttpContent content && this.upload != null) {
+
+      this.upload.add(ctx, content);
+      if (msg instanceof LastHttpContent) {
+        this.upload = null;
+      }
+
+    } else if (msg instanceof HttpContent && this.discard) {
+
+      this.discard = !(msg instanceof LastHttpContent);
+      ReferenceCountUtil.release(msg);
+
+    } else {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  /**
+   * Streams the document content or passes plain text requests on to the API handler. Runs on the
+   * {@link HandlerExecutor}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param request {@link FullHttpRequest}, the request to pass on
+   * @param documentId {@link String}
+   * @param keepAlive boolean
+   */
+  private void download(final ChannelHandlerContext ctx, final FullHttpRequest request,
+      final String documentId, final boolean keepAlive) {
+
+    try {
+      download(ctx, request, documentId, getParameter(request, "siteId", DEFAULT_SITE_ID),
+          getParameter(request, "versionKey", null), keepAlive);
+    } catch (NoSuchKeyException e) {
+      sendResponse(ctx, HttpResponseStatus.NOT_FOUND,
+          "{\"message\":\"Document " + documentId + " not found.\"}", keepAlive);
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.SEVERE, "unable to stream content of document " + documentId, e);
+      sendResponse(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR,
+          "{\"message\":\"Internal Server Error\"}", keepAlive);
+    } finally {
+      request.release();
+    }
+  }
+
+  private void download(final ChannelHandlerContext ctx, final FullHttpRequest request,
+      final String documentId, final String siteId, final String versionKey,
+      final boolean keepAlive) {
+
+    DocumentService documentService = this.awsServices.getExtension(DocumentService.class);
+    DocumentVersionService versionService =
+        this.awsServices.getExtension(DocumentVersionService.class);
+
+    Map<String, AttributeValue> versionAttributes =
+        versionService.get(siteId, documentId, versionKey);
+    DocumentItem item = versionService.getDocumentItem(documentService, siteId, documentId,
+        versionKey, versionAttributes);
+    String versionId = versionKey != null ? versionService.getVersionId(versionAttributes) : null;
+
+    if (item == null) {
+      sendResponse(ctx, HttpResponseStatus.NOT_FOUND,
+          "{\"message\":\"Document " + documentId + " not found.\"}", keepAlive);
+    } else if (versionKey != null && versionId == null) {
+      sendResponse(ctx, HttpResponseStatus.BAD_REQUEST,
+          "{\"message\":\"content versionId not found in versionKey '" + versionKey + "'\"}",
+          keepAlive);
+    } else if (!isOctetStream(request) && MimeType.isPlainText(item.getContentType())) {
+      forward(ctx, request.retain());
+    } else {
+      stream(ctx, item, siteId, versionKey, versionId, keepAlive);
+    }
+  }
+
+  /**
+   * Run a task on the {@link HandlerExecutor}, a busy executor is answered with a 503.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param task {@link Runnable}
+   * @return boolean whether the task was accepted
+   */
+  private boolean execute(final ChannelHandlerContext ctx, final Runnable task) {
+
+    boolean accepted = true;
+
+    try {
+      this.executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      accepted = false;
+      sendResponse(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE,
+          "{\"message\":\"Server is busy\"}", false);
+    }
+
+    return accepted;
+  }
+
+  /**
+   * Pass the request on to the next handler, on the event loop.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param request {@link FullHttpRequest}
+   */
+  private void forward(final ChannelHandlerContext ctx, final FullHttpRequest request) {
+    ctx.executor().execute(() -> {
+      ctx.channel().config().setAutoRead(true);
+      ctx.fireChannelRead(request);
+    });
+  }
+
+  private String getParameter(final HttpRequest request, final String name,
+      final String defaultValue) {
+    Map<String, List<String>> params = new QueryStringDecoder(request.uri()).parameters();
+    return params.containsKey(name) ? params.get(name).get(0) : defaultValue;
+  }
+
+  private boolean isOctetStream(final HttpRequest request) {
+    String accept = request.headers().get(HttpHeaderNames.ACCEPT);
+    return accept != null && accept.contains(OCTET_STREAM);
+  }
+
+  /**
+   * Is the request a document content download or upload.
+   * 
+   * @param request {@link HttpRequest}
+   * @return boolean
+   */
+  private boolean isSupported(final HttpRequest request) {
+    return (HttpMethod.GET.equals(request.method()) || HttpMethod.PUT.equals(request.method()))
+        && CONTENT_PATH.matcher(new QueryStringDecoder(request.uri()).path()).matches();
+  }
+
+  /**
+   * Read the next chunk of the {@link InputStream}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param is {@link InputStream}
+   * @return {@link ByteBuf}, null at the end of the stream
+   * @throws IOException IOException
+   */
+  private ByteBuf readChunk(final ChannelHandlerContext ctx, final InputStream is)
+      throws IOException {
+
+    ByteBuf chunk = ctx.alloc().buffer(CHUNK_SIZE, CHUNK_SIZE);
+
+    try {
+      int read = 0;
+      while (read >= 0 && chunk.isWritable()) {
+        read = chunk.writeBytes(is, chunk.writableBytes());
+      }
+    } catch (IOException | RuntimeException e) {
+      chunk.release();
+      throw e;
+    }
+
+    if (!chunk.isReadable()) {
+      chunk.release();
+      chunk = null;
+    }
+
+    return chunk;
+  }
+
+  private void sendResponse(final ChannelHandlerContext ctx, final HttpResponseStatus status,
+      final String body, final boolean keepAlive) {
+
+    FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+        ByteBufUtil.writeUtf8(ctx.alloc(), body));
+    response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+    HttpUtil.setContentLength(response, response.content().readableBytes());
+    HttpUtil.setKeepAlive(response, keepAlive);
+
+    ctx.channel().config().setAutoRead(true);
+
+    if (keepAlive) {
+      ctx.writeAndFlush(response);
+    } else {
+      ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+  }
+
+  private void startDownload(final ChannelHandlerContext ctx, final HttpRequest request,
+      final String documentId, final boolean keepAlive) {
+
+    // kept to pass plain text requests on to the API handler, a GET body is discarded
+    FullHttpRequest fullRequest = new DefaultFullHttpRequest(request.protocolVersion(),
+        request.method(), request.uri(), Unpooled.EMPTY_BUFFER, request.headers().copy(),
+        EmptyHttpHeaders.INSTANCE);
+
+    // no further requests are read until this one has been answered
+    ctx.channel().config().setAutoRead(false);
+
+    if (!execute(ctx, () -> download(ctx, fullRequest, documentId, keepAlive))) {
+      fullRequest.release();
+    }
+  }
+
+  private void startRequest(final ChannelHandlerContext ctx, final HttpRequest request) {
+
+    Matcher m = CONTENT_PATH.matcher(new QueryStringDecoder(request.uri()).path());
+    m.matches();
+
+    String documentId = m.group(1);
+    boolean keepAlive = HttpUtil.isKeepAlive(request) && !HttpUtil.is100ContinueExpected(request);
+
+    if (!this.apiKey.equals(request.headers().get(HttpHeaderNames.AUTHORIZATION))) {
+      sendResponse(ctx, HttpResponseStatus.FORBIDDEN,
+          "{\"message\":\"access denied, invalid API_KEY\"}", keepAlive);
+    } else if (HttpMethod.PUT.equals(request.method())) {
+      startUpload(ctx, request, documentId, HttpUtil.isKeepAlive(request));
+    } else {
+      startDownload(ctx, request, documentId, keepAlive);
+    }
+  }
+
+  private void startUpload(final ChannelHandlerContext ctx, final HttpRequest request,
+      final String documentId, final boolean keepAlive) {
+
+    if (HttpUtil.is100ContinueExpected(request)) {
+      ctx.writeAndFlush(
+          new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+    }
+
+    String siteId = getParameter(request, "siteId", DEFAULT_SITE_ID);
+    String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE);
+
+    Upload u = new Upload();
+
+    if (request instanceof LastHttpContent last) {
+      u.add(ctx, last.retain());
+    } else {
+      this.upload = u;
+      this.discard = false;
+    }
+
+    if (!execute(ctx, () -> upload(ctx, u, siteId, documentId, contentType, keepAlive))) {
+      this.upload = null;
+      this.discard = !(request instanceof LastHttpContent);
+      u.release();
+    }
+  }
+
+  /**
+   * Stream the S3 object of a document. Runs on the {@link HandlerExecutor}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param item {@link DocumentItem}
+   * @param siteId {@link String}
+   * @param versionKey {@link String}
+   * @param versionId {@link String}
+   * @param keepAlive boolean
+   */
+  private void stream(final ChannelHandlerContext ctx, final DocumentItem item,
+      final String siteId, final String versionKey, final String versionId,
+      final boolean keepAlive) {
+
+    String documentId = item.getDocumentId();
+    String bucket = this.awsServices.environment("DOCUMENTS_S3_BUCKET");
+    S3Service s3 = this.awsServices.getExtension(S3Service.class);
+
+    ResponseInputStream<GetObjectResponse> is =
+        s3.getObjectAsStream(bucket, createS3Key(siteId, documentId), versionId);
+
+    if (this.awsServices.containsExtension(UserActivityPlugin.class)) {
+      UserActivityPlugin plugin = this.awsServices.getExtension(UserActivityPlugin.class);
+      plugin.addDocumentViewActivity(siteId, documentId, versionKey);
+    }
+
+    writeContent(ctx, is, item, keepAlive);
+  }
+
+  private void upload(final ChannelHandlerContext ctx, final Upload u, final String siteId,
+      final String documentId, final String contentType, final boolean keepAlive) {
+
+    S3MultipartOutputStream os = null;
+
+    try {
+
+      DocumentService documentService = this.awsServices.getExtension(DocumentService.class);
+
+      if (documentService.exists(siteId, documentId)) {
+
+        String bucket = this.awsServices.environment("DOCUMENTS_S3_BUCKET");
+        os = new S3MultipartOutputStream(this.uploader, bucket, createS3Key(siteId, documentId),
+            contentType, S3MultipartOutputStream.MIN_PART_SIZE);
+
+        if (u.transferTo(ctx, os)) {
+          os.close();
+          sendResponse(ctx, HttpResponseStatus.OK,
+              "{\"message\":\"Document " + documentId + " content uploaded.\"}", keepAlive);
+        } else {
+          os.abort();
+        }
+
+      } else if (u.transferTo(ctx, null)) {
+        sendResponse(ctx, HttpResponseStatus.NOT_FOUND,
+            "{\"message\":\"Document " + documentId + " not found.\"}", keepAlive);
+      }
+
+    } catch (IOException | RuntimeException e) {
+      LOGGER.log(Level.SEVERE, "unable to upload content of document " + documentId, e);
+      abort(os);
+      u.release();
+      sendResponse(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR,
+          "{\"message\":\"Internal Server Error\"}", false);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      abort(os);
+      u.release();
+      ctx.close();
+    }
+  }
+
+  private void abort(final S3MultipartOutputStream os) {
+    if (os != null) {
+      os.abort();
+    }
+  }
+
+  /**
+   * Write the S3 object a chunk at a time, waiting for the channel to drain whenever it is not
+   * writable. Runs on the {@link HandlerExecutor}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param is {@link InputStream}
+   * @return boolean false when a chunk could not be written to the channel
+   * @throws IOException IOException
+   */
+  private boolean writeChunks(final ChannelHandlerContext ctx, final InputStream is)
+      throws IOException {
+
+    boolean success = true;
+    ByteBuf chunk = readChunk(ctx, is);
+
+    while (chunk != null && success) {
+
+      ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(chunk));
+      if (!ctx.channel().isWritable()) {
+        future.awaitUninterruptibly();
+      }
+
+      success = !future.isDone() || future.isSuccess();
+      chunk = success ? readChunk(ctx, is) : null;
+    }
+
+    return success;
+  }
+
+  private void writeContent(final ChannelHandlerContext ctx,
+      final ResponseInputStream<GetObjectResponse> is, final DocumentItem item,
+      final boolean keepAlive) {
+
+    GetObjectResponse object = is.response();
+    String contentType = item.getContentType() != null ? item.getContentType() : OCTET_STREAM;
+
+    HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+    response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+
+    if (object.contentLength() != null) {
+      HttpUtil.setContentLength(response, object.contentLength().longValue());
+    } else {
+      HttpUtil.setTransferEncodingChunked(response, true);
+    }
+
+    HttpUtil.setKeepAlive(response, keepAlive);
+    ctx.writeAndFlush(response);
+
+    boolean complete = false;
+
+    try (InputStream in = is) {
+      complete = writeChunks(ctx, in);
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "unable to stream content of document " + item.getDocumentId(), e);
+    }
+
+    if (complete) {
+      ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(f -> {
+        ctx.channel().config().setAutoRead(true);
+        if (!keepAlive || !f.isSuccess()) {
+          ctx.close();
+        }
+      });
+    } else {
+      // the response has started, the client can only see the failure as a closed connection
+      ctx.close();
+    }
+  }
+
+  /**
+   * Request content waiting to be uploaded.
+   */
+  private static final class Upload {
+
+    /** Has the {@link LastHttpContent} been queued. */
+    private volatile boolean complete;
+    /** {@link HttpContent} queue. */
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    /** Number of bytes in the queue. */
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    /**
+     * Queue {@link HttpContent}, called on the event loop. Reads from the channel pause above the
+     * high water mark, and after the {@link LastHttpContent} until the upload has been answered.
+     * 
+     * @param ctx {@link ChannelHandlerContext}
+     * @param content {@link HttpContent}
+     */
+    private void add(final ChannelHandlerContext ctx, final HttpContent content) {
+
+      this.complete = content instanceof LastHttpContent;
+
+      if (this.queuedBytes.addAndGet(content.content().readableBytes()) > HIGH_WATER_MARK
+          || this.complete) {
+        ctx.channel().config().setAutoRead(false);
+      }
+
+      this.queue.add(content);
+    }
+
+    /**
+     * Resume reading the request content, on the event loop so it cannot race with
+     * {@link #add(ChannelHandlerContext, HttpContent)}.
+     * 
+     * @param ctx {@link ChannelHandlerContext}
+     */
+    private void resume(final ChannelHandlerContext ctx) {
+      ctx.executor().execute(() -> {
+        if (!this.complete) {
+          ctx.channel().config().setAutoRead(true);
+        }
+      });
+    }
+
+    /**
+     * Release any queued {@link HttpContent}.
+     */
+    private void release() {
+      this.queue.forEach(ReferenceCountUtil::release);
+      this.queue.clear();
+    }
+
+    /**
+     * Write the request content until the {@link LastHttpContent}.
+     * 
+     * @param ctx {@link ChannelHandlerContext}
+     * @param os {@link S3MultipartOutputStream}, null to discard the content
+     * @return boolean false if the request was aborted
+     * @throws IOException IOException
+     * @throws InterruptedException InterruptedException
+     */
+    private boolean transferTo(final ChannelHandlerContext ctx, final S3MultipartOutputStream os)
+        throws IOException, InterruptedException {
+
+      Object o = this.queue.take();
+
+      while (o != ABORT) {
+
+        HttpContent content = (HttpContent) o;
+
+        try {
+          int length = content.content().readableBytes();
+          if (os != null) {
+            content.content().readBytes(os, length);
+          }
+
+          if (this.queuedBytes.addAndGet(-length) < LOW_WATER_MARK && !this.complete
+              && !ctx.channel().config().isAutoRead()) {
+            resume(ctx);
+          }
+        } finally {
+          content.release();
+        }
+
+        if (content instanceof LastHttpContent) {
+          break;
+        }
+
+        o = this.queue.take();
+      }
+
+      if (o == ABORT) {
+        release();
+      }
+
+      return o != ABORT;
+    }
+  }
+}
@@ -26,45 +26,150 @@ package com.formkiq.server;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import com.amazonaws.services.lambda.runtime.Context;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.ID;
 import com.formkiq.lambda.runtime.graalvm.LambdaContext;
 import com.formkiq.module.lambda.typesense.TypesenseProcessor;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
-import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.Record;
 import software.amazon.awssdk.services.dynamodb.model.Shard;
 import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
 import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
 
 /**
- * Polls DynamoDb Stream and sends stream to Http Endpoint.
+ * 
+ * Consumes a DynamoDb Stream and sends the records to the {@link TypesenseProcessor}.
+ * 
+ * {@link #run()} discovers shards, every shard is then polled by its own task so shards are
+ * processed concurrently while records within a shard stay in order. A child shard is only
+ * started once its parent has been read to the end. The records of each GetRecords call are
+ * delivered as one batch and the last sequence number is saved in the
+ * {@link ShardCheckpointStore}, so a restart resumes where it stopped.
+ * 
+ * A batch that fails to process is not checkpointed, the shard is read again from the last saved
+ * sequence number after an exponential backoff, so failed records are retried rather than skipped.
+ *
  */
 public class DynamoDbStreamToTypesense implements Closeable {
 
-  /** {@link Gson}. */
-  private Gson gson = new GsonBuilder().create();
-  /** {@link Map}. */
-  private Map<String, String> nextShardIteratorMap = new HashMap<>();
-  /** {@link TypesenseProcessor}. */
-  private TypesenseProcessor processor;
+  /** Maximum number of records per GetRecords call. */
+  private static final int BATCH_LIMIT = 1000;
+  /** {@link Logger}. */
+  private static final Logger LOGGER = Logger.getLogger(DynamoDbStreamToTypesense.class.getName());
+  /** Maximum delay before retrying a failed shard. */
+  private static final long MAX_RETRY_DELAY_MILLIS = 60000;
+  /** Maximum number of times the retry delay is doubled. */
+  private static final int MAX_RETRY_DOUBLINGS = 6;
+  /** Delay between polls of a shard without new records. */
+  private static final long POLL_DELAY_MILLIS = 1000;
+  /** Shutdown timeout in seconds. */
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  /**
+   * Polls one shard, re-scheduling itself until the end of the shard.
+   */
+  private final class ShardPoller implements Runnable {
+
+    /** Number of consecutive failures. */
+    private int failures;
+    /** Current shard iterator. */
+    private String iterator;
+    /** Last processed sequence number. */
+    private String sequenceNumber;
+    /** Shard Id. */
+    private final String shardId;
+
+    ShardPoller(final String id) {
+      this.shardId = id;
+      this.sequenceNumber = DynamoDbStreamToTypesense.this.checkpoints.get(id);
+    }
+
+    @Override
+    public void run() {
+
+      long delay = POLL_DELAY_MILLIS;
+      boolean end = false;
+
+      try {
+
+        if (this.iterator == null) {
+          this.iterator = getShardIterator(this.shardId, this.sequenceNumber);
+        }
+
+        GetRecordsResponse response = DynamoDbStreamToTypesense.this.streamsClient
+            .getRecords(GetRecordsRequest.builder().shardIterator(this.iterator)
+                .limit(Integer.valueOf(BATCH_LIMIT)).build())
+            .join();
+
+        List<Record> records = response.records();
+
+        if (!records.isEmpty()) {
+          process(records);
+          this.sequenceNumber = records.get(records.size() - 1).dynamodb().sequenceNumber();
+          DynamoDbStreamToTypesense.this.checkpoints.put(this.shardId, this.sequenceNumber);
+          delay = 0;
+        }
+
+        this.iterator = response.nextShardIterator();
+        end = this.iterator == null;
+        this.failures = 0;
+
+      } catch (RuntimeException e) {
+        // expired iterator, service or processing error, resume after the last checkpoint
+        this.iterator = null;
+        this.failures++;
+        delay = Math.min(MAX_RETRY_DELAY_MILLIS,
+            POLL_DELAY_MILLIS << Math.min(this.failures - 1, MAX_RETRY_DOUBLINGS));
+        LOGGER.log(Level.WARNING, "unable to process shard " + this.shardId + ", retrying in "
+            + delay + " ms", e);
+      }
+
+      if (end) {
+        finish(this.shardId);
+      } else {
+        schedule(this, delay);
+      }
+    }
+  }
+
+  /** Shards being polled. */
+  private final Set<String> active = ConcurrentHashMap.newKeySet();
+  /** {@link ShardCheckpointStore}. */
+  private final ShardCheckpointStore checkpoints;
+  /** Is closed. */
+  private volatile boolean closed;
+  /** Shards read to their end. */
+  private final Set<String> finished = ConcurrentHashMap.newKeySet();
+  /** Processes a batch of records in the DynamoDb Stream Lambda event format. */
+  private final Consumer<List<Map<String, Object>>> processor;
+  /** {@link ScheduledExecutorService} running the {@link ShardPoller}. */
+  private final ScheduledExecutorService shardExecutor;
   /** {@link String}. */
-  private String streamArn;
+  private final String streamArn;
   /** {@link DynamoDbStreamsAsyncClient}. */
-  private DynamoDbStreamsAsyncClient streamsClient = null;
+  private final DynamoDbStreamsAsyncClient streamsClient;
 
   /**
    * constructor.
@@ -74,120 +179,195 @@ public class DynamoDbStreamToTypesense implements Closeable {
    * @param dynamoDbStreamArn {@link String}
    * @param dynamodbUri {@link String}
    * @param typesenseProcessor {@link String}
+   * @param checkpointStore {@link ShardCheckpointStore}
+   * @param shardThreads int number of threads polling shards
    */
   public DynamoDbStreamToTypesense(final Region awsRegion,
       final AwsCredentialsProvider awsCredentialsProvider, final String dynamoDbStreamArn,
-      final URI dynamodbUri, final TypesenseProcessor typesenseProcessor) {
+      final URI dynamodbUri, final TypesenseProcessor typesenseProcessor,
+      final ShardCheckpointStore checkpointStore, final int shardThreads) {
+
+    this(DynamoDbStreamsAsyncClient.builder().endpointOverride(dynamodbUri).region(awsRegion)
+        .credentialsProvider(awsCredentialsProvider).build(), dynamoDbStreamArn,
+        records -> typesenseProcessor.handleRequest(Map.of("Records", records),
+            new LambdaContext(ID.uuid())),
+        checkpointStore, shardThreads);
+  }
 
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbStreamsAsyncClient}
+   * @param dynamoDbStreamArn {@link String}
+   * @param batchProcessor {@link Consumer}, throws a {@link RuntimeException} when a batch fails
+   * @param checkpointStore {@link ShardCheckpointStore}
+   * @param shardThreads int number of threads polling shards
+   */
+  DynamoDbStreamToTypesense(final DynamoDbStreamsAsyncClient client,
+      final String dynamoDbStreamArn, final Consumer<List<Map<String, Object>>> batchProcessor,
+      final ShardCheckpointStore checkpointStore, final int shardThreads) {
+    this.streamsClient = client;
     this.streamArn = dynamoDbStreamArn;
-    this.processor = typesenseProcessor;
-
-    this.streamsClient = DynamoDbStreamsAsyncClient.builder().endpointOverride(dynamodbUri)
-        .region(awsRegion).credentialsProvider(awsCredentialsProvider).build();
+    this.processor = batchProcessor;
+    this.checkpoints = checkpointStore;
+    this.shardExecutor = Executors.newScheduledThreadPool(shardThreads);
   }
 
   @Override
   public void close() throws IOException {
-    if (this.streamsClient != null) {
-      this.streamsClient.close();
+
+    this.closed = true;
+    this.shardExecutor.shutdown();
+
+    try {
+      this.shardExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
+
+    this.streamsClient.close();
   }
 
-  private String getShardIterator(final String shardId, final String iteratorType) {
+  private void finish(final String shardId) {
+    this.finished.add(shardId);
+    this.checkpoints.put(shardId, ShardCheckpointStore.SHARD_END);
+    this.active.remove(shardId);
+  }
+
+  private String getShardIterator(final String shardId, final String sequenceNumber) {
+
+    String iterator;
 
-    GetShardIteratorRequest getShardIteratorRequest = GetShardIteratorRequest.builder()
-        .streamArn(this.streamArn).shardId(shardId).shardIteratorType(iteratorType).build();
+    try {
+      iterator = requestShardIterator(shardId, sequenceNumber);
+    } catch (CompletionException e) {
+
+      if (sequenceNumber != null && e.getCause() instanceof TrimmedDataAccessException) {
+        // checkpoint is older than the stream retention
+        iterator = requestShardIterator(shardId, null);
+      } else {
+        throw e;
+      }
+    }
 
-    return this.streamsClient.getShardIterator(getShardIteratorRequest).join().shardIterator();
+    return iterator;
   }
 
   private List<Shard> getShards() {
 
-    List<Shard> shards = Collections.emptyList();
-    try {
-      DescribeStreamRequest streamRequest =
-          DescribeStreamRequest.builder().streamArn(this.streamArn).build();
+    List<Shard> shards = new ArrayList<>();
+    String lastShardId = null;
 
-      DescribeStreamResponse streamResponse =
-          this.streamsClient.describeStream(streamRequest).get();
-      shards = streamResponse.streamDescription().shards();
+    do {
 
-    } catch (InterruptedException | ExecutionException e) {
-      e.printStackTrace();
-    }
+      StreamDescription description = this.streamsClient
+          .describeStream(DescribeStreamRequest.builder().streamArn(this.streamArn)
+              .exclusiveStartShardId(lastShardId).build())
+          .join().streamDescription();
+
+      shards.addAll(description.shards());
+      lastShardId = description.lastEvaluatedShardId();
+
+    } while (lastShardId != null);
 
     return shards;
   }
 
-  /**
-   * Run Stream Poller.
-   */
-  public void run() {
+  private boolean isFinished(final String shardId) {
 
-    // Describe the stream to get shard information
-    List<Shard> shards = getShards();
+    boolean done = this.finished.contains(shardId)
+        || ShardCheckpointStore.SHARD_END.equals(this.checkpoints.get(shardId));
 
-    // Iterate through each shard in the stream
-    for (Shard shard : shards) {
+    if (done) {
+      this.finished.add(shardId);
+    }
 
-      String shardId = shard.shardId();
+    return done;
+  }
 
-      try {
-        String shardIterator = this.nextShardIteratorMap.get(shardId);
-        if (shardIterator == null) {
+  private boolean isReady(final Shard shard, final Set<String> shardIds) {
 
-          String iteratorType = ShardIteratorType.TRIM_HORIZON.toString();
-          shardIterator = getShardIterator(shardId, iteratorType);
-        }
+    String parent = shard.parentShardId();
+    boolean parentDone = parent == null || !shardIds.contains(parent)
+        || (!this.active.contains(parent) && isFinished(parent));
 
-        GetRecordsRequest getRecordsRequest =
-            GetRecordsRequest.builder().shardIterator(shardIterator).build();
+    return parentDone && !this.active.contains(shard.shardId())
+        && !isFinished(shard.shardId());
+  }
 
-        GetRecordsResponse getRecordsResponse =
-            this.streamsClient.getRecords(getRecordsRequest).get();
+  /**
+   * Process a batch of records, a failure is thrown so the batch is not checkpointed.
+   * 
+   * @param records {@link List} {@link Record}
+   */
+  private void process(final List<Record> records) {
+    List<Map<String, Object>> batch =
+        records.stream().map(this::transform).collect(Collectors.toList());
+    this.processor.accept(batch);
+  }
 
-        List<software.amazon.awssdk.services.dynamodb.model.Record> records =
-            getRecordsResponse.records();
+  private String requestShardIterator(final String shardId, final String sequenceNumber) {
 
-        for (software.amazon.awssdk.services.dynamodb.model.Record record : records) {
+    GetShardIteratorRequest.Builder request =
+        GetShardIteratorRequest.builder().streamArn(this.streamArn).shardId(shardId);
 
-          Map<String, Object> map = transform(record);
+    if (sequenceNumber != null) {
+      request.shardIteratorType(ShardIteratorType.AFTER_SEQUENCE_NUMBER)
+          .sequenceNumber(sequenceNumber);
+    } else {
+      request.shardIteratorType(ShardIteratorType.TRIM_HORIZON);
+    }
 
-          Context context = new LambdaContext(ID.uuid());
+    return this.streamsClient.getShardIterator(request.build()).join().shardIterator();
+  }
 
-          try {
-            this.processor.handleRequest(map, context);
-          } catch (Exception e) {
-            e.printStackTrace();
+  /**
+   * Discover shards and start polling every shard that is ready.
+   */
+  public void run() {
+
+    if (!this.closed) {
+
+      try {
+
+        List<Shard> shards = getShards();
+        Set<String> shardIds = shards.stream().map(Shard::shardId).collect(Collectors.toSet());
+
+        for (Shard shard : shards) {
+          if (isReady(shard, shardIds) && this.active.add(shard.shardId())) {
+            schedule(new ShardPoller(shard.shardId()), 0);
           }
         }
 
-        // Update the shard iterator
-        String nextShardIterator = getRecordsResponse.nextShardIterator();
-        this.nextShardIteratorMap.put(shardId, nextShardIterator);
-
-      } catch (InterruptedException | ExecutionException e) {
-        this.nextShardIteratorMap.remove(shardId);
-        e.printStackTrace();
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.WARNING, "unable to discover stream shards", e);
       }
     }
   }
 
-  private Map<String, Object> transform(
-      final software.amazon.awssdk.services.dynamodb.model.Record record) {
+  private void schedule(final ShardPoller poller, final long delayMillis) {
+    if (!this.closed) {
+      this.shardExecutor.schedule(poller, delayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Convert a {@link Record} to the DynamoDb Stream Lambda event format.
+   * 
+   * @param record {@link Record}
+   * @return {@link Map}
+   */
+  private Map<String, Object> transform(final Record record) {
+
     Map<String, Object> dynamodb = new HashMap<>();
-    dynamodb.put("Keys", record.dynamodb().keys());
+    dynamodb.put("Keys", toImage(record.dynamodb().keys()));
 
-    if (!record.dynamodb().newImage().isEmpty()) {
-      Map<String, AttributeValue> newImage = record.dynamodb().newImage();
-      String json = this.gson.toJson(newImage);
-      dynamodb.put("NewImage", this.gson.fromJson(json, Map.class));
+    if (record.dynamodb().hasNewImage()) {
+      dynamodb.put("NewImage", toImage(record.dynamodb().newImage()));
     }
 
-    if (!record.dynamodb().newImage().isEmpty()) {
-      Map<String, AttributeValue> oldImage = record.dynamodb().oldImage();
-      String json = this.gson.toJson(oldImage);
-      dynamodb.put("OldImage", this.gson.fromJson(json, Map.class));
+    if (record.dynamodb().hasOldImage()) {
+      dynamodb.put("OldImage", toImage(record.dynamodb().oldImage()));
     }
 
     Map<String, Object> map = new HashMap<>();
@@ -197,9 +377,29 @@ public class DynamoDbStreamToTypesense implements Closeable {
     map.put("eventSource", record.eventSource());
     map.put("awsRegion", record.awsRegion());
     map.put("dynamodb", dynamodb);
+    return map;
+  }
 
-    map = Map.of("Records", Arrays.asList(map));
+  private Map<String, Object> toImage(final Map<String, AttributeValue> image) {
+    Map<String, Object> map = new HashMap<>();
+    image.forEach((k, v) -> map.put(k, toValue(v)));
     return map;
   }
-}
 
+  private Map<String, Object> toValue(final AttributeValue av) {
+    return switch (av.type()) {
+      case S -> Map.of("S", av.s());
+      case N -> Map.of("N", av.n());
+      case B -> Map.of("B", Base64.getEncoder().encodeToString(av.b().asByteArray()));
+      case SS -> Map.of("SS", av.ss());
+      case NS -> Map.of("NS", av.ns());
+      case BS -> Map.of("BS", av.bs().stream()
+          .map(b -> Base64.getEncoder().encodeToString(b.asByteArray())).toList());
+      case M -> Map.of("M", toImage(av.m()));
+      case L -> Map.of("L", av.l().stream().map(this::toValue).toList());
+      case BOOL -> Map.of("BOOL", av.bool());
+      case NUL -> Map.of("NULL", Boolean.TRUE);
+      default -> Map.of();
+    };
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 
+ * {@link ShardCheckpointStore} backed by a local properties file. The file is replaced
+ * atomically on every update, so a crash never leaves a partially written file.
+ *
+ */
+public class FileShardCheckpointStore implements ShardCheckpointStore {
+
+  /** Checkpoints. */
+  private final Properties checkpoints = new Properties();
+  /** Checkpoint {@link Path}. */
+  private final Path file;
+
+  /**
+   * constructor.
+   * 
+   * @param checkpointFile {@link Path}
+   */
+  public FileShardCheckpointStore(final Path checkpointFile) {
+    this.file = checkpointFile;
+
+    if (Files.exists(checkpointFile)) {
+      try (InputStream is = Files.newInputStream(checkpointFile)) {
+        this.checkpoints.load(is);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @Override
+  public synchronized String get(final String shardId) {
+    return this.checkpoints.getProperty(shardId);
+  }
+
+  @Override
+  public synchronized void put(final String shardId, final String checkpoint) {
+
+    this.checkpoints.setProperty(shardId, checkpoint);
+
+    try {
+
+      Path parent = this.file.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      Path tmp = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+
+      try (OutputStream os = Files.newOutputStream(tmp)) {
+        this.checkpoints.store(os, "DynamoDb Stream checkpoints");
+      }
+
+      Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
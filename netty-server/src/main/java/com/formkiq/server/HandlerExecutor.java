@@ -0,0 +1,186 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 
+ * Executor that runs blocking {@link HttpRequestHandler} work off the Netty event loop.
+ * 
+ * Virtual Threads are used when the runtime supports them, otherwise a fixed pool of platform
+ * threads. In both cases at most 'maxConcurrency' tasks run at the same time and at most
+ * 'maxQueueDepth' tasks wait to run, further tasks are rejected.
+ *
+ */
+public class HandlerExecutor {
+
+  /**
+   * Create Virtual Thread {@link ExecutorService}, if supported by the runtime.
+   * 
+   * @return {@link ExecutorService} or null
+   */
+  private static ExecutorService createVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      return null;
+    }
+  }
+
+  /** Number of running tasks. */
+  private final AtomicInteger active = new AtomicInteger();
+  /** Number of completed tasks. */
+  private final LongAdder completed = new LongAdder();
+  /** {@link ExecutorService}. */
+  private final ExecutorService executor;
+  /** Maximum number of concurrent tasks. */
+  private final int maxConcurrency;
+  /** Maximum number of waiting tasks. */
+  private final int maxQueueDepth;
+  /** Concurrency permits. */
+  private final Semaphore permits;
+  /** Number of waiting tasks. */
+  private final AtomicInteger queued = new AtomicInteger();
+  /** Number of rejected tasks. */
+  private final LongAdder rejected = new LongAdder();
+  /** Whether Virtual Threads are used. */
+  private final boolean virtualThreads;
+
+  /**
+   * constructor.
+   * 
+   * @param concurrency int
+   * @param queueDepth int
+   */
+  public HandlerExecutor(final int concurrency, final int queueDepth) {
+
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("'concurrency' must be at least 1");
+    }
+
+    this.maxConcurrency = concurrency;
+    this.maxQueueDepth = Math.max(0, queueDepth);
+    this.permits = new Semaphore(concurrency);
+
+    ExecutorService virtual = createVirtualThreadExecutor();
+    this.virtualThreads = virtual != null;
+    this.executor = virtual != null ? virtual
+        : Executors.newFixedThreadPool(concurrency, new HandlerThreadFactory());
+  }
+
+  /**
+   * Run task.
+   * 
+   * @param task {@link Runnable}
+   * @throws RejectedExecutionException if the queue is full
+   */
+  public void execute(final Runnable task) {
+
+    if (this.queued.incrementAndGet() > this.maxQueueDepth + this.permits.availablePermits()) {
+      this.queued.decrementAndGet();
+      this.rejected.increment();
+      throw new RejectedExecutionException("handler queue is full");
+    }
+
+    try {
+      this.executor.execute(() -> run(task));
+    } catch (RejectedExecutionException e) {
+      this.queued.decrementAndGet();
+      this.rejected.increment();
+      throw e;
+    }
+  }
+
+  /**
+   * Get Executor statistics.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, Object> getStats() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("virtualThreads", Boolean.valueOf(this.virtualThreads));
+    map.put("maxConcurrency", Integer.valueOf(this.maxConcurrency));
+    map.put("maxQueueDepth", Integer.valueOf(this.maxQueueDepth));
+    map.put("active", Integer.valueOf(this.active.get()));
+    map.put("queued", Integer.valueOf(Math.max(0, this.queued.get())));
+    map.put("completed", Long.valueOf(this.completed.sum()));
+    map.put("rejected", Long.valueOf(this.rejected.sum()));
+    return map;
+  }
+
+  private void run(final Runnable task) {
+
+    this.permits.acquireUninterruptibly();
+    this.queued.decrementAndGet();
+    this.active.incrementAndGet();
+
+    try {
+      task.run();
+    } finally {
+      this.active.decrementAndGet();
+      this.completed.increment();
+      this.permits.release();
+    }
+  }
+
+  /**
+   * Shutdown Executor, waiting for running tasks to complete.
+   * 
+   * @param timeout long
+   * @param unit {@link TimeUnit}
+   * @throws InterruptedException InterruptedException
+   */
+  public void shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+    this.executor.shutdown();
+    this.executor.awaitTermination(timeout, unit);
+  }
+
+  /**
+   * {@link ThreadFactory} for platform handler threads.
+   */
+  private static final class HandlerThreadFactory implements ThreadFactory {
+
+    /** Thread counter. */
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(final Runnable r) {
+      Thread thread = new Thread(r, "formkiq-handler-" + this.count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -25,10 +25,9 @@ package com.formkiq.server;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultHttpResponse;
@@ -44,16 +43,18 @@ import software.amazon.awssdk.utils.IoUtils;
 public interface HttpRequestHandler {
 
   /**
-   * Build {@link DefaultHttpResponse}.
+   * Build {@link DefaultHttpResponse}, the body is written to a buffer from the channel's
+   * (pooled) allocator.
    * 
+   * @param ctx {@link ChannelHandlerContext}
    * @param status {@link HttpResponseStatus}
    * @param body {@link String}
    * @return {@link DefaultFullHttpResponse}
    */
-  default DefaultFullHttpResponse buildResponse(final HttpResponseStatus status,
-      final String body) {
+  default DefaultFullHttpResponse buildResponse(final ChannelHandlerContext ctx,
+      final HttpResponseStatus status, final String body) {
     DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
-        Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+        ByteBufUtil.writeUtf8(ctx.alloc(), body));
     return response;
   }
 
@@ -79,6 +80,15 @@ public interface HttpRequestHandler {
    */
   void handle(ChannelHandlerContext ctx, FullHttpRequest request) throws IOException;
 
+  /**
+   * Whether the handler performs blocking work and must run off the Netty event loop.
+   * 
+   * @return boolean
+   */
+  default boolean isBlocking() {
+    return true;
+  }
+
   /**
    * Does this Http Request Handler support this {@link FullHttpRequest}.
    * 
@@ -97,7 +107,7 @@ public interface HttpRequestHandler {
   default void sendResponse(final ChannelHandlerContext ctx, final HttpResponseStatus status,
       final String body) {
 
-    DefaultFullHttpResponse response = buildResponse(status, body);
+    DefaultFullHttpResponse response = buildResponse(ctx, status, body);
 
     HttpUtil.setContentLength(response, response.content().readableBytes());
 
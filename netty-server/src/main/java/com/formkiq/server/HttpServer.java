@@ -33,10 +33,10 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 
@@ -47,6 +47,8 @@ public final class HttpServer {
 
   /** Default Server Port. */
   private static final int DEFAULT_PORT = 8080;
+  /** Default pending connection backlog. */
+  private static final int DEFAULT_SO_BACKLOG = 1024;
   /** {@link Logger}. */
   private static final Logger LOGGER = Logger.getLogger(HttpServer.class.getName());
 
@@ -98,6 +100,66 @@ public final class HttpServer {
     typesenseApiKey.setRequired(true);
     options.addOption(typesenseApiKey);
 
+    Option handlerConcurrency = new Option(null, "handler-max-concurrency", true,
+        "Maximum number of requests handled concurrently");
+    options.addOption(handlerConcurrency);
+
+    Option handlerQueueDepth = new Option(null, "handler-max-queue-depth", true,
+        "Maximum number of requests waiting to be handled");
+    options.addOption(handlerQueueDepth);
+
+    Option admissionConcurrency = new Option(null, "admission-max-concurrency", true,
+        "Maximum number of admitted in flight requests (default: 1000)");
+    options.addOption(admissionConcurrency);
+
+    Option admissionRouteConcurrency = new Option(null, "admission-route-max-concurrency", true,
+        "Maximum number of admitted in flight requests per route (default: 500)");
+    options.addOption(admissionRouteConcurrency);
+
+    Option admissionLatency = new Option(null, "admission-latency-threshold", true,
+        "Latency in milliseconds above which admission limits are decreased (default: 2000)");
+    options.addOption(admissionLatency);
+
+    Option rateLimit = new Option(null, "rate-limit", true,
+        "Requests per second allowed per client, 0 disables rate limiting (default: 0)");
+    options.addOption(rateLimit);
+
+    Option rateLimitBurst = new Option(null, "rate-limit-burst", true,
+        "Requests allowed in a burst per API key (default: 2 x rate-limit)");
+    options.addOption(rateLimitBurst);
+
+    Option streamCheckpointFile = new Option(null, "stream-checkpoint-file", true,
+        "File to save DynamoDb Stream checkpoints in (default: DynamoDb Cache table)");
+    options.addOption(streamCheckpointFile);
+
+    Option streamShardThreads = new Option(null, "stream-shard-threads", true,
+        "Number of threads polling DynamoDb Stream shards (default: 4)");
+    options.addOption(streamShardThreads);
+
+    Option nativeTransport = new Option(null, "native-transport", true,
+        "Use the native epoll transport when available (default: true)");
+    options.addOption(nativeTransport);
+
+    Option workerThreads =
+        new Option(null, "worker-threads", true, "Number of Netty event loop threads");
+    options.addOption(workerThreads);
+
+    Option soBacklog =
+        new Option(null, "so-backlog", true, "Maximum queue length for incoming connections");
+    options.addOption(soBacklog);
+
+    Option idleTimeout = new Option(null, "idle-timeout", true,
+        "Seconds before an idle keep-alive connection is closed (default: 60)");
+    options.addOption(idleTimeout);
+
+    Option http2 =
+        new Option(null, "http2", true, "Enable cleartext HTTP/2 (h2c) support (default: true)");
+    options.addOption(http2);
+
+    Option awsCallMetrics = new Option(null, "aws-call-metrics", true,
+        "Record per request AWS call metrics (default: false)");
+    options.addOption(awsCallMetrics);
+
     return options;
   }
 
@@ -141,6 +203,12 @@ public final class HttpServer {
     this.commandLine = line;
   }
 
+  private int getIntOption(final String option, final int defaultValue) {
+    return this.commandLine.hasOption(option)
+        ? Integer.parseInt(this.commandLine.getOptionValue(option))
+        : defaultValue;
+  }
+
   /**
    * Load Args from Environment and commandline.
    * 
@@ -171,16 +239,26 @@ public final class HttpServer {
   public Channel run() throws InterruptedException {
 
     HttpServerInitializer childHandler = null;
-    EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-    EventLoopGroup workerGroup = new NioEventLoopGroup();
+    ServerTransport transport = ServerTransport
+        .select(!"false".equalsIgnoreCase(this.commandLine.getOptionValue("native-transport")));
+    EventLoopGroup bossGroup = transport.createEventLoopGroup(1);
+    EventLoopGroup workerGroup = transport.createEventLoopGroup(getIntOption("worker-threads", 0));
+    LOGGER.info("Using " + transport + " transport");
 
     try {
 
       ServerBootstrap b = new ServerBootstrap();
       b.group(bossGroup, workerGroup);
-      b.channel(NioServerSocketChannel.class);
+      b.channel(transport.getServerChannelClass());
       b.handler(new LoggingHandler(LogLevel.INFO));
 
+      b.option(ChannelOption.SO_BACKLOG, getIntOption("so-backlog", DEFAULT_SO_BACKLOG));
+      b.option(ChannelOption.SO_REUSEADDR, Boolean.TRUE);
+      b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+      b.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+      b.childOption(ChannelOption.TCP_NODELAY, Boolean.TRUE);
+      b.childOption(ChannelOption.SO_KEEPALIVE, Boolean.TRUE);
+
       childHandler = new HttpServerInitializer(this.commandLine);
       b.childHandler(childHandler);
 
@@ -27,19 +27,22 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.stacks.lambda.s3.DocumentsS3Update;
 import com.formkiq.stacks.lambda.s3.StagingS3Create;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
 
 /**
  * {@link SimpleChannelInboundHandler} for Http Server.
  */
 public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
 
+  /** {@link HandlerExecutor}. */
+  private final HandlerExecutor executor;
   /** {@link List} {@link HttpRequestHandler}. */
   private List<HttpRequestHandler> handlers;
   /** {@link NotSupportedHttpRequestHandler}. */
@@ -51,9 +54,14 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
    * @param requestHandler {@link NettyRequestHandler}
    * @param stagingS3Create {@link StagingS3Create}
    * @param documentS3Update {@link DocumentsS3Update}
+   * @param handlerExecutor {@link HandlerExecutor}
+   * @param admissionController {@link AdmissionController}
    */
   public HttpServerHandler(final NettyRequestHandler requestHandler,
-      final StagingS3Create stagingS3Create, final DocumentsS3Update documentS3Update) {
+      final StagingS3Create stagingS3Create, final DocumentsS3Update documentS3Update,
+      final HandlerExecutor handlerExecutor, final AdmissionController admissionController) {
+
+    this.executor = handlerExecutor;
 
     AwsServiceCache awsServices = requestHandler.getAwsServices();
     String apiKey = awsServices.environment("API_KEY");
@@ -63,6 +71,9 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
     Collection<String> urls = requestHandler.getUrlMap().keySet();
 
     this.handlers = Arrays.asList(new OptionsHttpRequestHandler(),
+        new AwsCallMetricsHttpRequestHandler(apiKey),
+        new HandlerExecutorMetricsHttpRequestHandler(handlerExecutor, apiKey),
+        new AdmissionMetricsHttpRequestHandler(admissionController, handlerExecutor, apiKey),
         new MinioS3HttpRequestHandler(stagingS3Create, documentS3Update),
         new ApiGatewayHttpRequestHandler(requestHandler, apiKey, urls),
         new AuthenticationLoginHttpRequestHandler(adminUser, adminPassword, apiKey));
@@ -72,19 +83,36 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
   protected void channelRead0(final ChannelHandlerContext ctx, final FullHttpRequest req)
       throws Exception {
 
-    Optional<HttpRequestHandler> o =
-        this.handlers.stream().filter(h -> h.isSupported(req)).findFirst();
+    HttpRequestHandler handler = this.handlers.stream().filter(h -> h.isSupported(req))
+        .findFirst().orElse(this.notSupported);
+
+    if (handler.isBlocking()) {
 
-    if (!o.isEmpty()) {
+      // stop reading from the channel until the request has been handled, so responses on a
+      // keep-alive connection stay in order
+      req.retain();
+      ctx.channel().config().setAutoRead(false);
 
       try {
-        o.get().handle(ctx, req);
-      } catch (IOException e) {
-        this.notSupported.handle(ctx, req);
+        this.executor.execute(() -> {
+          try {
+            handle(ctx, handler, req);
+          } catch (RuntimeException e) {
+            exceptionCaught(ctx, e);
+          } finally {
+            req.release();
+            ctx.channel().config().setAutoRead(true);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        req.release();
+        ctx.channel().config().setAutoRead(true);
+        this.notSupported.sendResponse(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE,
+            "{\"message\":\"Server is busy\"}");
       }
 
     } else {
-      this.notSupported.handle(ctx, req);
+      handle(ctx, handler, req);
     }
   }
 
@@ -93,6 +121,15 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
     ctx.flush();
   }
 
+  private void handle(final ChannelHandlerContext ctx, final HttpRequestHandler handler,
+      final FullHttpRequest req) {
+    try {
+      handler.handle(ctx, req);
+    } catch (IOException e) {
+      this.notSupported.handle(ctx, req);
+    }
+  }
+
   @Override
   public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
     cause.printStackTrace();
@@ -26,9 +26,12 @@ package com.formkiq.server;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.ID;
+import com.formkiq.aws.dynamodb.cache.CacheService;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.aws.dynamodb.schema.DocumentSchema;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3MultipartUploader;
 import com.formkiq.aws.sns.SnsAwsServiceRegistry;
 import com.formkiq.aws.sns.SnsService;
 import com.formkiq.aws.sqs.SqsAwsServiceRegistry;
@@ -59,12 +62,30 @@ import io.minio.messages.NotificationConfiguration;
 import io.minio.messages.QueueConfiguration;
 import io.minio.messages.VersioningConfiguration;
 import io.minio.messages.VersioningConfiguration.Status;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpServerExpectContinueHandler;
-import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler.UpgradeCodec;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.util.AsciiString;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.commons.cli.CommandLine;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
@@ -77,6 +98,7 @@ import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
@@ -101,18 +123,44 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
   private static final String DOCUMENTS_BUCKET = "documents";
   /** Documents Table. */
   private static final String DOCUMENTS_TABLE = "Documents";
+  /** Default maximum number of concurrent blocking requests. */
+  private static final int DEFAULT_HANDLER_CONCURRENCY = 200;
+  /** Default maximum number of requests waiting to be handled. */
+  private static final int DEFAULT_HANDLER_QUEUE_DEPTH = 1000;
+  /** Default maximum number of admitted requests. */
+  private static final int DEFAULT_ADMISSION_CONCURRENCY = 1000;
+  /** Default latency in milliseconds above which admission limits are decreased. */
+  private static final int DEFAULT_ADMISSION_LATENCY_THRESHOLD = 2000;
+  /** Default maximum number of admitted requests per route. */
+  private static final int DEFAULT_ADMISSION_ROUTE_CONCURRENCY = 500;
+  /** Default seconds before an idle keep-alive connection is closed. */
+  private static final int DEFAULT_IDLE_TIMEOUT_IN_SECONDS = 60;
+  /** Maximum concurrent HTTP/2 streams per connection. */
+  private static final int HTTP2_MAX_CONCURRENT_STREAMS = 100;
   /** Initial Time Delay. */
   private static final int INITIAL_TIME_DELAY_IN_SECONDS = 0;
   /** Max Content Length. */
   private static final int MAX_CONTENT_LENGTH = 5242880;
   /** Scheduled Time Delay. */
   private static final int SCHEDULED_TIME_DELAY_IN_SECONDS = 5;
+  /** Default number of threads polling DynamoDb Stream shards. */
+  private static final int DEFAULT_STREAM_SHARD_THREADS = 4;
   /** Documents Stating S3 Bucket. */
   private static final String STAGING_DOCUMENTS_BUCKET = "stagingdocuments";
   /** {@link ScheduledExecutorService}. */
   private final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
   /** {@link NettyRequestHandler}. */
   private NettyRequestHandler handler;
+  /** {@link AdmissionController}. */
+  private final AdmissionController admissionController;
+  /** {@link HandlerExecutor}. */
+  private final HandlerExecutor handlerExecutor;
+  /** {@link S3MultipartUploader}. */
+  private S3MultipartUploader multipartUploader;
+  /** Is cleartext HTTP/2 enabled. */
+  private final boolean http2;
+  /** Idle connection timeout in seconds. */
+  private final int idleTimeout;
   /** {@link StagingS3Create}. */
   private StagingS3Create s3Create;
   /** {@link DocumentsS3Update}. */
@@ -135,12 +183,23 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
 
     Map<String, URI> awsServiceEndpoints = getEndpoints(commandLine);
 
+    this.handlerExecutor = new HandlerExecutor(
+        getIntOption(commandLine, "handler-max-concurrency", DEFAULT_HANDLER_CONCURRENCY),
+        getIntOption(commandLine, "handler-max-queue-depth", DEFAULT_HANDLER_QUEUE_DEPTH));
+    this.admissionController = createAdmissionController(commandLine);
+    this.http2 = !"false".equalsIgnoreCase(commandLine.getOptionValue("http2"));
+    this.idleTimeout =
+        getIntOption(commandLine, "idle-timeout", DEFAULT_IDLE_TIMEOUT_IN_SECONDS);
+
     setupHandler(commandLine, credentialsProvider, awsServiceEndpoints);
+    this.multipartUploader = new S3MultipartUploader(
+        this.handler.getAwsServices().getExtension(S3ConnectionBuilder.class));
     setupS3Lambda(commandLine, credentialsProvider);
-    setupStreamToHttpEndpoint(credentialsProvider, awsServiceEndpoints);
+    setupStreamToHttpEndpoint(commandLine, credentialsProvider, awsServiceEndpoints);
   }
 
-  private void setupStreamToHttpEndpoint(final AwsCredentialsProvider credentialsProvider,
+  private void setupStreamToHttpEndpoint(final CommandLine commandLine,
+      final AwsCredentialsProvider credentialsProvider,
       final Map<String, URI> awsServiceEndpoints) {
 
     AwsServiceCache aws = this.handler.getAwsServices();
@@ -153,10 +212,16 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
 
       TypesenseProcessor processor = new TypesenseProcessor(this.handler.getAwsServices());
 
+      String checkpointFile = commandLine.getOptionValue("stream-checkpoint-file");
+      ShardCheckpointStore checkpoints = !Strings.isEmpty(checkpointFile)
+          ? new FileShardCheckpointStore(Path.of(checkpointFile))
+          : new CacheShardCheckpointStore(aws.getExtension(CacheService.class), streamArn);
+
       this.streams = new DynamoDbStreamToTypesense(AWS_REGION, credentialsProvider, streamArn,
-          awsServiceEndpoints.get("dynamodb"), processor);
+          awsServiceEndpoints.get("dynamodb"), processor, checkpoints,
+          getIntOption(commandLine, "stream-shard-threads", DEFAULT_STREAM_SHARD_THREADS));
 
-      // Schedule a task to read the stream every 5 seconds
+      // Schedule a task to discover new stream shards every 5 seconds
       this.executorService.scheduleWithFixedDelay(() -> this.streams.run(),
           INITIAL_TIME_DELAY_IN_SECONDS, SCHEDULED_TIME_DELAY_IN_SECONDS, TimeUnit.SECONDS);
     }
@@ -229,8 +294,98 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
     }
   }
 
+  /**
+   * Adds the HTTP/1.1 request handlers, used by both HTTP/1.1 connections and HTTP/2 streams.
+   * 
+   * @param pipeline {@link ChannelPipeline}
+   */
+  private void addHttpHandlers(final ChannelPipeline pipeline) {
+    String apiKey = this.handler.getAwsServices().environment("API_KEY");
+
+    // ahead of the content streaming, so streamed requests and responses are admitted too
+    pipeline.addLast(new AdmissionControlHandler(this.admissionController, apiKey));
+    pipeline.addLast(new JsonHttpContentCompressor());
+    // document content is streamed, only the remaining (JSON) requests are aggregated
+    pipeline.addLast(new DocumentContentStreamingHandler(this.handler.getAwsServices(), apiKey,
+        this.handlerExecutor, this.multipartUploader));
+    pipeline.addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH));
+    pipeline.addLast(new HttpServerExpectContinueHandler());
+    pipeline.addLast(createServerHandler());
+  }
+
+  private AdmissionController createAdmissionController(final CommandLine commandLine) {
+
+    int rateLimit = getIntOption(commandLine, "rate-limit", 0);
+    TokenBucketRateLimiter rateLimiter = rateLimit > 0
+        ? new TokenBucketRateLimiter(rateLimit,
+            getIntOption(commandLine, "rate-limit-burst", 2 * rateLimit))
+        : null;
+
+    return new AdmissionController(
+        getIntOption(commandLine, "admission-max-concurrency", DEFAULT_ADMISSION_CONCURRENCY),
+        getIntOption(commandLine, "admission-route-max-concurrency",
+            DEFAULT_ADMISSION_ROUTE_CONCURRENCY),
+        getIntOption(commandLine, "admission-latency-threshold",
+            DEFAULT_ADMISSION_LATENCY_THRESHOLD),
+        rateLimiter);
+  }
+
+  /**
+   * Handler that configures the HTTP/1.1 pipeline on the first request that was not upgraded to
+   * HTTP/2.
+   * 
+   * @return {@link ChannelHandler}
+   */
+  private ChannelHandler createHttp1Handler() {
+    return new SimpleChannelInboundHandler<HttpMessage>() {
+      @Override
+      protected void channelRead0(final ChannelHandlerContext ctx, final HttpMessage msg) {
+        ChannelPipeline pipeline = ctx.pipeline();
+        addHttpHandlers(pipeline);
+        pipeline.remove(this);
+        ctx.fireChannelRead(ReferenceCountUtil.retain(msg));
+      }
+    };
+  }
+
+  private Http2FrameCodec createHttp2FrameCodec() {
+    return Http2FrameCodecBuilder.forServer()
+        .initialSettings(
+            Http2Settings.defaultSettings().maxConcurrentStreams(HTTP2_MAX_CONCURRENT_STREAMS))
+        .build();
+  }
+
+  /**
+   * Each HTTP/2 stream is a child channel that is converted back to HTTP/1.1 objects, so the same
+   * request handlers serve both protocols.
+   * 
+   * @return {@link Http2MultiplexHandler}
+   */
+  private Http2MultiplexHandler createHttp2MultiplexHandler() {
+    return new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+      @Override
+      protected void initChannel(final Http2StreamChannel ch) {
+        ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(true));
+        addHttpHandlers(ch.pipeline());
+      }
+    });
+  }
+
   private HttpServerHandler createServerHandler() {
-    return new HttpServerHandler(this.handler, this.s3Create, this.s3Update);
+    return new HttpServerHandler(this.handler, this.s3Create, this.s3Update,
+        this.handlerExecutor, this.admissionController);
+  }
+
+  private UpgradeCodec createUpgradeCodec(final CharSequence protocol) {
+    return AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
+        ? new Http2ServerUpgradeCodec(createHttp2FrameCodec(), createHttp2MultiplexHandler())
+        : null;
+  }
+
+  private int getIntOption(final CommandLine commandLine, final String option,
+      final int defaultValue) {
+    return commandLine.hasOption(option) ? Integer.parseInt(commandLine.getOptionValue(option))
+        : defaultValue;
   }
 
   private Map<String, URI> getEndpoints(final CommandLine commandLine) {
@@ -264,6 +419,9 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
     env.put("DEBUG", "false");
     env.put("DOCUMENTS_IAM_URL", "http://localhost:8080");
     env.put("PATH_STYLE_ACCESS_ENABLED", "true");
+    env.put("ENABLE_AWS_CALL_METRICS",
+        String.valueOf("true".equalsIgnoreCase(commandLine.getOptionValue("aws-call-metrics"))));
+    env.put("ENABLE_CONDITIONAL_GET", "true");
 
     env.put("MODULE_typesense", "true");
     env.put("TYPESENSE_HOST", commandLine.getOptionValue("typesense-host"));
@@ -292,11 +450,32 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
 
   @Override
   public void initChannel(final SocketChannel ch) {
-    ch.pipeline().addLast(new HttpServerCodec());
-    ch.pipeline().addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH));
-    ch.pipeline().addLast(new ChunkedWriteHandler());
-    ch.pipeline().addLast(new HttpServerExpectContinueHandler());
-    ch.pipeline().addLast(createServerHandler());
+
+    ChannelPipeline pipeline = ch.pipeline();
+
+    if (this.http2) {
+
+      // h2c via "Upgrade: h2c" or prior knowledge, otherwise HTTP/1.1
+      HttpServerCodec sourceCodec = new HttpServerCodec();
+      HttpServerUpgradeHandler upgradeHandler =
+          new HttpServerUpgradeHandler(sourceCodec, this::createUpgradeCodec, MAX_CONTENT_LENGTH);
+
+      pipeline.addLast(new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler,
+          new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(final Channel channel) {
+              channel.pipeline().addLast(createHttp2FrameCodec(), createHttp2MultiplexHandler());
+            }
+          }));
+      pipeline.addLast(new IdleConnectionHandler(this.idleTimeout));
+      pipeline.addLast(createHttp1Handler());
+
+    } else {
+
+      pipeline.addLast(new HttpServerCodec());
+      pipeline.addLast(new IdleConnectionHandler(this.idleTimeout));
+      addHttpHandlers(pipeline);
+    }
   }
 
   private void makeBucket(final MinioClient mc, final String bucket, final Boolean versioning)
@@ -380,6 +559,8 @@ public final class HttpServerInitializer extends ChannelInitializer<SocketChanne
    */
   public void shutdownGracefully() {
     try {
+      this.handlerExecutor.shutdown(1, TimeUnit.MINUTES);
+      this.executorService.shutdown();
       this.executorService.awaitTermination(1, TimeUnit.MINUTES);
     } catch (InterruptedException e) {
       e.printStackTrace();
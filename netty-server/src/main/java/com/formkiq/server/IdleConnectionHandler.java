@@ -0,0 +1,97 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.concurrent.TimeUnit;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+
+/**
+ * Closes HTTP/1.1 keep-alive connections that have had no traffic for the idle timeout. A
+ * connection is never closed while a request is in flight, so long running handlers are not cut
+ * off. The handler removes itself once a connection is upgraded to HTTP/2.
+ */
+public class IdleConnectionHandler extends IdleStateHandler {
+
+  /** Number of requests without a complete response. */
+  private int inFlight;
+  /** Whether the response being written is an interim (1xx) response. */
+  private boolean informational;
+
+  /**
+   * constructor.
+   * 
+   * @param idleTimeoutSeconds int
+   */
+  public IdleConnectionHandler(final int idleTimeoutSeconds) {
+    super(0, 0, idleTimeoutSeconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  protected void channelIdle(final ChannelHandlerContext ctx, final IdleStateEvent evt) {
+    if (this.inFlight == 0) {
+      ctx.close();
+    }
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+    if (msg instanceof HttpRequest) {
+      this.inFlight++;
+    }
+    super.channelRead(ctx, msg);
+  }
+
+  @Override
+  public void userEventTriggered(final ChannelHandlerContext ctx, final Object evt)
+      throws Exception {
+    if (evt instanceof HttpServerUpgradeHandler.UpgradeEvent
+        || evt instanceof CleartextHttp2ServerUpgradeHandler.PriorKnowledgeUpgradeEvent) {
+      ctx.pipeline().remove(this);
+    }
+    super.userEventTriggered(ctx, evt);
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg,
+      final ChannelPromise promise) throws Exception {
+    if (msg instanceof HttpResponse response) {
+      this.informational = HttpStatusClass.INFORMATIONAL.equals(response.status().codeClass());
+    }
+
+    // only a final response completes a request, not a '100 Continue'
+    if (msg instanceof LastHttpContent && !this.informational && this.inFlight > 0) {
+      this.inFlight--;
+    }
+    super.write(ctx, msg, promise);
+  }
+}
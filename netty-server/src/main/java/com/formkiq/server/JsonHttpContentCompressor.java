@@ -0,0 +1,58 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import io.netty.handler.codec.compression.StandardCompressionOptions;
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+
+/**
+ * 
+ * {@link HttpContentCompressor} that negotiates gzip or deflate for JSON responses over the size
+ * threshold. Other responses, such as streamed document content, are sent as is.
+ *
+ */
+public class JsonHttpContentCompressor extends HttpContentCompressor {
+
+  /** Minimum response size in bytes that is compressed. */
+  private static final int COMPRESSION_THRESHOLD = 1024;
+
+  /**
+   * constructor.
+   */
+  public JsonHttpContentCompressor() {
+    super(COMPRESSION_THRESHOLD, StandardCompressionOptions.gzip(),
+        StandardCompressionOptions.deflate());
+  }
+
+  @Override
+  protected Result beginEncode(final HttpResponse httpResponse, final String acceptEncoding)
+      throws Exception {
+    String contentType = httpResponse.headers().get(HttpHeaderNames.CONTENT_TYPE);
+    return contentType != null && contentType.startsWith("application/json")
+        ? super.beginEncode(httpResponse, acceptEncoding)
+        : null;
+  }
+}
@@ -38,6 +38,11 @@ public class NotSupportedHttpRequestHandler implements HttpRequestHandler {
     sendResponse(ctx, HttpResponseStatus.BAD_REQUEST, "request not supported");
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
+
   @Override
   public boolean isSupported(final FullHttpRequest request) {
     return true;
@@ -45,7 +45,7 @@ public class OptionsHttpRequestHandler implements HttpRequestHandler {
     headers.add("Access-Control-Allow-Methods", "*");
     headers.add("Access-Control-Allow-Origin", "*");
 
-    DefaultFullHttpResponse response = buildResponse(HttpResponseStatus.OK, "ok");
+    DefaultFullHttpResponse response = buildResponse(ctx, HttpResponseStatus.OK, "ok");
     HttpUtil.setContentLength(response, response.content().readableBytes());
 
     response.headers().add(headers);
@@ -53,6 +53,11 @@ public class OptionsHttpRequestHandler implements HttpRequestHandler {
     ctx.writeAndFlush(response);
   }
 
+  @Override
+  public boolean isBlocking() {
+    return false;
+  }
+
   @Override
   public boolean isSupported(final FullHttpRequest request) {
     return request.method().equals(HttpMethod.OPTIONS);
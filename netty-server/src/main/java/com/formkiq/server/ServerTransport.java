@@ -0,0 +1,73 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+/**
+ * Netty transport selection. The native epoll transport is used on Linux when it is available,
+ * otherwise the NIO transport is used.
+ */
+public enum ServerTransport {
+
+  /** Native Linux epoll transport. */
+  EPOLL,
+  /** Java NIO transport. */
+  NIO;
+
+  /**
+   * Select the {@link ServerTransport}.
+   * 
+   * @param nativeTransport boolean whether the native transport may be used
+   * @return {@link ServerTransport}
+   */
+  public static ServerTransport select(final boolean nativeTransport) {
+    return nativeTransport && Epoll.isAvailable() ? EPOLL : NIO;
+  }
+
+  /**
+   * Create {@link EventLoopGroup}.
+   * 
+   * @param threads int number of threads, 0 for the Netty default
+   * @return {@link EventLoopGroup}
+   */
+  public EventLoopGroup createEventLoopGroup(final int threads) {
+    return this == EPOLL ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+  }
+
+  /**
+   * Get the {@link ServerChannel} class.
+   * 
+   * @return {@link Class}
+   */
+  public Class<? extends ServerChannel> getServerChannelClass() {
+    return this == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+}
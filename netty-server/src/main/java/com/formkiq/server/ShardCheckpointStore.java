@@ -0,0 +1,52 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+/**
+ * 
+ * Persists the position of a DynamoDb Stream consumer in each shard, so a restart resumes after
+ * the last processed record instead of the start of the stream.
+ *
+ */
+public interface ShardCheckpointStore {
+
+  /** Checkpoint of a shard that has been read to its end. */
+  String SHARD_END = "SHARD_END";
+
+  /**
+   * Get the checkpoint of a shard.
+   * 
+   * @param shardId {@link String}
+   * @return {@link String} sequence number, {@link #SHARD_END} or null
+   */
+  String get(String shardId);
+
+  /**
+   * Save the checkpoint of a shard.
+   * 
+   * @param shardId {@link String}
+   * @param checkpoint {@link String} sequence number or {@link #SHARD_END}
+   */
+  void put(String shardId, String checkpoint);
+}
@@ -0,0 +1,151 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 
+ * Token bucket rate limiter with one bucket per key. Each bucket holds at most 'burst' tokens and
+ * is refilled at 'ratePerSecond' tokens per second; a request takes one token. The buckets are
+ * kept in a bounded LRU map, so the least recently used bucket is dropped once 'maxBuckets' keys
+ * are tracked.
+ *
+ */
+public class TokenBucketRateLimiter {
+
+  /** Default maximum number of buckets. */
+  private static final int DEFAULT_MAX_BUCKETS = 10000;
+  /** {@link LinkedHashMap} load factor. */
+  private static final float LOAD_FACTOR = 0.75f;
+  /** Nanoseconds per second. */
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Token Bucket.
+   */
+  private static final class Bucket {
+    /** Last refill time in nanoseconds. */
+    private long lastRefill;
+    /** Available tokens. */
+    private double tokens;
+
+    Bucket(final double initialTokens, final long now) {
+      this.tokens = initialTokens;
+      this.lastRefill = now;
+    }
+  }
+
+  /** Buckets by key, in least recently used order. */
+  private final Map<String, Bucket> buckets;
+  /** Maximum number of tokens. */
+  private final double burst;
+  /** Nano time clock. */
+  private final LongSupplier clock;
+  /** Tokens added per nanosecond. */
+  private final double tokensPerNano;
+
+  /**
+   * constructor.
+   * 
+   * @param ratePerSecond double
+   * @param burstSize int
+   */
+  public TokenBucketRateLimiter(final double ratePerSecond, final int burstSize) {
+    this(ratePerSecond, burstSize, System::nanoTime);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param ratePerSecond double
+   * @param burstSize int
+   * @param nanoClock {@link LongSupplier}
+   */
+  public TokenBucketRateLimiter(final double ratePerSecond, final int burstSize,
+      final LongSupplier nanoClock) {
+    this(ratePerSecond, burstSize, nanoClock, DEFAULT_MAX_BUCKETS);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param ratePerSecond double
+   * @param burstSize int
+   * @param nanoClock {@link LongSupplier}
+   * @param maxBuckets int maximum number of tracked keys
+   */
+  public TokenBucketRateLimiter(final double ratePerSecond, final int burstSize,
+      final LongSupplier nanoClock, final int maxBuckets) {
+
+    if (ratePerSecond <= 0 || burstSize < 1) {
+      throw new IllegalArgumentException("'ratePerSecond' and 'burstSize' must be positive");
+    }
+
+    this.tokensPerNano = ratePerSecond / NANOS_PER_SECOND;
+    this.burst = burstSize;
+    this.clock = nanoClock;
+    this.buckets = new LinkedHashMap<>(maxBuckets, LOAD_FACTOR, true) {
+      /** serialVersionUID. */
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Bucket> eldest) {
+        return size() > maxBuckets;
+      }
+    };
+  }
+
+  private void refill(final Bucket bucket, final long now) {
+    long elapsed = Math.max(0, now - bucket.lastRefill);
+    bucket.tokens = Math.min(this.burst, bucket.tokens + elapsed * this.tokensPerNano);
+    bucket.lastRefill = Math.max(now, bucket.lastRefill);
+  }
+
+  /**
+   * Take a token from the key's bucket.
+   * 
+   * @param key {@link String}
+   * @return long 0 if a token was taken, otherwise nanoseconds until a token is available
+   */
+  public synchronized long tryAcquire(final String key) {
+
+    long now = this.clock.getAsLong();
+    Bucket bucket = this.buckets.computeIfAbsent(key, k -> new Bucket(this.burst, now));
+
+    long wait = 0;
+    refill(bucket, now);
+
+    if (bucket.tokens >= 1) {
+      bucket.tokens -= 1;
+    } else {
+      wait = (long) Math.ceil((1 - bucket.tokens) / this.tokensPerNano);
+    }
+
+    return wait;
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Unit Test for {@link AdmissionControlHandler}.
+ */
+class AdmissionControlHandlerTest {
+
+  /** API Key. */
+  private static final String API_KEY = "apikey";
+
+  private FullHttpRequest createRequest(final String authorization) {
+    FullHttpRequest request =
+        new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/documents");
+    request.headers().set(HttpHeaderNames.AUTHORIZATION, authorization);
+    return request;
+  }
+
+  /**
+   * Unauthenticated requests are rate limited by remote address, not by their Authorization.
+   */
+  @Test
+  void testChannelRead01() {
+    // given
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 1);
+    AdmissionController controller = new AdmissionController(10, 10, 1000, rateLimiter);
+    EmbeddedChannel channel = new EmbeddedChannel(new AdmissionControlHandler(controller, API_KEY));
+
+    // when
+    channel.writeInbound(createRequest("invalid1"));
+    channel.writeInbound(createRequest("invalid2"));
+    channel.writeInbound(createRequest(API_KEY));
+
+    // then
+    Object admitted = channel.readInbound();
+    assertNotNull(admitted);
+    ReferenceCountUtil.release(admitted);
+
+    FullHttpResponse rejected = channel.readOutbound();
+    assertEquals(HttpResponseStatus.TOO_MANY_REQUESTS, rejected.status());
+    rejected.release();
+
+    Object apiKey = channel.readInbound();
+    assertNotNull(apiKey);
+    ReferenceCountUtil.release(apiKey);
+
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+}
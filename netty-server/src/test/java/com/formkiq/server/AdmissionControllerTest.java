@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import com.formkiq.server.AdmissionController.Admission;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/**
+ * Unit Test for {@link AdmissionController}.
+ */
+class AdmissionControllerTest {
+
+  /** Latency Threshold. */
+  private static final long LATENCY_THRESHOLD = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Requests over the API key rate limit are rejected with 429 and Retry-After.
+   */
+  @Test
+  void testAdmit01() {
+    // given
+    AtomicLong clock = new AtomicLong();
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 2, clock::get);
+    AdmissionController controller = new AdmissionController(10, 10, 1000, rateLimiter);
+
+    // when
+    Admission a0 = controller.admit("key1", "GET /documents");
+    Admission a1 = controller.admit("key1", "GET /documents");
+    Admission a2 = controller.admit("key1", "GET /documents");
+    Admission other = controller.admit("key2", "GET /documents");
+
+    // then
+    assertTrue(a0.isAdmitted());
+    assertTrue(a1.isAdmitted());
+    assertFalse(a2.isAdmitted());
+    assertEquals(HttpResponseStatus.TOO_MANY_REQUESTS, a2.getStatus());
+    assertTrue(a2.getRetryAfter() >= 1);
+    assertTrue(other.isAdmitted());
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertTrue(controller.admit("key1", "GET /documents").isAdmitted());
+    assertEquals(Long.valueOf(1), controller.getStats().get("rejectedRateLimit"));
+  }
+
+  /**
+   * Requests over the route concurrency limit are rejected with 503, other routes are admitted.
+   */
+  @Test
+  void testAdmit02() {
+    // given
+    AdmissionController controller = new AdmissionController(10, 1, 1000, null);
+
+    // when
+    Admission a0 = controller.admit("key", "GET /documents");
+    Admission a1 = controller.admit("key", "GET /documents");
+    Admission a2 = controller.admit("key", "GET /search");
+
+    // then
+    assertTrue(a0.isAdmitted());
+    assertNull(a0.getStatus());
+    assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, a1.getStatus());
+    assertEquals(1, a1.getRetryAfter());
+    assertTrue(a2.isAdmitted());
+    assertEquals(Integer.valueOf(2), controller.getStats().get("inFlight"));
+
+    a0.complete(false);
+    a0.complete(false);
+    assertTrue(controller.admit("key", "GET /documents").isAdmitted());
+    assertEquals(Long.valueOf(1), controller.getStats().get("rejectedConcurrency"));
+  }
+
+  /**
+   * Limit decreases multiplicatively on slow or dropped requests and increases additively.
+   */
+  @Test
+  void testAimdConcurrencyLimit01() {
+    // given
+    AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10, 1, 20, LATENCY_THRESHOLD);
+
+    // when
+    assertTrue(limit.tryAcquire());
+    limit.release(LATENCY_THRESHOLD + 1, false);
+
+    // then
+    assertEquals(9, limit.getLimit());
+
+    // when
+    for (int i = 0; i < 9; i++) {
+      assertTrue(limit.tryAcquire());
+    }
+    assertFalse(limit.tryAcquire());
+    limit.release(1, false);
+
+    // then
+    assertEquals(10, limit.getLimit());
+    assertEquals(8, limit.getInFlight());
+
+    // when
+    limit.release(1, true);
+
+    // then
+    assertEquals(9, limit.getLimit());
+  }
+
+  /**
+   * Buckets are kept in a bounded LRU, the least recently used key is evicted.
+   */
+  @Test
+  void testTryAcquire01() {
+    // given
+    AtomicLong clock = new AtomicLong();
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 1, clock::get, 2);
+
+    // when
+    long key1 = rateLimiter.tryAcquire("key1");
+    long key2 = rateLimiter.tryAcquire("key2");
+    long key2Again = rateLimiter.tryAcquire("key2");
+    long key3 = rateLimiter.tryAcquire("key3");
+
+    // then
+    assertEquals(0, key1);
+    assertEquals(0, key2);
+    assertTrue(key2Again > 0);
+    assertEquals(0, key3);
+
+    // key1 was evicted and starts with a full bucket, key2 is still tracked
+    assertEquals(0, rateLimiter.tryAcquire("key1"));
+    assertTrue(rateLimiter.tryAcquire("key3") > 0);
+  }
+}
@@ -0,0 +1,357 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.formkiq.aws.dynamodb.ApiAuthorization;
+import com.formkiq.aws.services.lambda.AbstractRestApiRequestHandler;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestEventUtil;
+import com.formkiq.aws.services.lambda.ApiGatewayRequestHandler;
+import com.formkiq.aws.services.lambda.ApiMapResponse;
+import com.formkiq.aws.services.lambda.ApiRequestHandlerResponse;
+import com.formkiq.aws.services.lambda.ApiResponseStatus;
+import com.formkiq.aws.services.lambda.ConditionalGet;
+import com.formkiq.aws.services.lambda.LambdaInputRecord;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * Unit Test for {@link ApiGatewayHttpRequestHandler}.
+ */
+class ApiGatewayHttpRequestHandlerTest {
+
+  /**
+   * {@link ApiGatewayRequestHandler} that echoes the request.
+   */
+  private static final class EchoRequestHandler
+      implements ApiGatewayRequestHandler, ApiGatewayRequestEventUtil {
+
+    /** Number of GET calls. */
+    private final AtomicInteger gets = new AtomicInteger();
+
+    @Override
+    public ApiRequestHandlerResponse get(final LambdaLogger logger,
+        final ApiGatewayRequestEvent event, final ApiAuthorization authorization,
+        final AwsServiceCache awsServices) throws Exception {
+
+      this.gets.incrementAndGet();
+      String id = getPathParameter(event, "id");
+      if ("error".equals(id)) {
+        throw new IllegalStateException("failed");
+      }
+
+      ApiRequestHandlerResponse response = new ApiRequestHandlerResponse(ApiResponseStatus.SC_OK,
+          new ApiMapResponse(Map.of("id", id, "q", event.getQueryStringParameter("q"))));
+      response.addHeader("X-Echo-Id", id);
+      return response;
+    }
+
+    @Override
+    public String getEtag(final LambdaLogger logger, final ApiGatewayRequestEvent event,
+        final ApiAuthorization authorization, final AwsServiceCache awsServices) {
+      String id = getPathParameter(event, "id");
+      return "error".equals(id) ? null : ConditionalGet.createEtag(id);
+    }
+
+    @Override
+    public String getRequestUrl() {
+      return "/echo/{id}";
+    }
+
+    @Override
+    public ApiRequestHandlerResponse post(final LambdaLogger logger,
+        final ApiGatewayRequestEvent event, final ApiAuthorization authorization,
+        final AwsServiceCache awsServices) throws Exception {
+
+      byte[] bytes = getBodyAsInputStream(event).readAllBytes();
+      return new ApiRequestHandlerResponse(ApiResponseStatus.SC_CREATED,
+          new ApiMapResponse(Map.of("base64", Boolean.TRUE.equals(event.getIsBase64Encoded()),
+              "content", Base64.getEncoder().encodeToString(bytes))));
+    }
+  }
+
+  /**
+   * {@link AbstractRestApiRequestHandler} with only the {@link EchoRequestHandler}.
+   */
+  private static final class TestRequestHandler extends AbstractRestApiRequestHandler {
+
+    /** {@link AwsServiceCache}. */
+    private final AwsServiceCache awsServices = new AwsServiceCacheBuilder(
+        Map.of("AWS_REGION", "us-east-2", "ENABLE_CONDITIONAL_GET", "true"), Map.of(), null)
+        .build();
+    /** {@link EchoRequestHandler}. */
+    private final EchoRequestHandler echo = new EchoRequestHandler();
+
+    @Override
+    public AwsServiceCache getAwsServices() {
+      return this.awsServices;
+    }
+
+    @Override
+    public Map<String, ApiGatewayRequestHandler> getUrlMap() {
+      return Map.of(this.echo.getRequestUrl(), this.echo);
+    }
+
+    @Override
+    public void handleSqsRequest(final LambdaLogger logger, final AwsServiceCache services,
+        final LambdaInputRecord record) throws IOException {
+      // empty
+    }
+  }
+
+  /** API Key. */
+  private static final String API_KEY = "apikey";
+
+  /** {@link Gson}. */
+  private final Gson gson = new GsonBuilder().create();
+  /** {@link TestRequestHandler}. */
+  private final TestRequestHandler requestHandler = new TestRequestHandler();
+  /** {@link EmbeddedChannel}. */
+  private final EmbeddedChannel channel = createChannel(
+      new ApiGatewayHttpRequestHandler(this.requestHandler, API_KEY, List.of("/echo/{id}")));
+
+  private static EmbeddedChannel createChannel(final HttpRequestHandler handler) {
+    return new EmbeddedChannel(new SimpleChannelInboundHandler<FullHttpRequest>() {
+      @Override
+      protected void channelRead0(final ChannelHandlerContext ctx, final FullHttpRequest request)
+          throws Exception {
+        handler.handle(ctx, request);
+      }
+    });
+  }
+
+  private FullHttpRequest createRequest(final HttpMethod method, final String uri,
+      final byte[] content) {
+    FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri,
+        Unpooled.wrappedBuffer(content));
+    request.headers().set(HttpHeaderNames.AUTHORIZATION, API_KEY);
+    return request;
+  }
+
+  private FullHttpResponse send(final FullHttpRequest request) {
+    this.channel.writeInbound(request);
+    FullHttpResponse response = this.channel.readOutbound();
+    assertNull(this.channel.readOutbound());
+    return response;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> toMap(final FullHttpResponse response) {
+    return this.gson.fromJson(toString(response), Map.class);
+  }
+
+  private String toString(final FullHttpResponse response) {
+    String body = response.content().toString(StandardCharsets.UTF_8);
+    response.release();
+    return body;
+  }
+
+  @AfterEach
+  void afterEach() {
+    this.channel.finishAndReleaseAll();
+  }
+
+  /**
+   * GET returns the handler's status, headers and JSON body.
+   */
+  @Test
+  void testHandle01() {
+    // given
+    FullHttpRequest request = createRequest(HttpMethod.GET, "/echo/123?q=abc", new byte[0]);
+
+    // when
+    FullHttpResponse response = send(request);
+
+    // then
+    assertEquals(HttpResponseStatus.OK, response.status());
+    assertEquals("application/json", response.headers().get("Content-Type"));
+    assertEquals("*", response.headers().get("Access-Control-Allow-Origin"));
+    assertEquals("123", response.headers().get("X-Echo-Id"));
+
+    assertEquals(String.valueOf(response.content().readableBytes()),
+        response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+
+    Map<String, Object> body = toMap(response);
+    assertEquals("123", body.get("id"));
+    assertEquals("abc", body.get("q"));
+  }
+
+  /**
+   * POST with a UTF-8 JSON body is passed as is.
+   */
+  @Test
+  void testHandle02() {
+    // given
+    String json = "{\"name\":\"café\"}";
+    FullHttpRequest request =
+        createRequest(HttpMethod.POST, "/echo/1", json.getBytes(StandardCharsets.UTF_8));
+
+    // when
+    FullHttpResponse response = send(request);
+
+    // then
+    assertEquals(HttpResponseStatus.CREATED, response.status());
+    Map<String, Object> body = toMap(response);
+    assertEquals(Boolean.FALSE, body.get("base64"));
+    assertEquals(json, new String(Base64.getDecoder().decode(body.get("content").toString()),
+        StandardCharsets.UTF_8));
+  }
+
+  /**
+   * POST with binary content is passed base64 encoded and decoded unchanged by the handler.
+   */
+  @Test
+  void testHandle03() {
+    // given
+    byte[] content = new byte[] {(byte) 0x89, 'P', 'N', 'G', 0, (byte) 0xff, (byte) 0xfe, 1};
+    FullHttpRequest request = createRequest(HttpMethod.POST, "/echo/1", content);
+
+    // when
+    FullHttpResponse response = send(request);
+
+    // then
+    assertEquals(HttpResponseStatus.CREATED, response.status());
+    Map<String, Object> body = toMap(response);
+    assertEquals(Boolean.TRUE, body.get("base64"));
+    assertArrayEquals(content, Base64.getDecoder().decode(body.get("content").toString()));
+  }
+
+  /**
+   * A handler exception is returned as a 500 JSON error.
+   */
+  @Test
+  void testHandle04() {
+    // given
+    FullHttpRequest request = createRequest(HttpMethod.GET, "/echo/error", new byte[0]);
+
+    // when
+    FullHttpResponse response = send(request);
+
+    // then
+    assertEquals(HttpResponseStatus.INTERNAL_SERVER_ERROR, response.status());
+    assertEquals("application/json", response.headers().get("Content-Type"));
+    assertEquals("{\"message\":\"Internal Server Error\"}", toString(response));
+  }
+
+  /**
+   * An unknown route and an unsupported method are returned as 404 JSON errors.
+   */
+  @Test
+  void testHandle05() {
+    // given
+    FullHttpRequest unknown = createRequest(HttpMethod.GET, "/unknown", new byte[0]);
+    FullHttpRequest delete = createRequest(HttpMethod.DELETE, "/echo/1", new byte[0]);
+
+    // when
+    FullHttpResponse unknownResponse = send(unknown);
+    FullHttpResponse deleteResponse = send(delete);
+
+    // then
+    assertEquals(HttpResponseStatus.NOT_FOUND, unknownResponse.status());
+    assertEquals("{\"message\":\"/unknown request handler not found\"}",
+        toString(unknownResponse));
+
+    assertEquals(HttpResponseStatus.NOT_FOUND, deleteResponse.status());
+    assertEquals("{\"message\":\"DELETE for /echo/{id} not found\"}", toString(deleteResponse));
+  }
+
+  /**
+   * An invalid Authorization is rejected before the request handler runs.
+   */
+  @Test
+  void testHandle06() {
+    // given
+    FullHttpRequest request = createRequest(HttpMethod.GET, "/echo/123", new byte[0]);
+    request.headers().set(HttpHeaderNames.AUTHORIZATION, "invalid");
+
+    // when
+    FullHttpResponse response = send(request);
+
+    // then
+    assertEquals(HttpResponseStatus.FORBIDDEN, response.status());
+    assertEquals("{\"message\":\"access denied, invalid API_KEY\"}", toString(response));
+  }
+
+  /**
+   * GET returns the handler's ETag and a matching If-None-Match returns 304 without calling the
+   * handler's GET.
+   */
+  @Test
+  void testHandle07() {
+    // given
+    FullHttpRequest request = createRequest(HttpMethod.GET, "/echo/123", new byte[0]);
+
+    // when
+    FullHttpResponse response = send(request);
+    String etag = response.headers().get("ETag");
+    response.release();
+
+    FullHttpRequest conditional = createRequest(HttpMethod.GET, "/echo/123", new byte[0]);
+    conditional.headers().set(HttpHeaderNames.IF_NONE_MATCH, etag);
+    FullHttpResponse notModified = send(conditional);
+
+    FullHttpRequest changed = createRequest(HttpMethod.GET, "/echo/456", new byte[0]);
+    changed.headers().set(HttpHeaderNames.IF_NONE_MATCH, etag);
+    FullHttpResponse modified = send(changed);
+
+    // then
+    assertEquals(HttpResponseStatus.OK, response.status());
+    assertEquals(ConditionalGet.createEtag("123"), etag);
+
+    assertEquals(HttpResponseStatus.NOT_MODIFIED, notModified.status());
+    assertEquals(etag, notModified.headers().get("ETag"));
+    assertEquals("", toString(notModified));
+
+    assertEquals(HttpResponseStatus.OK, modified.status());
+    assertEquals(ConditionalGet.createEtag("456"), modified.headers().get("ETag"));
+    assertEquals("456", toMap(modified).get("id"));
+
+    assertEquals(2, this.requestHandler.echo.gets.get());
+  }
+}
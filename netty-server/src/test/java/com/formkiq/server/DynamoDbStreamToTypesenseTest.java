@@ -0,0 +1,293 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorResponse;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
+
+/**
+ * Unit Test for {@link DynamoDbStreamToTypesense}.
+ */
+class DynamoDbStreamToTypesenseTest {
+
+  /** Stream Arn. */
+  private static final String STREAM_ARN = "arn:aws:dynamodb:us-east-1:1:table/docs/stream/1";
+  /** Test Timeout. */
+  private static final long TEST_TIMEOUT = 30;
+
+  /**
+   * In memory DynamoDb Stream, an iterator is 'shardId:position'.
+   */
+  private static final class FakeStreamsClient implements DynamoDbStreamsAsyncClient {
+
+    /** Records by shard. */
+    private final Map<String, List<Record>> records = new LinkedHashMap<>();
+    /** Parent shard by shard. */
+    private final Map<String, String> parents = new HashMap<>();
+    /** Shard Iterator requests. */
+    private final List<GetShardIteratorRequest> iteratorRequests =
+        Collections.synchronizedList(new ArrayList<>());
+
+    void addShard(final String shardId, final String parentShardId, final String... sequences) {
+      this.parents.put(shardId, parentShardId);
+      this.records.put(shardId, List.of(sequences).stream()
+          .map(DynamoDbStreamToTypesenseTest::createRecord).toList());
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+    @Override
+    public CompletableFuture<DescribeStreamResponse> describeStream(
+        final DescribeStreamRequest request) {
+      List<Shard> shards = this.records.keySet().stream().map(
+          id -> Shard.builder().shardId(id).parentShardId(this.parents.get(id)).build()).toList();
+      return CompletableFuture.completedFuture(DescribeStreamResponse.builder()
+          .streamDescription(StreamDescription.builder().shards(shards).build()).build());
+    }
+
+    @Override
+    public CompletableFuture<GetRecordsResponse> getRecords(final GetRecordsRequest request) {
+
+      String[] iterator = request.shardIterator().split(":");
+      List<Record> list = this.records.get(iterator[0]);
+      int position = Integer.parseInt(iterator[1]);
+
+      // one record per call, the shard is closed after its last record
+      List<Record> batch = position < list.size() ? List.of(list.get(position)) : List.of();
+      String next = position < list.size() ? iterator[0] + ":" + (position + 1) : null;
+
+      return CompletableFuture.completedFuture(
+          GetRecordsResponse.builder().records(batch).nextShardIterator(next).build());
+    }
+
+    @Override
+    public CompletableFuture<GetShardIteratorResponse> getShardIterator(
+        final GetShardIteratorRequest request) {
+
+      this.iteratorRequests.add(request);
+
+      int position = 0;
+      if (ShardIteratorType.AFTER_SEQUENCE_NUMBER.equals(request.shardIteratorType())) {
+        List<Record> list = this.records.get(request.shardId());
+        for (int i = 0; i < list.size(); i++) {
+          if (list.get(i).dynamodb().sequenceNumber().equals(request.sequenceNumber())) {
+            position = i + 1;
+          }
+        }
+      }
+
+      return CompletableFuture.completedFuture(GetShardIteratorResponse.builder()
+          .shardIterator(request.shardId() + ":" + position).build());
+    }
+
+    @Override
+    public String serviceName() {
+      return "dynamodb";
+    }
+  }
+
+  /**
+   * In memory {@link ShardCheckpointStore}.
+   */
+  private static final class MapShardCheckpointStore implements ShardCheckpointStore {
+
+    /** Checkpoints. */
+    private final Map<String, String> checkpoints = new HashMap<>();
+
+    @Override
+    public synchronized String get(final String shardId) {
+      return this.checkpoints.get(shardId);
+    }
+
+    @Override
+    public synchronized void put(final String shardId, final String checkpoint) {
+      this.checkpoints.put(shardId, checkpoint);
+    }
+  }
+
+  private static Record createRecord(final String sequenceNumber) {
+    return Record.builder().eventID(sequenceNumber).eventName(OperationType.INSERT)
+        .dynamodb(StreamRecord.builder().sequenceNumber(sequenceNumber)
+            .keys(Map.of("PK", AttributeValue.fromS("docs#" + sequenceNumber))).build())
+        .build();
+  }
+
+  private static String getSequence(final Map<String, Object> record) {
+    return (String) record.get("eventID");
+  }
+
+  /**
+   * Discover shards until the latch is released.
+   * 
+   * @param streams {@link DynamoDbStreamToTypesense}
+   * @param latch {@link CountDownLatch}
+   * @throws InterruptedException InterruptedException
+   */
+  private void runUntil(final DynamoDbStreamToTypesense streams, final CountDownLatch latch)
+      throws InterruptedException {
+    do {
+      streams.run();
+    } while (!latch.await(100, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * A child shard is only processed after its parent has been read to the end.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT)
+  void testRun01() throws Exception {
+    // given
+    FakeStreamsClient client = new FakeStreamsClient();
+    client.addShard("shard-1", "shard-0", "4", "5");
+    client.addShard("shard-0", null, "1", "2", "3");
+
+    MapShardCheckpointStore checkpoints = new MapShardCheckpointStore();
+    List<String> processed = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch latch = new CountDownLatch(5);
+
+    try (DynamoDbStreamToTypesense streams =
+        new DynamoDbStreamToTypesense(client, STREAM_ARN, records -> records.forEach(r -> {
+          processed.add(getSequence(r));
+          latch.countDown();
+        }), checkpoints, 2)) {
+
+      // when
+      runUntil(streams, latch);
+    }
+
+    // then
+    assertEquals(List.of("1", "2", "3", "4", "5"), processed);
+    assertEquals(ShardCheckpointStore.SHARD_END, checkpoints.get("shard-0"));
+  }
+
+  /**
+   * Polling resumes after the saved checkpoint.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT)
+  void testRun02() throws Exception {
+    // given
+    FakeStreamsClient client = new FakeStreamsClient();
+    client.addShard("shard-0", null, "1", "2", "3");
+
+    MapShardCheckpointStore checkpoints = new MapShardCheckpointStore();
+    checkpoints.put("shard-0", "2");
+
+    List<String> processed = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch latch = new CountDownLatch(1);
+
+    try (DynamoDbStreamToTypesense streams =
+        new DynamoDbStreamToTypesense(client, STREAM_ARN, records -> records.forEach(r -> {
+          processed.add(getSequence(r));
+          latch.countDown();
+        }), checkpoints, 1)) {
+
+      // when
+      runUntil(streams, latch);
+    }
+
+    // then
+    assertEquals(List.of("3"), processed);
+
+    GetShardIteratorRequest request = client.iteratorRequests.get(0);
+    assertEquals(ShardIteratorType.AFTER_SEQUENCE_NUMBER, request.shardIteratorType());
+    assertEquals("2", request.sequenceNumber());
+  }
+
+  /**
+   * A failed batch is not checkpointed and is retried from the last checkpoint.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT)
+  void testRun03() throws Exception {
+    // given
+    FakeStreamsClient client = new FakeStreamsClient();
+    client.addShard("shard-0", null, "1", "2");
+
+    MapShardCheckpointStore checkpoints = new MapShardCheckpointStore();
+    List<String> processed = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(2);
+
+    try (DynamoDbStreamToTypesense streams =
+        new DynamoDbStreamToTypesense(client, STREAM_ARN, records -> {
+          if (calls.incrementAndGet() == 2) {
+            throw new IllegalStateException("index unavailable");
+          }
+          records.forEach(r -> {
+            processed.add(getSequence(r));
+            latch.countDown();
+          });
+        }, checkpoints, 1)) {
+
+      // when
+      runUntil(streams, latch);
+    }
+
+    // then
+    assertEquals(List.of("1", "2"), processed);
+    assertTrue(calls.get() >= 3);
+
+    long afterOne = client.iteratorRequests.stream()
+        .filter(r -> ShardIteratorType.AFTER_SEQUENCE_NUMBER.equals(r.shardIteratorType())
+            && "1".equals(r.sequenceNumber()))
+        .count();
+    assertEquals(1, afterOne);
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit Test for {@link FileShardCheckpointStore}.
+ */
+class FileShardCheckpointStoreTest {
+
+  /** Temporary Directory. */
+  @TempDir
+  private Path tempDir;
+
+  /**
+   * Checkpoints survive a restart.
+   */
+  @Test
+  void testPut01() {
+    // given
+    Path file = this.tempDir.resolve("checkpoints").resolve("stream.properties");
+    FileShardCheckpointStore store = new FileShardCheckpointStore(file);
+
+    // when
+    store.put("shard-1", "100");
+    store.put("shard-1", "200");
+    store.put("shard-0", ShardCheckpointStore.SHARD_END);
+
+    // then
+    FileShardCheckpointStore restarted = new FileShardCheckpointStore(file);
+    assertEquals("200", restarted.get("shard-1"));
+    assertEquals(ShardCheckpointStore.SHARD_END, restarted.get("shard-0"));
+    assertNull(restarted.get("shard-2"));
+  }
+}
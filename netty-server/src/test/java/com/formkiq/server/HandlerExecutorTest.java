@@ -0,0 +1,83 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Unit Test for {@link HandlerExecutor}.
+ */
+class HandlerExecutorTest {
+
+  /**
+   * Tasks over concurrency and queue depth are rejected.
+   * 
+   * @throws InterruptedException InterruptedException
+   */
+  @Test
+  @Timeout(value = 10)
+  void testExecute01() throws InterruptedException {
+    // given
+    HandlerExecutor executor = new HandlerExecutor(1, 1);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(2);
+
+    Runnable task = () -> {
+      running.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      done.countDown();
+    };
+
+    // when
+    executor.execute(task);
+    running.await();
+    executor.execute(task);
+
+    // then
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(task));
+
+    Map<String, Object> stats = executor.getStats();
+    assertEquals(Integer.valueOf(1), stats.get("active"));
+    assertEquals(Integer.valueOf(1), stats.get("queued"));
+    assertEquals(Long.valueOf(1), stats.get("rejected"));
+
+    release.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    executor.shutdown(1, TimeUnit.SECONDS);
+    assertEquals(Long.valueOf(2), executor.getStats().get("completed"));
+  }
+}
@@ -56,8 +56,10 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.DEFAULT_SITE_ID;
 import static com.formkiq.testutils.aws.FkqDocumentService.waitForDocumentContent;
 import static com.formkiq.testutils.aws.FkqDocumentService.waitForDocumentContentLength;
 import static com.formkiq.testutils.aws.FkqDocumentService.waitForDocumentFulltext;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit Test for {@link HttpServer}.
@@ -132,6 +134,190 @@ public class HttpServerTest {
     assertEquals(path, fulltext.getPath());
   }
 
+  /**
+   * Test document content ETag and If-None-Match.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testDocumentContentEtag01() throws Exception {
+    // given
+    AddDocumentRequest req =
+        new AddDocumentRequest().path("etag.txt").content("etag content").contentType("text/plain");
+    String documentId = this.documentsApi.addDocument(req, null, null).getDocumentId();
+    waitForDocumentContent(this.apiClient, null, documentId);
+
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest request = HttpRequest.newBuilder()
+        .uri(new URI(BASE_URL + "/documents/" + documentId + "/content"))
+        .header("Authorization", NettyExtension.API_KEY).build();
+
+    // when
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    String etag = response.headers().firstValue("etag").orElse(null);
+
+    HttpResponse<String> notModified = client.send(
+        HttpRequest.newBuilder(request, (k, v) -> true).header("If-None-Match", etag).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.OK.code(), response.statusCode());
+    assertNotNull(etag);
+    assertEquals(HttpResponseStatus.NOT_MODIFIED.code(), notModified.statusCode());
+    assertEquals("", notModified.body());
+    assertEquals(etag, notModified.headers().firstValue("etag").orElse(null));
+  }
+
+  /**
+   * Test streaming document content.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testDocumentContentStreaming01() throws Exception {
+    // given
+    String content = "streamed content";
+    AddDocumentRequest req =
+        new AddDocumentRequest().path("streamed.txt").content(content).contentType("text/plain");
+    String documentId = this.documentsApi.addDocument(req, null, null).getDocumentId();
+    waitForDocumentContent(this.apiClient, null, documentId);
+
+    HttpClient client = HttpClient.newHttpClient();
+    URI uri = new URI(BASE_URL + "/documents/" + documentId + "/content");
+
+    // when
+    HttpResponse<String> get = client.send(
+        HttpRequest.newBuilder(uri).header("Authorization", NettyExtension.API_KEY)
+            .header("Accept", "application/octet-stream").build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    HttpResponse<String> json = client.send(
+        HttpRequest.newBuilder(uri).header("Authorization", NettyExtension.API_KEY).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.OK.code(), get.statusCode());
+    assertEquals("text/plain", get.headers().firstValue("content-type").get());
+    assertEquals(content, get.body());
+
+    assertEquals(HttpResponseStatus.OK.code(), json.statusCode());
+    assertTrue(json.body().contains("\"content\":\"" + content + "\""));
+  }
+
+  /**
+   * Test streaming document content of a missing document.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testDocumentContentStreaming02() throws Exception {
+    // given
+    HttpClient client = HttpClient.newHttpClient();
+    URI uri = new URI(BASE_URL + "/documents/" + ID.uuid() + "/content");
+
+    // when
+    HttpResponse<String> get = client.send(
+        HttpRequest.newBuilder(uri).header("Authorization", NettyExtension.API_KEY)
+            .header("Accept", "application/octet-stream").build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.NOT_FOUND.code(), get.statusCode());
+  }
+
+  /**
+   * Test streaming document content with an invalid Authorization.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testDocumentContentStreaming03() throws Exception {
+    // given
+    HttpClient client = HttpClient.newHttpClient();
+    URI uri = new URI(BASE_URL + "/documents/" + ID.uuid() + "/content");
+
+    // when
+    HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri)
+        .header("Authorization", "invalid").header("Accept", "application/octet-stream").build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.FORBIDDEN.code(), get.statusCode());
+  }
+
+  /**
+   * Test uploading and streaming binary document content larger than the aggregated request
+   * limit, binary content is streamed without an Accept header.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testDocumentContentStreaming04() throws Exception {
+    // given
+    final int size = 6 * 1024 * 1024;
+    AddDocumentRequest req = new AddDocumentRequest().path("large.bin").content("test")
+        .contentType("application/octet-stream");
+    String documentId = this.documentsApi.addDocument(req, null, null).getDocumentId();
+    waitForDocumentContent(this.apiClient, null, documentId);
+
+    byte[] content = new byte[size];
+    for (int i = 0; i < size; i++) {
+      content[i] = (byte) i;
+    }
+
+    HttpClient client = HttpClient.newHttpClient();
+    URI uri = new URI(BASE_URL + "/documents/" + documentId + "/content");
+
+    // when
+    HttpResponse<String> put = client.send(
+        HttpRequest.newBuilder(uri).header("Authorization", NettyExtension.API_KEY)
+            .header("Content-Type", "application/octet-stream")
+            .PUT(BodyPublishers.ofByteArray(content)).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    HttpResponse<byte[]> get = client.send(
+        HttpRequest.newBuilder(uri).header("Authorization", NettyExtension.API_KEY).build(),
+        HttpResponse.BodyHandlers.ofByteArray());
+
+    // then
+    assertEquals(HttpResponseStatus.OK.code(), put.statusCode());
+    assertEquals(HttpResponseStatus.OK.code(), get.statusCode());
+    assertEquals("application/octet-stream", get.headers().firstValue("content-type").get());
+    assertArrayEquals(content, get.body());
+  }
+
+  /**
+   * Test uploading document content to a missing document and with an invalid Authorization.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testDocumentContentStreaming05() throws Exception {
+    // given
+    HttpClient client = HttpClient.newHttpClient();
+    URI uri = new URI(BASE_URL + "/documents/" + ID.uuid() + "/content");
+
+    // when
+    HttpResponse<String> missing = client.send(
+        HttpRequest.newBuilder(uri).header("Authorization", NettyExtension.API_KEY)
+            .PUT(BodyPublishers.ofString("test")).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    HttpResponse<String> forbidden = client.send(HttpRequest.newBuilder(uri)
+        .header("Authorization", "invalid").PUT(BodyPublishers.ofString("test")).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.NOT_FOUND.code(), missing.statusCode());
+    assertEquals(HttpResponseStatus.FORBIDDEN.code(), forbidden.statusCode());
+  }
+
   /**
    * Test get documents by date.
    * 
@@ -286,6 +472,37 @@ public class HttpServerTest {
         ((List<String>) results.get("modules")).stream().sorted().collect(Collectors.joining(",")));
   }
 
+  /**
+   * Test /version over cleartext HTTP/2 and HTTP/1.1 keep-alive.
+   *
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIME)
+  void testVersionsProtocols() throws Exception {
+    for (HttpClient.Version version : List.of(HttpClient.Version.HTTP_2,
+        HttpClient.Version.HTTP_1_1)) {
+
+      // given
+      HttpClient client = HttpClient.newBuilder().version(version).build();
+      HttpRequest request = HttpRequest.newBuilder()
+          .header("Authorization", NettyExtension.API_KEY).uri(new URI(BASE_URL + "/version"))
+          .build();
+
+      for (int i = 0; i < 2; i++) {
+
+        // when
+        HttpResponse<String> response =
+            client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // then
+        assertEquals(HttpResponseStatus.OK.code(), response.statusCode());
+        assertEquals(version, response.version());
+        assertEquals("1.13", this.gson.fromJson(response.body(), Map.class).get("version"));
+      }
+    }
+  }
+
   /**
    * Test Options.
    * 
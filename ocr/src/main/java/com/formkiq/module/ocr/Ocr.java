@@ -25,7 +25,6 @@ package com.formkiq.module.ocr;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -45,8 +44,6 @@ public class Ocr implements DynamodbRecord<Ocr>, DbKeys {
   private boolean addPdfDetectedCharactersAsText = false;
   /** Content Type. */
   private String contentType;
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private final SimpleDateFormat df = DateUtil.getIsoDateFormatter();
   /** Document Id. */
   private String documentId;
   /** {@link OcrEngine}. */
@@ -159,7 +156,7 @@ public class Ocr implements DynamodbRecord<Ocr>, DbKeys {
 
     addS(pkvalues, "documentId", documentId());
 
-    String fulldate = this.df.format(new Date());
+    String fulldate = DateUtil.formatIsoDate(new Date());
     addS(pkvalues, "insertedDate", fulldate);
     addS(pkvalues, "contentType", contentType());
     addS(pkvalues, "userId", userId());
@@ -206,7 +203,8 @@ public class Ocr implements DynamodbRecord<Ocr>, DbKeys {
 
     if (attrs.containsKey("insertedDate")) {
       try {
-        ocr = ocr.insertedDate(this.df.parse(ss(attrs, "insertedDate")));
+        ocr = ocr.insertedDate(
+            DateUtil.parseIsoDate(ss(attrs, "insertedDate")));
       } catch (ParseException e) {
         // ignore
       }
@@ -68,6 +68,17 @@ public interface TypeSenseService {
   HttpResponse<String> addOrUpdateDocument(String siteId, String documentId,
       Map<String, Object> data) throws IOException;
 
+  /**
+   * Add or Update multiple Typesense Documents using the bulk import endpoint.
+   *
+   * @param siteId {@link String}
+   * @param documents {@link Map} of Document Id to data
+   * @return {@link Map} of Document Id to {@link TypeSenseImportStatus}
+   * @throws IOException IOException
+   */
+  Map<String, TypeSenseImportStatus> addOrUpdateDocuments(String siteId,
+      Map<String, Map<String, Object>> documents) throws IOException;
+
   /**
    * Delete Document.
    * 
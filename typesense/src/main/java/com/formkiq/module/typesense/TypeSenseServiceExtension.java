@@ -23,6 +23,7 @@
  */
 package com.formkiq.module.typesense;
 
+import com.formkiq.module.httpsigv4.PayloadSigning;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
@@ -43,13 +44,36 @@ public class TypeSenseServiceExtension implements AwsServiceExtension<TypeSenseS
    */
   public TypeSenseServiceExtension() {}
 
+  private int getInteger(final AwsServiceCache awsServiceCache, final String key,
+      final int defaultValue) {
+    String value = awsServiceCache.environment(key);
+    return value != null && !value.isBlank() ? Integer.parseInt(value) : defaultValue;
+  }
+
   @Override
   public TypeSenseService loadService(final AwsServiceCache awsServiceCache) {
 
     if (this.service == null) {
       AwsCredentials credentials = awsServiceCache.getExtension(AwsCredentials.class);
-      this.service = new TypeSenseServiceImpl(awsServiceCache.environment("TYPESENSE_HOST"),
-          awsServiceCache.environment("TYPESENSE_API_KEY"), awsServiceCache.region(), credentials);
+
+      // bulk imports are streamed without hashing them first when the endpoint accepts it
+      PayloadSigning signing =
+          "true".equals(awsServiceCache.environment("TYPESENSE_UNSIGNED_PAYLOAD"))
+              ? PayloadSigning.UNSIGNED
+              : PayloadSigning.SIGNED;
+
+      TypeSenseServiceImpl impl =
+          new TypeSenseServiceImpl(awsServiceCache.environment("TYPESENSE_HOST"),
+              awsServiceCache.environment("TYPESENSE_API_KEY"), awsServiceCache.region(),
+              credentials, signing);
+
+      impl.setImportLimits(
+          getInteger(awsServiceCache, "TYPESENSE_IMPORT_BATCH_SIZE",
+              TypeSenseServiceImpl.DEFAULT_IMPORT_BATCH_SIZE),
+          getInteger(awsServiceCache, "TYPESENSE_IMPORT_MAX_BYTES",
+              TypeSenseServiceImpl.DEFAULT_IMPORT_MAX_BYTES));
+
+      this.service = impl;
     }
 
     return this.service;
@@ -26,23 +26,36 @@ package com.formkiq.module.typesense;
 import static com.formkiq.module.http.HttpResponseStatus.is2XX;
 import static com.formkiq.module.http.HttpResponseStatus.is404;
 import static com.formkiq.module.http.HttpResponseStatus.is409;
-import static com.formkiq.module.http.HttpResponseStatus.is429;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.URLEncoder;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import com.formkiq.module.http.HttpHeaders;
 import com.formkiq.module.http.HttpService;
 import com.formkiq.module.http.JsonService;
 import com.formkiq.module.http.JsonServiceGson;
 import com.formkiq.module.httpsigv4.HttpServiceSigv4;
+import com.formkiq.module.httpsigv4.PayloadSigning;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.regions.Region;
 
@@ -53,12 +66,34 @@ import software.amazon.awssdk.regions.Region;
  */
 public final class TypeSenseServiceImpl implements TypeSenseService {
 
+  /** Default maximum number of documents per import request. */
+  public static final int DEFAULT_IMPORT_BATCH_SIZE = 100;
+  /** Default maximum size in bytes of an import request. */
+  public static final int DEFAULT_IMPORT_MAX_BYTES = 4 * 1024 * 1024;
+  /** Maximum number of attempts for a failed import line. */
+  private static final int MAX_IMPORT_ATTEMPTS = 3;
+  /** Delay between import attempts. */
+  private static final long IMPORT_RETRY_DELAY_MILLIS = 200;
+  /** 409 Conflict Status Code. */
+  private static final int STATUS_CONFLICT = 409;
+  /** 429 Too Many Requests Status Code. */
+  private static final int STATUS_TOO_MANY_REQUESTS = 429;
+  /** 500 Internal Server Error Status Code. */
+  private static final int STATUS_SERVER_ERROR = 500;
+
   /** {@link Map}. */
   private Map<String, String> additionalHeaders = Collections.emptyMap();
   /** {@link String}. */
   private String apiKey;
+  /** Collections known to exist, completes once the collection has been created. */
+  private final ConcurrentMap<String, CompletableFuture<Void>> collections =
+      new ConcurrentHashMap<>();
   /** {@link String}. */
   private String host;
+  /** Maximum number of documents per import request. */
+  private int importBatchSize = DEFAULT_IMPORT_BATCH_SIZE;
+  /** Maximum size in bytes of an import request. */
+  private int importMaxBytes = DEFAULT_IMPORT_MAX_BYTES;
   /** {@link JsonService}. */
   private JsonService json = new JsonServiceGson();
   /** {@link HttpService}. */
@@ -74,12 +109,38 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
    */
   public TypeSenseServiceImpl(final String hostAddress, final String typeSenseApiKey,
       final Region region, final AwsCredentials awsCredentials) {
+    this(hostAddress, typeSenseApiKey, region, awsCredentials, PayloadSigning.SIGNED);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param hostAddress {@link String}
+   * @param typeSenseApiKey {@link String}
+   * @param region {@link Region}
+   * @param awsCredentials {@link AwsCredentials}
+   * @param signing {@link PayloadSigning}
+   */
+  public TypeSenseServiceImpl(final String hostAddress, final String typeSenseApiKey,
+      final Region region, final AwsCredentials awsCredentials, final PayloadSigning signing) {
+    this(hostAddress, typeSenseApiKey, new HttpServiceSigv4(region, awsCredentials, signing));
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param hostAddress {@link String}
+   * @param typeSenseApiKey {@link String}
+   * @param httpService {@link HttpService}
+   */
+  TypeSenseServiceImpl(final String hostAddress, final String typeSenseApiKey,
+      final HttpService httpService) {
 
     if (hostAddress == null || typeSenseApiKey == null) {
       throw new IllegalArgumentException();
     }
 
-    this.service = new HttpServiceSigv4(region, awsCredentials);
+    this.service = httpService;
     this.host = hostAddress;
     this.apiKey = typeSenseApiKey;
   }
@@ -111,9 +172,6 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
   public HttpResponse<String> addDocument(final String siteId, final String documentId,
       final Map<String, Object> data) throws IOException {
 
-    Map<String, Object> payload = new HashMap<>(data);
-    payload.put("id", documentId);
-    payload.remove("documentId");
     String site = getCollectionName(siteId);
 
     String url =
@@ -121,8 +179,8 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
 
     HttpHeaders headers = getHeader();
 
-    HttpResponse<String> response =
-        this.service.post(url, Optional.of(headers), Optional.empty(), this.json.toJson(payload));
+    HttpResponse<String> response = this.service.post(url, Optional.of(headers), Optional.empty(),
+        toDocumentJson(documentId, data));
 
     return response;
   }
@@ -131,38 +189,79 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
   public HttpResponse<String> addOrUpdateDocument(final String siteId, final String documentId,
       final Map<String, Object> data) throws IOException {
 
-    HttpResponse<String> response = addDocument(siteId, documentId, data);
+    String site = getCollectionName(siteId);
+    String url = String.format("%s/collections/%s/documents", this.host, encode(site));
+    byte[] payload = toDocumentJson(documentId, data).getBytes(StandardCharsets.UTF_8);
+
+    HttpResponse<String> response =
+        postToCollection(siteId, url, Map.of(), () -> new ByteArrayInputStream(payload));
+
+    // an existing document is partially updated, the request method tells callers which it was
+    if (is409(response)) {
+      response = updateDocument(siteId, documentId, data);
+    }
 
     if (!is2XX(response)) {
+      throw new IOException(response.body());
+    }
 
-      if (is404(response)) {
+    return response;
+  }
 
-        response = addCollection(siteId);
+  @Override
+  public Map<String, TypeSenseImportStatus> addOrUpdateDocuments(final String siteId,
+      final Map<String, Map<String, Object>> documents) throws IOException {
 
-        if (!is2XX(response)) {
-          throw new IOException(response.body());
-        }
+    Map<String, String> lines = new LinkedHashMap<>();
+    for (Map.Entry<String, Map<String, Object>> e : documents.entrySet()) {
+      lines.put(e.getKey(), toDocumentJson(e.getKey(), e.getValue()));
+    }
 
-        response = addDocument(siteId, documentId, data);
+    Map<String, TypeSenseImportStatus> results = new HashMap<>();
 
-        if (!is2XX(response)) {
-          throw new IOException(response.body());
-        }
+    // documents that already exist fail 'create' with a 409 and are merged with 'emplace', the
+    // bulk form of the PATCH addOrUpdateDocument falls back to. A single 'emplace' pass would not
+    // report whether a document was added or updated.
+    Map<String, String> conflicts =
+        importDocuments(siteId, "create", lines, TypeSenseImportStatus.ADDED, results);
+
+    importDocuments(siteId, "emplace", conflicts, TypeSenseImportStatus.UPDATED, results);
+
+    return results;
+  }
+
+  /**
+   * Create the Collection once per process, concurrent callers wait for the same request.
+   * 
+   * @param siteId {@link String}
+   * @throws IOException IOException
+   */
+  private void createCollection(final String siteId) throws IOException {
 
-      } else if (is409(response) || is429(response)) {
+    String site = getCollectionName(siteId);
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    CompletableFuture<Void> existing = this.collections.putIfAbsent(site, future);
+
+    if (existing == null) {
 
-        response = updateDocument(siteId, documentId, data);
+      try {
 
-        if (!is2XX(response)) {
+        HttpResponse<String> response = addCollection(siteId);
+        if (!is2XX(response) && !is409(response)) {
           throw new IOException(response.body());
         }
 
-      } else {
-        throw new IOException(response.body());
+        future.complete(null);
+
+      } catch (IOException | RuntimeException e) {
+        this.collections.remove(site, future);
+        future.completeExceptionally(e);
+        throw e;
       }
-    }
 
-    return response;
+    } else {
+      waitFor(existing);
+    }
   }
 
   @Override
@@ -219,6 +318,198 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
     return headers;
   }
 
+  /**
+   * Get the status code of an import line result.
+   * 
+   * @param result {@link Map}
+   * @return {@link Integer}
+   */
+  private Integer getImportCode(final Map<String, Object> result) {
+    Object code = result.get("code");
+    return code instanceof Number ? Integer.valueOf(((Number) code).intValue()) : null;
+  }
+
+  /**
+   * Get the result of an import line, missing results are treated as retryable failures.
+   * 
+   * @param lineResults {@link List}
+   * @param index int
+   * @return {@link Map}
+   */
+  private Map<String, Object> getImportResult(final List<Map<String, Object>> lineResults,
+      final int index) {
+    return index < lineResults.size() ? lineResults.get(index) : Collections.emptyMap();
+  }
+
+  /**
+   * Import Documents, retrying only the lines that failed with a retryable error.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link String}
+   * @param lines {@link Map} of Document Id to JSON line
+   * @param successStatus {@link TypeSenseImportStatus}
+   * @param results {@link Map}
+   * @return {@link Map} of lines that failed with a conflict
+   * @throws IOException IOException
+   */
+  private Map<String, String> importDocuments(final String siteId, final String action,
+      final Map<String, String> lines, final TypeSenseImportStatus successStatus,
+      final Map<String, TypeSenseImportStatus> results) throws IOException {
+
+    Map<String, String> conflicts = new LinkedHashMap<>();
+    Map<String, String> pending = lines;
+
+    for (int attempt = 1; !pending.isEmpty(); attempt++) {
+
+      if (attempt > 1) {
+        sleep(IMPORT_RETRY_DELAY_MILLIS * (attempt - 1));
+      }
+
+      Map<String, String> retry = new LinkedHashMap<>();
+
+      for (List<String> batch : toBatches(pending)) {
+
+        List<Map<String, Object>> lineResults = importLines(siteId, action, batch, pending);
+
+        for (int i = 0; i < batch.size(); i++) {
+
+          String documentId = batch.get(i);
+          Map<String, Object> result = getImportResult(lineResults, i);
+          Integer code = getImportCode(result);
+
+          if (Boolean.TRUE.equals(result.get("success"))) {
+            results.put(documentId, successStatus);
+          } else if (isConflict(action, code)) {
+            conflicts.put(documentId, pending.get(documentId));
+          } else if (isRetryable(code) && attempt < MAX_IMPORT_ATTEMPTS) {
+            retry.put(documentId, pending.get(documentId));
+          } else {
+            results.put(documentId, TypeSenseImportStatus.FAILED);
+          }
+        }
+      }
+
+      pending = retry;
+    }
+
+    return conflicts;
+  }
+
+  /**
+   * Send a JSONL import request.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link String}
+   * @param documentIds {@link List} {@link String}
+   * @param lines {@link Map} of Document Id to JSON line
+   * @return {@link List} of per line results
+   * @throws IOException IOException
+   */
+  private List<Map<String, Object>> importLines(final String siteId, final String action,
+      final List<String> documentIds, final Map<String, String> lines) throws IOException {
+
+    String site = getCollectionName(siteId);
+    String url = String.format("%s/collections/%s/documents/import", this.host, encode(site));
+
+    // the JSONL body is streamed line by line instead of being joined into one payload
+    HttpResponse<String> response = postToCollection(siteId, url, Map.of("action", action),
+        () -> toJsonLines(documentIds, lines));
+
+    List<Map<String, Object>> results = new ArrayList<>();
+
+    if (is2XX(response)) {
+
+      for (String line : response.body().split("\n")) {
+        if (!line.isBlank()) {
+          results.add(this.json.fromJsonToMap(line));
+        }
+      }
+
+    } else {
+      Map<String, Object> failed =
+          Map.of("success", Boolean.FALSE, "code", Integer.valueOf(response.statusCode()));
+      documentIds.forEach(id -> results.add(failed));
+    }
+
+    return results;
+  }
+
+  /**
+   * Is a failed import line an existing document that can be updated instead.
+   * 
+   * @param action {@link String}
+   * @param code {@link Integer}
+   * @return boolean
+   */
+  private boolean isConflict(final String action, final Integer code) {
+    return "create".equals(action) && code != null && code.intValue() == STATUS_CONFLICT;
+  }
+
+  /**
+   * Is a failed import line retryable.
+   * 
+   * @param code {@link Integer}
+   * @return boolean
+   */
+  private boolean isRetryable(final Integer code) {
+    return code == null || code.intValue() == STATUS_TOO_MANY_REQUESTS
+        || code.intValue() >= STATUS_SERVER_ERROR;
+  }
+
+  /**
+   * POST a streamed request body.
+   * 
+   * @param url {@link String}
+   * @param parameters {@link Map}
+   * @param payload {@link Supplier} that opens a new {@link InputStream} of the request body
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  private HttpResponse<String> post(final String url, final Map<String, String> parameters,
+      final Supplier<InputStream> payload) throws IOException {
+    return waitFor(this.service.sendAsync("POST", url, Optional.of(getHeader()),
+        Optional.of(parameters), Optional.of(payload), BodyHandlers.ofString()));
+  }
+
+  /**
+   * POST to a Collection, creating the Collection the first time it is not found.
+   * 
+   * @param siteId {@link String}
+   * @param url {@link String}
+   * @param parameters {@link Map}
+   * @param payload {@link Supplier} that opens a new {@link InputStream} of the request body
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  private HttpResponse<String> postToCollection(final String siteId, final String url,
+      final Map<String, String> parameters, final Supplier<InputStream> payload)
+      throws IOException {
+
+    String site = getCollectionName(siteId);
+    CompletableFuture<Void> known = this.collections.get(site);
+    if (known != null) {
+      waitFor(known);
+    }
+
+    HttpResponse<String> response = post(url, parameters, payload);
+
+    if (is404(response)) {
+
+      // collection is missing or was deleted since it was registered
+      if (known != null) {
+        this.collections.remove(site, known);
+      }
+
+      createCollection(siteId);
+      response = post(url, parameters, payload);
+
+    } else if (known == null && is2XX(response)) {
+      this.collections.putIfAbsent(site, CompletableFuture.completedFuture(null));
+    }
+
+    return response;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public List<String> searchFulltext(final String siteId, final String text, final int maxResults)
@@ -255,13 +546,114 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
     return list;
   }
 
-  @Override
-  public HttpResponse<String> updateDocument(final String siteId, final String documentId,
-      final Map<String, Object> data) throws IOException {
+  /**
+   * Set the limits of a bulk import request.
+   * 
+   * @param batchSize int maximum number of documents per request
+   * @param maxBytes int maximum size in bytes of a request
+   * @return {@link TypeSenseServiceImpl}
+   */
+  public TypeSenseServiceImpl setImportLimits(final int batchSize, final int maxBytes) {
+    if (batchSize < 1 || maxBytes < 1) {
+      throw new IllegalArgumentException("import limits must be greater than 0");
+    }
+
+    this.importBatchSize = batchSize;
+    this.importMaxBytes = maxBytes;
+    return this;
+  }
+
+  private void sleep(final long millis) throws IOException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Split Document Ids into batches limited by number of documents and request size.
+   * 
+   * @param lines {@link Map} of Document Id to JSON line
+   * @return {@link List}
+   */
+  private List<List<String>> toBatches(final Map<String, String> lines) {
+
+    List<List<String>> batches = new ArrayList<>();
+    List<String> batch = new ArrayList<>();
+    long bytes = 0;
 
+    for (Map.Entry<String, String> e : lines.entrySet()) {
+
+      int length = e.getValue().getBytes(StandardCharsets.UTF_8).length + 1;
+
+      if (!batch.isEmpty()
+          && (batch.size() >= this.importBatchSize || bytes + length > this.importMaxBytes)) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        bytes = 0;
+      }
+
+      batch.add(e.getKey());
+      bytes += length;
+    }
+
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+
+    return batches;
+  }
+
+  /**
+   * Convert Document data to Typesense JSON.
+   * 
+   * @param documentId {@link String}
+   * @param data {@link Map}
+   * @return {@link String}
+   */
+  private String toDocumentJson(final String documentId, final Map<String, Object> data) {
     Map<String, Object> payload = new HashMap<>(data);
     payload.put("id", documentId);
     payload.remove("documentId");
+    return this.json.toJson(payload);
+  }
+
+  /**
+   * Open a JSONL {@link InputStream}, each line is encoded only when it is read.
+   * 
+   * @param documentIds {@link List} {@link String}
+   * @param lines {@link Map} of Document Id to JSON line
+   * @return {@link InputStream}
+   */
+  private InputStream toJsonLines(final List<String> documentIds,
+      final Map<String, String> lines) {
+
+    Iterator<String> ids = documentIds.iterator();
+
+    return new SequenceInputStream(new Enumeration<InputStream>() {
+
+      /** Whether the first line has been read. */
+      private boolean started;
+
+      @Override
+      public boolean hasMoreElements() {
+        return ids.hasNext();
+      }
+
+      @Override
+      public InputStream nextElement() {
+        String line = (this.started ? "\n" : "") + lines.get(ids.next());
+        this.started = true;
+        return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+      }
+    });
+  }
+
+  @Override
+  public HttpResponse<String> updateDocument(final String siteId, final String documentId,
+      final Map<String, Object> data) throws IOException {
 
     String site = getCollectionName(siteId);
 
@@ -270,12 +662,23 @@ public final class TypeSenseServiceImpl implements TypeSenseService {
 
     HttpHeaders headers = getHeader();
 
-    HttpResponse<String> response =
-        this.service.patch(url, Optional.of(headers), Optional.empty(), this.json.toJson(payload));
+    HttpResponse<String> response = this.service.patch(url, Optional.of(headers),
+        Optional.empty(), toDocumentJson(documentId, data));
 
     return response;
   }
 
+  private <T> T waitFor(final CompletableFuture<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
   @Override
   public HttpResponse<String> isHealthy() throws IOException {
     String url = String.format("%s/health", this.host);
@@ -24,16 +24,29 @@
 package com.formkiq.module.typesense;
 
 import static com.formkiq.testutils.aws.TypesenseExtension.API_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import com.formkiq.module.http.HttpHeaders;
+import com.formkiq.module.http.HttpServiceJdk11;
 import com.formkiq.testutils.aws.TypesenseExtension;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
@@ -50,6 +63,8 @@ class TypeSenseServiceImplTest {
   /** {@link TypesenseExtension}. */
   @RegisterExtension
   static TypesenseExtension typesenseExtension = new TypesenseExtension();
+  /** {@link CollectionCountingHttpService}. */
+  private CollectionCountingHttpService countingService;
   /** {@link TypeSenseService}. */
   private TypeSenseService service;
   /** {@link AwsCredentials}. */
@@ -60,6 +75,11 @@ class TypeSenseServiceImplTest {
     this.service =
         new TypeSenseServiceImpl("http://localhost:" + typesenseExtension.getFirstMappedPort(),
             API_KEY, Region.US_EAST_1, this.credentials);
+    this.countingService = new CollectionCountingHttpService();
+  }
+
+  private String getHost() {
+    return "http://localhost:" + typesenseExtension.getFirstMappedPort();
   }
 
   /**
@@ -102,6 +122,157 @@ class TypeSenseServiceImplTest {
     }
   }
 
+  /**
+   * Add then update a document.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAddOrUpdateDocument01() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    String documentId = UUID.randomUUID().toString();
+
+    // when
+    HttpResponse<String> added =
+        this.service.addOrUpdateDocument(siteId, documentId, Map.of("path", "/a.pdf"));
+    this.service.updateDocument(siteId, documentId, Map.of("content", "some content"));
+    HttpResponse<String> updated =
+        this.service.addOrUpdateDocument(siteId, documentId, Map.of("path", "/b.pdf"));
+
+    // then
+    assertEquals("POST", added.request().method());
+    assertEquals("PATCH", updated.request().method());
+
+    String body = this.service.getDocument(siteId, documentId).body();
+    assertTrue(body.contains("/b.pdf"));
+    assertTrue(body.contains("some content"));
+  }
+
+  /**
+   * Concurrent writes to a new site create the collection once.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAddOrUpdateDocument02() throws Exception {
+    // given
+    final int count = 8;
+    final int maxResults = 10;
+    String siteId = UUID.randomUUID().toString();
+    String text = UUID.randomUUID().toString();
+    TypeSenseService typesense =
+        new TypeSenseServiceImpl(getHost(), API_KEY, this.countingService);
+
+    List<Callable<HttpResponse<String>>> tasks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> data = Map.of("path", "/" + text + "/" + i + ".pdf");
+      tasks.add(() -> typesense.addOrUpdateDocument(siteId, UUID.randomUUID().toString(), data));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(count);
+
+    try {
+
+      // when
+      List<Future<HttpResponse<String>>> futures = executor.invokeAll(tasks);
+
+      // then
+      for (Future<HttpResponse<String>> f : futures) {
+        assertEquals("POST", f.get().request().method());
+      }
+
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(1, this.countingService.getCollectionCreates());
+    assertEquals(count, typesense.searchFulltext(siteId, text, maxResults).size());
+  }
+
+  /**
+   * A registered collection that is deleted is created again.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAddOrUpdateDocument03() throws Exception {
+    // given
+    String siteId = UUID.randomUUID().toString();
+    TypeSenseService typesense =
+        new TypeSenseServiceImpl(getHost(), API_KEY, this.countingService);
+
+    typesense.addOrUpdateDocument(siteId, UUID.randomUUID().toString(), Map.of("path", "/a"));
+    typesense.addOrUpdateDocument(siteId, UUID.randomUUID().toString(), Map.of("path", "/b"));
+    assertEquals(1, this.countingService.getCollectionCreates());
+
+    this.countingService.delete(getHost() + "/collections/" + siteId,
+        Optional.of(new HttpHeaders().add("X-TYPESENSE-API-KEY", API_KEY)), Optional.empty());
+
+    String documentId = UUID.randomUUID().toString();
+
+    // when
+    HttpResponse<String> response =
+        typesense.addOrUpdateDocument(siteId, documentId, Map.of("path", "/c"));
+
+    // then
+    assertEquals("POST", response.request().method());
+    assertEquals(2, this.countingService.getCollectionCreates());
+    assertEquals("200", String.valueOf(typesense.getDocument(siteId, documentId).statusCode()));
+  }
+
+  /**
+   * Add / Update multiple documents.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testAddOrUpdateDocuments01() throws Exception {
+    // given
+    final int count = 5;
+    final int maxResults = 10;
+    ((TypeSenseServiceImpl) this.service).setImportLimits(2, Integer.MAX_VALUE);
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      String text = UUID.randomUUID().toString();
+      Map<String, Map<String, Object>> documents = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        documents.put(UUID.randomUUID().toString(),
+            Map.of("path", "/" + text + "/" + i + ".pdf", "metadata#", ""));
+      }
+
+      // when
+      Map<String, TypeSenseImportStatus> results =
+          this.service.addOrUpdateDocuments(siteId, documents);
+
+      // then
+      assertEquals(count, results.size());
+      assertTrue(results.values().stream().allMatch(s -> TypeSenseImportStatus.ADDED.equals(s)));
+      assertEquals(count, this.service.searchFulltext(siteId, text, maxResults).size());
+
+      // given
+      String documentId = documents.keySet().iterator().next();
+      this.service.updateDocument(siteId, documentId, Map.of("content", "some content"));
+      documents.put(documentId, Map.of("path", "/other/0.pdf"));
+      documents.put(UUID.randomUUID().toString(), Map.of("path", "/" + text + "/new.pdf"));
+
+      // when
+      results = this.service.addOrUpdateDocuments(siteId, documents);
+
+      // then
+      assertEquals(count + 1, results.size());
+      assertEquals(TypeSenseImportStatus.UPDATED, results.get(documentId));
+      assertEquals(count, results.values().stream()
+          .filter(s -> TypeSenseImportStatus.UPDATED.equals(s)).count());
+      assertEquals(count, this.service.searchFulltext(siteId, text, maxResults).size());
+
+      String body = this.service.getDocument(siteId, documentId).body();
+      assertTrue(body.contains("/other/0.pdf"));
+      assertTrue(body.contains("some content"));
+    }
+  }
+
   /**
    * Add a document.
    * 
@@ -121,4 +292,29 @@ class TypeSenseServiceImplTest {
       assertTrue(documentIds.isEmpty());
     }
   }
+
+  /**
+   * {@link HttpServiceJdk11} that counts requests creating a collection.
+   */
+  private static final class CollectionCountingHttpService extends HttpServiceJdk11 {
+
+    /** Number of create collection requests. */
+    private final AtomicInteger collectionCreates = new AtomicInteger();
+
+    int getCollectionCreates() {
+      return this.collectionCreates.get();
+    }
+
+    @Override
+    public HttpResponse<String> post(final String url, final Optional<HttpHeaders> headers,
+        final Optional<Map<String, String>> parameters, final String payload)
+        throws IOException {
+
+      if (url.endsWith("/collections")) {
+        this.collectionCreates.incrementAndGet();
+      }
+
+      return super.post(url, headers, parameters, payload);
+    }
+  }
 }